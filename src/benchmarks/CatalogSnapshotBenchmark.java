@@ -0,0 +1,118 @@
+package benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fileio.input.CatalogSnapshot;
+import fileio.input.LibraryCatalog;
+import fileio.input.LibraryInput;
+import fileio.input.audioEntities.PodcastInput;
+import fileio.input.audioEntities.SongInput;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Use this if you want to compare loading the library from library.json (Jackson)
+ * against loading it from its binary snapshot (memory-mapped). Every round loads the
+ * library and reads every song, podcast and username, as a simulation does at start.
+ * Arguments: path of library.json, path of the snapshot to be written,
+ * number of measured rounds (optional).
+ */
+public final class CatalogSnapshotBenchmark {
+    private static final int DEFAULT_ROUNDS = 50;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final double BYTES_PER_KB = 1_024.0;
+
+    /**
+     * for coding style
+     */
+    private CatalogSnapshotBenchmark() {
+    }
+
+    /**
+     * @param args path of library.json, path of the snapshot, number of measured rounds
+     * @throws IOException in case of exceptions to reading / writing
+     */
+    public static void main(final String[] args) throws IOException {
+        File libraryFile = new File(args[0]);
+        File snapshotFile = new File(args[1]);
+        int rounds = DEFAULT_ROUNDS;
+        if (args.length > 2) {
+            rounds = Integer.parseInt(args[2]);
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        CatalogSnapshot.write(objectMapper.readValue(libraryFile, LibraryInput.class),
+                snapshotFile);
+
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            touch(loadJson(objectMapper, libraryFile));
+            touch(CatalogSnapshot.load(snapshotFile));
+        }
+
+        long jsonTotal = 0;
+        long snapshotTotal = 0;
+        // a value computed from the catalogs, so that the work can't be skipped
+        long checksum = 0;
+        for (int round = 0; round < rounds; round++) {
+            long start = System.nanoTime();
+            checksum += touch(loadJson(objectMapper, libraryFile));
+            jsonTotal += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            checksum += touch(CatalogSnapshot.load(snapshotFile));
+            snapshotTotal += System.nanoTime() - start;
+        }
+
+        long usedBefore = usedHeap();
+        LibraryCatalog jsonCatalog = loadJson(objectMapper, libraryFile);
+        checksum += touch(jsonCatalog);
+        long jsonHeap = usedHeap() - usedBefore;
+
+        usedBefore = usedHeap();
+        LibraryCatalog snapshotCatalog = CatalogSnapshot.load(snapshotFile);
+        checksum += touch(snapshotCatalog);
+        long snapshotHeap = usedHeap() - usedBefore;
+
+        // the catalogs are used after the heap is measured, so that they stay reachable
+        System.out.printf("songs: %d / %d, library: %d bytes, snapshot: %d bytes%n",
+                jsonCatalog.getSongs().size(), snapshotCatalog.getSongs().size(),
+                libraryFile.length(), snapshotFile.length());
+        System.out.printf("rounds: %d, checksum: %d%n", rounds, checksum);
+        System.out.printf("jackson:  %.2f ms/load, %.1f KB retained%n",
+                jsonTotal / NANOS_PER_MILLI / rounds, jsonHeap / BYTES_PER_KB);
+        System.out.printf("snapshot: %.2f ms/load, %.1f KB retained%n",
+                snapshotTotal / NANOS_PER_MILLI / rounds, snapshotHeap / BYTES_PER_KB);
+    }
+
+    private static LibraryCatalog loadJson(final ObjectMapper objectMapper, final File file)
+            throws IOException {
+        return new LibraryCatalog(objectMapper.readValue(file, LibraryInput.class));
+    }
+
+    /**
+     * Reads every song, podcast and username of the catalog.
+     *
+     * @param catalog the loaded catalog.
+     * @return the sum of the durations, the tags and the episodes.
+     */
+    private static long touch(final LibraryCatalog catalog) {
+        long sum = 0;
+        for (SongInput song : catalog.getSongs()) {
+            sum += song.getDuration() + song.getTags().size() + song.getLyrics().length();
+        }
+        for (PodcastInput podcast : catalog.getPodcasts()) {
+            sum += podcast.getEpisodes().size();
+        }
+        for (String username : catalog.getUsernames()) {
+            sum += username.length();
+        }
+        return sum;
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
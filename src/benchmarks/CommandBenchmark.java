@@ -0,0 +1,388 @@
+package benchmarks;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import fileio.input.InputCommands;
+import fileio.input.LibraryCatalog;
+import main.SimulationContext;
+import main.commandsHandling.CommandInvoker;
+import users.NormalUser;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+
+/**
+ * Use this if you want to measure the commands that take most of the time of a
+ * simulation, on a synthetic simulation of any size (see WorkloadGenerator). Every
+ * scenario prepares a new simulation, then runs a list of commands and measures only
+ * the ones it is about, with their throughput and the memory they allocate.
+ * Compare the reports of two versions on the same arguments to find regressions.
+ * Arguments (optional): number of songs, users, artists, playlists, measured rounds.
+ */
+public final class CommandBenchmark {
+    private static final int DEFAULT_SONGS = 2_000;
+    private static final int DEFAULT_USERS = 200;
+    private static final int DEFAULT_ARTISTS = 20;
+    private static final int DEFAULT_PLAYLISTS = 100;
+    private static final int DEFAULT_ROUNDS = 5;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final long SEED = 42;
+
+    // the listening done before the statistics scenarios, in commands per user
+    private static final int LISTENING_PER_USER = 20;
+
+    // the commands of each measured scenario, per user
+    private static final int COMMANDS_PER_USER = 10;
+
+    // the time between two playback updates of the same user, in seconds
+    private static final int PLAYBACK_STEP = 45;
+
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final double NANOS_PER_MICRO = 1e3;
+    private static final double BYTES_PER_MEGABYTE = 1024 * 1024;
+
+    // measures the memory allocated by the current thread
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final int numberOfSongs;
+    private final int numberOfUsers;
+    private final int numberOfArtists;
+    private final int numberOfPlaylists;
+    private final LibraryCatalog catalog;
+
+    // the measurements of the current scenario
+    private long operations;
+    private long nanos;
+    private long allocatedBytes;
+
+    private CommandBenchmark(final int numberOfSongs, final int numberOfUsers,
+                             final int numberOfArtists, final int numberOfPlaylists) {
+        this.numberOfSongs = numberOfSongs;
+        this.numberOfUsers = numberOfUsers;
+        this.numberOfArtists = numberOfArtists;
+        this.numberOfPlaylists = numberOfPlaylists;
+        this.catalog = new LibraryCatalog(newGenerator().generateLibrary());
+    }
+
+    /**
+     * @param args number of songs, users, artists, playlists and measured rounds
+     */
+    public static void main(final String[] args) {
+        int[] values = {DEFAULT_SONGS, DEFAULT_USERS, DEFAULT_ARTISTS, DEFAULT_PLAYLISTS,
+            DEFAULT_ROUNDS};
+        for (int i = 0; i < args.length && i < values.length; i++) {
+            values[i] = Integer.parseInt(args[i]);
+        }
+        int rounds = values[values.length - 1];
+
+        CommandBenchmark benchmark = new CommandBenchmark(values[0], values[1], values[2],
+                values[3]);
+        System.out.printf("songs: %d, users: %d, artists: %d, playlists: %d, rounds: %d%n",
+                values[0], values[1], values[2], values[3], rounds);
+        System.out.printf("%-28s %9s %12s %10s %12s %10s%n", "scenario", "ops", "ops/s",
+                "us/op", "bytes/op", "MB/s");
+
+        String[] searches = {"search (song name)", "search (song tags)", "search (album)",
+            "search (artist)", "search (playlist)"};
+        for (int variant = 0; variant < searches.length; variant++) {
+            final int searchVariant = variant;
+            benchmark.run(searches[variant], rounds, "search", false, (generator, user) ->
+                    generator.generateSearch(user, searchVariant));
+        }
+        benchmark.runLoad(rounds);
+        benchmark.run("status", rounds, "status", false, (generator, user) ->
+                generator.command("status", user));
+        benchmark.run("next", rounds, "next", false, (generator, user) ->
+                generator.command("next", user));
+        benchmark.runPlaybackUpdates(rounds);
+        benchmark.run("wrapped", rounds, "wrapped", true, (generator, user) ->
+                generator.command("wrapped", user));
+        for (String top5 : new String[] {"getTop5Songs", "getTop5Playlists", "getTop5Albums",
+            "getTop5Artists"}) {
+            benchmark.run(top5, rounds, top5, true, (generator, user) ->
+                    generator.command(top5, null));
+        }
+        benchmark.runDeleteUser(rounds);
+        benchmark.runEndProgram(rounds);
+        benchmark.runMix(rounds);
+    }
+
+    /**
+     * Creates the command given by a user in a scenario.
+     */
+    private interface ScenarioCommand {
+        InputCommands create(WorkloadGenerator generator, String username);
+    }
+
+    /**
+     * Runs a scenario in which every user gives the same kind of command, several times,
+     * after everybody has loaded a playlist (and, optionally, listened for a while).
+     *
+     * @param name      the name of the scenario.
+     * @param rounds    the number of measured rounds.
+     * @param measured  the name of the measured command.
+     * @param listening true if the users listen to random things before the scenario.
+     * @param scenario  creates the commands of the scenario.
+     */
+    private void run(final String name, final int rounds, final String measured,
+                     final boolean listening, final ScenarioCommand scenario) {
+        for (int round = 0; round < WARMUP_ROUNDS + rounds; round++) {
+            if (round == WARMUP_ROUNDS) {
+                reset();
+            }
+            WorkloadGenerator generator = newGenerator();
+            SimulationContext context = prepare(generator, listening);
+
+            ArrayList<InputCommands> commands = new ArrayList<>();
+            for (int i = 0; i < COMMANDS_PER_USER; i++) {
+                for (int user = 0; user < numberOfUsers; user++) {
+                    commands.add(scenario.create(generator, generator.getUserName(user)));
+                }
+            }
+            if (measured.equals("wrapped")) {
+                addCreatorsWrapped(generator, commands, scenario);
+            }
+            invoke(context, commands, measured);
+        }
+        report(name);
+    }
+
+    /**
+     * Adds the wrapped of the artists and of the hosts, which update the players of all
+     * the users. updateStats doesn't move the last play timestamp of a player, so every
+     * update would play the same seconds again and end the playlists early: the players
+     * are brought up to date by a status first, and the wrapped are all given at the
+     * timestamp of that status.
+     *
+     * @param generator the generator of the scenario.
+     * @param commands  the commands of the scenario.
+     * @param scenario  creates the wrapped commands.
+     */
+    private void addCreatorsWrapped(final WorkloadGenerator generator,
+                                    final ArrayList<InputCommands> commands,
+                                    final ScenarioCommand scenario) {
+        int timestamp = generator.getTimestamp();
+        ArrayList<InputCommands> creatorsCommands = new ArrayList<>();
+        for (int user = 0; user < numberOfUsers; user++) {
+            creatorsCommands.add(generator.command("status", generator.getUserName(user)));
+        }
+        for (int i = 0; i < numberOfArtists; i++) {
+            creatorsCommands.add(scenario.create(generator, generator.getArtistName(i)));
+        }
+        for (int i = 0; i < generator.getNumberOfHosts(); i++) {
+            creatorsCommands.add(scenario.create(generator, generator.getHostName(i)));
+        }
+        for (InputCommands command : creatorsCommands) {
+            command.setTimestamp(timestamp);
+        }
+        commands.addAll(creatorsCommands);
+    }
+
+    /**
+     * Measures load: every user searches a song, selects it and loads it.
+     *
+     * @param rounds the number of measured rounds.
+     */
+    private void runLoad(final int rounds) {
+        for (int round = 0; round < WARMUP_ROUNDS + rounds; round++) {
+            if (round == WARMUP_ROUNDS) {
+                reset();
+            }
+            WorkloadGenerator generator = newGenerator();
+            SimulationContext context = prepare(generator, false);
+
+            ArrayList<InputCommands> commands = new ArrayList<>();
+            for (int i = 0; i < COMMANDS_PER_USER; i++) {
+                for (int user = 0; user < numberOfUsers; user++) {
+                    String username = generator.getUserName(user);
+                    commands.add(generator.generateSearch(username, 0));
+                    commands.add(generator.generateCommand("select", username));
+                    commands.add(generator.command("load", username));
+                }
+            }
+            invoke(context, commands, "load");
+        }
+        report("load");
+    }
+
+    /**
+     * Measures the playback update of the loaded playlists, called directly: every call
+     * moves the user's playback forward, through the songs of the playlist, and adds up
+     * the listens of the songs that have ended.
+     *
+     * @param rounds the number of measured rounds.
+     */
+    private void runPlaybackUpdates(final int rounds) {
+        for (int round = 0; round < WARMUP_ROUNDS + rounds; round++) {
+            if (round == WARMUP_ROUNDS) {
+                reset();
+            }
+            WorkloadGenerator generator = newGenerator();
+            SimulationContext context = prepare(generator, false);
+            int timestamp = generator.getTimestamp();
+
+            for (int i = 0; i < COMMANDS_PER_USER; i++) {
+                timestamp += PLAYBACK_STEP;
+                for (NormalUser user : context.getNormalUserList()) {
+                    if (user.getLastLoadedPlaylist() == null) {
+                        continue;
+                    }
+                    long startBytes = THREADS.getCurrentThreadAllocatedBytes();
+                    long start = System.nanoTime();
+                    user.isPlaylistStillLoaded(timestamp);
+                    nanos += System.nanoTime() - start;
+                    allocatedBytes += THREADS.getCurrentThreadAllocatedBytes() - startBytes;
+                    operations++;
+                }
+            }
+        }
+        report("playback update (playlist)");
+    }
+
+    /**
+     * Measures deleteUser: every normal user is deleted, one after the other.
+     *
+     * @param rounds the number of measured rounds.
+     */
+    private void runDeleteUser(final int rounds) {
+        for (int round = 0; round < WARMUP_ROUNDS + rounds; round++) {
+            if (round == WARMUP_ROUNDS) {
+                reset();
+            }
+            WorkloadGenerator generator = newGenerator();
+            SimulationContext context = prepare(generator, true);
+
+            ArrayList<InputCommands> commands = new ArrayList<>();
+            for (int user = 0; user < numberOfUsers; user++) {
+                commands.add(generator.command("deleteUser", generator.getUserName(user)));
+            }
+            invoke(context, commands, "deleteUser");
+        }
+        report("deleteUser");
+    }
+
+    /**
+     * Measures endProgram, once per simulation, after everybody has listened for a while.
+     *
+     * @param rounds the number of measured rounds.
+     */
+    private void runEndProgram(final int rounds) {
+        for (int round = 0; round < WARMUP_ROUNDS + rounds; round++) {
+            if (round == WARMUP_ROUNDS) {
+                reset();
+            }
+            WorkloadGenerator generator = newGenerator();
+            SimulationContext context = prepare(generator, true);
+            invoke(context, new ArrayList<>(Collections.singletonList(
+                    generator.command("endProgram", null))), "endProgram");
+        }
+        report("endProgram");
+    }
+
+    /**
+     * Measures a random mix of commands, all of them.
+     *
+     * @param rounds the number of measured rounds.
+     */
+    private void runMix(final int rounds) {
+        for (int round = 0; round < WARMUP_ROUNDS + rounds; round++) {
+            if (round == WARMUP_ROUNDS) {
+                reset();
+            }
+            WorkloadGenerator generator = newGenerator();
+            SimulationContext context = prepare(generator, false);
+            invoke(context, generator.generateMix(numberOfUsers * COMMANDS_PER_USER), null);
+        }
+        report("command mix");
+    }
+
+    /**
+     * Creates a simulation with the artists, hosts and playlists of the setup, in which
+     * every user has loaded a playlist.
+     *
+     * @param generator the generator of the scenario.
+     * @param listening true if the users also listen to random things for a while.
+     * @return the prepared simulation.
+     */
+    private SimulationContext prepare(final WorkloadGenerator generator,
+                                      final boolean listening) {
+        SimulationContext context = new SimulationContext(catalog);
+        execute(context, generator.generateSetup());
+        execute(context, generator.generateLoadPlaylists());
+        if (listening) {
+            execute(context, generator.generateMix(numberOfUsers * LISTENING_PER_USER));
+        }
+        return context;
+    }
+
+    /**
+     * Executes commands in a simulation, measuring only the ones with the given name.
+     *
+     * @param context  the simulation.
+     * @param commands the commands, in order.
+     * @param measured the name of the measured commands (null to measure all of them).
+     */
+    private void invoke(final SimulationContext context,
+                        final ArrayList<InputCommands> commands, final String measured) {
+        CommandInvoker invoker = new CommandInvoker(Collections.emptyIterator(), null, context);
+        // the outputs are kept until the end, so that the work can't be skipped
+        ArrayList<ObjectNode> outputs = new ArrayList<>(commands.size());
+        try {
+            for (InputCommands command : commands) {
+                if (measured != null && !measured.equals(command.getCommand())) {
+                    outputs.add(invoker.invokeCommand(command));
+                    continue;
+                }
+                long startBytes = THREADS.getCurrentThreadAllocatedBytes();
+                long start = System.nanoTime();
+                outputs.add(invoker.invokeCommand(command));
+                nanos += System.nanoTime() - start;
+                allocatedBytes += THREADS.getCurrentThreadAllocatedBytes() - startBytes;
+                operations++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Executes commands in a simulation, without measuring them.
+     *
+     * @param context  the simulation.
+     * @param commands the commands, in order.
+     */
+    private static void execute(final SimulationContext context,
+                                final ArrayList<InputCommands> commands) {
+        CommandInvoker invoker = new CommandInvoker(Collections.emptyIterator(), null, context);
+        try {
+            for (InputCommands command : commands) {
+                invoker.invokeCommand(command);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void reset() {
+        operations = 0;
+        nanos = 0;
+        allocatedBytes = 0;
+    }
+
+    private void report(final String name) {
+        double seconds = nanos / NANOS_PER_SECOND;
+        System.out.printf("%-28s %9d %12.0f %10.2f %12.0f %10.1f%n", name, operations,
+                operations / seconds, nanos / NANOS_PER_MICRO / operations,
+                (double) allocatedBytes / operations,
+                allocatedBytes / BYTES_PER_MEGABYTE / seconds);
+        reset();
+    }
+
+    private WorkloadGenerator newGenerator() {
+        return new WorkloadGenerator(SEED, numberOfSongs, numberOfUsers, numberOfArtists,
+                numberOfPlaylists);
+    }
+}
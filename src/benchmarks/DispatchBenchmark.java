@@ -0,0 +1,117 @@
+package benchmarks;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import fileio.input.InputCommands;
+import fileio.input.LibraryCatalog;
+import fileio.input.LibraryInput;
+import main.SimulationContext;
+import main.commandsHandling.CommandFactory;
+import main.commandsHandling.GeneralCommand;
+
+import java.util.ArrayList;
+
+/**
+ * Use this if you want to measure how long it takes to turn an input command
+ * into the command to be executed (without executing it).
+ * Arguments (optional): number of input commands, number of measured rounds.
+ */
+public final class DispatchBenchmark {
+    private static final int DEFAULT_COMMANDS = 100_000;
+    private static final int DEFAULT_ROUNDS = 20;
+    private static final int WARMUP_ROUNDS = 10;
+
+    // every command name accepted by the factory, in the order of the input specification
+    private static final String[] COMMAND_NAMES = {
+        "search", "select", "load", "playPause", "status", "createPlaylist",
+        "addRemoveInPlaylist", "showPlaylists", "like", "showPreferredSongs", "repeat",
+        "shuffle", "switchVisibility", "follow", "getTop5Songs", "getTop5Playlists",
+        "forward", "backward", "next", "prev", "switchConnectionStatus", "getOnlineUsers",
+        "addUser", "addAlbum", "showAlbums", "printCurrentPage", "addEvent", "addMerch",
+        "deleteUser", "getAllUsers", "addPodcast", "addAnnouncement", "removeAnnouncement",
+        "showPodcasts", "removeAlbum", "changePage", "removePodcast", "removeEvent",
+        "getTop5Albums", "getTop5Artists", "wrapped", "endProgram", "buyMerch", "seeMerch",
+        "updateRecommendations", "previousPage", "nextPage", "loadRecommendations",
+        "subscribe", "getNotifications", "buyPremium", "cancelPremium", "adBreak"
+    };
+
+    /**
+     * for coding style
+     */
+    private DispatchBenchmark() {
+    }
+
+    /**
+     * @param args number of input commands and number of measured rounds
+     */
+    public static void main(final String[] args) {
+        int numberOfCommands = DEFAULT_COMMANDS;
+        int rounds = DEFAULT_ROUNDS;
+        if (args.length > 0) {
+            numberOfCommands = Integer.parseInt(args[0]);
+        }
+        if (args.length > 1) {
+            rounds = Integer.parseInt(args[1]);
+        }
+
+        // build the input commands by going round the list of command names
+        ArrayList<InputCommands> inputcommands = new ArrayList<>();
+        for (int i = 0; i < numberOfCommands; i++) {
+            InputCommands inputcommand = new InputCommands();
+            inputcommand.setCommand(COMMAND_NAMES[i % COMMAND_NAMES.length]);
+            inputcommand.setUsername("user" + (i % 10));
+            inputcommand.setTimestamp(i);
+            inputcommand.setItemNumber(1);
+            inputcommand.setPlaylistId(1);
+            inputcommand.setSeed(i);
+            inputcommand.setAge(i % 100);
+            inputcommand.setReleaseYear(2000);
+            inputcommand.setPrice(i % 100);
+            inputcommand.setSongs(new ArrayList<>());
+            inputcommands.add(inputcommand);
+        }
+        // an empty simulation, as the commands are only created, not executed
+        LibraryInput library = new LibraryInput();
+        library.setSongs(new ArrayList<>());
+        library.setPodcasts(new ArrayList<>());
+        library.setUsers(new ArrayList<>());
+        SimulationContext context = new SimulationContext(new LibraryCatalog(library));
+
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            dispatchAll(inputcommands, context);
+        }
+
+        long best = Long.MAX_VALUE;
+        long total = 0;
+        for (int round = 0; round < rounds; round++) {
+            long start = System.nanoTime();
+            dispatchAll(inputcommands, context);
+            long elapsed = System.nanoTime() - start;
+            best = Math.min(best, elapsed);
+            total += elapsed;
+        }
+
+        System.out.printf("commands: %d, rounds: %d%n", numberOfCommands, rounds);
+        System.out.printf("dispatch: %.1f ns/command (mean), %.1f ns/command (best)%n",
+                (double) total / rounds / numberOfCommands, (double) best / numberOfCommands);
+    }
+
+    /**
+     * Turns every input command into the command to be executed, once.
+     *
+     * @param inputcommands The input commands.
+     * @param context       The simulation the commands belong to.
+     * @return The number of commands that were created, so that the work can't be skipped.
+     */
+    private static int dispatchAll(final ArrayList<InputCommands> inputcommands,
+                                   final SimulationContext context) {
+        int created = 0;
+        for (InputCommands inputcommand : inputcommands) {
+            GeneralCommand command = CommandFactory.createCommand(inputcommand, context,
+                    JsonNodeFactory.instance.objectNode());
+            if (command != null) {
+                created++;
+            }
+        }
+        return created;
+    }
+}
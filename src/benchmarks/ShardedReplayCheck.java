@@ -0,0 +1,129 @@
+package benchmarks;
+
+import checker.CheckerConstants;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fileio.input.CommandReader;
+import fileio.output.OutputWriter;
+import main.Main;
+import main.SimulationContext;
+import main.commandsHandling.CommandInvoker;
+import main.commandsHandling.ShardedCommandInvoker;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Use this if you want to check that the sharded replay (-Dglobalwaves.replayShards)
+ * writes exactly the same outputs as the serial one. Every input file is replayed both
+ * ways, and the two outputs are compared byte by byte.
+ * Arguments (optional): number of shards, number of rounds (more rounds give the
+ * threads more chances to interleave differently).
+ * The exit status is not zero if any output is different, so it can gate a build.
+ * Test runs the same check on the input file it is given.
+ */
+public final class ShardedReplayCheck {
+    public static final int DEFAULT_SHARDS = 4;
+    public static final int DEFAULT_ROUNDS = 3;
+
+    /**
+     * for coding style
+     */
+    private ShardedReplayCheck() {
+    }
+
+    /**
+     * @param args number of shards and number of rounds
+     * @throws IOException in case of exceptions to reading
+     */
+    public static void main(final String[] args) throws IOException {
+        int shards = DEFAULT_SHARDS;
+        int rounds = DEFAULT_ROUNDS;
+        if (args.length > 0) {
+            shards = Integer.parseInt(args[0]);
+        }
+        if (args.length > 1) {
+            rounds = Integer.parseInt(args[1]);
+        }
+
+        File[] inputDir = Objects.requireNonNull(
+                new File(CheckerConstants.TESTS_PATH).listFiles());
+        Arrays.sort(inputDir);
+
+        int different = 0;
+        for (File file : inputDir) {
+            if (file.getName().startsWith("library")) {
+                continue;
+            }
+            if (!isSameOutput(file, shards, rounds)) {
+                different++;
+            }
+        }
+
+        if (different == 0) {
+            System.out.println("all outputs are the same (shards: " + shards
+                    + ", rounds: " + rounds + ")");
+        } else {
+            System.out.println(different + " outputs are different");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Replays an input file serially and then sharded, for a number of rounds.
+     *
+     * @param file   the input file.
+     * @param shards the number of shards.
+     * @param rounds the number of sharded replays.
+     * @return true if every sharded replay wrote the same output as the serial one.
+     * @throws IOException in case of exceptions to reading
+     */
+    public static boolean isSameOutput(final File file, final int shards, final int rounds)
+            throws IOException {
+        byte[] serial = replay(file, 1);
+        for (int round = 0; round < rounds; round++) {
+            if (!Arrays.equals(serial, replay(file, shards))) {
+                System.out.println(file.getName() + ": DIFFERENT (round " + round + ")");
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Replays an input file in a new simulation.
+     *
+     * @param file   the input file.
+     * @param shards the number of shards, 1 for the serial replay.
+     * @return the output, as it would be written to the output file, followed by the
+     * exception that stopped the replay, if any.
+     * @throws IOException in case of exceptions to reading
+     */
+    private static byte[] replay(final File file, final int shards) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        SimulationContext context = new SimulationContext(Main.getCatalog());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        String failure = "";
+        try (CommandReader inputcommands = new CommandReader(objectMapper, file);
+             OutputWriter outputs = new OutputWriter(objectMapper, output, true)) {
+            if (shards > 1) {
+                new ShardedCommandInvoker(inputcommands, outputs, context, null, shards)
+                        .invokeCommands();
+            } else {
+                new CommandInvoker(inputcommands, outputs, context).invokeCommands();
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (RuntimeException e) {
+            // some inputs stop the simulation, the sharded replay has to stop at the same point
+            failure = e.toString();
+        }
+        output.write(failure.getBytes(StandardCharsets.UTF_8));
+        return output.toByteArray();
+    }
+}
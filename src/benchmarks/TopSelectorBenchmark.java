@@ -0,0 +1,102 @@
+package benchmarks;
+
+import fileio.input.wrappedEntities.WrappedArtist;
+import main.statisticsCommands.TopSelector;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * Use this if you want to compare picking the top 5 wrapped artists with the
+ * TopSelector against sorting the whole list and keeping the first 5.
+ * Arguments (optional): number of wrapped artists, number of measured rounds.
+ */
+public final class TopSelectorBenchmark {
+    private static final int DEFAULT_ARTISTS = 10_000;
+    private static final int DEFAULT_ROUNDS = 200;
+    private static final int WARMUP_ROUNDS = 100;
+    private static final int MAX_RESULTS = 5;
+    private static final int MAX_LISTENS = 1_000;
+    private static final long SEED = 42;
+
+    // the order used by the wrapped command: listens descending, then names
+    private static final Comparator<WrappedArtist> ORDER = new Comparator<WrappedArtist>() {
+        @Override
+        public int compare(final WrappedArtist wrappedArtist1,
+                           final WrappedArtist wrappedArtist2) {
+            if (Objects.equals(wrappedArtist1.getListens(), wrappedArtist2.getListens())) {
+                return wrappedArtist1.getArtistName().compareTo(wrappedArtist2.getArtistName());
+            }
+            return wrappedArtist2.getListens() - wrappedArtist1.getListens();
+        }
+    };
+
+    /**
+     * for coding style
+     */
+    private TopSelectorBenchmark() {
+    }
+
+    /**
+     * @param args number of wrapped artists and number of measured rounds
+     */
+    public static void main(final String[] args) {
+        int numberOfArtists = DEFAULT_ARTISTS;
+        int rounds = DEFAULT_ROUNDS;
+        if (args.length > 0) {
+            numberOfArtists = Integer.parseInt(args[0]);
+        }
+        if (args.length > 1) {
+            rounds = Integer.parseInt(args[1]);
+        }
+
+        // a user that has listened to many artists, a random number of times each
+        Random random = new Random(SEED);
+        ArrayList<WrappedArtist> wrappedArtists = new ArrayList<>();
+        for (int i = 0; i < numberOfArtists; i++) {
+            WrappedArtist wrappedArtist = new WrappedArtist("artist" + i);
+            wrappedArtist.setListens(random.nextInt(MAX_LISTENS));
+            wrappedArtists.add(wrappedArtist);
+        }
+
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            sortAndTruncate(wrappedArtists);
+            TopSelector.select(wrappedArtists, MAX_RESULTS, ORDER);
+        }
+
+        long sortTotal = 0;
+        long selectTotal = 0;
+        // the listens of the first artist picked, so that the work can't be skipped
+        long checksum = 0;
+        for (int round = 0; round < rounds; round++) {
+            long start = System.nanoTime();
+            checksum += sortAndTruncate(wrappedArtists).get(0).getListens();
+            sortTotal += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            checksum += TopSelector.select(wrappedArtists, MAX_RESULTS, ORDER).get(0).getListens();
+            selectTotal += System.nanoTime() - start;
+        }
+
+        System.out.printf("wrapped artists: %d, rounds: %d, checksum: %d%n", numberOfArtists,
+                rounds, checksum);
+        System.out.printf("sort + truncate: %.1f us/query%n", sortTotal / 1_000.0 / rounds);
+        System.out.printf("top selector:    %.1f us/query%n", selectTotal / 1_000.0 / rounds);
+    }
+
+    /**
+     * Picks the top 5 the way the wrapped command used to: sort everything, keep 5.
+     * The list is copied first, so that every round sorts the same unsorted input.
+     *
+     * @param wrappedArtists the wrapped artists of a user.
+     * @return the first 5 wrapped artists.
+     */
+    private static ArrayList<WrappedArtist> sortAndTruncate(
+            final ArrayList<WrappedArtist> wrappedArtists) {
+        ArrayList<WrappedArtist> sorted = new ArrayList<>(wrappedArtists);
+        sorted.sort(ORDER);
+        return new ArrayList<>(sorted.subList(0, Math.min(MAX_RESULTS, sorted.size())));
+    }
+}
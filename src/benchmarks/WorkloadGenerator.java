@@ -0,0 +1,416 @@
+package benchmarks;
+
+import fileio.input.Filters;
+import fileio.input.InputCommands;
+import fileio.input.LibraryInput;
+import fileio.input.UserInput;
+import fileio.input.audioEntities.EpisodeInput;
+import fileio.input.audioEntities.SongInput;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Generates synthetic simulations of any size: a library with the given number of songs
+ * and users, the commands that add the artists (with their albums), the hosts (with their
+ * podcasts) and the users' playlists, and random mixes of commands. The same seed always
+ * gives the same library and the same commands. The timestamps of the generated
+ * commands keep increasing, from one call to the next: the clock moves SECONDS_PER_ROUND
+ * seconds for every numberOfUsers commands, as if every user gave one command that often.
+ * The songs, playlists and albums loaded keep ending during a workload, by themselves
+ * or skipped past their last song, so the mixes also cover the player once its source
+ * has ended.
+ */
+public final class WorkloadGenerator {
+    private static final String[] GENRES = {"pop", "rock", "jazz", "rap", "metal", "blues"};
+    private static final String[] TAGS = {"#a", "#b", "#c", "#d", "#e", "#f"};
+    private static final String[] WORDS = {"love", "night", "fire", "rain", "heart", "dream",
+        "sky", "road", "home", "light"};
+    private static final int[] SONG_DURATIONS = {120, 180, 240, 300, 360};
+    private static final int EPISODE_DURATION = 1_800;
+    private static final int MAX_TAGS = 3;
+    private static final int MIN_LYRICS_WORDS = 4;
+    private static final int MAX_LYRICS_WORDS = 12;
+    private static final int FIRST_YEAR = 1970;
+    private static final int YEARS = 50;
+    private static final int USER_AGE = 25;
+    private static final int ALBUMS_PER_ARTIST = 2;
+    private static final int SONGS_PER_ALBUM = 6;
+    private static final int ARTISTS_PER_HOST = 4;
+    private static final int EPISODES_PER_PODCAST = 8;
+    private static final int SONGS_PER_PLAYLIST = 4;
+
+    /* the time the clock moves for every numberOfUsers commands: a playlist or an album
+    loaded lasts a few dozen rounds, so most of them end during a mix */
+    private static final int SECONDS_PER_ROUND = 30;
+
+    // the number of types of searches (see generateSearch)
+    private static final int SEARCH_VARIANTS = 5;
+    private static final int SEEDS = 1_000;
+
+    // the commands of a random mix and how often each one is picked
+    private static final String[] MIX_COMMANDS = {"search", "select", "load", "playPause",
+        "status", "next", "prev", "forward", "backward", "repeat", "shuffle", "like",
+        "showPlaylists", "showPreferredSongs", "printCurrentPage", "getTop5Songs",
+        "getTop5Playlists", "getTop5Albums", "getTop5Artists", "wrapped"};
+    private static final int[] MIX_WEIGHTS = {12, 10, 10, 6, 12, 4, 4, 4, 3, 3, 3, 6, 2, 2,
+        3, 1, 1, 1, 1, 2};
+
+    private final Random random;
+    private final int numberOfSongs;
+    private final int numberOfUsers;
+    private final int numberOfArtists;
+    private final int numberOfPlaylists;
+
+    // the number of commands generated so far, which gives the timestamp of the next one
+    private int generatedCommands;
+
+    /**
+     * Creates a generator.
+     *
+     * @param seed              the seed of the random choices.
+     * @param numberOfSongs     the number of songs of the library.
+     * @param numberOfUsers     the number of normal users of the library.
+     * @param numberOfArtists   the number of artists added by the setup commands.
+     * @param numberOfPlaylists the number of playlists created by the setup commands.
+     */
+    public WorkloadGenerator(final long seed, final int numberOfSongs, final int numberOfUsers,
+                             final int numberOfArtists, final int numberOfPlaylists) {
+        this.random = new Random(seed);
+        this.numberOfSongs = numberOfSongs;
+        this.numberOfUsers = numberOfUsers;
+        this.numberOfArtists = numberOfArtists;
+        this.numberOfPlaylists = numberOfPlaylists;
+    }
+
+    /**
+     * Generates the library: the songs (sung by the artists that the setup commands add)
+     * and the normal users. The podcasts are added by the hosts, in the setup commands.
+     *
+     * @return the library.
+     */
+    public LibraryInput generateLibrary() {
+        ArrayList<SongInput> songs = new ArrayList<>();
+        for (int i = 0; i < numberOfSongs; i++) {
+            String artist = getArtistName(i % numberOfArtists);
+            songs.add(generateSong(getSongName(i), artist, "single" + i));
+        }
+
+        ArrayList<UserInput> users = new ArrayList<>();
+        for (int i = 0; i < numberOfUsers; i++) {
+            UserInput user = new UserInput();
+            user.setUsername(getUserName(i));
+            user.setAge(USER_AGE);
+            user.setCity("city");
+            users.add(user);
+        }
+
+        LibraryInput library = new LibraryInput();
+        library.setSongs(songs);
+        library.setPodcasts(new ArrayList<>());
+        library.setUsers(users);
+        return library;
+    }
+
+    /**
+     * Generates the commands that add the artists and their albums, the hosts and their
+     * podcasts, and the playlists of the users (every playlist gets a few songs).
+     *
+     * @return the setup commands.
+     */
+    public ArrayList<InputCommands> generateSetup() {
+        ArrayList<InputCommands> commands = new ArrayList<>();
+        for (int i = 0; i < numberOfArtists; i++) {
+            commands.add(addUser(getArtistName(i), "artist"));
+            for (int k = 0; k < ALBUMS_PER_ARTIST; k++) {
+                commands.add(addAlbum(getArtistName(i), "album" + i + "_" + k));
+            }
+        }
+        for (int i = 0; i < getNumberOfHosts(); i++) {
+            commands.add(addUser(getHostName(i), "host"));
+            commands.add(addPodcast(getHostName(i), "podcast" + i));
+        }
+
+        for (int p = 0; p < numberOfPlaylists; p++) {
+            String owner = getUserName(p % numberOfUsers);
+            commands.add(command("createPlaylist", owner));
+            commands.get(commands.size() - 1).setPlaylistName("playlist" + p);
+            for (int s = 0; s < SONGS_PER_PLAYLIST; s++) {
+                commands.add(search(owner, "song", songNameFilter()));
+                commands.add(select(owner));
+                commands.add(command("load", owner));
+                InputCommands addSong = command("addRemoveInPlaylist", owner);
+                addSong.setPlaylistId(p / numberOfUsers + 1);
+                commands.add(addSong);
+            }
+        }
+        return commands;
+    }
+
+    /**
+     * Generates, for every user, the commands that load one of the playlists, so that
+     * all the users are listening to something.
+     *
+     * @return the commands.
+     */
+    public ArrayList<InputCommands> generateLoadPlaylists() {
+        ArrayList<InputCommands> commands = new ArrayList<>();
+        for (int i = 0; i < numberOfUsers; i++) {
+            String username = getUserName(i);
+            Filters filters = new Filters();
+            filters.setName("playlist" + random.nextInt(Math.max(1, numberOfPlaylists)));
+            commands.add(search(username, "playlist", filters));
+            commands.add(select(username));
+            commands.add(command("load", username));
+        }
+        return commands;
+    }
+
+    /**
+     * Generates a random mix of commands given by random users. The users first have
+     * to load something, see generateLoadPlaylists.
+     *
+     * @param count the number of commands.
+     * @return the commands.
+     */
+    public ArrayList<InputCommands> generateMix(final int count) {
+        int totalWeight = 0;
+        for (int weight : MIX_WEIGHTS) {
+            totalWeight += weight;
+        }
+
+        ArrayList<InputCommands> commands = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int pick = random.nextInt(totalWeight);
+            int index = 0;
+            while (pick >= MIX_WEIGHTS[index]) {
+                pick -= MIX_WEIGHTS[index];
+                index++;
+            }
+            commands.add(generateCommand(MIX_COMMANDS[index], randomUser()));
+        }
+        return commands;
+    }
+
+    /**
+     * Generates a command with plausible arguments: searches get a random type and random
+     * filters, the top 5 commands have no user and the others get what their command
+     * expects.
+     *
+     * @param name     the name of the command.
+     * @param username the user that gives the command.
+     * @return the command.
+     */
+    public InputCommands generateCommand(final String name, final String username) {
+        switch (name) {
+            case "search":
+                return generateSearch(username, random.nextInt(SEARCH_VARIANTS));
+            case "select":
+                return select(username);
+            case "shuffle":
+                InputCommands shuffle = command(name, username);
+                shuffle.setSeed(random.nextInt(SEEDS));
+                return shuffle;
+            case "getTop5Songs":
+            case "getTop5Playlists":
+            case "getTop5Albums":
+            case "getTop5Artists":
+                return command(name, null);
+            default:
+                return command(name, username);
+        }
+    }
+
+    /**
+     * Generates a search of one of the five types: songs by name, songs by tags and genre,
+     * albums, artists and playlists.
+     *
+     * @param username the user that searches.
+     * @param variant  the type of the search, from 0 to 4.
+     * @return the search command.
+     */
+    public InputCommands generateSearch(final String username, final int variant) {
+        Filters filters = new Filters();
+        switch (variant) {
+            case 0:
+                return search(username, "song", songNameFilter());
+            case 1:
+                ArrayList<String> tags = new ArrayList<>();
+                tags.add(TAGS[random.nextInt(TAGS.length)]);
+                filters.setTags(tags);
+                filters.setGenre(GENRES[random.nextInt(GENRES.length)]);
+                return search(username, "song", filters);
+            case 2:
+                filters.setName("album" + random.nextInt(numberOfArtists));
+                return search(username, "album", filters);
+            case 3:
+                filters.setName("artist" + random.nextInt(numberOfArtists));
+                return search(username, "artist", filters);
+            default:
+                filters.setName("playlist");
+                return search(username, "playlist", filters);
+        }
+    }
+
+    /**
+     * Gets the name of a normal user of the library.
+     *
+     * @param index the index of the user.
+     * @return the username.
+     */
+    public String getUserName(final int index) {
+        return "user" + index;
+    }
+
+    /**
+     * Gets the name of an artist added by the setup commands.
+     *
+     * @param index the index of the artist.
+     * @return the username of the artist.
+     */
+    public String getArtistName(final int index) {
+        return "artist" + index;
+    }
+
+    /**
+     * Gets the name of a host added by the setup commands.
+     *
+     * @param index the index of the host.
+     * @return the username of the host.
+     */
+    public String getHostName(final int index) {
+        return "host" + index;
+    }
+
+    /**
+     * Gets the number of hosts added by the setup commands.
+     *
+     * @return the number of hosts.
+     */
+    public int getNumberOfHosts() {
+        return Math.max(1, numberOfArtists / ARTISTS_PER_HOST);
+    }
+
+    /**
+     * Gets the timestamp of the next generated command.
+     *
+     * @return the timestamp.
+     */
+    public int getTimestamp() {
+        return generatedCommands / numberOfUsers * SECONDS_PER_ROUND;
+    }
+
+    /**
+     * Gets a random normal user.
+     *
+     * @return the username.
+     */
+    public String randomUser() {
+        return getUserName(random.nextInt(numberOfUsers));
+    }
+
+    /**
+     * Creates a command with only a name, a user and the next timestamp.
+     *
+     * @param name     the name of the command.
+     * @param username the user that gives the command (null for none).
+     * @return the command.
+     */
+    public InputCommands command(final String name, final String username) {
+        InputCommands command = new InputCommands();
+        command.setCommand(name);
+        command.setUsername(username);
+        command.setTimestamp(getTimestamp());
+        generatedCommands++;
+        return command;
+    }
+
+    private InputCommands search(final String username, final String type,
+                                 final Filters filters) {
+        InputCommands search = command("search", username);
+        search.setType(type);
+        search.setFilters(filters);
+        return search;
+    }
+
+    private InputCommands select(final String username) {
+        InputCommands select = command("select", username);
+        select.setItemNumber(1);
+        return select;
+    }
+
+    private InputCommands addUser(final String username, final String type) {
+        InputCommands addUser = command("addUser", username);
+        addUser.setType(type);
+        addUser.setAge(USER_AGE);
+        addUser.setCity("city");
+        return addUser;
+    }
+
+    private InputCommands addAlbum(final String artist, final String albumName) {
+        InputCommands addAlbum = command("addAlbum", artist);
+        addAlbum.setName(albumName);
+        addAlbum.setReleaseYear(FIRST_YEAR + random.nextInt(YEARS));
+        addAlbum.setDescription("description");
+        ArrayList<SongInput> songs = new ArrayList<>();
+        for (int i = 0; i < SONGS_PER_ALBUM; i++) {
+            songs.add(generateSong(albumName + " song" + i, artist, albumName));
+        }
+        addAlbum.setSongs(songs);
+        return addAlbum;
+    }
+
+    private InputCommands addPodcast(final String host, final String podcastName) {
+        InputCommands addPodcast = command("addPodcast", host);
+        addPodcast.setName(podcastName);
+        ArrayList<EpisodeInput> episodes = new ArrayList<>();
+        for (int i = 0; i < EPISODES_PER_PODCAST; i++) {
+            EpisodeInput episode = new EpisodeInput();
+            episode.setName(podcastName + " episode" + i);
+            episode.setDuration(EPISODE_DURATION);
+            episode.setDescription("description");
+            episodes.add(episode);
+        }
+        addPodcast.setEpisodes(episodes);
+        return addPodcast;
+    }
+
+    private SongInput generateSong(final String name, final String artist,
+                                   final String album) {
+        SongInput song = new SongInput();
+        song.setName(name);
+        song.setArtist(artist);
+        song.setAlbum(album);
+        song.setDuration(SONG_DURATIONS[random.nextInt(SONG_DURATIONS.length)]);
+        song.setGenre(GENRES[random.nextInt(GENRES.length)]);
+        song.setReleaseYear(FIRST_YEAR + random.nextInt(YEARS));
+
+        ArrayList<String> tags = new ArrayList<>();
+        int numberOfTags = random.nextInt(MAX_TAGS + 1);
+        for (int i = 0; i < numberOfTags; i++) {
+            tags.add(TAGS[random.nextInt(TAGS.length)]);
+        }
+        song.setTags(tags);
+
+        StringBuilder lyrics = new StringBuilder();
+        int words = MIN_LYRICS_WORDS + random.nextInt(MAX_LYRICS_WORDS - MIN_LYRICS_WORDS);
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                lyrics.append(' ');
+            }
+            lyrics.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        song.setLyrics(lyrics.toString());
+        return song;
+    }
+
+    private String getSongName(final int index) {
+        return "song" + index + " " + WORDS[index % WORDS.length];
+    }
+
+    private Filters songNameFilter() {
+        Filters filters = new Filters();
+        filters.setName(getSongName(random.nextInt(numberOfSongs)));
+        return filters;
+    }
+}
@@ -0,0 +1,448 @@
+package fileio.input;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fileio.input.audioEntities.EpisodeInput;
+import fileio.input.audioEntities.PodcastInput;
+import fileio.input.audioEntities.SongInput;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+
+/**
+ * A binary copy of library.json that can be loaded without JSON binding. The file is
+ * written once from a LibraryInput and then memory-mapped by every run that loads it.
+ *
+ * <p>Layout (all numbers are big endian ints):
+ * <ul>
+ *     <li>header: magic, version and the number of strings, songs, tags, podcasts,
+ *     episodes and users;</li>
+ *     <li>string table: the offsets of the strings, followed by the UTF-8 bytes of all the
+ *     strings. Every distinct string (artist, genre, tag, ...) is stored only once;</li>
+ *     <li>songs, one column per field: name, album, artist, genre and lyrics (string
+ *     indexes), duration, release year, first tag and number of tags;</li>
+ *     <li>tags of all songs (string indexes);</li>
+ *     <li>podcasts: name, owner, first episode and number of episodes;</li>
+ *     <li>episodes: name, duration and description;</li>
+ *     <li>users: username.</li>
+ * </ul>
+ * A missing string is stored as the index -1, a missing number as Integer.MIN_VALUE and
+ * a missing list as the count -1.
+ *
+ * <p>Songs, podcasts and strings are only decoded the first time they are asked for,
+ * then the same object is returned to all the runs sharing the catalog.
+ */
+public final class CatalogSnapshot {
+    private static final int MAGIC = 0x47574353;
+    private static final int VERSION = 1;
+    private static final int HEADER_INTS = 8;
+    private static final int NULL_INDEX = -1;
+    private static final int NULL_NUMBER = Integer.MIN_VALUE;
+
+    private final ByteBuffer buffer;
+
+    // the number of elements in each section
+    private final int stringCount;
+    private final int songCount;
+    private final int podcastCount;
+    private final int userCount;
+
+    // the position of each section (or column) in the buffer
+    private final int stringOffsets;
+    private final int stringBytes;
+    private final int songNames;
+    private final int songAlbums;
+    private final int songArtists;
+    private final int songGenres;
+    private final int songLyrics;
+    private final int songDurations;
+    private final int songReleaseYears;
+    private final int songFirstTags;
+    private final int songTagCounts;
+    private final int tags;
+    private final int podcastNames;
+    private final int podcastOwners;
+    private final int podcastFirstEpisodes;
+    private final int podcastEpisodeCounts;
+    private final int episodeNames;
+    private final int episodeDurations;
+    private final int episodeDescriptions;
+    private final int usernames;
+
+    // the strings decoded so far
+    private final AtomicReferenceArray<String> strings;
+
+    private CatalogSnapshot(final ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.limit() < HEADER_INTS * Integer.BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("not a library snapshot");
+        }
+        if (buffer.getInt(Integer.BYTES) != VERSION) {
+            throw new IOException("unknown library snapshot version "
+                    + buffer.getInt(Integer.BYTES));
+        }
+
+        // the counts follow the magic and the version
+        int header = 2;
+        stringCount = readHeader(header++);
+        songCount = readHeader(header++);
+        int tagCount = readHeader(header++);
+        podcastCount = readHeader(header++);
+        int episodeCount = readHeader(header++);
+        userCount = readHeader(header);
+
+        stringOffsets = HEADER_INTS * Integer.BYTES;
+        stringBytes = stringOffsets + (stringCount + 1) * Integer.BYTES;
+        songNames = stringBytes + buffer.getInt(stringOffsets + stringCount * Integer.BYTES);
+        songAlbums = songNames + songCount * Integer.BYTES;
+        songArtists = songAlbums + songCount * Integer.BYTES;
+        songGenres = songArtists + songCount * Integer.BYTES;
+        songLyrics = songGenres + songCount * Integer.BYTES;
+        songDurations = songLyrics + songCount * Integer.BYTES;
+        songReleaseYears = songDurations + songCount * Integer.BYTES;
+        songFirstTags = songReleaseYears + songCount * Integer.BYTES;
+        songTagCounts = songFirstTags + songCount * Integer.BYTES;
+        tags = songTagCounts + songCount * Integer.BYTES;
+        podcastNames = tags + tagCount * Integer.BYTES;
+        podcastOwners = podcastNames + podcastCount * Integer.BYTES;
+        podcastFirstEpisodes = podcastOwners + podcastCount * Integer.BYTES;
+        podcastEpisodeCounts = podcastFirstEpisodes + podcastCount * Integer.BYTES;
+        episodeNames = podcastEpisodeCounts + podcastCount * Integer.BYTES;
+        episodeDurations = episodeNames + episodeCount * Integer.BYTES;
+        episodeDescriptions = episodeDurations + episodeCount * Integer.BYTES;
+        usernames = episodeDescriptions + episodeCount * Integer.BYTES;
+        if (usernames + userCount * Integer.BYTES != buffer.limit()) {
+            throw new IOException("the library snapshot is truncated or corrupted");
+        }
+
+        strings = new AtomicReferenceArray<>(stringCount);
+    }
+
+    /**
+     * Loads a snapshot by mapping the file in memory. Nothing is decoded until the
+     * songs, podcasts or usernames of the catalog are used.
+     *
+     * @param file the snapshot file.
+     * @return the catalog read from the snapshot.
+     * @throws IOException if the file can't be read or isn't a valid snapshot.
+     */
+    public static LibraryCatalog load(final File file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            // the mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        CatalogSnapshot snapshot = new CatalogSnapshot(buffer);
+
+        return new LibraryCatalog(
+                new LazyList<>(snapshot.songCount, snapshot::readSong),
+                new LazyList<>(snapshot.podcastCount, snapshot::readPodcast),
+                new LazyList<>(snapshot.userCount,
+                        index -> snapshot.readString(snapshot.usernames, index)));
+    }
+
+    /**
+     * Writes the snapshot of a library.
+     *
+     * @param library the library read from library.json.
+     * @param file    the snapshot file to be written.
+     * @throws IOException in case of exceptions to writing
+     */
+    public static void write(final LibraryInput library, final File file) throws IOException {
+        StringTable stringTable = new StringTable();
+        ArrayList<SongInput> songs = library.getSongs();
+        ArrayList<PodcastInput> podcasts = library.getPodcasts();
+        ArrayList<UserInput> users = library.getUsers();
+
+        // the columns are filled in first, so that the string table is complete
+        int[] songNameColumn = new int[songs.size()];
+        int[] songAlbumColumn = new int[songs.size()];
+        int[] songArtistColumn = new int[songs.size()];
+        int[] songGenreColumn = new int[songs.size()];
+        int[] songLyricsColumn = new int[songs.size()];
+        int[] songDurationColumn = new int[songs.size()];
+        int[] songReleaseYearColumn = new int[songs.size()];
+        int[] songFirstTagColumn = new int[songs.size()];
+        int[] songTagCountColumn = new int[songs.size()];
+        ArrayList<Integer> tagIndexes = new ArrayList<>();
+        for (int i = 0; i < songs.size(); i++) {
+            SongInput song = songs.get(i);
+            songNameColumn[i] = stringTable.indexOf(song.getName());
+            songAlbumColumn[i] = stringTable.indexOf(song.getAlbum());
+            songArtistColumn[i] = stringTable.indexOf(song.getArtist());
+            songGenreColumn[i] = stringTable.indexOf(song.getGenre());
+            songLyricsColumn[i] = stringTable.indexOf(song.getLyrics());
+            songDurationColumn[i] = numberOf(song.getDuration());
+            songReleaseYearColumn[i] = song.getReleaseYear();
+            songFirstTagColumn[i] = tagIndexes.size();
+            songTagCountColumn[i] = NULL_INDEX;
+            if (song.getTags() != null) {
+                songTagCountColumn[i] = song.getTags().size();
+                for (String tag : song.getTags()) {
+                    tagIndexes.add(stringTable.indexOf(tag));
+                }
+            }
+        }
+
+        int[] podcastNameColumn = new int[podcasts.size()];
+        int[] podcastOwnerColumn = new int[podcasts.size()];
+        int[] podcastFirstEpisodeColumn = new int[podcasts.size()];
+        int[] podcastEpisodeCountColumn = new int[podcasts.size()];
+        ArrayList<EpisodeInput> episodes = new ArrayList<>();
+        for (int i = 0; i < podcasts.size(); i++) {
+            PodcastInput podcast = podcasts.get(i);
+            podcastNameColumn[i] = stringTable.indexOf(podcast.getName());
+            podcastOwnerColumn[i] = stringTable.indexOf(podcast.getOwner());
+            podcastFirstEpisodeColumn[i] = episodes.size();
+            podcastEpisodeCountColumn[i] = NULL_INDEX;
+            if (podcast.getEpisodes() != null) {
+                podcastEpisodeCountColumn[i] = podcast.getEpisodes().size();
+                episodes.addAll(podcast.getEpisodes());
+            }
+        }
+
+        int[] episodeNameColumn = new int[episodes.size()];
+        int[] episodeDurationColumn = new int[episodes.size()];
+        int[] episodeDescriptionColumn = new int[episodes.size()];
+        for (int i = 0; i < episodes.size(); i++) {
+            episodeNameColumn[i] = stringTable.indexOf(episodes.get(i).getName());
+            episodeDurationColumn[i] = numberOf(episodes.get(i).getDuration());
+            episodeDescriptionColumn[i] = stringTable.indexOf(episodes.get(i).getDescription());
+        }
+
+        int[] usernameColumn = new int[users.size()];
+        for (int i = 0; i < users.size(); i++) {
+            usernameColumn[i] = stringTable.indexOf(users.get(i).getUsername());
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(stringTable.size());
+            out.writeInt(songs.size());
+            out.writeInt(tagIndexes.size());
+            out.writeInt(podcasts.size());
+            out.writeInt(episodes.size());
+            out.writeInt(users.size());
+
+            stringTable.writeTo(out);
+            writeColumns(out, songNameColumn, songAlbumColumn, songArtistColumn,
+                    songGenreColumn, songLyricsColumn, songDurationColumn,
+                    songReleaseYearColumn, songFirstTagColumn, songTagCountColumn);
+            for (Integer tagIndex : tagIndexes) {
+                out.writeInt(tagIndex);
+            }
+            writeColumns(out, podcastNameColumn, podcastOwnerColumn,
+                    podcastFirstEpisodeColumn, podcastEpisodeCountColumn);
+            writeColumns(out, episodeNameColumn, episodeDurationColumn,
+                    episodeDescriptionColumn);
+            writeColumns(out, usernameColumn);
+        }
+    }
+
+    /**
+     * Use this if you want to write the snapshot of a library.json file.
+     *
+     * @param args the path of library.json and the path of the snapshot to be written
+     * @throws IOException in case of exceptions to reading / writing
+     */
+    public static void main(final String[] args) throws IOException {
+        LibraryInput library = new ObjectMapper().readValue(new File(args[0]),
+                LibraryInput.class);
+        write(library, new File(args[1]));
+    }
+
+    private int readHeader(final int index) {
+        return buffer.getInt(index * Integer.BYTES);
+    }
+
+    private int readInt(final int column, final int index) {
+        return buffer.getInt(column + index * Integer.BYTES);
+    }
+
+    private Integer readNumber(final int column, final int index) {
+        int value = readInt(column, index);
+        if (value == NULL_NUMBER) {
+            return null;
+        }
+        return value;
+    }
+
+    private String readString(final int column, final int index) {
+        return string(readInt(column, index));
+    }
+
+    /**
+     * Decodes a string from the string table, the first time it is used.
+     *
+     * @param stringIndex the index of the string.
+     * @return the string, or null for the missing string index.
+     */
+    private String string(final int stringIndex) {
+        if (stringIndex == NULL_INDEX) {
+            return null;
+        }
+        String decoded = strings.get(stringIndex);
+        if (decoded != null) {
+            return decoded;
+        }
+
+        int start = readInt(stringOffsets, stringIndex);
+        byte[] bytes = new byte[readInt(stringOffsets, stringIndex + 1) - start];
+        buffer.get(stringBytes + start, bytes);
+        decoded = new String(bytes, StandardCharsets.UTF_8);
+        if (!strings.compareAndSet(stringIndex, null, decoded)) {
+            return strings.get(stringIndex);
+        }
+        return decoded;
+    }
+
+    private SongInput readSong(final int index) {
+        SongInput song = new SongInput();
+        song.setName(readString(songNames, index));
+        song.setAlbum(readString(songAlbums, index));
+        song.setArtist(readString(songArtists, index));
+        song.setGenre(readString(songGenres, index));
+        song.setLyrics(readString(songLyrics, index));
+        song.setDuration(readNumber(songDurations, index));
+        song.setReleaseYear(readInt(songReleaseYears, index));
+
+        int tagCount = readInt(songTagCounts, index);
+        if (tagCount != NULL_INDEX) {
+            int firstTag = readInt(songFirstTags, index);
+            ArrayList<String> songTags = new ArrayList<>(tagCount);
+            for (int i = 0; i < tagCount; i++) {
+                songTags.add(readString(tags, firstTag + i));
+            }
+            song.setTags(songTags);
+        }
+        return song;
+    }
+
+    private PodcastInput readPodcast(final int index) {
+        PodcastInput podcast = new PodcastInput();
+        podcast.setName(readString(podcastNames, index));
+        podcast.setOwner(readString(podcastOwners, index));
+
+        int episodeCount = readInt(podcastEpisodeCounts, index);
+        if (episodeCount != NULL_INDEX) {
+            int firstEpisode = readInt(podcastFirstEpisodes, index);
+            ArrayList<EpisodeInput> podcastEpisodes = new ArrayList<>(episodeCount);
+            for (int i = firstEpisode; i < firstEpisode + episodeCount; i++) {
+                EpisodeInput episode = new EpisodeInput();
+                episode.setName(readString(episodeNames, i));
+                episode.setDuration(readNumber(episodeDurations, i));
+                episode.setDescription(readString(episodeDescriptions, i));
+                podcastEpisodes.add(episode);
+            }
+            podcast.setEpisodes(podcastEpisodes);
+        }
+        return podcast;
+    }
+
+    private static int numberOf(final Integer value) {
+        if (value == null) {
+            return NULL_NUMBER;
+        }
+        return value;
+    }
+
+    private static void writeColumns(final DataOutputStream out, final int[]... columns)
+            throws IOException {
+        for (int[] column : columns) {
+            for (int value : column) {
+                out.writeInt(value);
+            }
+        }
+    }
+
+    /**
+     * The distinct strings of a library, in the order in which they were first added.
+     */
+    private static final class StringTable {
+        private final HashMap<String, Integer> indexes = new HashMap<>();
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final ArrayList<Integer> offsets = new ArrayList<>();
+
+        /**
+         * Gets the index of a string, adding it to the table if it's new.
+         *
+         * @param string the string (may be null).
+         * @return the index of the string.
+         */
+        int indexOf(final String string) {
+            if (string == null) {
+                return NULL_INDEX;
+            }
+            Integer index = indexes.get(string);
+            if (index == null) {
+                index = offsets.size();
+                offsets.add(bytes.size());
+                bytes.writeBytes(string.getBytes(StandardCharsets.UTF_8));
+                indexes.put(string, index);
+            }
+            return index;
+        }
+
+        int size() {
+            return offsets.size();
+        }
+
+        void writeTo(final DataOutputStream out) throws IOException {
+            for (Integer offset : offsets) {
+                out.writeInt(offset);
+            }
+            // the end of the last string
+            out.writeInt(bytes.size());
+            bytes.writeTo(out);
+        }
+    }
+
+    /**
+     * A read-only list whose elements are decoded the first time they are asked for.
+     * The decoded elements are published safely, so the list can be shared by threads.
+     *
+     * @param <T> the type of the elements.
+     */
+    private static final class LazyList<T> extends AbstractList<T> implements RandomAccess {
+        private final AtomicReferenceArray<T> elements;
+        private final IntFunction<T> decoder;
+
+        LazyList(final int size, final IntFunction<T> decoder) {
+            this.elements = new AtomicReferenceArray<>(size);
+            this.decoder = decoder;
+        }
+
+        @Override
+        public T get(final int index) {
+            T element = elements.get(index);
+            if (element == null) {
+                element = decoder.apply(index);
+                if (!elements.compareAndSet(index, null, element)) {
+                    element = elements.get(index);
+                }
+            }
+            return element;
+        }
+
+        @Override
+        public int size() {
+            return elements.length();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package fileio.input;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the commands of an input file one at a time, so that only the command being
+ * executed is kept in memory, however many commands the file has. After the last
+ * command of the file, an endProgram command with the same timestamp is returned.
+ * Reading errors are thrown as UncheckedIOException, as Iterator methods can't throw
+ * IOException.
+ */
+public final class CommandReader implements Iterator<InputCommands>, Closeable {
+    private static final String END_PROGRAM = "endProgram";
+
+    private final ObjectMapper objectMapper;
+    private final JsonParser parser;
+
+    // the command that will be returned by next(), null if it hasn't been read yet
+    private InputCommands nextCommand;
+    private Integer lastTimestamp;
+
+    // true after the end of the commands array has been reached
+    private boolean endOfFile;
+
+    // true after the endProgram command has been returned
+    private boolean endProgramReturned;
+
+    /**
+     * Opens an input file, which contains an array of commands.
+     *
+     * @param objectMapper the mapper used to read the commands.
+     * @param file         the input file.
+     * @throws IOException if the file can't be opened or doesn't start with an array.
+     */
+    public CommandReader(final ObjectMapper objectMapper, final File file) throws IOException {
+        this.objectMapper = objectMapper;
+        this.parser = objectMapper.getFactory().createParser(file);
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            parser.close();
+            throw new IOException("the input file " + file.getName()
+                    + " doesn't contain an array of commands");
+        }
+    }
+
+    /**
+     * Checks if there are commands left, reading the next one if needed.
+     *
+     * @return true if next() will return a command.
+     */
+    @Override
+    public boolean hasNext() {
+        if (nextCommand != null) {
+            return true;
+        }
+
+        if (!endOfFile) {
+            try {
+                if (parser.nextToken() == JsonToken.START_OBJECT) {
+                    nextCommand = objectMapper.readValue(parser, InputCommands.class);
+                    lastTimestamp = nextCommand.getTimestamp();
+                    return true;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            endOfFile = true;
+        }
+
+        // the file had no commands => there is nothing to end either
+        if (endProgramReturned || lastTimestamp == null) {
+            return false;
+        }
+        nextCommand = new InputCommands();
+        nextCommand.setCommand(END_PROGRAM);
+        nextCommand.setTimestamp(lastTimestamp);
+        endProgramReturned = true;
+        return true;
+    }
+
+    /**
+     * Gets the next command. The reader doesn't keep it after returning it.
+     *
+     * @return the next command from the file, or endProgram after the last one.
+     */
+    @Override
+    public InputCommands next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        InputCommands command = nextCommand;
+        nextCommand = null;
+        return command;
+    }
+
+    /**
+     * Skips commands, for example the ones that have already been applied before a restart.
+     *
+     * @param count the number of commands to be skipped.
+     */
+    public void skip(final long count) {
+        for (long i = 0; i < count && hasNext(); i++) {
+            next();
+        }
+    }
+
+    /**
+     * Closes the input file.
+     *
+     * @throws IOException in case of exceptions to closing the file
+     */
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
@@ -0,0 +1,118 @@
+package fileio.input;
+
+import fileio.input.audioEntities.PodcastInput;
+import fileio.input.audioEntities.SongInput;
+import fileio.input.audioEntities.SongPlayInfo;
+import fileio.input.audioEntities.SongSearchIndex;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The content of library.json, parsed once and shared by all the simulations.
+ * The catalog can't be changed: a simulation copies the references it needs into
+ * its own lists and adds the songs and podcasts created during the simulation there.
+ * The songs and podcasts themselves are never changed after being read, so every
+ * simulation uses the same objects.
+ *
+ * <p>The same goes for the SongPlayInfo of every song and for the search index over them,
+ * built by the first simulation: the likes of a song are kept by the Leaderboards of each
+ * simulation, and a simulation only indexes the songs it adds (see SongSearchIndex).
+ */
+public final class LibraryCatalog {
+    private final List<SongInput> songs;
+    private final List<PodcastInput> podcasts;
+
+    // only the usernames are kept, that's all a normal user is created from
+    private final List<String> usernames;
+
+    // built the first time a simulation asks for them, then never changed
+    private List<SongPlayInfo> songPlayInfos;
+    private SongSearchIndex songSearchIndex;
+
+    /**
+     * Freezes the library read from the input.
+     *
+     * @param library the library read from library.json.
+     */
+    public LibraryCatalog(final LibraryInput library) {
+        songs = Collections.unmodifiableList(new ArrayList<>(library.getSongs()));
+        podcasts = Collections.unmodifiableList(new ArrayList<>(library.getPodcasts()));
+
+        ArrayList<String> names = new ArrayList<>(library.getUsers().size());
+        for (UserInput user : library.getUsers()) {
+            names.add(user.getUsername());
+        }
+        usernames = Collections.unmodifiableList(names);
+    }
+
+    /**
+     * Uses lists that are already read-only (the catalog loaded from a snapshot).
+     *
+     * @param songs     the songs from the library.
+     * @param podcasts  the podcasts from the library.
+     * @param usernames the usernames of the normal users from the library.
+     */
+    LibraryCatalog(final List<SongInput> songs, final List<PodcastInput> podcasts,
+                   final List<String> usernames) {
+        this.songs = songs;
+        this.podcasts = podcasts;
+        this.usernames = usernames;
+    }
+
+    /**
+     * @return the songs from the library, in the order in which they were read.
+     */
+    public List<SongInput> getSongs() {
+        return songs;
+    }
+
+    /**
+     * @return the podcasts from the library, in the order in which they were read.
+     */
+    public List<PodcastInput> getPodcasts() {
+        return podcasts;
+    }
+
+    /**
+     * @return the usernames of the normal users from the library.
+     */
+    public List<String> getUsernames() {
+        return usernames;
+    }
+
+    /**
+     * @return the SongPlayInfo of every song from the library, in the same order.
+     */
+    public synchronized List<SongPlayInfo> getSongPlayInfos() {
+        if (songPlayInfos == null) {
+            buildSongIndexes();
+        }
+        return songPlayInfos;
+    }
+
+    /**
+     * @return the search index over the songs from the library.
+     */
+    public synchronized SongSearchIndex getSongSearchIndex() {
+        if (songSearchIndex == null) {
+            buildSongIndexes();
+        }
+        return songSearchIndex;
+    }
+
+    /**
+     * Wraps every song in a SongPlayInfo and indexes them for the song search.
+     */
+    private void buildSongIndexes() {
+        ArrayList<SongPlayInfo> infos = new ArrayList<>(songs.size());
+        for (SongInput song : songs) {
+            infos.add(new SongPlayInfo(song, infos.size()));
+        }
+        songPlayInfos = Collections.unmodifiableList(infos);
+
+        songSearchIndex = new SongSearchIndex();
+        songSearchIndex.addSongs(songPlayInfos);
+    }
+}
@@ -8,6 +8,7 @@ import users.Artist;
 import java.util.ArrayList;
 
 public class ArtistPage extends Page {
+    private static final long serialVersionUID = 1L;
     private static final int TYPE_ARTIST = 5;
     private Artist artistPageOwner;
 
@@ -5,6 +5,8 @@ import users.NormalUser;
 import java.util.ArrayList;
 
 public class HomePage extends Page {
+    private static final long serialVersionUID = 1L;
+
     private NormalUser user;
 
 
@@ -8,6 +8,7 @@ import users.Host;
 import java.util.ArrayList;
 
 public class HostPage extends Page {
+    private static final long serialVersionUID = 1L;
     private static final int TYPE_HOST = 6;
     private Host hostPageOwner;
 
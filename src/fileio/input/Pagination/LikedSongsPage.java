@@ -3,6 +3,8 @@ package fileio.input.Pagination;
 import users.NormalUser;
 
 public class LikedSongsPage extends Page {
+    private static final long serialVersionUID = 1L;
+
     private NormalUser user;
 
     public LikedSongsPage(final NormalUser user) {
@@ -1,13 +1,19 @@
 package fileio.input.Pagination;
 
+import fileio.input.audioEntities.PlaybackSession;
 import fileio.input.audioEntities.Playlist;
 import fileio.input.audioEntities.SongPlayInfo;
+import main.statisticsCommands.Leaderboards;
+import main.statisticsCommands.TopSelector;
 import users.NormalUser;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Comparator;
 
-public abstract class Page {
+public abstract class Page implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     // 0 - home; 1 - likedContentPage; 5 - artistPage; 6 - hostPage
     private int pageType;
     private static final int MAX_RESULTS = 5;
@@ -48,32 +54,27 @@ public abstract class Page {
      * @return an ArrayList of strings containing the names of the top 5 playlists.
      */
     public ArrayList<String> getTop5PlaylistsByLikes(final NormalUser user) {
+        Leaderboards leaderboards = user.getContext().getLeaderboards();
+
         // update the total number of likes for each playlist followed by the user
         for (Playlist playlist : user.getFollowing()) {
-            // check if the playlist is on shuffle
-            if (!playlist.getShuffleStatus()) {
-                playlist.updateNumberOfLikes(playlist.getPlaylistSongs());
+            // check if the user has the playlist on shuffle
+            PlaybackSession session = user.findPlaylistSession(playlist);
+            if (session == null || !session.getShuffleStatus()) {
+                playlist.updateNumberOfLikes(playlist.getPlaylistSongs(), leaderboards);
             } else {
-                playlist.updateNumberOfLikes(playlist.getShuffledPlaylistSongs());
+                playlist.updateNumberOfLikes(session.getShuffledSongs(), leaderboards);
             }
         }
 
-        // sort the user's followed playlists by the NumberOf Likes in descending order
-        ArrayList<Playlist> sortedPlaylists = new ArrayList<>();
-        sortedPlaylists.addAll(user.getFollowing());
-        sortedPlaylists.sort(new Comparator<Playlist>() {
-            @Override
-            public int compare(final Playlist playlist1, final Playlist playlist2) {
-                return playlist2.getNumberOfLikes() - playlist1.getNumberOfLikes();
-            }
-        });
-
-        // only keep the first 5 results of the search operation
-        if (sortedPlaylists.size() > MAX_RESULTS) {
-            for (int i = sortedPlaylists.size() - 1; i >= MAX_RESULTS; i--) {
-                sortedPlaylists.remove(i);
-            }
-        }
+        // keep the first 5 of the user's followed playlists by the NumberOf Likes
+        ArrayList<Playlist> sortedPlaylists = TopSelector.select(user.getFollowing(),
+                MAX_RESULTS, new Comparator<Playlist>() {
+                    @Override
+                    public int compare(final Playlist playlist1, final Playlist playlist2) {
+                        return playlist2.getNumberOfLikes() - playlist1.getNumberOfLikes();
+                    }
+                });
 
         // create a list containing only the names of the playlists
         ArrayList<String> result = new ArrayList<>();
@@ -91,23 +92,17 @@ public abstract class Page {
      * @return an ArrayList of strings containing the names of the top 5 liked songs.
      */
     public ArrayList<String> getUsersTop5LikedSongNames(final NormalUser user) {
-        ArrayList<SongPlayInfo> usersSortedSongs = new ArrayList<>();
-        usersSortedSongs.addAll(user.getLikedSongs());
-
-        // sort the user's liked songs by the NumberOf Likes in descending order
-        usersSortedSongs.sort(new Comparator<SongPlayInfo>() {
-            @Override
-            public int compare(final SongPlayInfo song1, final SongPlayInfo song2) {
-                return song2.getNumberOfLikes() - song1.getNumberOfLikes();
-            }
-        });
-
-        // only keep the first 5 results of the search operation
-        if (usersSortedSongs.size() > MAX_RESULTS) {
-            for (int i = usersSortedSongs.size() - 1; i >= MAX_RESULTS; i--) {
-                usersSortedSongs.remove(i);
-            }
-        }
+        final Leaderboards leaderboards = user.getContext().getLeaderboards();
+
+        // keep the first 5 of the user's liked songs by the NumberOf Likes
+        ArrayList<SongPlayInfo> usersSortedSongs = TopSelector.select(user.getLikedSongs(),
+                MAX_RESULTS, new Comparator<SongPlayInfo>() {
+                    @Override
+                    public int compare(final SongPlayInfo song1, final SongPlayInfo song2) {
+                        return leaderboards.getSongLikes(song2)
+                                - leaderboards.getSongLikes(song1);
+                    }
+                });
 
         // create a list containing only the names of the songs
         ArrayList<String> result = new ArrayList<>();
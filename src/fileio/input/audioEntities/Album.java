@@ -1,38 +1,19 @@
 package fileio.input.audioEntities;
 
+import main.statisticsCommands.Leaderboards;
 import users.NormalUser;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 
-public class Album {
+public class Album implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private String name;
     private Integer releaseYear;
     private String description;
     private ArrayList<SongPlayInfo> songs;
 
-    /* this list contains the same songs as the one above, but the order
-    differs. This list is created after the shuffle status is activated */
-    private ArrayList<SongPlayInfo> shuffledSongs;
-
-    // (0) - no repeat, (1) - repeat all, (2) - repeat current song
-    private Integer repeatStatus;
-
-    // the position of the current song in the songs list
-    private Integer currentSongIndex;
-
-    // the second of the current song
-    private Integer currentSongSecond;
-
-    // (true) - paused, (false) - playing
-    private Boolean paused;
-
-    /* stores what was the last timestamp of an operation performed on the
-    album while the album was on play */
-    private Integer lastPlayTimestamp;
-
-    // true - shuffle active ; false - shuffle inactive
-    private Boolean shuffleStatus;
-
     // the total number of likes from all the album's songs
     private Integer numberOfLikes;
 
@@ -50,22 +31,18 @@ public class Album {
         this.releaseYear = releaseYear;
         this.description = description;
         this.songs = songs;
-        this.repeatStatus = 0;
-        this.currentSongIndex = 0;
-        this.paused = false;
-        this.lastPlayTimestamp = 0;
-        this.currentSongSecond = 0;
-        this.shuffleStatus = false;
         this.numberOfLikes = 0;
     }
 
     /**
      * Updates the total number of likes for the album based on the list of songs.
+     *
+     * @param leaderboards the leaderboards that keep the likes of the songs.
      */
-    public void updateAlbumNumberOfLikes() {
+    public void updateAlbumNumberOfLikes(final Leaderboards leaderboards) {
         Integer likes = 0;
         for (SongPlayInfo songPlayInfo : this.songs) {
-            likes += songPlayInfo.getNumberOfLikes();
+            likes += leaderboards.getSongLikes(songPlayInfo);
         }
         this.setNumberOfLikes(likes);
     }
@@ -92,29 +69,31 @@ public class Album {
      */
     public void updateAlbumStatus(final NormalUser user, final Integer currentTimestamp,
                                   final ArrayList<SongPlayInfo> albumSongs) {
+        PlaybackSession session = user.getAlbumSession(this);
+
         /* calculate the number of seconds that the song has been playing from
         the last update until the current timestamp */
-        Integer playSeconds = currentTimestamp - this.getLastPlayTimestamp();
-        Integer currentSecond = this.getCurrentSongSecond();
-        Integer currentIndex = this.getCurrentSongIndex();
+        Integer playSeconds = currentTimestamp - session.getLastPlayTimestamp();
+        Integer currentSecond = session.getCurrentSecond();
+        Integer currentIndex = session.getCurrentSongIndex();
 
         int duration = albumSongs.get(currentIndex).getSong().getDuration();
         int carrySeconds = currentSecond + playSeconds - duration;
 
         // case no repeat
-        if (user.getLastLoadedAlbum().getRepeatStatus() == 0) {
+        if (session.getRepeatStatus() == 0) {
             // check if the song duration is exceeded
             if (carrySeconds <= 0) {
                 // we are situated within the bounds of the same song
-                this.setCurrentSongSecond(currentSecond + playSeconds);
+                session.setCurrentSecond(currentSecond + playSeconds);
             }
             while (carrySeconds > 0) {
                 // check if this is the last song
                 if (albumSongs.size() <= currentIndex + 1) {
                     // the album has ended
-                    this.setCurrentSongSecond(0);
-                    this.setCurrentSongIndex(0);
-                    this.setPaused(true);
+                    session.setCurrentSecond(0);
+                    session.setCurrentSongIndex(0);
+                    session.setPaused(true);
                     user.setLastLoadedAlbum(null);
                     user.setLoaded(false);
                     return;
@@ -142,39 +121,57 @@ public class Album {
                     }
                     currentSecond = carrySeconds;
                     carrySeconds = 0;
-                    this.setCurrentSongIndex(currentIndex);
-                    this.setCurrentSongSecond(currentSecond);
+                    session.setCurrentSongIndex(currentIndex);
+                    session.setCurrentSecond(currentSecond);
                 }
             }
         }
 
         // case repeat current song
-        if (user.getLastLoadedAlbum().getRepeatStatus() == 2) {
+        if (session.getRepeatStatus() == 2) {
             if (carrySeconds <= 0) {
                 // we are situated within the bounds of the same song
-                this.setCurrentSongSecond(currentSecond + playSeconds);
+                session.setCurrentSecond(currentSecond + playSeconds);
             } else {
                 Integer totalSize = playSeconds + currentSecond;
 
-                while (totalSize > albumSongs.get(currentIndex).getSong().getDuration()) {
-                    totalSize -= albumSongs.get(currentIndex).getSong().getDuration();
-                    user.updateEverythingForSong(albumSongs.get(currentIndex));
-                    if (user.getIsPremium()) {
-                        user.updateSongAndArtistForPremiumUser(user.
-                                getLastLoadedAlbum().getSongs().get(currentIndex));
-                    }
+                // count every time the song has ended in a single update
+                int loops = (totalSize - 1) / duration;
+                user.updateEverythingForSong(albumSongs.get(currentIndex), loops);
+                if (user.getIsPremium()) {
+                    user.updateSongAndArtistForPremiumUser(user.
+                            getLastLoadedAlbum().getSongs().get(currentIndex), loops);
                 }
-                currentSecond = totalSize;
-                user.getLastLoadedAlbum().setCurrentSongSecond(currentSecond);
+                currentSecond = totalSize - loops * duration;
+                session.setCurrentSecond(currentSecond);
             }
         }
 
         // case repeat once
-        if (user.getLastLoadedAlbum().getRepeatStatus() == 1) {
+        if (session.getRepeatStatus() == 1) {
             if (carrySeconds <= 0) {
                 // we are situated within the bounds of the same song
-                this.setCurrentSongSecond(currentSecond + playSeconds);
+                session.setCurrentSecond(currentSecond + playSeconds);
             } else {
+                /* every whole pass through the album brings us back to the same
+                song, so the whole passes are counted in bulk and only the rest is walked */
+                int totalDuration = 0;
+                for (SongPlayInfo songPlayInfo : albumSongs) {
+                    totalDuration += songPlayInfo.getSong().getDuration();
+                }
+                int fullPasses = (carrySeconds - 1) / totalDuration;
+                if (fullPasses > 0) {
+                    for (int i = 1; i <= albumSongs.size(); i++) {
+                        int index = (currentIndex + i) % albumSongs.size();
+                        user.updateEverythingForSong(albumSongs.get(index), fullPasses);
+                        if (user.getIsPremium()) {
+                            user.updateSongAndArtistForPremiumUser(user.
+                                    getLastLoadedAlbum().getSongs().get(index), fullPasses);
+                        }
+                    }
+                    playSeconds -= fullPasses * totalDuration;
+                }
+
                 int totalSize = currentSecond + playSeconds;
 
                 while (totalSize > albumSongs.get(currentIndex).getSong().getDuration()) {
@@ -207,8 +204,8 @@ public class Album {
                     totalSize = currentSecond + playSeconds;
                 }
                 currentSecond = playSeconds;
-                this.setCurrentSongSecond(currentSecond);
-                this.setCurrentSongIndex(currentIndex);
+                session.setCurrentSecond(currentSecond);
+                session.setCurrentSongIndex(currentIndex);
             }
 
         }
@@ -286,133 +283,6 @@ public class Album {
         this.songs = songs;
     }
 
-    /**
-     * Gets the list of shuffled songs in the album.
-     *
-     * @return The list of shuffled songs in the album.
-     */
-    public ArrayList<SongPlayInfo> getShuffledSongs() {
-        return shuffledSongs;
-    }
-
-    /**
-     * Sets the list of shuffled songs in the album.
-     *
-     * @param shuffledSongs The new list of shuffled songs for the album.
-     */
-    public void setShuffledSongs(final ArrayList<SongPlayInfo> shuffledSongs) {
-        this.shuffledSongs = shuffledSongs;
-    }
-
-    /**
-     * Gets the repeat status of the album.
-     *
-     * @return The repeat status of the album (0 for no repeat, 1 for repeat all,
-     * 2 for repeat current song).
-     */
-    public Integer getRepeatStatus() {
-        return repeatStatus;
-    }
-
-    /**
-     * Sets the repeat status of the album.
-     *
-     * @param repeatStatus The new repeat status for the album.
-     */
-    public void setRepeatStatus(final Integer repeatStatus) {
-        this.repeatStatus = repeatStatus;
-    }
-
-    /**
-     * Gets the index of the current song in the album.
-     *
-     * @return The index of the current song in the album.
-     */
-    public Integer getCurrentSongIndex() {
-        return currentSongIndex;
-    }
-
-    /**
-     * Sets the index of the current song in the album.
-     *
-     * @param currentSongIndex The new index of the current song in the album.
-     */
-    public void setCurrentSongIndex(final Integer currentSongIndex) {
-        this.currentSongIndex = currentSongIndex;
-    }
-
-    /**
-     * Gets the current second of the current song in the album.
-     *
-     * @return The current second of the current song in the album.
-     */
-    public Integer getCurrentSongSecond() {
-        return currentSongSecond;
-    }
-
-    /**
-     * Sets the current second of the current song in the album.
-     *
-     * @param currentSongSecond The new current second of the current song in the album.
-     */
-    public void setCurrentSongSecond(final Integer currentSongSecond) {
-        this.currentSongSecond = currentSongSecond;
-    }
-
-    /**
-     * Gets the paused status of the album.
-     *
-     * @return True if the album is paused, false if it's playing.
-     */
-    public Boolean getPaused() {
-        return paused;
-    }
-
-    /**
-     * Sets the paused status of the album.
-     *
-     * @param paused The new paused status for the album.
-     */
-    public void setPaused(final Boolean paused) {
-        this.paused = paused;
-    }
-
-    /**
-     * Gets the last play timestamp of the album.
-     *
-     * @return The last play timestamp of the album.
-     */
-    public Integer getLastPlayTimestamp() {
-        return lastPlayTimestamp;
-    }
-
-    /**
-     * Sets the last play timestamp of the album.
-     *
-     * @param lastPlayTimestamp The new last play timestamp for the album.
-     */
-    public void setLastPlayTimestamp(final Integer lastPlayTimestamp) {
-        this.lastPlayTimestamp = lastPlayTimestamp;
-    }
-
-    /**
-     * Gets the shuffle status of the album.
-     *
-     * @return True if shuffle is active, false if it's inactive.
-     */
-    public Boolean getShuffleStatus() {
-        return shuffleStatus;
-    }
-
-    /**
-     * Sets the shuffle status of the album.
-     *
-     * @param shuffleStatus True if shuffle is active, false if it's inactive.
-     */
-    public void setShuffleStatus(final Boolean shuffleStatus) {
-        this.shuffleStatus = shuffleStatus;
-    }
-
     /**
      * Gets the total number of likes from all the album's songs.
      *
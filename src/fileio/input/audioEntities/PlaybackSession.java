@@ -0,0 +1,173 @@
+package fileio.input.audioEntities;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+
+/**
+ * Keeps what a user is doing with a song, an album or a playlist while playing it
+ * (position, repeat, pause and shuffle), the same way PodcastPlayInfo does for podcasts.
+ * The songs, albums and playlists themselves are shared by all users, so two users
+ * playing the same audio file don't change each other's playback.
+ */
+public class PlaybackSession implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /* stores what was the last timestamp of an operation performed on the
+    audio file while it was on play */
+    private Integer lastPlayTimestamp;
+
+    /* songs: (0) - no repeat, (1) - repeat once, (2) - repeat infinite
+    albums and playlists: (0) - no repeat, (1) - repeat all, (2) - repeat current song */
+    private Integer repeatStatus;
+
+    // (true) - paused, (false) - playing
+    private Boolean paused;
+
+    // the second of the current song
+    private Integer currentSecond;
+
+    // the position of the current song in the songs list (albums and playlists)
+    private Integer currentSongIndex;
+
+    // true - shuffle active ; false - shuffle inactive (albums and playlists)
+    private Boolean shuffleStatus;
+
+    /* this list contains the same songs as the album or the playlist, but the order
+    differs. This list is created after the shuffle status is activated */
+    private ArrayList<SongPlayInfo> shuffledSongs;
+
+    public PlaybackSession() {
+        this.lastPlayTimestamp = 0;
+        this.repeatStatus = 0;
+        this.paused = false;
+        this.currentSecond = 0;
+        this.currentSongIndex = 0;
+        this.shuffleStatus = false;
+    }
+
+    /**
+     * Gets the last play timestamp.
+     *
+     * @return The last play timestamp.
+     */
+    public Integer getLastPlayTimestamp() {
+        return lastPlayTimestamp;
+    }
+
+    /**
+     * Sets the last play timestamp.
+     *
+     * @param lastPlayTimestamp The new last play timestamp.
+     */
+    public void setLastPlayTimestamp(final Integer lastPlayTimestamp) {
+        this.lastPlayTimestamp = lastPlayTimestamp;
+    }
+
+    /**
+     * Gets the repeat status.
+     *
+     * @return The repeat status.
+     */
+    public Integer getRepeatStatus() {
+        return repeatStatus;
+    }
+
+    /**
+     * Sets the repeat status.
+     *
+     * @param repeatStatus The new repeat status.
+     */
+    public void setRepeatStatus(final Integer repeatStatus) {
+        this.repeatStatus = repeatStatus;
+    }
+
+    /**
+     * Gets the paused status.
+     *
+     * @return True if the audio file is paused, false if it's playing.
+     */
+    public Boolean getPaused() {
+        return paused;
+    }
+
+    /**
+     * Sets the paused status.
+     *
+     * @param paused The new paused status.
+     */
+    public void setPaused(final Boolean paused) {
+        this.paused = paused;
+    }
+
+    /**
+     * Gets the current second of the current song.
+     *
+     * @return The current second of the current song.
+     */
+    public Integer getCurrentSecond() {
+        return currentSecond;
+    }
+
+    /**
+     * Sets the current second of the current song.
+     *
+     * @param currentSecond The new current second of the current song.
+     */
+    public void setCurrentSecond(final Integer currentSecond) {
+        this.currentSecond = currentSecond;
+    }
+
+    /**
+     * Gets the index of the current song.
+     *
+     * @return The index of the current song.
+     */
+    public Integer getCurrentSongIndex() {
+        return currentSongIndex;
+    }
+
+    /**
+     * Sets the index of the current song.
+     *
+     * @param currentSongIndex The new index of the current song.
+     */
+    public void setCurrentSongIndex(final Integer currentSongIndex) {
+        this.currentSongIndex = currentSongIndex;
+    }
+
+    /**
+     * Gets the shuffle status.
+     *
+     * @return True if shuffle is active, false if it's inactive.
+     */
+    public Boolean getShuffleStatus() {
+        return shuffleStatus;
+    }
+
+    /**
+     * Sets the shuffle status.
+     *
+     * @param shuffleStatus The new shuffle status.
+     */
+    public void setShuffleStatus(final Boolean shuffleStatus) {
+        this.shuffleStatus = shuffleStatus;
+    }
+
+    /**
+     * Gets the list of shuffled songs.
+     *
+     * @return The list of shuffled songs.
+     */
+    public ArrayList<SongPlayInfo> getShuffledSongs() {
+        return shuffledSongs;
+    }
+
+    /**
+     * Sets the list of shuffled songs.
+     *
+     * @param shuffledSongs The new list of shuffled songs.
+     */
+    public void setShuffledSongs(final ArrayList<SongPlayInfo> shuffledSongs) {
+        this.shuffledSongs = shuffledSongs;
+    }
+}
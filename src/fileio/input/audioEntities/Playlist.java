@@ -1,22 +1,22 @@
 package fileio.input.audioEntities;
 
-import main.Main;
+import main.statisticsCommands.Leaderboards;
 import users.Artist;
 import users.NormalUser;
+import users.UserRegistry;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 
 /**
  * Represents a playlist with songs and associated metadata.
  */
-public class Playlist {
+public class Playlist implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     // list of the songs of the playlist when shuffle mode is NOT active
     private ArrayList<SongPlayInfo> playlistSongs;
 
-    /* this list contains the same songs as the one above, but the order
-    differs. This list is created after the shuffle status is activated */
-    private ArrayList<SongPlayInfo> shuffledPlaylistSongs;
-
     // (true) - private, (false) - public
     private Boolean visibility;
 
@@ -26,25 +26,6 @@ public class Playlist {
     // the username of the user that has created the playlist
     private String owner;
 
-    // (0) - no repeat, (1) - repeat all, (2) - repeat current song
-    private Integer repeatStatus;
-
-    // the position of the current song in the songs list
-    private Integer currentSongIndex;
-
-    // the second of the current song
-    private Integer currentSongSecond;
-
-    // (true) - paused, (false) - playing
-    private Boolean paused;
-
-    /* stores what was the last timestamp of an operation performed on the
-    playlist while the playlist was on play */
-    private Integer lastPlayTimestamp;
-
-    // true - shuffle active ; false - shuffle inactive
-    private Boolean shuffleStatus;
-
     // store the number of followers of the playlist
     private Integer followers;
 
@@ -63,26 +44,21 @@ public class Playlist {
         this.visibility = visibility;
         this.owner = owner;
         playlistSongs = new ArrayList<>();
-        this.repeatStatus = 0;
-        this.currentSongIndex = 0;
-        this.paused = false;
-        this.lastPlayTimestamp = 0;
-        this.currentSongSecond = 0;
-        this.shuffleStatus = false;
         this.followers = 0;
         this.numberOfLikes = 0;
     }
 
-
     /**
      * Updates the total number of likes for the playlist based on the given list of songs.
      *
      * @param songsInPlaylist The list of songs in the playlist.
+     * @param leaderboards    The leaderboards that keep the likes of the songs.
      */
-    public void updateNumberOfLikes(final ArrayList<SongPlayInfo> songsInPlaylist) {
+    public void updateNumberOfLikes(final ArrayList<SongPlayInfo> songsInPlaylist,
+                                    final Leaderboards leaderboards) {
         Integer totalLikes = 0;
         for (SongPlayInfo songPlayInfo : songsInPlaylist) {
-            totalLikes += songPlayInfo.getNumberOfLikes();
+            totalLikes += leaderboards.getSongLikes(songPlayInfo);
         }
         this.numberOfLikes = totalLikes;
     }
@@ -96,11 +72,14 @@ public class Playlist {
      */
     public void updatePlaylistStatus(final NormalUser user, final Integer currentTimestamp,
                                      final ArrayList<SongPlayInfo> songs) {
+        PlaybackSession session = user.getPlaylistSession(this);
+        UserRegistry userRegistry = user.getContext().getUserRegistry();
+
         /* calculate the number of seconds that the song has been playing from
         the last update until the current timestamp */
-        Integer playSeconds = currentTimestamp - this.getLastPlayTimestamp();
-        Integer currentSecond = this.getCurrentSongSecond();
-        Integer currentIndex = this.getCurrentSongIndex();
+        Integer playSeconds = currentTimestamp - session.getLastPlayTimestamp();
+        Integer currentSecond = session.getCurrentSecond();
+        Integer currentIndex = session.getCurrentSongIndex();
 
         if (songs.isEmpty()) {
             return;
@@ -109,20 +88,21 @@ public class Playlist {
         int carrySeconds = currentSecond + playSeconds - duration;
 
         // case no repeat
-        if (user.getLastLoadedPlaylist().getRepeatStatus() == 0) {
+        if (session.getRepeatStatus() == 0) {
             // check if the song duration is exceeded
             if (carrySeconds <= 0) {
                 // we are situated within the bounds of the same song
-                this.setCurrentSongSecond(currentSecond + playSeconds);
+                session.setCurrentSecond(currentSecond + playSeconds);
             }
             while (carrySeconds > 0) {
                 // check if this is the last song
                 if (songs.size() <= currentIndex + 1) {
                     // the playlist has ended
-                    this.setCurrentSongSecond(0);
-                    this.setCurrentSongIndex(0);
-                    this.setPaused(true);
+                    session.setCurrentSecond(0);
+                    session.setCurrentSongIndex(0);
+                    session.setPaused(true);
                     user.setLastLoadedPlaylist(null);
+                    user.setLoaded(false);
                     return;
 
                 }
@@ -136,12 +116,10 @@ public class Playlist {
                             getPlaylistSongs().get(currentIndex));
                 }
 
-                for (Artist artist : Main.artistsList) {
-                    if (artist.getUsername().equals(songs.get(currentIndex).
-                            getSong().getArtist())) {
-                        artist.setHadSomethingOnPlay(true);
-                        break;
-                    }
+                Artist artist = userRegistry.getArtist(songs.get(currentIndex).
+                        getSong().getArtist());
+                if (artist != null) {
+                    artist.setHadSomethingOnPlay(true);
                 }
 
                 /* check if the carry from the previous operation fits into the next
@@ -157,39 +135,62 @@ public class Playlist {
                     }
                     currentSecond = carrySeconds;
                     carrySeconds = 0;
-                    this.setCurrentSongIndex(currentIndex);
-                    this.setCurrentSongSecond(currentSecond);
+                    session.setCurrentSongIndex(currentIndex);
+                    session.setCurrentSecond(currentSecond);
                 }
             }
         }
 
         // case repeat current song
-        if (user.getLastLoadedPlaylist().getRepeatStatus() == 2) {
+        if (session.getRepeatStatus() == 2) {
             if (carrySeconds <= 0) {
                 // we are situated within the bounds of the same song
-                this.setCurrentSongSecond(currentSecond + playSeconds);
+                session.setCurrentSecond(currentSecond + playSeconds);
             } else {
                 Integer totalSize = playSeconds + currentSecond;
 
-                while (totalSize > songs.get(currentIndex).getSong().getDuration()) {
-                    totalSize -= songs.get(currentIndex).getSong().getDuration();
-                    user.updateEverythingForSong(songs.get(currentIndex));
-                    if (user.getIsPremium()) {
-                        user.updateSongAndArtistForPremiumUser(user.
-                                getLastLoadedPlaylist().getPlaylistSongs().get(currentIndex));
-                    }
+                // count every time the song has ended in a single update
+                int loops = (totalSize - 1) / duration;
+                user.updateEverythingForSong(songs.get(currentIndex), loops);
+                if (user.getIsPremium()) {
+                    user.updateSongAndArtistForPremiumUser(user.
+                            getLastLoadedPlaylist().getPlaylistSongs().get(currentIndex), loops);
                 }
-                currentSecond = totalSize;
-                user.getLastLoadedPlaylist().setCurrentSongSecond(currentSecond);
+                currentSecond = totalSize - loops * duration;
+                session.setCurrentSecond(currentSecond);
             }
         }
 
         // case repeat once
-        if (user.getLastLoadedPlaylist().getRepeatStatus() == 1) {
+        if (session.getRepeatStatus() == 1) {
             if (carrySeconds <= 0) {
                 // we are situated within the bounds of the same song
-                this.setCurrentSongSecond(currentSecond + playSeconds);
+                session.setCurrentSecond(currentSecond + playSeconds);
             } else {
+                /* every whole pass through the playlist brings us back to the same
+                song, so the whole passes are counted in bulk and only the rest is walked */
+                int totalDuration = 0;
+                for (SongPlayInfo songPlayInfo : songs) {
+                    totalDuration += songPlayInfo.getSong().getDuration();
+                }
+                int fullPasses = (carrySeconds - 1) / totalDuration;
+                if (fullPasses > 0) {
+                    for (int i = 1; i <= songs.size(); i++) {
+                        int index = (currentIndex + i) % songs.size();
+                        Artist artist = userRegistry.getArtist(songs.get(index).
+                                getSong().getArtist());
+                        if (artist != null) {
+                            artist.setHadSomethingOnPlay(true);
+                        }
+                        user.updateEverythingForSong(songs.get(index), fullPasses);
+                        if (user.getIsPremium()) {
+                            user.updateSongAndArtistForPremiumUser(user.getLastLoadedPlaylist().
+                                    getPlaylistSongs().get(index), fullPasses);
+                        }
+                    }
+                    playSeconds -= fullPasses * totalDuration;
+                }
+
                 int totalSize = currentSecond + playSeconds;
 
                 while (totalSize > songs.get(currentIndex).getSong().getDuration()) {
@@ -199,12 +200,10 @@ public class Playlist {
                         remaining = songs.get(currentIndex).getSong().getDuration() - currentSecond;
                         playSeconds = playSeconds - remaining;
                         currentIndex = 0;
-                        for (Artist artist : Main.artistsList) {
-                            if (artist.getUsername().equals(songs.get(currentIndex).
-                                    getSong().getArtist())) {
-                                artist.setHadSomethingOnPlay(true);
-                                break;
-                            }
+                        Artist artist = userRegistry.getArtist(songs.get(currentIndex).
+                                getSong().getArtist());
+                        if (artist != null) {
+                            artist.setHadSomethingOnPlay(true);
                         }
                         user.updateEverythingForSong(songs.get(currentIndex));
                         if (user.getIsPremium()) {
@@ -217,12 +216,10 @@ public class Playlist {
                         remaining = songs.get(currentIndex).getSong().getDuration() - currentSecond;
                         playSeconds = playSeconds - remaining;
                         currentIndex++;
-                        for (Artist artist : Main.artistsList) {
-                            if (artist.getUsername().equals(songs.get(currentIndex).
-                                    getSong().getArtist())) {
-                                artist.setHadSomethingOnPlay(true);
-                                break;
-                            }
+                        Artist artist = userRegistry.getArtist(songs.get(currentIndex).
+                                getSong().getArtist());
+                        if (artist != null) {
+                            artist.setHadSomethingOnPlay(true);
                         }
                         user.updateEverythingForSong(songs.get(currentIndex));
                         if (user.getIsPremium()) {
@@ -234,8 +231,8 @@ public class Playlist {
                     totalSize = currentSecond + playSeconds;
                 }
                 currentSecond = playSeconds;
-                this.setCurrentSongSecond(currentSecond);
-                this.setCurrentSongIndex(currentIndex);
+                session.setCurrentSecond(currentSecond);
+                session.setCurrentSongIndex(currentIndex);
             }
 
         }
@@ -313,25 +310,6 @@ public class Playlist {
         this.visibility = visibility;
     }
 
-    /**
-     * Gets the repeat status of the playlist.
-     *
-     * @return The repeat status of the playlist (0 for no repeat,
-     * 1 for repeat all, 2 for repeat current song).
-     */
-    public Integer getRepeatStatus() {
-        return repeatStatus;
-    }
-
-    /**
-     * Sets the repeat status of the playlist.
-     *
-     * @param repeatStatus The new repeat status for the playlist.
-     */
-    public void setRepeatStatus(final Integer repeatStatus) {
-        this.repeatStatus = repeatStatus;
-    }
-
     /**
      * Gets the list of song names in the playlist.
      *
@@ -346,114 +324,6 @@ public class Playlist {
         return songNames;
     }
 
-    /**
-     * Gets the index of the current song in the playlist.
-     *
-     * @return The index of the current song.
-     */
-    public Integer getCurrentSongIndex() {
-        return this.currentSongIndex;
-    }
-
-    /**
-     * Sets the index of the current song in the playlist.
-     *
-     * @param currentSongIndex The new index of the current song.
-     */
-    public void setCurrentSongIndex(final Integer currentSongIndex) {
-        this.currentSongIndex = currentSongIndex;
-    }
-
-    /**
-     * Gets the paused status of the playlist.
-     *
-     * @return True if the playlist is paused, false if it's playing.
-     */
-    public Boolean getPaused() {
-        return paused;
-    }
-
-    /**
-     * Sets the paused status of the playlist.
-     *
-     * @param paused The new paused status for the playlist.
-     */
-    public void setPaused(final Boolean paused) {
-        this.paused = paused;
-    }
-
-    /**
-     * Gets the last play timestamp of the playlist.
-     *
-     * @return The last play timestamp of the playlist.
-     */
-    public Integer getLastPlayTimestamp() {
-        return lastPlayTimestamp;
-    }
-
-    /**
-     * Sets the last play timestamp of the playlist.
-     *
-     * @param lastPlayTimestamp The new last play timestamp for the playlist.
-     */
-    public void setLastPlayTimestamp(final Integer lastPlayTimestamp) {
-        this.lastPlayTimestamp = lastPlayTimestamp;
-    }
-
-    /**
-     * Gets the current second of the current song in the playlist.
-     *
-     * @return The current second of the current song.
-     */
-    public Integer getCurrentSongSecond() {
-        return currentSongSecond;
-    }
-
-    /**
-     * Sets the current second of the current song in the playlist.
-     *
-     * @param currentSongSecond The new current second of the current song.
-     */
-    public void setCurrentSongSecond(final Integer currentSongSecond) {
-        this.currentSongSecond = currentSongSecond;
-    }
-
-    /**
-     * Gets the list of shuffled songs in the playlist.
-     *
-     * @return The list of shuffled songs in the playlist.
-     */
-    public ArrayList<SongPlayInfo> getShuffledPlaylistSongs() {
-        return shuffledPlaylistSongs;
-    }
-
-    /**
-     * Sets the list of shuffled songs in the playlist.
-     *
-     * @param shuffledPlaylistSongs The new list of shuffled songs for the playlist.
-     */
-    public void setShuffledPlaylistSongs(final ArrayList<SongPlayInfo> shuffledPlaylistSongs) {
-        this.shuffledPlaylistSongs = shuffledPlaylistSongs;
-    }
-
-    /**
-     * Gets the shuffle status of the playlist.
-     *
-     * @return True if shuffle is active, false if it's inactive.
-     */
-    public Boolean getShuffleStatus() {
-        return shuffleStatus;
-    }
-
-    /**
-     * Sets the shuffle status of the playlist.
-     *
-     * @param shuffleStatus The new shuffle status for the playlist.
-     */
-    public void setShuffleStatus(final Boolean shuffleStatus) {
-        this.shuffleStatus = shuffleStatus;
-    }
-
     /**
      * Gets the number of followers of the playlist.
      *
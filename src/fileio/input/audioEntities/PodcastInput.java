@@ -1,8 +1,11 @@
 package fileio.input.audioEntities;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 
-public final class PodcastInput {
+public final class PodcastInput implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private String name;
     private String owner;
     private ArrayList<EpisodeInput> episodes;
@@ -2,9 +2,12 @@ package fileio.input.audioEntities;
 
 import users.NormalUser;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 
-public class PodcastPlayInfo {
+public class PodcastPlayInfo implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private PodcastInput podcast;
 
     // the index of the current episode of the podcast
@@ -107,12 +110,13 @@ public class PodcastPlayInfo {
                 /* we have exceeded the duration of the current episode,
                 so we should replay it from the beginning */
                 playSeconds = playSeconds - (currentEpisodeDuration - currentEpisodeSecond);
-                user.updateWrappedEpisodes(this.getPodcast().getEpisodes().get(currentIndex));
-                while (playSeconds > currentEpisodeDuration) {
-                    playSeconds = playSeconds - currentEpisodeDuration;
-                    user.updateWrappedEpisodes(this.getPodcast().getEpisodes().get(currentIndex));
-                }
-                currentEpisodeSecond = playSeconds;
+
+                /* the episode ends once here and once more for every whole duration
+                left over, so all the listens are counted in a single update */
+                int extraLoops = (playSeconds - 1) / currentEpisodeDuration;
+                user.updateWrappedEpisodes(this.getPodcast().getEpisodes().get(currentIndex),
+                        1 + extraLoops);
+                currentEpisodeSecond = playSeconds - extraLoops * currentEpisodeDuration;
                 this.setCurrentSecondEpisode(currentEpisodeSecond);
             }
         }
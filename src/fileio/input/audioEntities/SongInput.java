@@ -1,8 +1,11 @@
 package fileio.input.audioEntities;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 
-public final class SongInput {
+public final class SongInput implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private String name;
     private Integer duration;
     private String album;
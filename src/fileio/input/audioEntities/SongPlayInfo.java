@@ -2,24 +2,31 @@ package fileio.input.audioEntities;
 
 import users.NormalUser;
 
-public class SongPlayInfo {
-    private SongInput song;
-
-    // the last timestamp when the command pause was received for this song
-    private Integer lastPlayTimestamp;
+import java.io.Serializable;
 
-    // (0) - no repeat, (1) - repeat once, (2) - repeat infinite
-    private Integer repeatStatus;
+public class SongPlayInfo implements Serializable {
+    private static final long serialVersionUID = 1L;
 
-    // true - song is paused, false - song is playing
-    private Boolean songPaused;
-
-    private Integer currentSecond;
+    private SongInput song;
 
-    private Integer numberOfLikes;
+    // the position of the song in the library, or -1 for a song added by an artist
+    private final int catalogPosition;
 
+    /* the likes of a song aren't kept here, but in the Leaderboards of the simulation,
+    since the songs from the library are shared by all the simulations */
     public SongPlayInfo() {
-        this.numberOfLikes = 0;
+        this.catalogPosition = -1;
+    }
+
+    /**
+     * Creates the play information of a song from the library.
+     *
+     * @param song            the song.
+     * @param catalogPosition the position of the song in the library.
+     */
+    public SongPlayInfo(final SongInput song, final int catalogPosition) {
+        this.song = song;
+        this.catalogPosition = catalogPosition;
     }
 
     /**
@@ -29,34 +36,35 @@ public class SongPlayInfo {
      * @param currentTimestamp The current timestamp of the update.
      */
     public void updateSongStatus(final NormalUser user, final Integer currentTimestamp) {
+        PlaybackSession session = user.getSongSession();
 
         /* calculate the number of seconds that the song has been playing form
         the last update until the current timestamp */
-        Integer playSeconds = currentTimestamp - this.getLastPlayTimestamp();
-        Integer currentSec = this.getCurrentSecond();
+        Integer playSeconds = currentTimestamp - session.getLastPlayTimestamp();
+        Integer currentSec = session.getCurrentSecond();
 
         // case no repeat
-        if (this.getRepeatStatus() == 0) {
-            if (this.getCurrentSecond() + playSeconds > this.getSong().getDuration()) {
+        if (session.getRepeatStatus() == 0) {
+            if (session.getCurrentSecond() + playSeconds > this.getSong().getDuration()) {
                 // the song has finished. Nothing is playing anymore
-                this.setCurrentSecond(0);
+                session.setCurrentSecond(0);
                 user.setLastLoadedSongPlayInfo(null);
                 user.setLoaded(false);
                 return;
             }
 
             // if we are here, it means that the song hasn't finished yet
-            this.setCurrentSecond(currentSec + playSeconds);
+            session.setCurrentSecond(currentSec + playSeconds);
             return;
         }
 
         // case repeat once
-        if (this.getRepeatStatus() == 1) {
-            if (this.getCurrentSecond() + playSeconds > 2 * this.getSong().getDuration()) {
+        if (session.getRepeatStatus() == 1) {
+            if (session.getCurrentSecond() + playSeconds > 2 * this.getSong().getDuration()) {
                 // the song has been played 2 times and has ended
                 user.setLastLoadedSongPlayInfo(null);
                 user.setLoaded(false);
-                this.setRepeatStatus(0);
+                session.setRepeatStatus(0);
                 user.updateEverythingForSong(this);
                 if (user.getIsPremium()) {
                     user.updateSongAndArtistForPremiumUser(this);
@@ -64,41 +72,38 @@ public class SongPlayInfo {
                 return;
             }
             // check if the song duration is exceeded
-            if (this.getCurrentSecond() + playSeconds > this.getSong().getDuration()) {
+            if (session.getCurrentSecond() + playSeconds > this.getSong().getDuration()) {
                 user.updateEverythingForSong(this);
                 if (user.getIsPremium()) {
                     user.updateSongAndArtistForPremiumUser(this);
                 }
-                playSeconds += this.getCurrentSecond() - this.getSong().getDuration();
+                playSeconds += session.getCurrentSecond() - this.getSong().getDuration();
                 currentSec = playSeconds;
-                this.setCurrentSecond(currentSec);
-                this.setRepeatStatus(0);
+                session.setCurrentSecond(currentSec);
+                session.setRepeatStatus(0);
                 return;
             }
-            this.setCurrentSecond(currentSec + playSeconds);
+            session.setCurrentSecond(currentSec + playSeconds);
             return;
         }
 
         // case repeat infinite
-        if (this.getRepeatStatus() == 2) {
+        if (session.getRepeatStatus() == 2) {
             // check if the song duration is exceeded
-            if (this.getCurrentSecond() + playSeconds <= this.getSong().getDuration()) {
-                this.setCurrentSecond(currentSec + playSeconds);
+            if (session.getCurrentSecond() + playSeconds <= this.getSong().getDuration()) {
+                session.setCurrentSecond(currentSec + playSeconds);
             } else {
                 playSeconds = playSeconds - (this.getSong().getDuration() - currentSec);
-                user.updateEverythingForSong(this);
+
+                /* the song ends once here and once more for every whole duration
+                left over, so all the listens are counted in a single update */
+                int extraLoops = (playSeconds - 1) / this.getSong().getDuration();
+                user.updateEverythingForSong(this, 1 + extraLoops);
                 if (user.getIsPremium()) {
-                    user.updateSongAndArtistForPremiumUser(this);
-                }
-                while (playSeconds > this.getSong().getDuration()) {
-                    playSeconds = playSeconds - this.getSong().getDuration();
-                    user.updateEverythingForSong(this);
-                    if (user.getIsPremium()) {
-                        user.updateSongAndArtistForPremiumUser(this);
-                    }
+                    user.updateSongAndArtistForPremiumUser(this, 1 + extraLoops);
                 }
-                currentSec = playSeconds;
-                this.setCurrentSecond(currentSec);
+                currentSec = playSeconds - extraLoops * this.getSong().getDuration();
+                session.setCurrentSecond(currentSec);
             }
         }
     }
@@ -122,93 +127,11 @@ public class SongPlayInfo {
     }
 
     /**
-     * Gets the last play timestamp for the song.
-     *
-     * @return The last play timestamp for the song.
-     */
-    public Integer getLastPlayTimestamp() {
-        return lastPlayTimestamp;
-    }
-
-    /**
-     * Sets the last play timestamp for the song.
-     *
-     * @param lastPlayTimestamp The new last play timestamp for the song.
-     */
-    public void setLastPlayTimestamp(final Integer lastPlayTimestamp) {
-        this.lastPlayTimestamp = lastPlayTimestamp;
-    }
-
-    /**
-     * Gets the repeat status for the song.
-     *
-     * @return The repeat status for the song (0 for no repeat,
-     * 1 for repeat once, 2 for repeat infinite).
-     */
-    public Integer getRepeatStatus() {
-        return repeatStatus;
-    }
-
-    /**
-     * Sets the repeat status for the song.
-     *
-     * @param repeatStatus The new repeat status for the song.
-     */
-    public void setRepeatStatus(final Integer repeatStatus) {
-        this.repeatStatus = repeatStatus;
-    }
-
-    /**
-     * Gets the paused status for the song.
-     *
-     * @return True if the song is paused, false if it's playing.
-     */
-    public Boolean getSongPaused() {
-        return songPaused;
-    }
-
-    /**
-     * Sets the paused status for the song.
-     *
-     * @param songPaused True if the song is paused, false if it's playing.
-     */
-    public void setSongPaused(final Boolean songPaused) {
-        this.songPaused = songPaused;
-    }
-
-    /**
-     * Gets the current second of the song's playback.
-     *
-     * @return The current second of the song's playback.
-     */
-    public Integer getCurrentSecond() {
-        return currentSecond;
-    }
-
-    /**
-     * Sets the current second of the song's playback.
-     *
-     * @param currentSecond The new current second for the song's playback.
-     */
-    public void setCurrentSecond(final Integer currentSecond) {
-        this.currentSecond = currentSecond;
-    }
-
-    /**
-     * Gets the number of likes for the song.
-     *
-     * @return The number of likes for the song.
-     */
-    public Integer getNumberOfLikes() {
-        return numberOfLikes;
-    }
-
-    /**
-     * Sets the number of likes for the song.
+     * Gets the position of the song in the library.
      *
-     * @param numberOfLikes The new number of likes for the song.
+     * @return The position of the song, or -1 if the song isn't from the library.
      */
-    public void setNumberOfLikes(final Integer numberOfLikes) {
-        this.numberOfLikes = numberOfLikes;
+    public int getCatalogPosition() {
+        return catalogPosition;
     }
 }
@@ -0,0 +1,524 @@
+package fileio.input.audioEntities;
+
+import fileio.input.Filters;
+
+import java.io.Serializable;
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+/**
+ * Indexes the songs of the library by the fields the song search filters on, so
+ * that a search only looks at the songs of the most selective filter instead of
+ * going through the whole song list.
+ * All the song collections are keyed by the position of the song in the catalog,
+ * so they are always iterated in the same order as the big song list.
+ *
+ * <p>The index of the songs from the library is built once and shared by all the
+ * simulations (LibraryCatalog.getSongSearchIndex). A simulation indexes only the songs
+ * added by its artists, in an index created on top of the shared one, and remembers the
+ * songs from the library it removed; the shared index is never changed.
+ */
+public final class SongSearchIndex implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    // the length of the n-grams kept in the lyrics index
+    private static final int GRAM_LENGTH = 3;
+
+    // the shared index of the songs from the library (null for that index itself)
+    private final SongSearchIndex base;
+
+    // the songs of the shared index that were removed from the catalog
+    private final IdentityHashMap<SongPlayInfo, Boolean> removedBaseSongs;
+
+    // the position in the catalog that will be given to the next song added
+    private int nextPosition;
+
+    // song -> its position in the catalog
+    private final IdentityHashMap<SongPlayInfo, Integer> positions;
+
+    // every song of the catalog
+    private final TreeMap<Integer, SongPlayInfo> allSongs;
+
+    // prefix trie over the lowercase song names
+    private final TrieNode namesRoot;
+
+    // exact-match indexes over the case-folded album, genre and artist names
+    private final HashMap<String, TreeMap<Integer, SongPlayInfo>> songsByAlbum;
+    private final HashMap<String, TreeMap<Integer, SongPlayInfo>> songsByGenre;
+    private final HashMap<String, TreeMap<Integer, SongPlayInfo>> songsByArtist;
+
+    // posting list of every tag
+    private final HashMap<String, TreeMap<Integer, SongPlayInfo>> songsByTag;
+
+    // release year (kept sorted) -> songs released that year
+    private final TreeMap<Integer, TreeMap<Integer, SongPlayInfo>> songsByReleaseYear;
+
+    // song -> its lyrics in lowercase, computed only once
+    private final IdentityHashMap<SongPlayInfo, String> lowerCaseLyrics;
+
+    // trigram of the lowercase lyrics -> songs whose lyrics contain it
+    private final HashMap<String, TreeMap<Integer, SongPlayInfo>> songsByLyricsGram;
+
+    private static final class TrieNode implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final HashMap<Character, TrieNode> children = new HashMap<>();
+
+        // the number of songs whose lowercase name starts with the prefix of this node
+        private int songCount;
+
+        // the songs whose lowercase name is the prefix of this node (null for none)
+        private TreeMap<Integer, SongPlayInfo> songs;
+    }
+
+    public SongSearchIndex() {
+        this(null, 0);
+    }
+
+    /**
+     * Creates the index of a simulation, for the songs added after the ones of the
+     * shared index.
+     *
+     * @param base the index of the songs from the library.
+     */
+    public SongSearchIndex(final SongSearchIndex base) {
+        this(base, base.nextPosition);
+    }
+
+    private SongSearchIndex(final SongSearchIndex base, final int firstPosition) {
+        this.base = base;
+        this.removedBaseSongs = new IdentityHashMap<>();
+        this.nextPosition = firstPosition;
+        this.positions = new IdentityHashMap<>();
+        this.allSongs = new TreeMap<>();
+        this.namesRoot = new TrieNode();
+        this.songsByAlbum = new HashMap<>();
+        this.songsByGenre = new HashMap<>();
+        this.songsByArtist = new HashMap<>();
+        this.songsByTag = new HashMap<>();
+        this.songsByReleaseYear = new TreeMap<>();
+        this.lowerCaseLyrics = new IdentityHashMap<>();
+        this.songsByLyricsGram = new HashMap<>();
+    }
+
+    /**
+     * Adds the given songs at the end of the catalog.
+     *
+     * @param songs the songs to be added, in catalog order.
+     */
+    public void addSongs(final Collection<SongPlayInfo> songs) {
+        for (SongPlayInfo songPlayInfo : songs) {
+            addSong(songPlayInfo);
+        }
+    }
+
+    /**
+     * Adds a song at the end of the catalog.
+     *
+     * @param songPlayInfo the song to be added.
+     */
+    public void addSong(final SongPlayInfo songPlayInfo) {
+        if (positions.containsKey(songPlayInfo) || isInBase(songPlayInfo)) {
+            return;
+        }
+
+        Integer position = nextPosition++;
+        positions.put(songPlayInfo, position);
+        allSongs.put(position, songPlayInfo);
+
+        SongInput song = songPlayInfo.getSong();
+        if (song.getName() != null) {
+            TrieNode node = namesRoot;
+            node.songCount++;
+            for (char c : song.getName().toLowerCase().toCharArray()) {
+                node = node.children.computeIfAbsent(c, k -> new TrieNode());
+                node.songCount++;
+            }
+            if (node.songs == null) {
+                node.songs = new TreeMap<>();
+            }
+            node.songs.put(position, songPlayInfo);
+        }
+        addPosting(songsByAlbum, caseFold(song.getAlbum()), position, songPlayInfo);
+        addPosting(songsByGenre, caseFold(song.getGenre()), position, songPlayInfo);
+        addPosting(songsByArtist, caseFold(song.getArtist()), position, songPlayInfo);
+        if (song.getTags() != null) {
+            for (String tag : song.getTags()) {
+                addPosting(songsByTag, tag, position, songPlayInfo);
+            }
+        }
+        songsByReleaseYear.computeIfAbsent(song.getReleaseYear(), k -> new TreeMap<>()).
+                put(position, songPlayInfo);
+        if (song.getLyrics() != null) {
+            String lyrics = song.getLyrics().toLowerCase();
+            lowerCaseLyrics.put(songPlayInfo, lyrics);
+            for (String gram : getGrams(lyrics)) {
+                addPosting(songsByLyricsGram, gram, position, songPlayInfo);
+            }
+        }
+    }
+
+    /**
+     * Removes a song from the catalog.
+     *
+     * @param songPlayInfo the song to be removed.
+     */
+    public void removeSong(final SongPlayInfo songPlayInfo) {
+        Integer position = positions.remove(songPlayInfo);
+        if (position == null) {
+            if (isInBase(songPlayInfo)) {
+                removedBaseSongs.put(songPlayInfo, Boolean.TRUE);
+            }
+            return;
+        }
+        allSongs.remove(position);
+
+        SongInput song = songPlayInfo.getSong();
+        if (song.getName() != null) {
+            TrieNode node = namesRoot;
+            node.songCount--;
+            for (char c : song.getName().toLowerCase().toCharArray()) {
+                TrieNode child = node.children.get(c);
+                child.songCount--;
+                if (child.songCount == 0) {
+                    // nobody else goes through this branch anymore
+                    node.children.remove(c);
+                    node = null;
+                    break;
+                }
+                node = child;
+            }
+            if (node != null) {
+                node.songs.remove(position);
+                if (node.songs.isEmpty()) {
+                    node.songs = null;
+                }
+            }
+        }
+        removePosting(songsByAlbum, caseFold(song.getAlbum()), position);
+        removePosting(songsByGenre, caseFold(song.getGenre()), position);
+        removePosting(songsByArtist, caseFold(song.getArtist()), position);
+        if (song.getTags() != null) {
+            for (String tag : song.getTags()) {
+                removePosting(songsByTag, tag, position);
+            }
+        }
+        TreeMap<Integer, SongPlayInfo> sameYear = songsByReleaseYear.get(song.getReleaseYear());
+        sameYear.remove(position);
+        if (sameYear.isEmpty()) {
+            songsByReleaseYear.remove(song.getReleaseYear());
+        }
+        String lyrics = lowerCaseLyrics.remove(songPlayInfo);
+        if (lyrics != null) {
+            for (String gram : getGrams(lyrics)) {
+                removePosting(songsByLyricsGram, gram, position);
+            }
+        }
+    }
+
+    /**
+     * Gets the lyrics of a song in lowercase, without lowercasing them again
+     * if the song is in the index.
+     *
+     * @param songPlayInfo the song.
+     * @return the lowercase lyrics of the song.
+     */
+    public String getLowerCaseLyrics(final SongPlayInfo songPlayInfo) {
+        String lyrics = lowerCaseLyrics.get(songPlayInfo);
+        if (lyrics == null && base != null) {
+            lyrics = base.lowerCaseLyrics.get(songPlayInfo);
+        }
+        if (lyrics == null) {
+            lyrics = songPlayInfo.getSong().getLyrics().toLowerCase();
+        }
+        return lyrics;
+    }
+
+    /**
+     * @param songPlayInfo the song.
+     * @return true if the song is still in the catalog through the shared index.
+     */
+    private boolean isInBase(final SongPlayInfo songPlayInfo) {
+        return base != null && base.positions.containsKey(songPlayInfo)
+                && !removedBaseSongs.containsKey(songPlayInfo);
+    }
+
+    /**
+     * Gets the songs that may match the given filters, in catalog order. These are
+     * the songs of the most selective indexed filter, so every song that matches all
+     * the filters is among them, but each one still has to be checked against the
+     * other filters.
+     *
+     * @param filters the filters of the search.
+     * @return the candidate songs, in catalog order.
+     */
+    public Collection<SongPlayInfo> getCandidates(final Filters filters) {
+        Collection<SongPlayInfo> ownCandidates = getOwnCandidates(filters);
+        if (base == null) {
+            return ownCandidates;
+        }
+        Collection<SongPlayInfo> baseCandidates = base.getOwnCandidates(filters);
+        if (ownCandidates.isEmpty() && removedBaseSongs.isEmpty()) {
+            return baseCandidates;
+        }
+        // the songs from the library come before the added ones in the catalog
+        return new CatalogCandidates(baseCandidates, removedBaseSongs, ownCandidates);
+    }
+
+    /**
+     * Gets the candidates among the songs of this index only.
+     *
+     * @param filters the filters of the search.
+     * @return the candidate songs of this index, in catalog order.
+     */
+    private Collection<SongPlayInfo> getOwnCandidates(final Filters filters) {
+        Map<Integer, SongPlayInfo> candidates = allSongs;
+
+        TrieNode nameNode = null;
+        if (filters.getName() != null) {
+            nameNode = namesRoot;
+            for (char c : filters.getName().toLowerCase().toCharArray()) {
+                nameNode = nameNode.children.get(c);
+                if (nameNode == null) {
+                    return new TreeMap<Integer, SongPlayInfo>().values();
+                }
+            }
+        }
+        if (filters.getAlbum() != null) {
+            candidates = smaller(candidates, songsByAlbum.get(caseFold(filters.getAlbum())));
+        }
+        if (filters.getGenre() != null) {
+            candidates = smaller(candidates, songsByGenre.get(caseFold(filters.getGenre())));
+        }
+        if (filters.getArtist() != null) {
+            candidates = smaller(candidates, songsByArtist.get(caseFold(filters.getArtist())));
+        }
+        if (filters.getTags() != null) {
+            for (String tag : filters.getTags()) {
+                candidates = smaller(candidates, songsByTag.get(tag));
+            }
+        }
+        if (filters.getReleaseYear() != null) {
+            candidates = smaller(candidates, getSongsByReleaseYear(filters.getReleaseYear()));
+        }
+        if (filters.getLyrics() != null) {
+            /* the lyrics of a matching song contain every trigram of the searched text
+            (a text shorter than a trigram doesn't narrow the candidates down) */
+            String lyrics = filters.getLyrics().toLowerCase();
+            for (int i = 0; i + GRAM_LENGTH <= lyrics.length(); i++) {
+                candidates = smaller(candidates,
+                        songsByLyricsGram.get(lyrics.substring(i, i + GRAM_LENGTH)));
+            }
+        }
+        /* the songs of a name prefix are only gathered from the subtree if they are
+        fewer than the candidates of the other filters */
+        if (nameNode != null && nameNode.songCount < candidates.size()) {
+            TreeMap<Integer, SongPlayInfo> songsWithPrefix = new TreeMap<>();
+            collectSongs(nameNode, songsWithPrefix);
+            candidates = songsWithPrefix;
+        }
+
+        return candidates.values();
+    }
+
+    /**
+     * The candidates of the shared index (without the removed songs), followed by the
+     * candidates of the index of the simulation. The songs are only gone through while
+     * the search iterates, since it stops after the first results.
+     */
+    private static final class CatalogCandidates extends AbstractCollection<SongPlayInfo> {
+        private final Collection<SongPlayInfo> baseCandidates;
+        private final IdentityHashMap<SongPlayInfo, Boolean> removedBaseSongs;
+        private final Collection<SongPlayInfo> ownCandidates;
+
+        CatalogCandidates(final Collection<SongPlayInfo> baseCandidates,
+                          final IdentityHashMap<SongPlayInfo, Boolean> removedBaseSongs,
+                          final Collection<SongPlayInfo> ownCandidates) {
+            this.baseCandidates = baseCandidates;
+            this.removedBaseSongs = removedBaseSongs;
+            this.ownCandidates = ownCandidates;
+        }
+
+        @Override
+        public Iterator<SongPlayInfo> iterator() {
+            return new Iterator<SongPlayInfo>() {
+                private final Iterator<SongPlayInfo> fromBase = baseCandidates.iterator();
+                private final Iterator<SongPlayInfo> fromOwn = ownCandidates.iterator();
+                private SongPlayInfo next = findNext();
+
+                private SongPlayInfo findNext() {
+                    while (fromBase.hasNext()) {
+                        SongPlayInfo songPlayInfo = fromBase.next();
+                        if (!removedBaseSongs.containsKey(songPlayInfo)) {
+                            return songPlayInfo;
+                        }
+                    }
+                    return fromOwn.hasNext() ? fromOwn.next() : null;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                @Override
+                public SongPlayInfo next() {
+                    if (next == null) {
+                        throw new NoSuchElementException();
+                    }
+                    SongPlayInfo current = next;
+                    next = findNext();
+                    return current;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            int size = ownCandidates.size();
+            for (SongPlayInfo songPlayInfo : baseCandidates) {
+                if (!removedBaseSongs.containsKey(songPlayInfo)) {
+                    size++;
+                }
+            }
+            return size;
+        }
+    }
+
+    /**
+     * Gathers the songs of every node of a subtree of the name trie.
+     *
+     * @param node  the root of the subtree.
+     * @param songs the map the songs are added to, keyed by their position.
+     */
+    private static void collectSongs(final TrieNode node,
+                                     final TreeMap<Integer, SongPlayInfo> songs) {
+        if (node.songs != null) {
+            songs.putAll(node.songs);
+        }
+        for (TrieNode child : node.children.values()) {
+            collectSongs(child, songs);
+        }
+    }
+
+    /**
+     * Gets the songs that respect the release year filter.
+     *
+     * @param releaseYearFilter the filter, made of an operator ('<', '>' or '=') and a year.
+     * @return the songs that respect the filter, in catalog order.
+     */
+    private TreeMap<Integer, SongPlayInfo> getSongsByReleaseYear(final String releaseYearFilter) {
+        char operator = releaseYearFilter.charAt(0);
+        int year = Integer.parseInt(releaseYearFilter.substring(1));
+
+        Map<Integer, TreeMap<Integer, SongPlayInfo>> years;
+        if (operator == '>') {
+            years = songsByReleaseYear.tailMap(year, false);
+        } else if (operator == '<') {
+            years = songsByReleaseYear.headMap(year, false);
+        } else {
+            // it means that the operator is '='
+            TreeMap<Integer, SongPlayInfo> sameYear = songsByReleaseYear.get(year);
+            return sameYear == null ? new TreeMap<>() : sameYear;
+        }
+
+        // merge the songs of all the years in the range back into catalog order
+        TreeMap<Integer, SongPlayInfo> result = new TreeMap<>();
+        for (TreeMap<Integer, SongPlayInfo> sameYear : years.values()) {
+            result.putAll(sameYear);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the smaller of two song collections (a missing collection means no songs).
+     *
+     * @param current the current candidates.
+     * @param other   the songs of another filter.
+     * @return the collection with fewer songs.
+     */
+    private static Map<Integer, SongPlayInfo> smaller(final Map<Integer, SongPlayInfo> current,
+                                                      final Map<Integer, SongPlayInfo> other) {
+        if (other == null) {
+            return new TreeMap<>();
+        }
+        return other.size() < current.size() ? other : current;
+    }
+
+    /**
+     * Adds a song to the posting list of a key.
+     *
+     * @param index        the index to be updated.
+     * @param key          the key of the posting list (ignored if null).
+     * @param position     the position of the song in the catalog.
+     * @param songPlayInfo the song.
+     */
+    private static void addPosting(final HashMap<String, TreeMap<Integer, SongPlayInfo>> index,
+                                   final String key, final Integer position,
+                                   final SongPlayInfo songPlayInfo) {
+        if (key == null) {
+            return;
+        }
+        index.computeIfAbsent(key, k -> new TreeMap<>()).put(position, songPlayInfo);
+    }
+
+    /**
+     * Removes a song from the posting list of a key.
+     *
+     * @param index    the index to be updated.
+     * @param key      the key of the posting list (ignored if null).
+     * @param position the position of the song in the catalog.
+     */
+    private static void removePosting(final HashMap<String, TreeMap<Integer, SongPlayInfo>> index,
+                                      final String key, final Integer position) {
+        if (key == null) {
+            return;
+        }
+        TreeMap<Integer, SongPlayInfo> postings = index.get(key);
+        if (postings == null) {
+            return;
+        }
+        postings.remove(position);
+        if (postings.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    /**
+     * Gets all the distinct trigrams of a text.
+     *
+     * @param text the text.
+     * @return the trigrams of the text.
+     */
+    private static HashSet<String> getGrams(final String text) {
+        HashSet<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    /**
+     * Folds the case of a string so that two strings that are equal ignoring case
+     * (as in String.equalsIgnoreCase) get the same key.
+     *
+     * @param value the string to be folded.
+     * @return the folded string, or null if the string is null.
+     */
+    private static String caseFold(final String value) {
+        if (value == null) {
+            return null;
+        }
+        StringBuilder folded = new StringBuilder(value.length());
+        value.codePoints().forEach(codePoint ->
+                folded.appendCodePoint(Character.toLowerCase(Character.toUpperCase(codePoint))));
+        return folded.toString();
+    }
+}
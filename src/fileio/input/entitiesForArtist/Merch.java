@@ -1,6 +1,10 @@
 package fileio.input.entitiesForArtist;
 
-public class Merch {
+import java.io.Serializable;
+
+public class Merch implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private String name;
     private String description;
     private Integer price;
@@ -1,6 +1,10 @@
 package fileio.input.entitiesForHost;
 
-public class Announcement {
+import java.io.Serializable;
+
+public class Announcement implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private String name;
     private String description;
 
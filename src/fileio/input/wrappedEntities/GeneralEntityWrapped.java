@@ -1,6 +1,10 @@
 package fileio.input.wrappedEntities;
 
-public class GeneralEntityWrapped {
+import java.io.Serializable;
+
+public class GeneralEntityWrapped implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private int listens;
 
     public GeneralEntityWrapped() {
@@ -2,7 +2,11 @@ package fileio.input.wrappedEntities;
 
 import fileio.input.audioEntities.SongPlayInfo;
 
-public class MonetizedSong {
+import java.io.Serializable;
+
+public class MonetizedSong implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private SongPlayInfo songPlayInfo;
     private Double revenue;
 
@@ -1,6 +1,8 @@
 package fileio.input.wrappedEntities;
 
 public class WrappedAlbum extends GeneralEntityWrapped {
+    private static final long serialVersionUID = 1L;
+
     private String albumName;
 
     public WrappedAlbum(final String albumName) {
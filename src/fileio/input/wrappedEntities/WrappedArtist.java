@@ -1,6 +1,8 @@
 package fileio.input.wrappedEntities;
 
 public class WrappedArtist extends GeneralEntityWrapped {
+    private static final long serialVersionUID = 1L;
+
     private String artistName;
 
     public WrappedArtist(final String artistName) {
@@ -0,0 +1,74 @@
+package fileio.input.wrappedEntities;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Keeps the wrapped entities of a user (artists, genres, albums, songs or episodes)
+ * in the order in which they were first listened to, together with an index by name,
+ * so that adding a listen doesn't need to look through the whole list.
+ *
+ * @param <T> the type of the wrapped entities.
+ */
+public final class WrappedCounter<T extends GeneralEntityWrapped> implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    // the wrapped entities, in the order in which they were added
+    private final ArrayList<T> entries;
+
+    // name -> wrapped entity
+    private final HashMap<String, T> entriesByName;
+
+    public WrappedCounter() {
+        entries = new ArrayList<>();
+        entriesByName = new HashMap<>();
+    }
+
+    /**
+     * Adds listens to the wrapped entity with the given name, if there is one.
+     *
+     * @param name    the name of the entity.
+     * @param listens the number of listens to be added.
+     * @return true if the entity was found, false if it has to be added first.
+     */
+    public boolean addListens(final String name, final int listens) {
+        T entry = entriesByName.get(name);
+        if (entry == null) {
+            return false;
+        }
+        entry.setListens(entry.getListens() + listens);
+        return true;
+    }
+
+    /**
+     * Gets the wrapped entity with the given name.
+     *
+     * @param name the name of the entity.
+     * @return the wrapped entity, or null if it hasn't been listened to.
+     */
+    public T get(final String name) {
+        return entriesByName.get(name);
+    }
+
+    /**
+     * Adds a new wrapped entity at the end of the list.
+     *
+     * @param name  the name of the entity.
+     * @param entry the wrapped entity, with its listens already set.
+     */
+    public void add(final String name, final T entry) {
+        entries.add(entry);
+        entriesByName.put(name, entry);
+    }
+
+    /**
+     * Gets the wrapped entities. The list may be sorted in place, the index
+     * by name stays valid.
+     *
+     * @return the list of wrapped entities.
+     */
+    public ArrayList<T> getEntries() {
+        return entries;
+    }
+}
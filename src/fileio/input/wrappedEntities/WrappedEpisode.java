@@ -3,6 +3,8 @@ package fileio.input.wrappedEntities;
 import fileio.input.audioEntities.EpisodeInput;
 
 public class WrappedEpisode extends GeneralEntityWrapped {
+    private static final long serialVersionUID = 1L;
+
     private EpisodeInput episode;
 
     public WrappedEpisode(final EpisodeInput episode) {
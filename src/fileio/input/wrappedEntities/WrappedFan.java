@@ -3,6 +3,8 @@ package fileio.input.wrappedEntities;
 import users.NormalUser;
 
 public class WrappedFan extends GeneralEntityWrapped {
+    private static final long serialVersionUID = 1L;
+
     private NormalUser normalUser;
 
     public WrappedFan(final NormalUser normalUser) {
@@ -1,6 +1,8 @@
 package fileio.input.wrappedEntities;
 
 public class WrappedGenre extends GeneralEntityWrapped {
+    private static final long serialVersionUID = 1L;
+
     private String genre;
 
     public WrappedGenre(final String genre) {
@@ -3,6 +3,8 @@ package fileio.input.wrappedEntities;
 import fileio.input.audioEntities.SongPlayInfo;
 
 public class WrappedSong extends GeneralEntityWrapped {
+    private static final long serialVersionUID = 1L;
+
     private SongPlayInfo songPlayInfo;
 
     public WrappedSong(final SongPlayInfo songPlayInfo) {
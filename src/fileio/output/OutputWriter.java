@@ -0,0 +1,110 @@
+package fileio.output;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes the outputs of the commands to the output file as soon as they are produced,
+ * as the elements of one JSON array, so that the outputs of a run are never all kept in
+ * memory. The array is closed when the writer is closed.
+ */
+public final class OutputWriter implements Closeable {
+    private final JsonGenerator generator;
+    private final ObjectWriter objectWriter;
+
+    /**
+     * Opens the output file and starts the array of outputs.
+     *
+     * @param objectMapper the mapper used to write the outputs.
+     * @param file         the output file.
+     * @param pretty       true for indented output (as the checker's reference files),
+     *                     false for everything on one line.
+     * @throws IOException in case of exceptions to writing
+     */
+    public OutputWriter(final ObjectMapper objectMapper, final File file,
+                        final boolean pretty) throws IOException {
+        this(objectMapper, new FileOutputStream(file), pretty);
+    }
+
+    /**
+     * Starts the array of outputs on a stream, which is closed with the writer.
+     *
+     * @param objectMapper the mapper used to write the outputs.
+     * @param out          the stream the outputs are written to.
+     * @param pretty       true for indented output, false for everything on one line.
+     * @throws IOException in case of exceptions to writing
+     */
+    public OutputWriter(final ObjectMapper objectMapper, final OutputStream out,
+                        final boolean pretty) throws IOException {
+        generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        if (pretty) {
+            generator.setPrettyPrinter(new DefaultPrettyPrinter());
+        }
+        // the file is flushed when it's full or closed, not after every output
+        objectWriter = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        generator.writeStartArray();
+    }
+
+    /**
+     * Writes the output of a command.
+     *
+     * @param node the output of the command (null is written as a JSON null).
+     * @throws IOException in case of exceptions to writing
+     */
+    public void write(final ObjectNode node) throws IOException {
+        if (node == null) {
+            generator.writeNull();
+            return;
+        }
+        objectWriter.writeValue(generator, node);
+    }
+
+    /**
+     * Writes the output of a command that only has a message, field by field.
+     *
+     * @param command   the name of the command.
+     * @param user      the user that gave the command.
+     * @param timestamp the timestamp of the command.
+     * @param message   the message of the command.
+     * @throws IOException in case of exceptions to writing
+     */
+    public void writeMessage(final String command, final String user, final Integer timestamp,
+                             final String message) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("command", command);
+        generator.writeStringField("user", user);
+        if (timestamp == null) {
+            generator.writeNullField("timestamp");
+        } else {
+            generator.writeNumberField("timestamp", timestamp);
+        }
+        generator.writeStringField("message", message);
+        generator.writeEndObject();
+    }
+
+    /**
+     * Ends the array of outputs and closes the output file.
+     *
+     * @throws IOException in case of exceptions to writing
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            generator.writeEndArray();
+        } finally {
+            generator.close();
+        }
+    }
+}
@@ -14,11 +14,10 @@ import java.util.Objects;
 public final class EndProgram extends GeneralCommand {
     private static final double HUNDRED = 100.0;
 
-    private static EndProgram instance = null;
+    private static final ThreadLocal<EndProgram> INSTANCE = new ThreadLocal<>();
 
     private EndProgram(final String command, final Integer timestamp, final ObjectNode node) {
         super(command, timestamp, node);
-        this.timestamp = null;
     }
 
     /**
@@ -31,8 +30,10 @@ public final class EndProgram extends GeneralCommand {
      */
     public static EndProgram getInstance(final String command, final Integer timestamp,
                                          final ObjectNode node) {
+        EndProgram instance = INSTANCE.get();
         if (instance == null) {
             instance = new EndProgram(command, timestamp, node);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setTimestamp(timestamp);
@@ -114,8 +115,14 @@ public final class EndProgram extends GeneralCommand {
      * Updates monetization statistics for all artists.
      */
     public void updateAllArtistsMonetization() {
-        for (NormalUser user : Main.normalUserList) {
+        // only the users with something loaded have a playback to be counted
+        for (NormalUser user : context.getLoadedContentRegistry().getLoadedUsers()) {
             updateStats(user);
+        }
+
+        /* the revenues of every premium user are added up in the order of the list (the
+        playback of a user only changes the revenues that user gives) */
+        for (NormalUser user : context.getNormalUserList()) {
             if (user.getIsPremium()) {
                 user.updateArtistsSongRevenues();
             }
@@ -134,7 +141,7 @@ public final class EndProgram extends GeneralCommand {
         ObjectNode result = JsonNodeFactory.instance.objectNode();
 
         ArrayList<Artist> eligibleArtists = new ArrayList<>();
-        for (Artist artist : Main.artistsList) {
+        for (Artist artist : context.getArtistsList()) {
             // check if the artist had anything on play
             if (artist.getHadSomethingOnPlay() || artist.getMerchRevenue() != 0) {
                 eligibleArtists.add(artist);
@@ -2,42 +2,69 @@ package main;
 
 import checker.Checker;
 import checker.CheckerConstants;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ObjectWriter;
-import com.fasterxml.jackson.databind.node.ArrayNode;
 
-import fileio.input.audioEntities.PodcastInput;
-import fileio.input.audioEntities.Playlist;
-import fileio.input.audioEntities.SongInput;
-import fileio.input.audioEntities.SongPlayInfo;
+import fileio.input.LibraryCatalog;
 import fileio.input.LibraryInput;
-import fileio.input.InputCommands;
-import fileio.input.UserInput;
+import fileio.output.OutputWriter;
+import fileio.input.CatalogSnapshot;
+import fileio.input.CommandReader;
 import main.commandsHandling.CommandInvoker;
-import users.Artist;
-import users.Host;
-import users.NormalUser;
+import main.commandsHandling.ShardedCommandInvoker;
+import main.journal.SimulationJournal;
+import main.metrics.SimulationMetrics;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Objects;
 import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * The entry point to this homework. It runs the checker that tests your implentation.
+ * The input files are replayed in parallel, each one in its own SimulationContext.
  */
 public final class Main {
     static final String LIBRARY_PATH = CheckerConstants.TESTS_PATH + "library/library.json";
-    public static ArrayList<SongPlayInfo> songsList;
-    public static ArrayList<PodcastInput> podcastsList;
 
-    public static ArrayList<NormalUser> normalUserList;
-    public static ArrayList<Artist> artistsList;
-    public static ArrayList<Host> hostsList;
+    // binary copy of library.json, used instead of it if it's up to date (see CatalogSnapshot)
+    static final String SNAPSHOT_PATH = CheckerConstants.TESTS_PATH + "library/library.snapshot";
+
+    // number of input files replayed at the same time
+    private static final int REPLAY_THREADS = Runtime.getRuntime().availableProcessors();
+
+    // -Dglobalwaves.compactOutput=true writes each output file on a single line
+    private static final boolean PRETTY_OUTPUT = !Boolean.getBoolean("globalwaves.compactOutput");
+
+    /* -Dglobalwaves.journalDir=<directory> journals every run in a subdirectory named after
+    its input file. A run that finds a journal writes the outputs of the journaled commands
+    again and resumes after the last one (the journal of a completed run gives back the
+    same output file) */
+    private static final String JOURNAL_PATH = System.getProperty("globalwaves.journalDir");
+
+    /* -Dglobalwaves.checkpointInterval=<n> saves the state of a journaled server every n
+    commands (the runs of the input files replay their whole journal, see action) */
+    private static final int CHECKPOINT_INTERVAL =
+            Integer.getInteger("globalwaves.checkpointInterval", 1_000);
+
+    /* -Dglobalwaves.metricsDir=<directory> keeps the latency, allocation and output size of
+    every command of a run, and writes them to a report named after its input file when the
+    run executes endProgram */
+    private static final String METRICS_PATH = System.getProperty("globalwaves.metricsDir");
+
+    /* -Dglobalwaves.replayShards=<n> splits the users of each simulation between n threads,
+    which execute the commands that only concern their own user at the same time */
+    private static final int REPLAY_SHARDS = Integer.getInteger("globalwaves.replayShards", 1);
+
+    // library.json, read by the first simulation and shared by all the others
+    private static LibraryCatalog catalog;
 
     /**
      * for coding style
@@ -46,8 +73,76 @@ public final class Main {
     }
 
     /**
-     * DO NOT MODIFY MAIN METHOD
-     * Call the checker
+     * Gets the library shared by all simulations, reading it the first time. The
+     * snapshot of the library is mapped in memory if it's newer than library.json,
+     * otherwise library.json is parsed.
+     *
+     * @return the library catalog.
+     * @throws IOException in case of exceptions to reading
+     */
+    public static synchronized LibraryCatalog getCatalog() throws IOException {
+        if (catalog != null) {
+            return catalog;
+        }
+
+        File libraryFile = new File(LIBRARY_PATH);
+        File snapshotFile = new File(SNAPSHOT_PATH);
+        if (snapshotFile.isFile() && snapshotFile.lastModified() >= libraryFile.lastModified()) {
+            catalog = CatalogSnapshot.load(snapshotFile);
+        } else {
+            ObjectMapper objectMapper = new ObjectMapper();
+            catalog = new LibraryCatalog(objectMapper.readValue(libraryFile,
+                    LibraryInput.class));
+        }
+        return catalog;
+    }
+
+    /**
+     * Opens the journal of a run, if journaling is enabled.
+     *
+     * @param filePathInput      the input file of the run (the name of its journal).
+     * @param objectMapper       the mapper used to read and write the commands.
+     * @param checkpointInterval the number of commands between two checkpoints.
+     * @return the journal, or null if journaling isn't enabled.
+     * @throws IOException in case of exceptions to reading / writing
+     */
+    static SimulationJournal openJournal(final String filePathInput,
+                                         final ObjectMapper objectMapper,
+                                         final int checkpointInterval)
+            throws IOException {
+        if (JOURNAL_PATH == null) {
+            return null;
+        }
+        return SimulationJournal.open(new File(JOURNAL_PATH, filePathInput), objectMapper,
+                checkpointInterval);
+    }
+
+    /**
+     * Gets the number of commands between two checkpoints of a journaled server.
+     *
+     * @return the checkpoint interval.
+     */
+    static int getCheckpointInterval() {
+        return CHECKPOINT_INTERVAL;
+    }
+
+    /**
+     * Creates the metrics of a run, if they are enabled.
+     *
+     * @param filePathInput the input file of the run (the name of its report).
+     * @param objectMapper  the mapper used to write the report.
+     * @return the metrics, or null if they aren't enabled.
+     */
+    static SimulationMetrics openMetrics(final String filePathInput,
+                                         final ObjectMapper objectMapper) {
+        if (METRICS_PATH == null) {
+            return null;
+        }
+        return new SimulationMetrics(new File(METRICS_PATH, filePathInput), objectMapper);
+    }
+
+    /**
+     * Replays every input file, then calls the checker
      *
      * @param args from command line
      * @throws IOException in case of exceptions to reading / writing
@@ -65,6 +160,9 @@ public final class Main {
         }
         Files.createDirectories(path);
 
+        // every input file is replayed in its own simulation, on one of the threads
+        ExecutorService pool = Executors.newFixedThreadPool(REPLAY_THREADS);
+        ArrayList<Future<Void>> replays = new ArrayList<>();
         for (File file : Objects.requireNonNull(directory.listFiles())) {
             if (file.getName().startsWith("library")) {
                 continue;
@@ -74,9 +172,35 @@ public final class Main {
             File out = new File(filepath);
             boolean isCreated = out.createNewFile();
             if (isCreated) {
-                action(file.getName(), filepath);
+                replays.add(pool.submit(() -> {
+                    action(file.getName(), filepath);
+                    return null;
+                }));
+            }
+        }
+        pool.shutdown();
+
+        // wait for all the replays, then report the first one that failed
+        Throwable failure = null;
+        for (Future<Void> replay : replays) {
+            try {
+                replay.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                pool.shutdownNow();
+                throw new IOException("interrupted while replaying the input files", e);
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause();
+                }
             }
         }
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        }
+        if (failure != null) {
+            throw new IllegalStateException(failure);
+        }
 
         Checker.calculateScore();
     }
@@ -89,50 +213,39 @@ public final class Main {
     public static void action(final String filePathInput,
                               final String filePathOutput) throws IOException {
         ObjectMapper objectMapper = new ObjectMapper();
-        LibraryInput library = objectMapper.readValue(new File(LIBRARY_PATH), LibraryInput.class);
-
-        ArrayNode outputs = objectMapper.createArrayNode();
-
-        // TODO add your implementation
-        ArrayList<InputCommands> inputcommands;
-        inputcommands = objectMapper.readValue(new File(CheckerConstants.TESTS_PATH
-                + filePathInput), new TypeReference<ArrayList<InputCommands>>() {
-        });
-
-        // instantiate endProgram command
-        InputCommands endProgram = new InputCommands();
-        endProgram.setCommand("endProgram");
-        Integer lastTimestamp = inputcommands.get(inputcommands.size() - 1).getTimestamp();
-        endProgram.setTimestamp(lastTimestamp);
-
-        // add endProgram command at the end of the commands list
-        inputcommands.add(endProgram);
-
-        songsList = new ArrayList<>();
-        for (SongInput song : library.getSongs()) {
-            SongPlayInfo newSong = new SongPlayInfo();
-            newSong.setSong(song);
-            songsList.add(newSong);
-        }
-
-        podcastsList = new ArrayList<>();
-        podcastsList.addAll(library.getPodcasts());
-
-        normalUserList = new ArrayList<>();
-        artistsList = new ArrayList<>();
-        hostsList = new ArrayList<>();
-        ArrayList<Playlist> allUsersPlaylists = new ArrayList<>();
-
-        for (UserInput userInput : library.getUsers()) {
-            NormalUser newUser = new NormalUser(userInput.getUsername());
-            normalUserList.add(newUser);
+        LibraryCatalog library = getCatalog();
+
+        /* the commands are read one at a time, endProgram is added after the last one,
+        and the output of each command is written as soon as it has been executed */
+        /* the output file is written from the start, so a journaled run replays its whole
+        journal and a checkpoint would never be restored */
+        try (SimulationJournal journal = openJournal(filePathInput, objectMapper,
+                SimulationJournal.NO_CHECKPOINTS);
+             CommandReader inputcommands = new CommandReader(objectMapper,
+                     new File(CheckerConstants.TESTS_PATH + filePathInput));
+             OutputWriter outputs = new OutputWriter(objectMapper, new File(filePathOutput),
+                     PRETTY_OUTPUT)) {
+            SimulationContext context;
+            if (journal == null) {
+                context = new SimulationContext(library);
+            } else {
+                // write the outputs of the commands applied before the restart again
+                context = journal.recover(library, outputs);
+                inputcommands.skip(journal.getAppliedCommands());
+            }
+            context.setMetrics(openMetrics(filePathInput, objectMapper));
+
+            if (REPLAY_SHARDS > 1) {
+                ShardedCommandInvoker commandInvoker = new ShardedCommandInvoker(inputcommands,
+                        outputs, context, journal, REPLAY_SHARDS);
+                commandInvoker.invokeCommands();
+            } else {
+                CommandInvoker commandInvoker = new CommandInvoker(inputcommands, outputs,
+                        context, journal);
+                commandInvoker.invokeCommands();
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
-
-        CommandInvoker commandInvoker = new CommandInvoker(inputcommands,
-                outputs, library, allUsersPlaylists);
-        commandInvoker.invokeCommands();
-
-        ObjectWriter objectWriter = objectMapper.writerWithDefaultPrettyPrinter();
-        objectWriter.writeValue(new File(filePathOutput), outputs);
     }
 }
@@ -0,0 +1,124 @@
+package main;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fileio.input.LibraryCatalog;
+import main.journal.SimulationJournal;
+import main.server.CommandServer;
+import main.server.SimulationSession;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+
+/**
+ * Use this if you want to keep a simulation running and send it commands one at a time:
+ * "tcp port" listens on the loopback interface, "unix path" on a Unix domain socket.
+ * Every line sent is a command (as in the input files) and gets back one line with its
+ * output. The library is loaded once, when the server starts. With
+ * -Dglobalwaves.journalDir the simulation is journaled under the name "server" and is
+ * recovered when the server is started again. With -Dglobalwaves.metricsDir the metrics
+ * report, also named "server", is written every time endProgram is sent.
+ */
+public final class Server {
+    private static final String JOURNAL_NAME = "server";
+
+    // the bits of a unix file mode that give the type of the file, and the type of a socket
+    private static final int FILE_TYPE_MASK = 0170000;
+    private static final int SOCKET_FILE_TYPE = 0140000;
+
+    /**
+     * for coding style
+     */
+    private Server() {
+    }
+
+    /**
+     * @param args "tcp" and a port, or "unix" and the path of the socket
+     * @throws IOException in case of exceptions to reading / writing
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("usage: Server tcp <port> | Server unix <path>");
+            return;
+        }
+
+        SocketAddress address;
+        if (args[0].equals("unix")) {
+            Path path = Path.of(args[1]);
+            // a socket file left by a previous server would make the bind fail
+            removeStaleSocket(path);
+            address = UnixDomainSocketAddress.of(path);
+        } else {
+            address = new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                    Integer.parseInt(args[1]));
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        LibraryCatalog library = Main.getCatalog();
+        SimulationJournal journal = Main.openJournal(JOURNAL_NAME, objectMapper,
+                Main.getCheckpointInterval());
+        SimulationContext context;
+        if (journal == null) {
+            context = new SimulationContext(library);
+        } else {
+            context = journal.recover(library);
+        }
+        context.setMetrics(Main.openMetrics(JOURNAL_NAME, objectMapper));
+
+        SimulationSession session = new SimulationSession(context, journal);
+        CommandServer server = new CommandServer(session, objectMapper, address);
+        // on Ctrl+C, the commands already received are executed and journaled
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+                session.close();
+                if (journal != null) {
+                    journal.close();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }));
+
+        System.out.println("listening on " + server.getAddress());
+        server.serve();
+    }
+
+    /**
+     * Removes the socket file left at a path by a server that has stopped. Anything else
+     * at the path is left as it is: a file that isn't a socket, or the socket of a server
+     * that is still running.
+     *
+     * @param path the path of the unix domain socket.
+     * @throws IOException if the path is taken by something else than a stale socket
+     */
+    private static void removeStaleSocket(final Path path) throws IOException {
+        if (!Files.exists(path, LinkOption.NOFOLLOW_LINKS)) {
+            return;
+        }
+
+        int mode = (Integer) Files.getAttribute(path, "unix:mode", LinkOption.NOFOLLOW_LINKS);
+        if ((mode & FILE_TYPE_MASK) != SOCKET_FILE_TYPE) {
+            throw new IOException(path + " already exists and isn't a socket");
+        }
+
+        boolean listening;
+        try (SocketChannel channel = SocketChannel.open(UnixDomainSocketAddress.of(path))) {
+            listening = channel.isConnected();
+        } catch (ConnectException e) {
+            listening = false;
+        }
+        if (listening) {
+            throw new IOException("another server is listening on " + path);
+        }
+        Files.delete(path);
+    }
+}
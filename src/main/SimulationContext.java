@@ -0,0 +1,400 @@
+package main;
+
+import fileio.input.LibraryCatalog;
+import fileio.input.audioEntities.Playlist;
+import fileio.input.audioEntities.PodcastInput;
+import fileio.input.audioEntities.SongPlayInfo;
+import fileio.input.audioEntities.SongSearchIndex;
+import main.metrics.SimulationMetrics;
+import main.statisticsCommands.Leaderboards;
+import main.statisticsCommands.WrappedAggregates;
+import users.Artist;
+import users.Host;
+import users.LoadedContentRegistry;
+import users.NormalUser;
+import users.PageViewerRegistry;
+import users.SongUsageIndex;
+import users.UserRegistry;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Holds everything a simulation (the replay of one input file) changes: the songs and
+ * podcasts, the users and the indexes built over them. Every simulation gets its own
+ * context, so several input files can be replayed at once.
+ *
+ * <p>The invoker passes the context to CommandFactory, which gives it to every command it
+ * creates (GeneralCommand.getContext), so the commands use it explicitly. The commands
+ * hand it to the artist and host methods they call, and every normal user keeps the
+ * context it was created in (NormalUser.getContext) for the methods that update its
+ * player. The commands are singletons, kept per thread, so two simulations on two threads
+ * don't share them.
+ *
+ * <p>The songs from the library and their search index are shared by all the simulations
+ * (LibraryCatalog), so creating a simulation doesn't depend on the size of the library:
+ * a simulation only keeps what it adds on top of them, and copies the list of songs from
+ * the library the first time it removes one of them.
+ */
+public final class SimulationContext implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    // shared with the other simulations, so it isn't saved with a checkpoint
+    private transient LibraryCatalog catalog;
+
+    // the songs from the library, shared with the other simulations until one is removed
+    private List<SongPlayInfo> librarySongs;
+    private boolean librarySongsCopied;
+
+    // the songs added by the artists, which come after the ones from the library
+    private final ArrayList<SongPlayInfo> addedSongs;
+
+    // search index over the songs above, on top of the one of the library
+    private final SongSearchIndex songSearchIndex;
+    private final ArrayList<PodcastInput> podcastsList;
+
+    private final ArrayList<NormalUser> normalUserList;
+    private final ArrayList<Artist> artistsList;
+    private final ArrayList<Host> hostsList;
+
+    // username index over the three user lists above
+    private final UserRegistry userRegistry;
+
+    // song name -> the playlists, likes and selections of the normal users that refer to it
+    private final SongUsageIndex songUsageIndex;
+
+    // the normal users with something loaded, and with each song, album and playlist loaded
+    private final LoadedContentRegistry loadedContentRegistry;
+
+    // artist or host username -> the normal users on their page
+    private final PageViewerRegistry pageViewerRegistry;
+
+    // top 5 orders of songs, albums, artists and playlists
+    private final Leaderboards leaderboards;
+
+    // listens of all users added up for the artists' and hosts' wrapped
+    private final WrappedAggregates wrappedAggregates;
+
+    // the playlists created by all users
+    private final ArrayList<Playlist> allUsersPlaylists;
+
+    // the metrics of the invoked commands (null if they aren't kept), not saved either
+    private transient SimulationMetrics metrics;
+
+    /**
+     * Creates the initial state of a simulation from the library: its songs, its
+     * podcasts and its normal users. The catalog is shared with the other simulations,
+     * only the lists that the simulation changes are its own.
+     *
+     * @param catalog the library read from the input.
+     */
+    public SimulationContext(final LibraryCatalog catalog) {
+        this.catalog = catalog;
+
+        librarySongs = catalog.getSongPlayInfos();
+        addedSongs = new ArrayList<>();
+        songSearchIndex = new SongSearchIndex(catalog.getSongSearchIndex());
+        leaderboards = new Leaderboards(librarySongs);
+        wrappedAggregates = new WrappedAggregates();
+
+        podcastsList = new ArrayList<>(catalog.getPodcasts());
+
+        normalUserList = new ArrayList<>();
+        artistsList = new ArrayList<>();
+        hostsList = new ArrayList<>();
+        userRegistry = new UserRegistry(normalUserList, artistsList, hostsList);
+        songUsageIndex = new SongUsageIndex();
+        loadedContentRegistry = new LoadedContentRegistry(userRegistry);
+        pageViewerRegistry = new PageViewerRegistry();
+        allUsersPlaylists = new ArrayList<>();
+
+        for (String username : catalog.getUsernames()) {
+            NormalUser newUser = new NormalUser(username, this);
+            userRegistry.addNormalUser(newUser);
+        }
+    }
+
+    /**
+     * Saves the whole state of the simulation, except for the shared catalog.
+     *
+     * @param out the stream the state is written to.
+     * @throws IOException in case of exceptions to writing
+     */
+    public void writeTo(final OutputStream out) throws IOException {
+        ObjectOutputStream objectOut = new CheckpointOutputStream(out, catalog);
+        objectOut.writeObject(this);
+        objectOut.flush();
+    }
+
+    /**
+     * Restores the state of a simulation saved by writeTo.
+     *
+     * @param in      the stream the state is read from.
+     * @param catalog the library the simulation was created from.
+     * @return the restored context.
+     * @throws IOException if the state can't be read (it was saved by another version
+     *                     of the classes, for example).
+     */
+    public static SimulationContext readFrom(final InputStream in, final LibraryCatalog catalog)
+            throws IOException {
+        ObjectInputStream objectIn = new CheckpointInputStream(in, catalog);
+        SimulationContext context;
+        try {
+            context = (SimulationContext) objectIn.readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("not a saved simulation", e);
+        }
+        context.catalog = catalog;
+        return context;
+    }
+
+    /**
+     * @return the library read from the input, shared by all simulations.
+     */
+    public LibraryCatalog getCatalog() {
+        return catalog;
+    }
+
+    /**
+     * @return the list of all songs (read-only, see addSongs and removeSong).
+     */
+    public List<SongPlayInfo> getSongsList() {
+        return new SongsList();
+    }
+
+    /**
+     * Adds songs at the end of the list of all songs.
+     *
+     * @param songs the songs to be added.
+     */
+    public void addSongs(final Collection<SongPlayInfo> songs) {
+        addedSongs.addAll(songs);
+    }
+
+    /**
+     * Removes a song from the list of all songs.
+     *
+     * @param songPlayInfo the song to be removed.
+     */
+    public void removeSong(final SongPlayInfo songPlayInfo) {
+        if (addedSongs.remove(songPlayInfo) || songPlayInfo.getCatalogPosition() < 0) {
+            return;
+        }
+        if (!librarySongsCopied) {
+            librarySongs = new ArrayList<>(librarySongs);
+            librarySongsCopied = true;
+        }
+        librarySongs.remove(songPlayInfo);
+    }
+
+    /**
+     * @return the search index over the songs.
+     */
+    public SongSearchIndex getSongSearchIndex() {
+        return songSearchIndex;
+    }
+
+    /**
+     * @return the list of all podcasts.
+     */
+    public ArrayList<PodcastInput> getPodcastsList() {
+        return podcastsList;
+    }
+
+    /**
+     * @return the list of normal users.
+     */
+    public ArrayList<NormalUser> getNormalUserList() {
+        return normalUserList;
+    }
+
+    /**
+     * @return the list of artists.
+     */
+    public ArrayList<Artist> getArtistsList() {
+        return artistsList;
+    }
+
+    /**
+     * @return the list of hosts.
+     */
+    public ArrayList<Host> getHostsList() {
+        return hostsList;
+    }
+
+    /**
+     * @return the username index over all users.
+     */
+    public UserRegistry getUserRegistry() {
+        return userRegistry;
+    }
+
+    /**
+     * @return the reverse index from songs to the playlists, likes and selections.
+     */
+    public SongUsageIndex getSongUsageIndex() {
+        return songUsageIndex;
+    }
+
+    /**
+     * @return the normal users that have something loaded, and the ones that have each
+     * song, album and playlist loaded.
+     */
+    public LoadedContentRegistry getLoadedContentRegistry() {
+        return loadedContentRegistry;
+    }
+
+    /**
+     * @return the normal users on the page of each artist and host.
+     */
+    public PageViewerRegistry getPageViewerRegistry() {
+        return pageViewerRegistry;
+    }
+
+    /**
+     * @return the top 5 orders of songs, albums, artists and playlists.
+     */
+    public Leaderboards getLeaderboards() {
+        return leaderboards;
+    }
+
+    /**
+     * @return the listens of all users added up for the wrapped statistics.
+     */
+    public WrappedAggregates getWrappedAggregates() {
+        return wrappedAggregates;
+    }
+
+    /**
+     * @return the playlists created by all users.
+     */
+    public ArrayList<Playlist> getAllUsersPlaylists() {
+        return allUsersPlaylists;
+    }
+
+    /**
+     * @return the metrics of the invoked commands, or null if they aren't kept.
+     */
+    public SimulationMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @param metrics the metrics of the invoked commands, or null to stop keeping them.
+     */
+    public void setMetrics(final SimulationMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    // the songs from the library followed by the added songs, without copying them
+    private final class SongsList extends AbstractList<SongPlayInfo> implements RandomAccess {
+        @Override
+        public SongPlayInfo get(final int index) {
+            if (index < librarySongs.size()) {
+                return librarySongs.get(index);
+            }
+            return addedSongs.get(index - librarySongs.size());
+        }
+
+        @Override
+        public int size() {
+            return librarySongs.size() + addedSongs.size();
+        }
+    }
+
+    /**
+     * Stands for an object of the shared catalog in a checkpoint: the catalog is not
+     * saved, its objects are found again in the catalog given to readFrom.
+     */
+    private static final class CatalogReference implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        // the kinds of objects of the catalog
+        private static final int SONG_LIST = 0;
+        private static final int SEARCH_INDEX = 1;
+        private static final int SONG = 2;
+
+        private final int kind;
+
+        // the position of the song in the library (for a song)
+        private final int position;
+
+        CatalogReference(final int kind, final int position) {
+            this.kind = kind;
+            this.position = position;
+        }
+    }
+
+    // writes the objects of the catalog as references to them
+    private static final class CheckpointOutputStream extends ObjectOutputStream {
+        private final List<SongPlayInfo> librarySongs;
+        private final SongSearchIndex librarySearchIndex;
+
+        CheckpointOutputStream(final OutputStream out, final LibraryCatalog catalog)
+                throws IOException {
+            super(out);
+            librarySongs = catalog.getSongPlayInfos();
+            librarySearchIndex = catalog.getSongSearchIndex();
+            enableReplaceObject(true);
+        }
+
+        @Override
+        protected Object replaceObject(final Object obj) {
+            if (obj == librarySongs) {
+                return new CatalogReference(CatalogReference.SONG_LIST, -1);
+            }
+            if (obj == librarySearchIndex) {
+                return new CatalogReference(CatalogReference.SEARCH_INDEX, -1);
+            }
+            if (obj instanceof SongPlayInfo && ((SongPlayInfo) obj).getCatalogPosition() >= 0) {
+                return new CatalogReference(CatalogReference.SONG,
+                        ((SongPlayInfo) obj).getCatalogPosition());
+            }
+            return obj;
+        }
+    }
+
+    // reads the references written by CheckpointOutputStream back as objects of the catalog
+    private static final class CheckpointInputStream extends ObjectInputStream {
+        private final List<SongPlayInfo> librarySongs;
+        private final SongSearchIndex librarySearchIndex;
+
+        CheckpointInputStream(final InputStream in, final LibraryCatalog catalog)
+                throws IOException {
+            super(in);
+            librarySongs = catalog.getSongPlayInfos();
+            librarySearchIndex = catalog.getSongSearchIndex();
+            enableResolveObject(true);
+        }
+
+        @Override
+        protected Object resolveObject(final Object obj) throws IOException {
+            if (!(obj instanceof CatalogReference)) {
+                return obj;
+            }
+            CatalogReference reference = (CatalogReference) obj;
+            switch (reference.kind) {
+                case CatalogReference.SONG_LIST:
+                    return librarySongs;
+                case CatalogReference.SEARCH_INDEX:
+                    return librarySearchIndex;
+                case CatalogReference.SONG:
+                    if (reference.position >= librarySongs.size()) {
+                        throw new IOException("saved from another library");
+                    }
+                    return librarySongs.get(reference.position);
+                default:
+                    throw new IOException("unknown catalog reference " + reference.kind);
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package main;
 
+import benchmarks.ShardedReplayCheck;
 import checker.CheckerConstants;
 
 import java.io.File;
@@ -9,6 +10,8 @@ import java.util.Scanner;
 
 /**
  * Use this if you want to test on a specific input file
+ * (the file is also replayed sharded, and the exit status is not zero if the sharded
+ * replay writes a different output than the serial one)
  */
 public final class Test {
     /**
@@ -33,6 +36,11 @@ public final class Test {
             for (File file : inputDir) {
                 if (file.getName().equalsIgnoreCase(fileName)) {
                     Main.action(fileName, CheckerConstants.OUT_FILE);
+                    if (!ShardedReplayCheck.isSameOutput(file,
+                            ShardedReplayCheck.DEFAULT_SHARDS,
+                            ShardedReplayCheck.DEFAULT_ROUNDS)) {
+                        System.exit(1);
+                    }
                     break;
                 }
             }
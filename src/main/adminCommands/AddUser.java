@@ -1,7 +1,6 @@
 package main.adminCommands;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import main.Main;
 import users.Artist;
 import users.Host;
 import users.NormalUser;
@@ -11,8 +10,8 @@ public final class AddUser extends StandardAdminCommand {
     private Integer age;
     private String city;
 
-    // Singleton instance field
-    private static AddUser instance = null;
+    // Singleton instance field, one per thread running a simulation
+    private static final ThreadLocal<AddUser> INSTANCE = new ThreadLocal<>();
 
 
     private AddUser(final String command, final Integer timestamp,
@@ -41,8 +40,10 @@ public final class AddUser extends StandardAdminCommand {
                                       final String type, final String username,
                                       final Integer age, final String city,
                                       final ObjectNode node) {
+        AddUser instance = INSTANCE.get();
         if (instance == null) {
             instance = new AddUser(command, timestamp, type, username, age, city, node);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setTimestamp(timestamp);
@@ -61,41 +62,29 @@ public final class AddUser extends StandardAdminCommand {
      * @return a message indicating the success or failure of the user addition.
      */
     public String addUserAccordingToItsType() {
-        // look for the current username in each list
-        for (NormalUser user : Main.normalUserList) {
-            if (user.getUsername().equals(this.getUsername())) {
-                return "The username " + this.getUsername() + " is already taken.";
-            }
-        }
-
-        for (Artist artist: Main.artistsList) {
-            if (artist.getUsername().equals(this.getUsername())) {
-                return "The username " + this.getUsername() + " is already taken.";
-            }
-        }
-
-        for (Host host: Main.hostsList) {
-            if (host.getUsername().equals(this.getUsername())) {
-                return "The username " + this.getUsername() + " is already taken.";
-            }
+        // look for the current username among all the users
+        if (context.getUserRegistry().containsUsername(this.getUsername())) {
+            return "The username " + this.getUsername() + " is already taken.";
         }
 
         // if the username is not taken, add the user to the correspondent list
         if (type.equals("user")) {
-            NormalUser newUser = new NormalUser(getUsername());
-            Main.normalUserList.add(newUser);
+            NormalUser newUser = new NormalUser(getUsername(), context);
+            context.getUserRegistry().addNormalUser(newUser);
             return "The username " + this.getUsername() + " has been added successfully.";
         }
 
         if (type.equals("artist")) {
             Artist newArtist = new Artist(type, getUsername(), age, city);
-            Main.artistsList.add(newArtist);
+            context.getUserRegistry().addArtist(newArtist);
+            context.getLeaderboards().addArtist(newArtist);
             return "The username " + this.getUsername() + " has been added successfully.";
         }
 
         if (type.equals("host")) {
-            Host newHost = new Host(type, getUsername(), age, city);
-            Main.hostsList.add(newHost);
+            Host newHost = new Host(type, getUsername(), age, city,
+                    context.getPodcastsList());
+            context.getUserRegistry().addHost(newHost);
             return "The username " + this.getUsername() + " has been added successfully.";
         }
 
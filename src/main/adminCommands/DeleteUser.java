@@ -1,20 +1,21 @@
 package main.adminCommands;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import fileio.input.Pagination.ArtistPage;
-import fileio.input.Pagination.HostPage;
 import fileio.input.audioEntities.Playlist;
 import fileio.input.audioEntities.PodcastInput;
 import fileio.input.audioEntities.SongPlayInfo;
 import fileio.input.audioEntities.Album;
-import main.Main;
+import main.commandsHandling.MessageCommand;
 import users.Artist;
 import users.Host;
+import users.LoadedContentRegistry;
 import users.NormalUser;
 
-public final class DeleteUser extends StandardAdminCommand {
-    // Singleton instance field
-    private static DeleteUser instance = null;
+import java.util.Set;
+
+public final class DeleteUser extends StandardAdminCommand implements MessageCommand {
+    // Singleton instance field, one per thread running a simulation
+    private static final ThreadLocal<DeleteUser> INSTANCE = new ThreadLocal<>();
 
     private DeleteUser(final String command, final String username,
                        final Integer timestamp, final ObjectNode node) {
@@ -32,8 +33,10 @@ public final class DeleteUser extends StandardAdminCommand {
      */
     public static DeleteUser getInstance(final String command, final String username,
                                          final Integer timestamp, final ObjectNode node) {
+        DeleteUser instance = INSTANCE.get();
         if (instance == null) {
             instance = new DeleteUser(command, username, timestamp, node);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -50,55 +53,57 @@ public final class DeleteUser extends StandardAdminCommand {
      */
     public String getCommandMessage() {
         // search for the username and identify the type of the user
-        for (NormalUser user : Main.normalUserList) {
-            if (user.getUsername().equals(this.getUsername())) {
-                // the given username belongs to a normal user
-
-                // check if the user can be deleted
-                DeletionExecutionAccordingToUserType deletionExecution;
-                deletionExecution = new DeletionExecutionAccordingToUserType(this.timestamp);
-                if (!user.acceptDeletion(deletionExecution)) {
-                    return this.getUsername() + " can't be deleted.";
-                }
-
-                // if we reached this point, it means that the user can be deleted
-                Main.normalUserList.remove(user);
-                return this.getUsername() + " was successfully deleted.";
+        NormalUser user = context.getUserRegistry().getNormalUser(this.getUsername());
+        if (user != null) {
+            // the given username belongs to a normal user
+
+            // check if the user can be deleted
+            DeletionExecutionAccordingToUserType deletionExecution;
+            deletionExecution = new DeletionExecutionAccordingToUserType(this.timestamp);
+            if (!user.acceptDeletion(deletionExecution)) {
+                return this.getUsername() + " can't be deleted.";
             }
-        }
 
-        for (Artist artist : Main.artistsList) {
-            if (artist.getUsername().equals(this.getUsername())) {
-                // the given username belongs to an artist
+            // if we reached this point, it means that the user can be deleted
+            context.getUserRegistry().removeNormalUser(user);
+            context.getWrappedAggregates().removeUser(user);
+            context.getSongUsageIndex().removeUser(user);
+            context.getLoadedContentRegistry().removeUser(user);
+            context.getPageViewerRegistry().removeUser(user);
+            return this.getUsername() + " was successfully deleted.";
+        }
 
-                // check if the artist can be deleted
-                DeletionExecutionAccordingToUserType deletionExecution;
-                deletionExecution = new DeletionExecutionAccordingToUserType(this.timestamp);
-                if (!artist.acceptDeletion(deletionExecution)) {
-                    return this.getUsername() + " can't be deleted.";
-                }
+        Artist artist = context.getUserRegistry().getArtist(this.getUsername());
+        if (artist != null) {
+            // the given username belongs to an artist
 
-                // if we reached this point, it means that the artist can be deleted
-                Main.artistsList.remove(artist);
-                return this.getUsername() + " was successfully deleted.";
+            // check if the artist can be deleted
+            DeletionExecutionAccordingToUserType deletionExecution;
+            deletionExecution = new DeletionExecutionAccordingToUserType(this.timestamp);
+            if (!artist.acceptDeletion(deletionExecution)) {
+                return this.getUsername() + " can't be deleted.";
             }
+
+            // if we reached this point, it means that the artist can be deleted
+            context.getUserRegistry().removeArtist(artist);
+            context.getLeaderboards().removeArtist(artist);
+            return this.getUsername() + " was successfully deleted.";
         }
 
-        for (Host host : Main.hostsList) {
-            if (host.getUsername().equals(this.getUsername())) {
-                // the given username belongs to a host
+        Host host = context.getUserRegistry().getHost(this.getUsername());
+        if (host != null) {
+            // the given username belongs to a host
 
-                // check if the host can be deleted
-                DeletionExecutionAccordingToUserType deletionExecution;
-                deletionExecution = new DeletionExecutionAccordingToUserType(this.timestamp);
-                if (!host.acceptDeletion(deletionExecution)) {
-                    return this.getUsername() + " can't be deleted.";
-                }
-
-                // if we reached this point, it means that the host can be deleted
-                Main.hostsList.remove(host);
-                return this.getUsername() + " was successfully deleted.";
+            // check if the host can be deleted
+            DeletionExecutionAccordingToUserType deletionExecution;
+            deletionExecution = new DeletionExecutionAccordingToUserType(this.timestamp);
+            if (!host.acceptDeletion(deletionExecution)) {
+                return this.getUsername() + " can't be deleted.";
             }
+
+            // if we reached this point, it means that the host can be deleted
+            context.getUserRegistry().removeHost(host);
+            return this.getUsername() + " was successfully deleted.";
         }
 
         // if we reached this point, it means that the username does not exist
@@ -112,11 +117,7 @@ public final class DeleteUser extends StandardAdminCommand {
      * @return The ObjectNode containing information about the command execution.
      */
     public ObjectNode execute() {
-        node.put("command", this.getCommand());
-        node.put("user", this.getUsername());
-        node.put("timestamp", this.getTimestamp());
-        node.put("message", this.getCommandMessage());
-        return node;
+        return writeMessageOutput();
     }
 
 
@@ -125,8 +126,6 @@ public final class DeleteUser extends StandardAdminCommand {
      */
     public class DeletionExecutionAccordingToUserType implements VisitorDeletion {
         private static final int TYPE_PLAYLIST = 3;
-        private static final int TYPE_ARTIST = 5;
-        private static final int TYPE_HOST = 6;
         private Integer timestamp;
 
         /**
@@ -147,7 +146,18 @@ public final class DeleteUser extends StandardAdminCommand {
         @Override
         public Boolean canBeDeleted(final NormalUser normalUser) {
             // check if another user has loaded a playlist created by this user
-            for (NormalUser user : Main.normalUserList) {
+            LoadedContentRegistry loadedContentRegistry = context.getLoadedContentRegistry();
+            Set<NormalUser> usersLoadingPlaylists =
+                    loadedContentRegistry.getUsersLoadingPlaylistsOf(normalUser.getUsername());
+            int usersLeft = usersLoadingPlaylists.size();
+            for (NormalUser user : loadedContentRegistry.getLoadedUsers()) {
+                /* once all of those users are checked, the players of the others are only
+                moved (a playlist that is still loaded is the one the user had loaded) */
+                boolean loadingPlaylists = usersLeft > 0 && usersLoadingPlaylists.contains(user);
+                if (loadingPlaylists) {
+                    usersLeft--;
+                }
+
                 // check if the user has anything loaded
                 if (!user.getLoaded()) {
                     continue;
@@ -161,23 +171,12 @@ public final class DeleteUser extends StandardAdminCommand {
                 if (user.getLastLoadedPlaylist() == null) {
                     continue;
                 }
-                // update status of the playlist loaded in player if it's not on pause
-                if (!user.getLastLoadedPlaylist().getPaused()) {
-                    if (!user.getLastLoadedPlaylist().getShuffleStatus()) {
-                        user.getLastLoadedPlaylist().updatePlaylistStatus(user, this.timestamp,
-                                user.getLastLoadedPlaylist().getPlaylistSongs());
-                    } else {
-                        user.getLastLoadedPlaylist().updatePlaylistStatus(user, this.timestamp,
-                                user.getLastLoadedPlaylist().getShuffledPlaylistSongs());
-                    }
-                    // check if the playlist has finished meanwhile
-                    if (user.getLastLoadedPlaylist() == null) {
-                        continue;
-                    }
-                    user.getLastLoadedPlaylist().setLastPlayTimestamp(this.timestamp);
+                // update status of the playlist loaded in player
+                if (!user.isPlaylistStillLoaded(this.timestamp)) {
+                    continue;
                 }
 
-                if (user.getLastLoadedPlaylist().getOwner().equals(normalUser.getUsername())) {
+                if (loadingPlaylists) {
                     return false;
                 }
             }
@@ -194,9 +193,11 @@ public final class DeleteUser extends StandardAdminCommand {
          * @param normalUser The normal user to be deleted.
          */
         public void prepareForDeletion(final NormalUser normalUser) {
-            // remove all the user's playlists from other users' following lists
+            /* remove all the user's playlists from other users' following lists, along with
+            their playback sessions */
             for (Playlist playlist : normalUser.getPlaylists()) {
-                for (NormalUser user : Main.normalUserList) {
+                for (NormalUser user : context.getNormalUserList()) {
+                    user.removePlaylistSession(playlist);
                     if (!user.getUsername().equals(normalUser.getUsername())
                             && user.getFollowing().contains(playlist)) {
                         user.getFollowing().remove(playlist);
@@ -206,16 +207,16 @@ public final class DeleteUser extends StandardAdminCommand {
 
             // remove likes from songs liked by this user
             for (SongPlayInfo song : normalUser.getLikedSongs()) {
-                song.setNumberOfLikes(song.getNumberOfLikes() - 1);
+                context.getLeaderboards().updateSongLikes(song, -1);
             }
 
             // remove follow from playlists followed by the user
             for (Playlist followedPlaylist : normalUser.getFollowing()) {
-                followedPlaylist.setFollowers(followedPlaylist.getFollowers() - 1);
+                context.getLeaderboards().updatePlaylistFollowers(followedPlaylist, -1);
             }
 
             // if any user has selected a playlist owned by this user, delete selection
-            for (NormalUser user : Main.normalUserList) {
+            for (NormalUser user : context.getNormalUserList()) {
                 if (!user.getSearched()) {
                     continue;
                 }
@@ -238,22 +239,14 @@ public final class DeleteUser extends StandardAdminCommand {
          */
         @Override
         public Boolean canBeDeleted(final Artist artist) {
-            // check if any user is currently on the host's page
-            for (NormalUser user : Main.normalUserList) {
-                if (user.getPageHistory().get(user.getCurrentPageIndex()).
-                        getPageType() == TYPE_ARTIST) {
-                    ArtistPage artistPage = (ArtistPage) user.getPageHistory().
-                            get(user.getCurrentPageIndex());
-                    if (artistPage.getArtistPageOwner().getUsername().
-                            equals(artist.getUsername())) {
-                        return false;
-                    }
-                }
+            // check if any user is currently on the artist's page
+            if (context.getPageViewerRegistry().isArtistPageViewed(artist.getUsername())) {
+                return false;
             }
 
             // check if all the artist's albums can be deleted
             for (Album album : artist.getAlbums()) {
-                if (!artist.canDeleteAlbum(album, this.timestamp)) {
+                if (!artist.canDeleteAlbum(album, this.timestamp, context)) {
                     return false;
                 }
             }
@@ -275,7 +268,7 @@ public final class DeleteUser extends StandardAdminCommand {
             from the big list of songs, the other users' playlists
             and lists of liked songs */
             for (Album album : artist.getAlbums()) {
-                artist.prepareAlbumRemoval(album);
+                artist.prepareAlbumRemoval(album, context);
             }
         }
 
@@ -288,21 +281,13 @@ public final class DeleteUser extends StandardAdminCommand {
         @Override
         public Boolean canBeDeleted(final Host host) {
             // check if any user is currently on the host's page
-            for (NormalUser user : Main.normalUserList) {
-                if (user.getPageHistory().get(user.getCurrentPageIndex()).
-                        getPageType() == TYPE_HOST) {
-                    HostPage hostPage = (HostPage) user.getPageHistory().
-                            get(user.getCurrentPageIndex());
-                    if (hostPage.getHostPageOwner().getUsername()
-                            .equals(host.getUsername())) {
-                        return false;
-                    }
-                }
+            if (context.getPageViewerRegistry().isHostPageViewed(host.getUsername())) {
+                return false;
             }
 
             // check if all of the host's podcasts can be deleted
             for (PodcastInput podcast : host.getPodcasts()) {
-                if (!host.canDeletePodcast(podcast, this.timestamp)) {
+                if (!host.canDeletePodcast(podcast, this.timestamp, context)) {
                     return false;
                 }
             }
@@ -317,12 +302,12 @@ public final class DeleteUser extends StandardAdminCommand {
          */
         public void prepareForDeletion(final Host host) {
             for (PodcastInput podcast : host.getPodcasts()) {
-                host.preparePodcastRemoval(podcast);
+                host.preparePodcastRemoval(podcast, context);
             }
 
             // remove all the host's podcasts from the big list of podcasts
             for (PodcastInput podcast : host.getPodcasts()) {
-                Main.podcastsList.remove(podcast);
+                context.getPodcastsList().remove(podcast);
             }
         }
 
@@ -3,14 +3,13 @@ package main.adminCommands;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import fileio.input.audioEntities.Album;
-import main.Main;
 import users.Artist;
 
 import java.util.ArrayList;
 
 public final class ShowAlbums extends StandardAdminCommand {
-    // Singleton instance field
-    private static ShowAlbums instance = null;
+    // Singleton instance field, one per thread running a simulation
+    private static final ThreadLocal<ShowAlbums> INSTANCE = new ThreadLocal<>();
     private ShowAlbums(final String command, final String username,
                        final Integer timestamp, final ObjectNode node) {
         super(command, username, timestamp, node);
@@ -28,8 +27,10 @@ public final class ShowAlbums extends StandardAdminCommand {
     public static ShowAlbums getInstance(final String command, final String username,
                                          final Integer timestamp,
                                          final ObjectNode node) {
+        ShowAlbums instance = INSTANCE.get();
         if (instance == null) {
             instance = new ShowAlbums(command, username, timestamp, node);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -51,16 +52,15 @@ public final class ShowAlbums extends StandardAdminCommand {
         node.put("timestamp", this.getTimestamp());
 
         ArrayList<ObjectNode> result = new ArrayList<>();
-        for (Artist artist : Main.artistsList) {
-            if (artist.getUsername().equals(this.getUsername())) {
-                for (Album album : artist.getAlbums()) {
-                    ObjectNode albumNode = JsonNodeFactory.instance.objectNode();
-                    albumNode.put("name", album.getName());
-                    albumNode.putPOJO("songs", album.getSongsNames());
-                    result.add(albumNode);
-                }
-                node.putPOJO("result", result);
+        Artist artist = context.getUserRegistry().getArtist(this.getUsername());
+        if (artist != null) {
+            for (Album album : artist.getAlbums()) {
+                ObjectNode albumNode = JsonNodeFactory.instance.objectNode();
+                albumNode.put("name", album.getName());
+                albumNode.putPOJO("songs", album.getSongsNames());
+                result.add(albumNode);
             }
+            node.putPOJO("result", result);
         }
 
         return node;
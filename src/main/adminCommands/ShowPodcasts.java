@@ -3,15 +3,14 @@ package main.adminCommands;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import fileio.input.audioEntities.PodcastInput;
-import main.Main;
 import users.Host;
 
 import java.util.ArrayList;
 
 public final class ShowPodcasts extends StandardAdminCommand {
 
-    // Singleton instance field
-    private static ShowPodcasts instance = null;
+    // Singleton instance field, one per thread running a simulation
+    private static final ThreadLocal<ShowPodcasts> INSTANCE = new ThreadLocal<>();
     private ShowPodcasts(final String command, final String username,
                          final Integer timestamp, final ObjectNode node) {
         super(command, username, timestamp, node);
@@ -28,8 +27,10 @@ public final class ShowPodcasts extends StandardAdminCommand {
      */
     public static ShowPodcasts getInstance(final String command, final String username,
                                            final Integer timestamp, final ObjectNode node) {
+        ShowPodcasts instance = INSTANCE.get();
         if (instance == null) {
             instance = new ShowPodcasts(command, username, timestamp, node);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -65,16 +66,15 @@ public final class ShowPodcasts extends StandardAdminCommand {
         node.put("timestamp", this.getTimestamp());
 
         ArrayList<ObjectNode> result = new ArrayList<>();
-        for (Host host : Main.hostsList) {
-            if (host.getUsername().equals(this.getUsername())) {
-                for (PodcastInput podcastInput : host.getPodcasts()) {
-                    ObjectNode podcastNode = JsonNodeFactory.instance.objectNode();
-                    podcastNode.put("name", podcastInput.getName());
-                    podcastNode.putPOJO("episodes", this.getEpisodesNames(podcastInput));
-                    result.add(podcastNode);
-                }
-                node.putPOJO("result", result);
+        Host host = context.getUserRegistry().getHost(this.getUsername());
+        if (host != null) {
+            for (PodcastInput podcastInput : host.getPodcasts()) {
+                ObjectNode podcastNode = JsonNodeFactory.instance.objectNode();
+                podcastNode.put("name", podcastInput.getName());
+                podcastNode.putPOJO("episodes", this.getEpisodesNames(podcastInput));
+                result.add(podcastNode);
             }
+            node.putPOJO("result", result);
         }
 
         return node;
@@ -4,18 +4,18 @@ import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import fileio.input.audioEntities.Album;
 import fileio.input.audioEntities.SongPlayInfo;
-import main.Main;
+import main.commandsHandling.MessageCommand;
 import users.Artist;
 
 import java.util.ArrayList;
 
-public final class AddAlbum extends StandardArtistCommand {
+public final class AddAlbum extends StandardArtistCommand implements MessageCommand {
     private Integer releaseYear;
     private String description;
     private ArrayList<SongPlayInfo> songs;
 
-    // Singleton instance field
-    private static AddAlbum instance = null;
+    // Singleton instance field, one per thread running a simulation
+    private static final ThreadLocal<AddAlbum> INSTANCE = new ThreadLocal<>();
 
     private AddAlbum(final String command, final String username, final Integer timestamp,
                      final String name, final Integer releaseYear, final String description,
@@ -43,9 +43,11 @@ public final class AddAlbum extends StandardArtistCommand {
                                        final Integer timestamp, final String name,
                                        final Integer releaseYear, final String description,
                                        final ArrayList<SongPlayInfo> songs, final ObjectNode node) {
+        AddAlbum instance = INSTANCE.get();
         if (instance == null) {
             instance = new AddAlbum(command, username, timestamp,
                     name, releaseYear, description, songs, node);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -66,11 +68,7 @@ public final class AddAlbum extends StandardArtistCommand {
      * @return The ObjectNode containing information about the command execution.
      */
     public ObjectNode execute() {
-        node.put("command", this.getCommand());
-        node.put("user", this.getUsername());
-        node.put("timestamp", this.getTimestamp());
-        node.put("message", this.getCommandMessage());
-        return node;
+        return writeMessageOutput();
     }
 
     /**
@@ -97,38 +95,40 @@ public final class AddAlbum extends StandardArtistCommand {
      * @return a message indicating the success or failure of the addition operation.
      */
     public String getCommandMessage() {
-        for (Artist artist : Main.artistsList) {
-            if (artist.getUsername().equals(this.getUsername())) {
-                // this artist has already been created => the command can be executed
-
-                // check if the album name is already taken
-                for (Album album : artist.getAlbums()) {
-                    if (album.getName().equals(this.getName())) {
-                        return this.getUsername() + " has another album with the same name.";
-                    }
+        Artist artist = context.getUserRegistry().getArtist(this.getUsername());
+        if (artist != null) {
+            // this artist has already been created => the command can be executed
+
+            // check if the album name is already taken
+            for (Album album : artist.getAlbums()) {
+                if (album.getName().equals(this.getName())) {
+                    return this.getUsername() + " has another album with the same name.";
                 }
+            }
 
-                // check song list validity
-                if (hasDuplicates(this.songs)) {
-                    return this.getUsername() + " has the same song at least twice in this album.";
-                }
+            // check song list validity
+            if (hasDuplicates(this.songs)) {
+                return this.getUsername() + " has the same song at least twice in this album.";
+            }
 
-                // if the songlist is valid, create the album
-                Album newAlbum = new Album(this.getName(), this.releaseYear,
-                        this.description, this.songs);
-                artist.getAlbums().add(newAlbum);
+            // if the songlist is valid, create the album
+            Album newAlbum = new Album(this.getName(), this.releaseYear,
+                    this.description, this.songs);
+            artist.getAlbums().add(newAlbum);
 
-                // add the songs from the new album in the big songList (containing all songs)
-                Main.songsList.addAll(this.songs);
+            // add the songs from the new album in the big songList (containing all songs)
+            context.addSongs(this.songs);
+            context.getSongSearchIndex().addSongs(this.songs);
+            context.getLeaderboards().addSongs(this.songs);
+            context.getLeaderboards().addAlbum(artist, newAlbum);
 
-                // prepare the notification message
-                ObjectNode newNotification = JsonNodeFactory.instance.objectNode();
-                newNotification.put("name", "New Album");
-                newNotification.put("description", "New Album from " + artist.getUsername() + ".");
-                artist.notifyObservers(newNotification);
+            // prepare the notification message
+            ObjectNode newNotification = JsonNodeFactory.instance.objectNode();
+            newNotification.put("name", "New Album");
+            newNotification.put("description", "New Album from " + artist.getUsername() + ".");
+            artist.notifyObservers(newNotification);
 
-                return this.getUsername() + " has added new album successfully.";
-            }
+            return this.getUsername() + " has added new album successfully.";
         }
 
         // if we reached this point, it means that the username doesn't appear in the artist list
@@ -196,7 +196,7 @@ public final class AddAlbum extends StandardArtistCommand {
      * @return the singleton instance of AddAlbum.
      */
     public static AddAlbum getInstance() {
-        return instance;
+        return INSTANCE.get();
     }
 
     /**
@@ -205,6 +205,6 @@ public final class AddAlbum extends StandardArtistCommand {
      * @param instance the instance to be set.
      */
     public static void setInstance(final AddAlbum instance) {
-        AddAlbum.instance = instance;
+        INSTANCE.set(instance);
     }
 }
@@ -3,10 +3,10 @@ package main.artistCommands;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import fileio.input.entitiesForArtist.Event;
-import main.Main;
+import main.commandsHandling.MessageCommand;
 import users.Artist;
 
-public final class AddEvent extends StandardArtistCommand {
+public final class AddEvent extends StandardArtistCommand implements MessageCommand {
     private String description;
     private String date;
 
@@ -20,8 +20,8 @@ public final class AddEvent extends StandardArtistCommand {
     private static final int MAX_YEAR = 2023;
 
 
-    // Singleton instance field
-    private static AddEvent instance = null;
+    // Singleton instance field, one per thread running a simulation
+    private static final ThreadLocal<AddEvent> INSTANCE = new ThreadLocal<>();
 
     private AddEvent(final String command, final String username, final Integer timestamp,
                      final String name, final ObjectNode node, final String description,
@@ -47,8 +47,10 @@ public final class AddEvent extends StandardArtistCommand {
                                        final Integer timestamp, final String name,
                                        final ObjectNode node, final String description,
                                        final String date) {
+        AddEvent instance = INSTANCE.get();
         if (instance == null) {
             instance = new AddEvent(command, username, timestamp, name, node, description, date);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -68,11 +70,7 @@ public final class AddEvent extends StandardArtistCommand {
      * @return The ObjectNode containing information about the command execution.
      */
     public ObjectNode execute() {
-        node.put("command", this.getCommand());
-        node.put("user", this.getUsername());
-        node.put("timestamp", this.getTimestamp());
-        node.put("message", this.getCommandMessage());
-        return node;
+        return writeMessageOutput();
     }
 
     /**
@@ -140,35 +138,34 @@ public final class AddEvent extends StandardArtistCommand {
      * @return The command message.
      */
     public String getCommandMessage() {
-        for (Artist artist : Main.artistsList) {
-            if (artist.getUsername().equals(this.getUsername())) {
-                // this artist has already been created => the command can be executed
-
-                // check if the event name is already taken
-                for (Event event : artist.getEvents()) {
-                    if (event.getName().equals(this.getName())) {
-                        return this.getUsername() + " has another event with the same name.";
-                    }
+        Artist artist = context.getUserRegistry().getArtist(this.getUsername());
+        if (artist != null) {
+            // this artist has already been created => the command can be executed
+
+            // check if the event name is already taken
+            for (Event event : artist.getEvents()) {
+                if (event.getName().equals(this.getName())) {
+                    return this.getUsername() + " has another event with the same name.";
                 }
+            }
 
-                // check date validity
-                if (!isValidDate()) {
-                    return "Event for " + this.getUsername() + " does not have a valid date.";
-                }
+            // check date validity
+            if (!isValidDate()) {
+                return "Event for " + this.getUsername() + " does not have a valid date.";
+            }
 
-                /* if we reached this point, all the validity checks were
-                passed and we need to add the event */
-                Event newEvent = new Event(this.getName(), this.description, this.date);
-                artist.getEvents().add(newEvent);
+            /* if we reached this point, all the validity checks were
+            passed and we need to add the event */
+            Event newEvent = new Event(this.getName(), this.description, this.date);
+            artist.getEvents().add(newEvent);
 
-                // prepare the notification message
-                ObjectNode newNotification = JsonNodeFactory.instance.objectNode();
-                newNotification.put("name", "New Event");
-                newNotification.put("description", "New Event from " + artist.getUsername() + ".");
-                artist.notifyObservers(newNotification);
+            // prepare the notification message
+            ObjectNode newNotification = JsonNodeFactory.instance.objectNode();
+            newNotification.put("name", "New Event");
+            newNotification.put("description", "New Event from " + artist.getUsername() + ".");
+            artist.notifyObservers(newNotification);
 
-                return this.getUsername() + " has added new event successfully.";
-            }
+            return this.getUsername() + " has added new event successfully.";
         }
 
         return checkUsernameExistence();
@@ -3,15 +3,15 @@ package main.artistCommands;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import fileio.input.entitiesForArtist.Merch;
-import main.Main;
+import main.commandsHandling.MessageCommand;
 import users.Artist;
 
-public final class AddMerch extends StandardArtistCommand {
+public final class AddMerch extends StandardArtistCommand implements MessageCommand {
     private String description;
     private Integer price;
 
-    // Singleton instance field
-    private static AddMerch instance = null;
+    // Singleton instance field, one per thread running a simulation
+    private static final ThreadLocal<AddMerch> INSTANCE = new ThreadLocal<>();
 
     private AddMerch(final String command, final String username, final Integer timestamp,
                      final String name, final String description, final Integer price,
@@ -39,9 +39,11 @@ public final class AddMerch extends StandardArtistCommand {
                                        final Integer timestamp, final String name,
                                        final String description, final Integer price,
                                        final ObjectNode node) {
+        AddMerch instance = INSTANCE.get();
         if (instance == null) {
             instance = new AddMerch(command, username, timestamp, name,
                     description, price, node);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -61,11 +63,7 @@ public final class AddMerch extends StandardArtistCommand {
      * @return The ObjectNode containing information about the command execution.
      */
     public ObjectNode execute() {
-        node.put("command", this.getCommand());
-        node.put("user", this.getUsername());
-        node.put("timestamp", this.getTimestamp());
-        node.put("message", this.getCommandMessage());
-        return node;
+        return writeMessageOutput();
     }
 
     /**
@@ -74,36 +72,35 @@ public final class AddMerch extends StandardArtistCommand {
      * @return a message indicating the success or failure of the command.
      */
     public String getCommandMessage() {
-        for (Artist artist : Main.artistsList) {
-            if (artist.getUsername().equals(this.getUsername())) {
-                // this artist has already been created => the command can be executed
-
-                // check if the event name is already taken
-                for (Merch merch : artist.getMerchItems()) {
-                    if (merch.getName().equals(this.getName())) {
-                        return this.getUsername() + " has merchandise with the same name.";
-                    }
+        Artist artist = context.getUserRegistry().getArtist(this.getUsername());
+        if (artist != null) {
+            // this artist has already been created => the command can be executed
+
+            // check if the event name is already taken
+            for (Merch merch : artist.getMerchItems()) {
+                if (merch.getName().equals(this.getName())) {
+                    return this.getUsername() + " has merchandise with the same name.";
                 }
+            }
 
-                // check price validity
-                if (this.price < 0) {
-                    return "Price for merchandise can not be negative.";
-                }
+            // check price validity
+            if (this.price < 0) {
+                return "Price for merchandise can not be negative.";
+            }
 
-                /* if we reached this point, all the validity checks were
-                passed and we need to add the merch */
-                Merch newMerch = new Merch(this.getName(), this.description, this.price);
-                artist.getMerchItems().add(newMerch);
+            /* if we reached this point, all the validity checks were
+            passed and we need to add the merch */
+            Merch newMerch = new Merch(this.getName(), this.description, this.price);
+            artist.getMerchItems().add(newMerch);
 
-                // prepare the notification message
-                ObjectNode newNotification = JsonNodeFactory.instance.objectNode();
-                newNotification.put("name", "New Merchandise");
-                newNotification.put("description", "New Merchandise from "
-                        + artist.getUsername() + ".");
-                artist.notifyObservers(newNotification);
+            // prepare the notification message
+            ObjectNode newNotification = JsonNodeFactory.instance.objectNode();
+            newNotification.put("name", "New Merchandise");
+            newNotification.put("description", "New Merchandise from "
+                    + artist.getUsername() + ".");
+            artist.notifyObservers(newNotification);
 
-                return this.getUsername() + " has added new merchandise successfully.";
-            }
+            return this.getUsername() + " has added new merchandise successfully.";
         }
 
         return checkUsernameExistence();
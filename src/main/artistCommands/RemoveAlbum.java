@@ -2,13 +2,13 @@ package main.artistCommands;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import fileio.input.audioEntities.Album;
-import main.Main;
+import main.commandsHandling.MessageCommand;
 import users.Artist;
 
-public final class RemoveAlbum extends StandardArtistCommand {
+public final class RemoveAlbum extends StandardArtistCommand implements MessageCommand {
 
-    // Singleton instance field
-    private static RemoveAlbum instance = null;
+    // Singleton instance field, one per thread running a simulation
+    private static final ThreadLocal<RemoveAlbum> INSTANCE = new ThreadLocal<>();
 
     private RemoveAlbum(final String command, final String username, final Integer timestamp,
                         final String name, final ObjectNode node) {
@@ -28,8 +28,10 @@ public final class RemoveAlbum extends StandardArtistCommand {
     public static RemoveAlbum getInstance(final String command, final String username,
                                           final Integer timestamp, final String name,
                                           final ObjectNode node) {
+        RemoveAlbum instance = INSTANCE.get();
         if (instance == null) {
             instance = new RemoveAlbum(command, username, timestamp, name, node);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -47,11 +49,7 @@ public final class RemoveAlbum extends StandardArtistCommand {
      * @return The ObjectNode containing information about the command execution.
      */
     public ObjectNode execute() {
-        node.put("command", this.getCommand());
-        node.put("user", this.getUsername());
-        node.put("timestamp", this.getTimestamp());
-        node.put("message", this.getCommandMessage());
-        return node;
+        return writeMessageOutput();
     }
 
     /**
@@ -60,35 +58,34 @@ public final class RemoveAlbum extends StandardArtistCommand {
      * @return a message indicating the success or failure of the removal operation.
      */
     public String getCommandMessage() {
-        for (Artist artist : Main.artistsList) {
-            if (artist.getUsername().equals(this.getUsername())) {
-                // this artist has already been created => the command can be executed
+        Artist artist = context.getUserRegistry().getArtist(this.getUsername());
+        if (artist != null) {
+            // this artist has already been created => the command can be executed
 
-                // check if the artist has an album with the given name
-                Album albumToRemove = null;
-                for (Album album : artist.getAlbums()) {
-                    if (album.getName().equals(this.getName())) {
-                        albumToRemove = album;
-                        break;
-                    }
-                }
-                if (albumToRemove == null) {
-                    return this.getUsername() + " doesn't have an album with the given name.";
+            // check if the artist has an album with the given name
+            Album albumToRemove = null;
+            for (Album album : artist.getAlbums()) {
+                if (album.getName().equals(this.getName())) {
+                    albumToRemove = album;
+                    break;
                 }
+            }
+            if (albumToRemove == null) {
+                return this.getUsername() + " doesn't have an album with the given name.";
+            }
 
-                // check if the album can be deleted
-                if (!artist.canDeleteAlbum(albumToRemove, this.timestamp)) {
-                    return this.getUsername() + " can't delete this album.";
-                }
+            // check if the album can be deleted
+            if (!artist.canDeleteAlbum(albumToRemove, this.timestamp, context)) {
+                return this.getUsername() + " can't delete this album.";
+            }
 
-                // if we are here, it means that we need to remove this album
-                artist.prepareAlbumRemoval(albumToRemove);
-                // remove album from this artist's list of albums
-                for (Album album : artist.getAlbums()) {
-                    if (album.getName().equals(this.getName())) {
-                        artist.getAlbums().remove(album);
-                        return artist.getUsername() + " deleted the album successfully.";
-                    }
+            // if we are here, it means that we need to remove this album
+            artist.prepareAlbumRemoval(albumToRemove, context);
+            // remove album from this artist's list of albums
+            for (Album album : artist.getAlbums()) {
+                if (album.getName().equals(this.getName())) {
+                    artist.getAlbums().remove(album);
+                    return artist.getUsername() + " deleted the album successfully.";
                 }
             }
         }
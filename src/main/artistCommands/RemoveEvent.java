@@ -2,13 +2,13 @@ package main.artistCommands;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import fileio.input.entitiesForArtist.Event;
-import main.Main;
+import main.commandsHandling.MessageCommand;
 import users.Artist;
 
-public final class RemoveEvent extends StandardArtistCommand {
+public final class RemoveEvent extends StandardArtistCommand implements MessageCommand {
 
-    // Singleton instance field
-    private static RemoveEvent instance = null;
+    // Singleton instance field, one per thread running a simulation
+    private static final ThreadLocal<RemoveEvent> INSTANCE = new ThreadLocal<>();
 
     private RemoveEvent(final String command, final String username, final Integer timestamp,
                         final String name, final ObjectNode node) {
@@ -28,8 +28,10 @@ public final class RemoveEvent extends StandardArtistCommand {
     public static RemoveEvent getInstance(final String command, final String username,
                                           final Integer timestamp, final String name,
                                           final ObjectNode node) {
+        RemoveEvent instance = INSTANCE.get();
         if (instance == null) {
             instance = new RemoveEvent(command, username, timestamp, name, node);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -47,11 +49,7 @@ public final class RemoveEvent extends StandardArtistCommand {
      * @return The ObjectNode containing information about the command execution.
      */
     public ObjectNode execute() {
-        node.put("command", this.getCommand());
-        node.put("user", this.getUsername());
-        node.put("timestamp", this.getTimestamp());
-        node.put("message", this.getCommandMessage());
-        return node;
+        return writeMessageOutput();
     }
 
     /**
@@ -60,27 +58,26 @@ public final class RemoveEvent extends StandardArtistCommand {
      * @return a message indicating the success or failure of the command.
      */
     public String getCommandMessage() {
-        for (Artist artist : Main.artistsList) {
-            if (artist.getUsername().equals(this.getUsername())) {
-                // this artist has already been created => the command can be executed
+        Artist artist = context.getUserRegistry().getArtist(this.getUsername());
+        if (artist != null) {
+            // this artist has already been created => the command can be executed
 
-                // check if the artist has any event with the given name
-                Event eventToBeDeleted = null;
-                for (Event event : artist.getEvents()) {
-                    if (event.getName().equals(this.getName())) {
-                        eventToBeDeleted = event;
-                        break;
-                    }
-                }
-
-                if (eventToBeDeleted == null) {
-                    return this.getUsername() + " doesn't have an event with the given name.";
+            // check if the artist has any event with the given name
+            Event eventToBeDeleted = null;
+            for (Event event : artist.getEvents()) {
+                if (event.getName().equals(this.getName())) {
+                    eventToBeDeleted = event;
+                    break;
                 }
+            }
 
-                // remove the event from the artist's list of events
-                artist.getEvents().remove(eventToBeDeleted);
-                return this.getUsername() + " deleted the event successfully.";
+            if (eventToBeDeleted == null) {
+                return this.getUsername() + " doesn't have an event with the given name.";
             }
+
+            // remove the event from the artist's list of events
+            artist.getEvents().remove(eventToBeDeleted);
+            return this.getUsername() + " deleted the event successfully.";
         }
 
         return checkUsernameExistence();
@@ -2,7 +2,6 @@ package main.artistCommands;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import main.commandsHandling.GeneralCommand;
-import main.Main;
 import users.Host;
 import users.NormalUser;
 
@@ -25,17 +24,15 @@ public abstract class StandardArtistCommand extends GeneralCommand {
      */
     protected String checkUsernameExistence() {
         // look for the username in the normal users' list
-        for (NormalUser user : Main.normalUserList) {
-            if (user.getUsername().equals(this.username)) {
-                return this.username + " is not an artist.";
-            }
+        NormalUser user = context.getUserRegistry().getNormalUser(this.username);
+        if (user != null) {
+            return this.username + " is not an artist.";
         }
 
         // look for the username in the hosts' list
-        for (Host host : Main.hostsList) {
-            if (host.getUsername().equals(this.username)) {
-                return this.username + " is not an artist.";
-            }
+        Host host = context.getUserRegistry().getHost(this.username);
+        if (host != null) {
+            return this.username + " is not an artist.";
         }
 
         // if we reached this point, it means that the user could not be found in any list
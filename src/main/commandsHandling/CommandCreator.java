@@ -0,0 +1,18 @@
+package main.commandsHandling;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import fileio.input.InputCommands;
+import main.SimulationContext;
+
+interface CommandCreator {
+    /**
+     * Gets the instance of a specific command class, filled in with the data
+     * of the input command.
+     *
+     * @param inputcommand The command read from the input.
+     * @param context      The state of the simulation the command belongs to.
+     * @param node         The node in which the command writes its output.
+     * @return The command to be executed.
+     */
+    GeneralCommand create(InputCommands inputcommand, SimulationContext context, ObjectNode node);
+}
@@ -1,13 +1,11 @@
 package main.commandsHandling;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import fileio.input.LibraryInput;
 import fileio.input.InputCommands;
-import fileio.input.audioEntities.Playlist;
 import fileio.input.audioEntities.SongInput;
 import fileio.input.audioEntities.SongPlayInfo;
 import main.EndProgram;
-import main.Main;
+import main.SimulationContext;
 import main.adminCommands.AddUser;
 import main.adminCommands.DeleteUser;
 import main.adminCommands.ShowAlbums;
@@ -62,201 +60,220 @@ import main.userCommands.PageNavigationCommands.PrintCurrentPage;
 import main.userCommands.AdBreak;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 
-final class CommandFactory {
-    private CommandFactory() {
+/**
+ * Creates the command corresponding to an input command. Each command name is
+ * mapped once to the creator of its command class, so finding the command to
+ * be executed is a single map lookup.
+ */
+public final class CommandFactory {
+    // command name -> creator of the corresponding command
+    private static final HashMap<String, CommandCreator> CREATORS = new HashMap<>();
 
-    }
-    public static GeneralCommand createCommand(final InputCommands inputcommand,
-                                               final LibraryInput library, final ObjectNode node,
-                                               final ArrayList<Playlist> allUsersPlaylists) {
-        switch (inputcommand.getCommand()) {
-            case "search":
-                return SearchCommand.getInstance(library, inputcommand.getCommand(),
-                        inputcommand.getUsername(), inputcommand.getTimestamp(),
-                        inputcommand.getType(), inputcommand.getFilters(), node);
-            case "select":
-                return SelectCommand.getInstance(inputcommand.getCommand(),
+    static {
+        CREATORS.put("search", (inputcommand, context, node) ->
+                SearchCommand.getInstance(context.getCatalog(), inputcommand.getCommand(),
                         inputcommand.getUsername(), inputcommand.getTimestamp(),
-                        inputcommand.getItemNumber(), node);
-            case "load":
-                return LoadCommand.getInstance(inputcommand.getCommand(),
-                        inputcommand.getUsername(), inputcommand.getTimestamp(), node);
-            case "playPause":
-                return PlayPauseCommand.getInstance(inputcommand.getCommand(),
-                        inputcommand.getUsername(), inputcommand.getTimestamp(), node);
-            case "status":
-                return StatusCommand.getInstance(inputcommand.getCommand(),
-                        inputcommand.getUsername(), inputcommand.getTimestamp(), node);
-            case "createPlaylist":
-                return CreatePlaylist.getInstance(inputcommand.getCommand(),
+                        inputcommand.getType(), inputcommand.getFilters(), node));
+        CREATORS.put("select", (inputcommand, context, node) ->
+                SelectCommand.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
+                        inputcommand.getTimestamp(), inputcommand.getItemNumber(), node));
+        CREATORS.put("load", (inputcommand, context, node) ->
+                LoadCommand.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
+                        inputcommand.getTimestamp(), node));
+        CREATORS.put("playPause", (inputcommand, context, node) ->
+                PlayPauseCommand.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
+                        inputcommand.getTimestamp(), node));
+        CREATORS.put("status", (inputcommand, context, node) ->
+                StatusCommand.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
+                        inputcommand.getTimestamp(), node));
+        CREATORS.put("createPlaylist", (inputcommand, context, node) ->
+                CreatePlaylist.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
+                        inputcommand.getTimestamp(), inputcommand.getPlaylistName(), node,
+                        context.getAllUsersPlaylists()));
+        CREATORS.put("addRemoveInPlaylist", (inputcommand, context, node) ->
+                AddRemoveInPlaylist.getInstance(inputcommand.getCommand(),
                         inputcommand.getUsername(), inputcommand.getTimestamp(),
-                        inputcommand.getPlaylistName(), node, allUsersPlaylists);
-            case "addRemoveInPlaylist":
-                return AddRemoveInPlaylist.getInstance(inputcommand.getCommand(), inputcommand.
-                                getUsername(), inputcommand.getTimestamp(),
-                        inputcommand.getPlaylistId(), node);
-            case "showPlaylists":
-                return ShowPlaylists.getInstance(inputcommand.getCommand(),
-                        inputcommand.getUsername(), inputcommand.getTimestamp(), node);
-            case "like":
-                return LikeCommand.getInstance(inputcommand.getCommand(),
-                        inputcommand.getUsername(), inputcommand.getTimestamp(), node);
-            case "showPreferredSongs":
-                return ShowPreferredSongs.getInstance(inputcommand.getCommand(),
-                        inputcommand.getUsername(), inputcommand.getTimestamp(), node);
-            case "repeat":
-                return RepeatCommand.getInstance(inputcommand.getCommand(),
-                        inputcommand.getUsername(), inputcommand.getTimestamp(), node);
-            case "shuffle":
-                return ShuffleCommand.getInstance(inputcommand.getCommand(),
+                        inputcommand.getPlaylistId(), node));
+        CREATORS.put("showPlaylists", (inputcommand, context, node) ->
+                ShowPlaylists.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
+                        inputcommand.getTimestamp(), node));
+        CREATORS.put("like", (inputcommand, context, node) ->
+                LikeCommand.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
+                        inputcommand.getTimestamp(), node));
+        CREATORS.put("showPreferredSongs", (inputcommand, context, node) ->
+                ShowPreferredSongs.getInstance(inputcommand.getCommand(),
+                        inputcommand.getUsername(), inputcommand.getTimestamp(), node));
+        CREATORS.put("repeat", (inputcommand, context, node) ->
+                RepeatCommand.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
+                        inputcommand.getTimestamp(), node));
+        CREATORS.put("shuffle", (inputcommand, context, node) ->
+                ShuffleCommand.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
+                        inputcommand.getTimestamp(), inputcommand.getSeed(), node));
+        CREATORS.put("switchVisibility", (inputcommand, context, node) ->
+                SwitchVisibilityCommand.getInstance(inputcommand.getCommand(),
                         inputcommand.getUsername(), inputcommand.getTimestamp(),
-                        inputcommand.getSeed(), node);
-            case "switchVisibility":
-                return SwitchVisibilityCommand.getInstance(inputcommand.getCommand(),
-                        inputcommand.getUsername(), inputcommand.getTimestamp(),
-                        inputcommand.getPlaylistId(), node);
-            case "follow":
-                return FollowPlaylistCommand.getInstance(inputcommand.getCommand(), inputcommand.
-                        getUsername(), inputcommand.getTimestamp(), node);
-            case "getTop5Songs":
-                return GetTop5SongsCommand.getInstance(inputcommand.getCommand(), Main.songsList,
-                        inputcommand.getTimestamp(), node);
-            case "getTop5Playlists":
-                return GetTop5Playlists.getInstance(inputcommand.getCommand(), node,
-                        inputcommand.getTimestamp(), allUsersPlaylists);
-            case "forward":
-                return ForwardCommand.getInstance(inputcommand.getCommand(),
-                        inputcommand.getUsername(), inputcommand.getTimestamp(), node);
-            case "backward":
-                return BackwardCommand.getInstance(inputcommand.getCommand(), inputcommand.
-                        getUsername(), inputcommand.getTimestamp(), node);
-            case "next":
-                return NextCommand.getInstance(inputcommand.getCommand(),
-                        inputcommand.getUsername(), inputcommand.getTimestamp(), node);
-            case "prev":
-                return PrevCommand.getInstance(inputcommand.getCommand(),
-                        inputcommand.getUsername(), inputcommand.getTimestamp(), node);
-            case "switchConnectionStatus":
-                return SwitchConnectionStatus.getInstance(inputcommand.getCommand(), inputcommand.
-                        getUsername(), inputcommand.getTimestamp(), node);
-            case "getOnlineUsers":
-                return GetOnlineUsers.getInstance(inputcommand.getCommand(), node,
-                        inputcommand.getTimestamp());
-            case "addUser":
-                return AddUser.getInstance(inputcommand.getCommand(), inputcommand.getTimestamp(),
-                        inputcommand.getType(), inputcommand.getUsername(),
-                        inputcommand.getAge(), inputcommand.getCity(), node);
-            case "addAlbum":
-                ArrayList<SongPlayInfo> albumSongList = new ArrayList<>();
-                for (SongInput song : inputcommand.getSongs()) {
-                    SongPlayInfo newSong = new SongPlayInfo();
-                    newSong.setSong(song);
-                    albumSongList.add(newSong);
-                }
-                return AddAlbum.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
-                        inputcommand.getTimestamp(), inputcommand.getName(),
-                        inputcommand.getReleaseYear(), inputcommand.getDescription(),
-                        albumSongList, node);
-            case "showAlbums":
-                return ShowAlbums.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
-                        inputcommand.getTimestamp(), node);
-            case "printCurrentPage":
-                return PrintCurrentPage.getInstance(inputcommand.getCommand(),
-                        inputcommand.getUsername(), inputcommand.getTimestamp(), node);
-            case "addEvent":
-                return AddEvent.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
+                        inputcommand.getPlaylistId(), node));
+        CREATORS.put("follow", (inputcommand, context, node) ->
+                FollowPlaylistCommand.getInstance(inputcommand.getCommand(),
+                        inputcommand.getUsername(), inputcommand.getTimestamp(), node));
+        CREATORS.put("getTop5Songs", (inputcommand, context, node) ->
+                GetTop5SongsCommand.getInstance(inputcommand.getCommand(), context.getSongsList(),
+                        inputcommand.getTimestamp(), node));
+        CREATORS.put("getTop5Playlists", (inputcommand, context, node) ->
+                GetTop5Playlists.getInstance(inputcommand.getCommand(), node,
+                        inputcommand.getTimestamp(), context.getAllUsersPlaylists()));
+        CREATORS.put("forward", (inputcommand, context, node) ->
+                ForwardCommand.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
+                        inputcommand.getTimestamp(), node));
+        CREATORS.put("backward", (inputcommand, context, node) ->
+                BackwardCommand.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
+                        inputcommand.getTimestamp(), node));
+        CREATORS.put("next", (inputcommand, context, node) ->
+                NextCommand.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
+                        inputcommand.getTimestamp(), node));
+        CREATORS.put("prev", (inputcommand, context, node) ->
+                PrevCommand.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
+                        inputcommand.getTimestamp(), node));
+        CREATORS.put("switchConnectionStatus", (inputcommand, context, node) ->
+                SwitchConnectionStatus.getInstance(inputcommand.getCommand(),
+                        inputcommand.getUsername(), inputcommand.getTimestamp(), node));
+        CREATORS.put("getOnlineUsers", (inputcommand, context, node) ->
+                GetOnlineUsers.getInstance(inputcommand.getCommand(), node,
+                        inputcommand.getTimestamp()));
+        CREATORS.put("addUser", (inputcommand, context, node) ->
+                AddUser.getInstance(inputcommand.getCommand(), inputcommand.getTimestamp(),
+                        inputcommand.getType(), inputcommand.getUsername(), inputcommand.getAge(),
+                        inputcommand.getCity(), node));
+        CREATORS.put("addAlbum", (inputcommand, context, node) -> {
+            ArrayList<SongPlayInfo> albumSongList = new ArrayList<>();
+            for (SongInput song : inputcommand.getSongs()) {
+                SongPlayInfo newSong = new SongPlayInfo();
+                newSong.setSong(song);
+                albumSongList.add(newSong);
+            }
+            return AddAlbum.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
+                    inputcommand.getTimestamp(), inputcommand.getName(),
+                    inputcommand.getReleaseYear(), inputcommand.getDescription(),
+                    albumSongList, node);
+        });
+        CREATORS.put("showAlbums", (inputcommand, context, node) ->
+                ShowAlbums.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
+                        inputcommand.getTimestamp(), node));
+        CREATORS.put("printCurrentPage", (inputcommand, context, node) ->
+                PrintCurrentPage.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
+                        inputcommand.getTimestamp(), node));
+        CREATORS.put("addEvent", (inputcommand, context, node) ->
+                AddEvent.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
                         inputcommand.getTimestamp(), inputcommand.getName(), node,
-                        inputcommand.getDescription(), inputcommand.getDate());
-            case "addMerch":
-                return AddMerch.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
+                        inputcommand.getDescription(), inputcommand.getDate()));
+        CREATORS.put("addMerch", (inputcommand, context, node) ->
+                AddMerch.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
                         inputcommand.getTimestamp(), inputcommand.getName(),
-                        inputcommand.getDescription(), inputcommand.getPrice(), node);
-            case "deleteUser":
-                return DeleteUser.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
-                        inputcommand.getTimestamp(), node);
-            case "getAllUsers":
-                return GetAllUsers.getInstance(inputcommand.getCommand(), node,
-                        inputcommand.getTimestamp());
-            case "addPodcast":
-                return AddPodcast.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
+                        inputcommand.getDescription(), inputcommand.getPrice(), node));
+        CREATORS.put("deleteUser", (inputcommand, context, node) ->
+                DeleteUser.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
+                        inputcommand.getTimestamp(), node));
+        CREATORS.put("getAllUsers", (inputcommand, context, node) ->
+                GetAllUsers.getInstance(inputcommand.getCommand(), node,
+                        inputcommand.getTimestamp()));
+        CREATORS.put("addPodcast", (inputcommand, context, node) ->
+                AddPodcast.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
                         inputcommand.getTimestamp(), inputcommand.getName(), node,
-                        inputcommand.getEpisodes());
-            case "addAnnouncement":
-                return AddAnnouncement.getInstance(inputcommand.getCommand(),
-                        inputcommand.getUsername(), inputcommand.getTimestamp(),
-                        inputcommand.getName(), node, inputcommand.getDescription());
-            case "removeAnnouncement":
-                return RemoveAnnouncement.getInstance(inputcommand.getCommand(),
+                        inputcommand.getEpisodes()));
+        CREATORS.put("addAnnouncement", (inputcommand, context, node) ->
+                AddAnnouncement.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
+                        inputcommand.getTimestamp(), inputcommand.getName(), node,
+                        inputcommand.getDescription()));
+        CREATORS.put("removeAnnouncement", (inputcommand, context, node) ->
+                RemoveAnnouncement.getInstance(inputcommand.getCommand(),
                         inputcommand.getUsername(), inputcommand.getTimestamp(),
-                        inputcommand.getName(), node);
-            case "showPodcasts":
-                return ShowPodcasts.getInstance(inputcommand.getCommand(),
-                        inputcommand.getUsername(), inputcommand.getTimestamp(), node);
-            case "removeAlbum":
-                return RemoveAlbum.getInstance(inputcommand.getCommand(),
+                        inputcommand.getName(), node));
+        CREATORS.put("showPodcasts", (inputcommand, context, node) ->
+                ShowPodcasts.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
+                        inputcommand.getTimestamp(), node));
+        CREATORS.put("removeAlbum", (inputcommand, context, node) ->
+                RemoveAlbum.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
+                        inputcommand.getTimestamp(), inputcommand.getName(), node));
+        CREATORS.put("changePage", (inputcommand, context, node) ->
+                ChangePage.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
+                        inputcommand.getTimestamp(), node, inputcommand.getNextPage()));
+        CREATORS.put("removePodcast", (inputcommand, context, node) ->
+                RemovePodcast.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
+                        inputcommand.getTimestamp(), inputcommand.getName(), node));
+        CREATORS.put("removeEvent", (inputcommand, context, node) ->
+                RemoveEvent.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
+                        inputcommand.getTimestamp(), inputcommand.getName(), node));
+        CREATORS.put("getTop5Albums", (inputcommand, context, node) ->
+                GetTop5Albums.getInstance(inputcommand.getCommand(), node,
+                        inputcommand.getTimestamp()));
+        CREATORS.put("getTop5Artists", (inputcommand, context, node) ->
+                GetTop5Artists.getInstance(inputcommand.getCommand(), node,
+                        inputcommand.getTimestamp()));
+        CREATORS.put("wrapped", (inputcommand, context, node) ->
+                WrappedCommand.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
+                        inputcommand.getTimestamp(), node));
+        CREATORS.put("endProgram", (inputcommand, context, node) ->
+                EndProgram.getInstance(inputcommand.getCommand(), inputcommand.getTimestamp(),
+                        node));
+        CREATORS.put("buyMerch", (inputcommand, context, node) ->
+                BuyMerch.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
+                        inputcommand.getTimestamp(), node, inputcommand.getName()));
+        CREATORS.put("seeMerch", (inputcommand, context, node) ->
+                SeeMerch.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
+                        inputcommand.getTimestamp(), node));
+        CREATORS.put("updateRecommendations", (inputcommand, context, node) ->
+                UpdateRecommendations.getInstance(inputcommand.getCommand(),
                         inputcommand.getUsername(), inputcommand.getTimestamp(),
-                        inputcommand.getName(), node);
-            case "changePage":
-                return ChangePage.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
-                        inputcommand.getTimestamp(), node, inputcommand.getNextPage());
-            case "removePodcast":
-                return RemovePodcast.getInstance(inputcommand.getCommand(),
-                        inputcommand.getUsername(),
-                        inputcommand.getTimestamp(), inputcommand.getName(), node);
-            case "removeEvent":
-                return RemoveEvent.getInstance(inputcommand.getCommand(),
-                        inputcommand.getUsername(),
-                        inputcommand.getTimestamp(), inputcommand.getName(), node);
-            case "getTop5Albums":
-                return GetTop5Albums.getInstance(inputcommand.getCommand(), node,
-                        inputcommand.getTimestamp());
-            case "getTop5Artists":
-                return GetTop5Artists.getInstance(inputcommand.getCommand(), node,
-                        inputcommand.getTimestamp());
-            case "wrapped":
-                return WrappedCommand.getInstance(inputcommand.getCommand(),
-                        inputcommand.getUsername(), inputcommand.getTimestamp(), node);
-            case "endProgram":
-                return EndProgram.getInstance(inputcommand.getCommand(), inputcommand.
-                        getTimestamp(), node);
-            case "buyMerch":
-                return BuyMerch.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
-                        inputcommand.getTimestamp(), node, inputcommand.getName());
-            case "seeMerch":
-                return SeeMerch.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
-                        inputcommand.getTimestamp(), node);
-            case "updateRecommendations":
-                return UpdateRecommendations.getInstance(inputcommand.getCommand(),
-                        inputcommand.getUsername(), inputcommand.getTimestamp(), inputcommand.
-                                getRecommendationType(), node);
-            case "previousPage":
-                return PreviousPage.getInstance(inputcommand.getCommand(), inputcommand.
-                                getUsername(), inputcommand.getTimestamp(), node);
-            case "nextPage":
-                return NextPage.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
-                        inputcommand.getTimestamp(), node);
-            case "loadRecommendations":
-                return LoadRecommendations.getInstance(inputcommand.getCommand(), inputcommand.
-                                getUsername(), inputcommand.getTimestamp(), node);
-            case "subscribe":
-                return SubscribeCommand.getInstance(inputcommand.getCommand(),
-                        inputcommand.getUsername(), inputcommand.getTimestamp(), node);
-            case "getNotifications":
-                return GetNotifications.getInstance(inputcommand.getCommand(), inputcommand.
-                                getUsername(), inputcommand.getTimestamp(), node);
-            case "buyPremium":
-                return BuyPremium.getInstance(inputcommand.getCommand(), inputcommand.
-                                getUsername(), inputcommand.getTimestamp(), node);
-            case "cancelPremium":
-                return CancelPremium.getInstance(inputcommand.getCommand(), inputcommand.
-                                getUsername(), inputcommand.getTimestamp(), node);
-            case "adBreak":
-                return AdBreak.getInstance(inputcommand.getCommand(), inputcommand.
-                                getUsername(), inputcommand.getTimestamp(), node,
-                        inputcommand.getPrice());
-            default:
-                return null;
+                        inputcommand.getRecommendationType(), node));
+        CREATORS.put("previousPage", (inputcommand, context, node) ->
+                PreviousPage.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
+                        inputcommand.getTimestamp(), node));
+        CREATORS.put("nextPage", (inputcommand, context, node) ->
+                NextPage.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
+                        inputcommand.getTimestamp(), node));
+        CREATORS.put("loadRecommendations", (inputcommand, context, node) ->
+                LoadRecommendations.getInstance(inputcommand.getCommand(),
+                        inputcommand.getUsername(), inputcommand.getTimestamp(), node));
+        CREATORS.put("subscribe", (inputcommand, context, node) ->
+                SubscribeCommand.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
+                        inputcommand.getTimestamp(), node));
+        CREATORS.put("getNotifications", (inputcommand, context, node) ->
+                GetNotifications.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
+                        inputcommand.getTimestamp(), node));
+        CREATORS.put("buyPremium", (inputcommand, context, node) ->
+                BuyPremium.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
+                        inputcommand.getTimestamp(), node));
+        CREATORS.put("cancelPremium", (inputcommand, context, node) ->
+                CancelPremium.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
+                        inputcommand.getTimestamp(), node));
+        CREATORS.put("adBreak", (inputcommand, context, node) ->
+                AdBreak.getInstance(inputcommand.getCommand(), inputcommand.getUsername(),
+                        inputcommand.getTimestamp(), node, inputcommand.getPrice()));
+    }
+
+    private CommandFactory() {
+
+    }
+
+    /**
+     * Gets the instance of the command class corresponding to the input command.
+     *
+     * @param inputcommand The command read from the input.
+     * @param context      The state of the simulation the command belongs to.
+     * @param node         The node in which the command writes its output.
+     * @return The command to be executed, or null if the command name is unknown.
+     */
+    public static GeneralCommand createCommand(final InputCommands inputcommand,
+                                               final SimulationContext context,
+                                               final ObjectNode node) {
+        CommandCreator creator = CREATORS.get(inputcommand.getCommand());
+        if (creator == null) {
+            return null;
         }
+        GeneralCommand command = creator.create(inputcommand, context, node);
+        command.setContext(context);
+        return command;
     }
 }
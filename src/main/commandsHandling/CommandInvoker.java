@@ -1,113 +1,208 @@
 package main.commandsHandling;
 
-import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import fileio.input.InputCommands;
-import fileio.input.LibraryInput;
-import fileio.input.audioEntities.Playlist;
+import fileio.output.OutputWriter;
+import main.SimulationContext;
+import main.journal.SimulationJournal;
+import main.metrics.CommandProbe;
+import main.metrics.SimulationMetrics;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.util.Iterator;
 
 public class CommandInvoker {
-    private ArrayList<InputCommands> inputcommands;
-    private ArrayNode outputs;
-    private LibraryInput library;
-    private ArrayList<Playlist> allUsersPlaylists;
-
-    public CommandInvoker(final ArrayList<InputCommands> inputcommands,
-                          final ArrayNode outputs, final LibraryInput library,
-                          final ArrayList<Playlist> allUsersPlaylists) {
+    private static final String END_PROGRAM = "endProgram";
+
+    private Iterator<InputCommands> inputcommands;
+    private OutputWriter outputs;
+    private SimulationContext context;
+
+    // the journal of the applied commands (null if the run isn't journaled)
+    private SimulationJournal journal;
+
+    public CommandInvoker(final Iterator<InputCommands> inputcommands,
+                          final OutputWriter outputs, final SimulationContext context) {
+        this(inputcommands, outputs, context, null);
+    }
+
+    public CommandInvoker(final Iterator<InputCommands> inputcommands,
+                          final OutputWriter outputs, final SimulationContext context,
+                          final SimulationJournal journal) {
         this.inputcommands = inputcommands;
         this.outputs = outputs;
-        this.library = library;
-        this.allUsersPlaylists = allUsersPlaylists;
+        this.context = context;
+        this.journal = journal;
     }
 
     /**
-     * Invokes all the commands in the inputcommands list and adds their
-     * outputs to the outputs ArrayNode.
+     * Invokes the commands one by one, as the inputcommands iterator returns
+     * them, and writes their outputs as soon as each one has been executed.
+     *
+     * @throws IOException in case of exceptions to writing
      */
-    public void invokeCommands() {
-        for (InputCommands inputcommand : inputcommands) {
-            ObjectNode node = JsonNodeFactory.instance.objectNode();
-
+    public void invokeCommands() throws IOException {
+        // the outputs are written right away, so the same node is used by all commands
+        ObjectNode node = JsonNodeFactory.instance.objectNode();
+        while (inputcommands.hasNext()) {
+            InputCommands inputcommand = inputcommands.next();
+            CommandProbe probe = CommandProbe.start(context.getMetrics(), inputcommand);
             GeneralCommand command = CommandFactory.createCommand(inputcommand,
-                    library, node, allUsersPlaylists);
-            outputs.addPOJO(CommandFactory.createCommand(inputcommand, library,
-                    node, allUsersPlaylists).execute());
+                    context, node);
+
+            if (command instanceof MessageCommand) {
+                MessageCommand messageCommand = (MessageCommand) command;
+                String name = command.getCommand();
+                String username = messageCommand.getUsername();
+                Integer timestamp = command.getTimestamp();
+                String message = messageCommand.getCommandMessage();
+                if (probe != null) {
+                    probe.stop(CommandProbe.MESSAGE_RESULT_SIZE);
+                }
+                outputs.writeMessage(name, username, timestamp, message);
+            } else {
+                ObjectNode output = command.execute();
+                if (probe != null) {
+                    probe.stop(output);
+                }
+                outputs.write(output);
+            }
+            node.removeAll();
+
+            if (journal != null) {
+                journal.append(inputcommand, context);
+            }
+            reportIfEnded(inputcommand, context);
+        }
+    }
+
+    /**
+     * Invokes a single command on the current thread, in the invoker's context,
+     * and returns its output instead of writing it. Used when the commands
+     * arrive one at a time (the command server).
+     *
+     * @param inputcommand The command to be invoked.
+     * @return The output of the command.
+     * @throws IOException in case of exceptions to writing the journal
+     */
+    public ObjectNode invokeCommand(final InputCommands inputcommand) throws IOException {
+        // the output is kept by the caller, so every command gets its own node
+        ObjectNode output = executeToNode(inputcommand, context);
+
+        if (journal != null) {
+            journal.append(inputcommand, context);
+        }
+        reportIfEnded(inputcommand, context);
+        return output;
+    }
+
+    /**
+     * Executes a command in the current thread's context and returns its output in a
+     * new node. The output of a MessageCommand has the same fields, in the same order,
+     * as the one written by OutputWriter.writeMessage.
+     *
+     * @param inputcommand The command to be executed.
+     * @param context      The simulation of the current thread.
+     * @return The output of the command.
+     */
+    static ObjectNode executeToNode(final InputCommands inputcommand,
+                                    final SimulationContext context) {
+        CommandProbe probe = CommandProbe.start(context.getMetrics(), inputcommand);
+        ObjectNode node = JsonNodeFactory.instance.objectNode();
+        GeneralCommand command = CommandFactory.createCommand(inputcommand, context, node);
+        ObjectNode output = command.execute();
+        if (probe != null) {
+            probe.stop(output);
+        }
+        return output;
+    }
+
+    /**
+     * Writes the metrics report of the simulation once endProgram has been executed,
+     * if the simulation keeps metrics.
+     *
+     * @param inputcommand The command that has just been executed.
+     * @param context      The simulation it was executed in.
+     * @throws IOException in case of exceptions to writing the report
+     */
+    static void reportIfEnded(final InputCommands inputcommand, final SimulationContext context)
+            throws IOException {
+        SimulationMetrics metrics = context.getMetrics();
+        if (metrics != null && END_PROGRAM.equals(inputcommand.getCommand())) {
+            metrics.writeReport();
         }
     }
 
     /**
-     * Gets the list of input commands.
+     * Gets the input commands that haven't been invoked yet.
      *
-     * @return The list of input commands.
+     * @return The iterator over the input commands.
      */
-    public ArrayList<InputCommands> getInputcommands() {
+    public Iterator<InputCommands> getInputcommands() {
         return inputcommands;
     }
 
     /**
-     * Sets the list of input commands.
+     * Sets the input commands to be invoked.
      *
-     * @param inputcommands The new list of input commands.
+     * @param inputcommands The new iterator over the input commands.
      */
-    public void setInputcommands(final ArrayList<InputCommands> inputcommands) {
+    public void setInputcommands(final Iterator<InputCommands> inputcommands) {
         this.inputcommands = inputcommands;
     }
 
     /**
-     * Gets the library containing the initial state.
+     * Gets the state of the simulation in which the commands are invoked.
      *
-     * @return The LibraryInput containing the initial state.
+     * @return The simulation context.
      */
-    public LibraryInput getLibrary() {
-        return library;
+    public SimulationContext getContext() {
+        return context;
     }
 
     /**
-     * Sets the library containing the initial state.
+     * Sets the state of the simulation in which the commands are invoked.
      *
-     * @param library The new LibraryInput containing the initial state.
+     * @param context The new simulation context.
      */
-    public void setLibrary(final LibraryInput library) {
-        this.library = library;
+    public void setContext(final SimulationContext context) {
+        this.context = context;
     }
 
     /**
-     * Gets the list of all playlists from all users.
+     * Gets the journal of the applied commands.
      *
-     * @return The list of all playlists.
+     * @return The journal, or null if the run isn't journaled.
      */
-    public ArrayList<Playlist> getAllUsersPlaylists() {
-        return allUsersPlaylists;
+    public SimulationJournal getJournal() {
+        return journal;
     }
 
     /**
-     * Sets the list of all playlists from all users.
+     * Sets the journal of the applied commands.
      *
-     * @param allUsersPlaylists The new list of all playlists.
+     * @param journal The new journal, or null to stop journaling.
      */
-    public void setAllUsersPlaylists(final ArrayList<Playlist> allUsersPlaylists) {
-        this.allUsersPlaylists = allUsersPlaylists;
+    public void setJournal(final SimulationJournal journal) {
+        this.journal = journal;
     }
 
     /**
-     * Gets the ArrayNode containing the outputs of the invoked commands.
+     * Gets the writer of the outputs of the invoked commands.
      *
-     * @return The ArrayNode containing the outputs.
+     * @return The writer of the outputs.
      */
-    public ArrayNode getOutputs() {
+    public OutputWriter getOutputs() {
         return outputs;
     }
 
     /**
-     * Sets the ArrayNode containing the outputs of the invoked commands.
+     * Sets the writer of the outputs of the invoked commands.
      *
-     * @param outputs The new ArrayNode containing the outputs.
+     * @param outputs The new writer of the outputs.
      */
-    public void setOutputs(final ArrayNode outputs) {
+    public void setOutputs(final OutputWriter outputs) {
         this.outputs = outputs;
     }
 }
@@ -0,0 +1,51 @@
+package main.commandsHandling;
+
+import java.util.HashMap;
+
+/**
+ * Tells which commands can be executed at the same time as the commands of other users.
+ * A USER command changes only the state of the user that gave it (its player, pages,
+ * searches and wrapped statistics) and only reads state that USER commands don't change.
+ * The listens it adds up for all users (WrappedAggregates, the artists' wrapped albums)
+ * are counters whose readers sort them completely, so the order in which the users
+ * add them doesn't matter. Every other command is GLOBAL: it runs alone, after all the
+ * commands before it and before all the commands after it.
+ */
+enum CommandScope {
+    USER,
+    GLOBAL;
+
+    // command name -> scope, the commands that aren't here are GLOBAL
+    private static final HashMap<String, CommandScope> SCOPES = new HashMap<>();
+
+    static {
+        // the player: playback only moves forward when its own user gives a command
+        for (String command : new String[] {"search", "select", "load", "playPause", "status",
+            "repeat", "shuffle", "forward", "backward", "next", "prev",
+            "loadRecommendations", "adBreak"}) {
+            SCOPES.put(command, USER);
+        }
+
+        // the user's own pages, playlists, notifications and account
+        for (String command : new String[] {"changePage", "nextPage", "previousPage",
+            "printCurrentPage", "showPlaylists", "showPreferredSongs", "getNotifications",
+            "seeMerch", "switchConnectionStatus", "buyPremium"}) {
+            SCOPES.put(command, USER);
+        }
+
+        /* like, follow, createPlaylist, addRemoveInPlaylist and switchVisibility change
+        what the other users see (likes, followers, public playlists); subscribe, buyMerch
+        and cancelPremium change the artists (subscribers and revenues); the statistics,
+        the admin, artist and host commands read or change everyone */
+    }
+
+    /**
+     * Gets the scope of a command.
+     *
+     * @param command the name of the command.
+     * @return USER if the command only concerns its own user, GLOBAL otherwise.
+     */
+    static CommandScope of(final String command) {
+        return SCOPES.getOrDefault(command, GLOBAL);
+    }
+}
@@ -2,13 +2,12 @@ package main.commandsHandling;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import fileio.input.audioEntities.SongPlayInfo;
-import main.Main;
+import main.SimulationContext;
 import users.Artist;
 import users.NormalUser;
 
 public abstract class GeneralCommand implements Command {
     private static final int TYPE_SONG = 1;
-    private static final int TYPE_PODCAST = 2;
     private static final int TYPE_PLAYLIST = 3;
 
     private static final int TYPE_ALBUM = 4;
@@ -18,6 +17,9 @@ public abstract class GeneralCommand implements Command {
     protected Integer timestamp;
     protected ObjectNode node;
 
+    // the simulation the command is executed in, set by CommandFactory when it creates it
+    protected SimulationContext context;
+
     public GeneralCommand(final String command, final Integer timestamp,
                           final ObjectNode node) {
         this.command = command;
@@ -79,6 +81,24 @@ public abstract class GeneralCommand implements Command {
         this.node = node;
     }
 
+    /**
+     * Gets the simulation the command is executed in.
+     *
+     * @return the context of the simulation.
+     */
+    public SimulationContext getContext() {
+        return context;
+    }
+
+    /**
+     * Sets the simulation the command is executed in.
+     *
+     * @param context the context of the simulation.
+     */
+    public void setContext(final SimulationContext context) {
+        this.context = context;
+    }
+
     /**
      * Executes the command and returns the result as an ObjectNode.
      *
@@ -86,62 +106,29 @@ public abstract class GeneralCommand implements Command {
      */
     public abstract ObjectNode execute();
 
+    /**
+     * Writes the output of a MessageCommand in the node of the command: the command name,
+     * the user, the timestamp and the message, in this order. This is what execute() does
+     * for every MessageCommand, and how the invoker fills in their output.
+     *
+     * @return the node with the output of the command.
+     */
+    protected final ObjectNode writeMessageOutput() {
+        MessageCommand messageCommand = (MessageCommand) this;
+        node.put("command", this.getCommand());
+        node.put("user", messageCommand.getUsername());
+        node.put("timestamp", this.getTimestamp());
+        node.put("message", messageCommand.getCommandMessage());
+        return node;
+    }
+
     /**
      * Updates the last loaded entity's status based on the user's last loaded type indicator.
      *
      * @param user The normal user.
      */
     public void updateLastLoadedEntity(final NormalUser user) {
-        // check if there is anything loaded
-        if (!user.getLoaded()) {
-            return;
-        }
-
-        if (user.getLastLoadTypeIndicator() == TYPE_SONG) {
-            if (!user.getLastLoadedSongPlayInfo().getSongPaused()) {
-                user.getLastLoadedSongPlayInfo().updateSongStatus(user, this.getTimestamp());
-            }
-            return;
-        }
-
-        if (user.getLastLoadTypeIndicator() == TYPE_PODCAST) {
-            if (!user.getLastLoadedPodcast().getPodcastPaused()) {
-                user.getLastLoadedPodcast().updatePodcastStatus(user, this.getTimestamp());
-            }
-            return;
-        }
-
-        if (user.getLastLoadTypeIndicator() == TYPE_PLAYLIST) {
-            if (!user.getLastLoadedPlaylist().getShuffleStatus()) {
-                if (!user.getLastLoadedPlaylist().getPaused()) {
-                    user.getLastLoadedPlaylist().updatePlaylistStatus(user,
-                            this.getTimestamp(), user.getLastLoadedPlaylist().getPlaylistSongs());
-                }
-            } else {
-                if (!user.getLastLoadedPlaylist().getPaused()) {
-                    user.getLastLoadedPlaylist().updatePlaylistStatus(user,
-                            this.getTimestamp(), user.getLastLoadedPlaylist().
-                                    getShuffledPlaylistSongs());
-                }
-            }
-
-            return;
-        }
-
-        if (user.getLastLoadTypeIndicator() == TYPE_ALBUM) {
-            if (!user.getLastLoadedAlbum().getShuffleStatus()) {
-                if (!user.getLastLoadedAlbum().getPaused()) {
-                    user.getLastLoadedAlbum().updateAlbumStatus(user, this.getTimestamp(),
-                            user.getLastLoadedAlbum().getSongs());
-                }
-            } else {
-                if (!user.getLastLoadedAlbum().getPaused()) {
-                    user.getLastLoadedAlbum().updateAlbumStatus(user, this.getTimestamp(),
-                            user.getLastLoadedAlbum().getShuffledSongs());
-                }
-            }
-            return;
-        }
+        user.getPlaybackClock().replay(this.getTimestamp());
     }
 
     /**
@@ -157,21 +144,21 @@ public abstract class GeneralCommand implements Command {
                 currentSongPlayInfo = user.getLastLoadedSongPlayInfo();
                 break;
             case TYPE_PLAYLIST:
-                if (!user.getLastLoadedPlaylist().getShuffleStatus()) {
+                if (!user.getPlaylistSession().getShuffleStatus()) {
                     currentSongPlayInfo = user.getLastLoadedPlaylist().getPlaylistSongs().
-                            get(user.getLastLoadedPlaylist().getCurrentSongIndex());
+                            get(user.getPlaylistSession().getCurrentSongIndex());
                 } else {
-                    currentSongPlayInfo = user.getLastLoadedPlaylist().getShuffledPlaylistSongs().
-                            get(user.getLastLoadedPlaylist().getCurrentSongIndex());
+                    currentSongPlayInfo = user.getPlaylistSession().getShuffledSongs().
+                            get(user.getPlaylistSession().getCurrentSongIndex());
                 }
                 break;
             case TYPE_ALBUM:
-                if (!user.getLastLoadedAlbum().getShuffleStatus()) {
+                if (!user.getAlbumSession().getShuffleStatus()) {
                     currentSongPlayInfo = user.getLastLoadedAlbum().getSongs().
-                            get(user.getLastLoadedAlbum().getCurrentSongIndex());
+                            get(user.getAlbumSession().getCurrentSongIndex());
                 } else {
-                    currentSongPlayInfo = user.getLastLoadedAlbum().getShuffledSongs().
-                            get(user.getLastLoadedAlbum().getCurrentSongIndex());
+                    currentSongPlayInfo = user.getAlbumSession().getShuffledSongs().
+                            get(user.getAlbumSession().getCurrentSongIndex());
                 }
                 break;
             default:
@@ -189,46 +176,7 @@ public abstract class GeneralCommand implements Command {
      * @param user The normal user.
      */
     public void updateStats(final NormalUser user) {
-        if (!user.getLoaded()) {
-            return;
-        }
-
-        switch (user.getLastLoadTypeIndicator()) {
-            case TYPE_SONG:
-                if (!user.getLastLoadedSongPlayInfo().getSongPaused()) {
-                    user.getLastLoadedSongPlayInfo().updateSongStatus(user, this.timestamp);
-                }
-                break;
-            case TYPE_PODCAST:
-                if (!user.getLastLoadedPodcast().getPodcastPaused()) {
-                    user.getLastLoadedPodcast().updatePodcastStatus(user, this.timestamp);
-                }
-                break;
-            case TYPE_PLAYLIST:
-                if (!user.getLastLoadedPlaylist().getPaused()) {
-                    if (!user.getLastLoadedPlaylist().getShuffleStatus()) {
-                        user.getLastLoadedPlaylist().updatePlaylistStatus(user, this.timestamp,
-                                user.getLastLoadedPlaylist().getPlaylistSongs());
-                    } else {
-                        user.getLastLoadedPlaylist().updatePlaylistStatus(user, this.timestamp,
-                                user.getLastLoadedPlaylist().getShuffledPlaylistSongs());
-                    }
-                }
-                break;
-            case TYPE_ALBUM:
-                if (!user.getLastLoadedAlbum().getPaused()) {
-                    if (!user.getLastLoadedAlbum().getShuffleStatus()) {
-                        user.getLastLoadedAlbum().updateAlbumStatus(user, this.timestamp,
-                                user.getLastLoadedAlbum().getSongs());
-                    } else {
-                        user.getLastLoadedAlbum().updateAlbumStatus(user, this.timestamp,
-                                user.getLastLoadedAlbum().getShuffledSongs());
-                    }
-                }
-                break;
-            default:
-                break;
-        }
+        user.getPlaybackClock().replay(this.timestamp);
     }
 
 
@@ -238,11 +186,9 @@ public abstract class GeneralCommand implements Command {
      * @param songPlayInfo The SongPlayInfo containing the song information.
      */
     public void updateArtistHadSomethingOnPlay(final SongPlayInfo songPlayInfo) {
-        for (Artist artist : Main.artistsList) {
-            if (artist.getUsername().equals(songPlayInfo.getSong().getArtist())) {
-                artist.setHadSomethingOnPlay(true);
-                break;
-            }
+        Artist artist = context.getUserRegistry().getArtist(songPlayInfo.getSong().getArtist());
+        if (artist != null) {
+            artist.setHadSomethingOnPlay(true);
         }
     }
 }
@@ -0,0 +1,22 @@
+package main.commandsHandling;
+
+/**
+ * A command whose output only has the command name, the user, the timestamp and a
+ * message. The invoker writes the output of these commands directly, without filling
+ * in an ObjectNode first.
+ */
+public interface MessageCommand {
+    /**
+     * Gets the username of the user that gave the command.
+     *
+     * @return the username.
+     */
+    String getUsername();
+
+    /**
+     * Executes the command.
+     *
+     * @return the message to be printed in the output.
+     */
+    String getCommandMessage();
+}
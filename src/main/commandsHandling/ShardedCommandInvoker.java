@@ -0,0 +1,183 @@
+package main.commandsHandling;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import fileio.input.InputCommands;
+import fileio.output.OutputWriter;
+import main.SimulationContext;
+import main.journal.SimulationJournal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Invokes the commands of a simulation like CommandInvoker, but executes the commands
+ * that only concern their own user (see CommandScope) on several threads. The users are
+ * split into shards, and the commands of a shard are executed in their input order on
+ * one thread, so every user still sees its own commands one after the other, at their
+ * timestamps. A GLOBAL command is a barrier: it waits for all the commands before it
+ * and is executed alone, on the calling thread.
+ *
+ * <p>The outputs are written in the order of the input commands, so they are the same
+ * as the ones of CommandInvoker. If a command fails, the commands of the other shards
+ * read before the next barrier may have been executed already.
+ */
+public class ShardedCommandInvoker {
+    // the USER commands executed between two barriers, at most
+    private static final int MAX_BATCH = 4_096;
+
+    private final Iterator<InputCommands> inputcommands;
+    private final OutputWriter outputs;
+    private final SimulationContext context;
+    private final SimulationJournal journal;
+    private final int shards;
+
+    /**
+     * Creates an invoker that executes the USER commands on several threads.
+     *
+     * @param inputcommands The commands to be invoked, in input order.
+     * @param outputs       The writer of the outputs.
+     * @param context       The simulation the commands are applied to.
+     * @param journal       The journal of the applied commands (null if it isn't journaled).
+     * @param shards        The number of threads the users are split between.
+     */
+    public ShardedCommandInvoker(final Iterator<InputCommands> inputcommands,
+                                 final OutputWriter outputs, final SimulationContext context,
+                                 final SimulationJournal journal, final int shards) {
+        this.inputcommands = inputcommands;
+        this.outputs = outputs;
+        this.context = context;
+        this.journal = journal;
+        this.shards = shards;
+    }
+
+    /**
+     * Invokes all the commands and writes their outputs.
+     *
+     * @throws IOException in case of exceptions to writing
+     */
+    public void invokeCommands() throws IOException {
+        ExecutorService pool = Executors.newFixedThreadPool(shards);
+        try {
+            ArrayList<InputCommands> batch = new ArrayList<>();
+            while (inputcommands.hasNext()) {
+                InputCommands inputcommand = inputcommands.next();
+                if (CommandScope.of(inputcommand.getCommand()) == CommandScope.USER) {
+                    batch.add(inputcommand);
+                    if (batch.size() == MAX_BATCH) {
+                        invokeBatch(batch, pool);
+                        batch.clear();
+                    }
+                    continue;
+                }
+
+                // the barrier: everything before the command is done before it runs
+                invokeBatch(batch, pool);
+                batch.clear();
+                outputs.write(CommandInvoker.executeToNode(inputcommand, context));
+                if (journal != null) {
+                    journal.append(inputcommand, context);
+                }
+                CommandInvoker.reportIfEnded(inputcommand, context);
+            }
+            invokeBatch(batch, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Executes USER commands, each shard on its own thread, then writes their outputs
+     * in input order.
+     *
+     * @param batch the commands read since the last barrier.
+     * @param pool  the threads of the shards.
+     * @throws IOException in case of exceptions to writing
+     */
+    private void invokeBatch(final ArrayList<InputCommands> batch, final ExecutorService pool)
+            throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        // the positions in the batch of the commands of each shard
+        ArrayList<ArrayList<Integer>> shardCommands = new ArrayList<>();
+        for (int i = 0; i < shards; i++) {
+            shardCommands.add(new ArrayList<>());
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            String username = batch.get(i).getUsername();
+            int shard = username == null ? 0 : Math.floorMod(username.hashCode(), shards);
+            shardCommands.get(shard).add(i);
+        }
+
+        // every shard writes the outputs of its own commands only
+        ObjectNode[] batchOutputs = new ObjectNode[batch.size()];
+        ArrayList<Future<?>> running = new ArrayList<>();
+        for (ArrayList<Integer> positions : shardCommands) {
+            if (positions.isEmpty()) {
+                continue;
+            }
+            running.add(pool.submit(() -> {
+                for (int position : positions) {
+                    batchOutputs[position] = CommandInvoker.executeToNode(
+                            batch.get(position), context);
+                }
+            }));
+        }
+        awaitAll(running);
+
+        for (int i = 0; i < batch.size(); i++) {
+            outputs.write(batchOutputs[i]);
+            if (journal != null) {
+                journal.record(batch.get(i));
+            }
+        }
+        // the state only matches the journal now that the whole batch is in it
+        if (journal != null) {
+            journal.checkpointIfDue(context);
+        }
+    }
+
+    /**
+     * Waits for all the shards of a batch, then throws the first failure, if any.
+     *
+     * @param running the shards being executed.
+     */
+    private static void awaitAll(final ArrayList<Future<?>> running) {
+        RuntimeException failure = null;
+        for (Future<?> shard : running) {
+            try {
+                shard.get();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = asRuntimeException(e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("interrupted while waiting for a shard", e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static RuntimeException asRuntimeException(final Throwable cause) {
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof IOException) {
+            return new UncheckedIOException((IOException) cause);
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new IllegalStateException(cause);
+    }
+}
@@ -3,14 +3,14 @@ package main.hostCommands;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import fileio.input.entitiesForHost.Announcement;
-import main.Main;
+import main.commandsHandling.MessageCommand;
 import users.Host;
 
-public final class AddAnnouncement extends StandardHostCommand {
+public final class AddAnnouncement extends StandardHostCommand implements MessageCommand {
     private String description;
 
     // generate singleton constructor
-    private static AddAnnouncement instance = null;
+    private static final ThreadLocal<AddAnnouncement> INSTANCE = new ThreadLocal<>();
 
     /**
      * Constructs a new AddAnnouncement command with the specified parameters.
@@ -42,8 +42,10 @@ public final class AddAnnouncement extends StandardHostCommand {
     public static AddAnnouncement getInstance(final String command, final String username,
                                               final Integer timestamp, final String name,
                                               final ObjectNode node, final String description) {
+        AddAnnouncement instance = INSTANCE.get();
         if (instance == null) {
             instance = new AddAnnouncement(command, username, timestamp, name, node, description);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -61,11 +63,7 @@ public final class AddAnnouncement extends StandardHostCommand {
      * @return The ObjectNode containing information about the command execution.
      */
     public ObjectNode execute() {
-        node.put("command", this.getCommand());
-        node.put("user", this.getUsername());
-        node.put("timestamp", this.getTimestamp());
-        node.put("message", this.getCommandMessage());
-        return node;
+        return writeMessageOutput();
     }
 
     /**
@@ -74,31 +72,30 @@ public final class AddAnnouncement extends StandardHostCommand {
      * @return A string indicating the result of the command execution.
      */
     public String getCommandMessage() {
-        for (Host host : Main.hostsList) {
-            if (host.getUsername().equals(this.username)) {
-                // this host has already been created => the command can be executed
+        Host host = context.getUserRegistry().getHost(this.username);
+        if (host != null) {
+            // this host has already been created => the command can be executed
 
-                // check if the announcement name is already taken
-                for (Announcement announcement : host.getAnnouncements()) {
-                    if (announcement.getName().equals(this.name)) {
-                        return this.username + " has already added an announcement with this name.";
-                    }
+            // check if the announcement name is already taken
+            for (Announcement announcement : host.getAnnouncements()) {
+                if (announcement.getName().equals(this.name)) {
+                    return this.username + " has already added an announcement with this name.";
                 }
+            }
 
-                /* if we reached this point, the validity check was passed and
-                we need to add the announcement */
-                Announcement newAnnouncement = new Announcement(this.name, this.description);
-                host.getAnnouncements().add(newAnnouncement);
+            /* if we reached this point, the validity check was passed and
+            we need to add the announcement */
+            Announcement newAnnouncement = new Announcement(this.name, this.description);
+            host.getAnnouncements().add(newAnnouncement);
 
-                // prepare the notification message
-                ObjectNode newNotification = JsonNodeFactory.instance.objectNode();
-                newNotification.put("name", "New Announcement");
-                newNotification.put("description", "New Announcement from "
-                        + host.getUsername() + ".");
-                host.notifyObservers(newNotification);
+            // prepare the notification message
+            ObjectNode newNotification = JsonNodeFactory.instance.objectNode();
+            newNotification.put("name", "New Announcement");
+            newNotification.put("description", "New Announcement from "
+                    + host.getUsername() + ".");
+            host.notifyObservers(newNotification);
 
-                return this.username + " has successfully added new announcement.";
-            }
+            return this.username + " has successfully added new announcement.";
         }
         return checkUsernameExistence();
     }
@@ -4,16 +4,16 @@ import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import fileio.input.audioEntities.EpisodeInput;
 import fileio.input.audioEntities.PodcastInput;
-import main.Main;
+import main.commandsHandling.MessageCommand;
 import users.Host;
 
 import java.util.ArrayList;
 
-public final class AddPodcast extends StandardHostCommand {
+public final class AddPodcast extends StandardHostCommand implements MessageCommand {
     private ArrayList<EpisodeInput> episodes;
 
-    // Singleton instance field
-    private static AddPodcast instance = null;
+    // Singleton instance field, one per thread running a simulation
+    private static final ThreadLocal<AddPodcast> INSTANCE = new ThreadLocal<>();
 
     /**
      * Constructs a new AddPodcast command with the specified parameters.
@@ -47,8 +47,10 @@ public final class AddPodcast extends StandardHostCommand {
                                          final Integer timestamp, final String name,
                                          final ObjectNode node,
                                          final ArrayList<EpisodeInput> episodes) {
+        AddPodcast instance = INSTANCE.get();
         if (instance == null) {
             instance = new AddPodcast(command, username, timestamp, name, node, episodes);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -66,11 +68,7 @@ public final class AddPodcast extends StandardHostCommand {
      * @return The ObjectNode containing information about the command execution.
      */
     public ObjectNode execute() {
-        node.put("command", this.getCommand());
-        node.put("user", this.getUsername());
-        node.put("timestamp", this.getTimestamp());
-        node.put("message", this.getCommandMessage());
-        return node;
+        return writeMessageOutput();
     }
 
     /**
@@ -96,40 +94,39 @@ public final class AddPodcast extends StandardHostCommand {
      * @return a message indicating the result of the command execution.
      */
     public String getCommandMessage() {
-        for (Host host : Main.hostsList) {
-            if (host.getUsername().equals(this.username)) {
-                // the given username belongs to a host
-
-                // check if the podcast name is already taken
-                for (PodcastInput podcast : host.getPodcasts()) {
-                    if (podcast.getName().equals(this.name)) {
-                        return this.username + " has another podcast with the same name.";
-                    }
+        Host host = context.getUserRegistry().getHost(this.username);
+        if (host != null) {
+            // the given username belongs to a host
+
+            // check if the podcast name is already taken
+            for (PodcastInput podcast : host.getPodcasts()) {
+                if (podcast.getName().equals(this.name)) {
+                    return this.username + " has another podcast with the same name.";
                 }
+            }
 
-                // check if the podcast has duplicates in the episode list
-                if (hasDuplicates(this.episodes)) {
-                    return this.username + " has the same episode in this podcast.";
-                }
+            // check if the podcast has duplicates in the episode list
+            if (hasDuplicates(this.episodes)) {
+                return this.username + " has the same episode in this podcast.";
+            }
 
-                // if the episodelist is valid, create the podcast and add it to the list
-                PodcastInput podcastInput = new PodcastInput();
-                podcastInput.setName(this.name);
-                podcastInput.setOwner(this.username);
-                podcastInput.setEpisodes(this.episodes);
-                host.getPodcasts().add(podcastInput);
+            // if the episodelist is valid, create the podcast and add it to the list
+            PodcastInput podcastInput = new PodcastInput();
+            podcastInput.setName(this.name);
+            podcastInput.setOwner(this.username);
+            podcastInput.setEpisodes(this.episodes);
+            host.getPodcasts().add(podcastInput);
 
-                // add the podcast to the list of all podcasts
-                Main.podcastsList.add(podcastInput);
+            // add the podcast to the list of all podcasts
+            context.getPodcastsList().add(podcastInput);
 
-                // prepare the notification message
-                ObjectNode newNotification = JsonNodeFactory.instance.objectNode();
-                newNotification.put("name", "New Podcast");
-                newNotification.put("description", "New Podcast from " + host.getUsername() + ".");
-                host.notifyObservers(newNotification);
+            // prepare the notification message
+            ObjectNode newNotification = JsonNodeFactory.instance.objectNode();
+            newNotification.put("name", "New Podcast");
+            newNotification.put("description", "New Podcast from " + host.getUsername() + ".");
+            host.notifyObservers(newNotification);
 
-                return this.username + " has added new podcast successfully.";
-            }
+            return this.username + " has added new podcast successfully.";
         }
         // if we reached this point, it means that the username doesn't appear in the artist list
         return checkUsernameExistence();
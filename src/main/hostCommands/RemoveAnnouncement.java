@@ -2,11 +2,11 @@ package main.hostCommands;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import fileio.input.entitiesForHost.Announcement;
-import main.Main;
+import main.commandsHandling.MessageCommand;
 import users.Host;
 
-public final class RemoveAnnouncement extends StandardHostCommand {
-    private static RemoveAnnouncement instance = null;
+public final class RemoveAnnouncement extends StandardHostCommand implements MessageCommand {
+    private static final ThreadLocal<RemoveAnnouncement> INSTANCE = new ThreadLocal<>();
 
     /**
      * Constructs a new RemoveAnnouncement command with the specified parameters.
@@ -35,8 +35,10 @@ public final class RemoveAnnouncement extends StandardHostCommand {
     public static RemoveAnnouncement getInstance(final String command, final String username,
                                                  final Integer timestamp, final String name,
                                                  final ObjectNode node) {
+        RemoveAnnouncement instance = INSTANCE.get();
         if (instance == null) {
             instance = new RemoveAnnouncement(command, username, timestamp, name, node);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -53,11 +55,7 @@ public final class RemoveAnnouncement extends StandardHostCommand {
      * @return The ObjectNode containing information about the command execution.
      */
     public ObjectNode execute() {
-        node.put("command", this.getCommand());
-        node.put("user", this.getUsername());
-        node.put("timestamp", this.getTimestamp());
-        node.put("message", this.getCommandMessage());
-        return node;
+        return writeMessageOutput();
     }
 
     /**
@@ -67,25 +65,24 @@ public final class RemoveAnnouncement extends StandardHostCommand {
      * @return A string indicating the result of the command execution.
      */
     public String getCommandMessage() {
-        for (Host host : Main.hostsList) {
-            if (host.getUsername().equals(this.username)) {
-                // this host has already been created => the command can be executed
+        Host host = context.getUserRegistry().getHost(this.username);
+        if (host != null) {
+            // this host has already been created => the command can be executed
 
-                // check if the host has any announcement with the given name
-                Boolean found = false;
-                for (Announcement announcement : host.getAnnouncements()) {
-                    if (announcement.getName().equals(this.name)) {
-                        found = true;
-                        host.getAnnouncements().remove(announcement);
-                        break;
-                    }
+            // check if the host has any announcement with the given name
+            Boolean found = false;
+            for (Announcement announcement : host.getAnnouncements()) {
+                if (announcement.getName().equals(this.name)) {
+                    found = true;
+                    host.getAnnouncements().remove(announcement);
+                    break;
                 }
-                if (!found) {
-                    return this.username + " has no announcement with the given name.";
-                }
-
-                return this.username + " has successfully deleted the announcement.";
             }
+            if (!found) {
+                return this.username + " has no announcement with the given name.";
+            }
+
+            return this.username + " has successfully deleted the announcement.";
         }
         return checkUsernameExistence();
     }
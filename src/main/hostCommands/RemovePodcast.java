@@ -2,13 +2,13 @@ package main.hostCommands;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import fileio.input.audioEntities.PodcastInput;
-import main.Main;
+import main.commandsHandling.MessageCommand;
 import users.Host;
 
-public final class RemovePodcast extends StandardHostCommand {
+public final class RemovePodcast extends StandardHostCommand implements MessageCommand {
 
-    // Singleton instance field
-    private static RemovePodcast instance = null;
+    // Singleton instance field, one per thread running a simulation
+    private static final ThreadLocal<RemovePodcast> INSTANCE = new ThreadLocal<>();
     private RemovePodcast(final String command, final String username, final Integer timestamp,
                           final String name, final ObjectNode node) {
         super(command, username, timestamp, name, node);
@@ -27,8 +27,10 @@ public final class RemovePodcast extends StandardHostCommand {
     public static RemovePodcast getInstance(final String command, final String username,
                                             final Integer timestamp, final String name,
                                             final ObjectNode node) {
+        RemovePodcast instance = INSTANCE.get();
         if (instance == null) {
             instance = new RemovePodcast(command, username, timestamp, name, node);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -45,11 +47,7 @@ public final class RemovePodcast extends StandardHostCommand {
      * @return The ObjectNode containing information about the command execution.
      */
     public ObjectNode execute() {
-        node.put("command", this.getCommand());
-        node.put("user", this.getUsername());
-        node.put("timestamp", this.getTimestamp());
-        node.put("message", this.getCommandMessage());
-        return node;
+        return writeMessageOutput();
     }
 
     /**
@@ -59,35 +57,34 @@ public final class RemovePodcast extends StandardHostCommand {
      * @return A string indicating the result of the command execution.
      */
     public String getCommandMessage() {
-        for (Host host : Main.hostsList) {
-            if (host.getUsername().equals(this.username)) {
-                // this host has already been created => the command can be executed
+        Host host = context.getUserRegistry().getHost(this.username);
+        if (host != null) {
+            // this host has already been created => the command can be executed
 
-                // check if the host has a podcast with the given name
-                PodcastInput podcastToRemove = null;
-                for (PodcastInput podcast : host.getPodcasts()) {
-                    if (podcast.getName().equals(this.name)) {
-                        podcastToRemove = podcast;
-                        break;
-                    }
-                }
-                if (podcastToRemove == null) {
-                    return this.username + " doesn't have a podcast with the given name.";
+            // check if the host has a podcast with the given name
+            PodcastInput podcastToRemove = null;
+            for (PodcastInput podcast : host.getPodcasts()) {
+                if (podcast.getName().equals(this.name)) {
+                    podcastToRemove = podcast;
+                    break;
                 }
+            }
+            if (podcastToRemove == null) {
+                return this.username + " doesn't have a podcast with the given name.";
+            }
 
-                // check if the podcast can be deleted
-                if (!host.canDeletePodcast(podcastToRemove, this.timestamp)) {
-                    return this.username + " can't delete this podcast.";
-                }
+            // check if the podcast can be deleted
+            if (!host.canDeletePodcast(podcastToRemove, this.timestamp, context)) {
+                return this.username + " can't delete this podcast.";
+            }
 
-                // if we reached this point, it means that we need to delete this podcast
-                host.preparePodcastRemoval(podcastToRemove);
-                // remove podcast from this host's list of podcasts
-                for (PodcastInput podcast : host.getPodcasts()) {
-                    if (podcast.getName().equals(this.name)) {
-                        host.getPodcasts().remove(podcast);
-                        return host.getUsername() + " deleted the podcast successfully.";
-                    }
+            // if we reached this point, it means that we need to delete this podcast
+            host.preparePodcastRemoval(podcastToRemove, context);
+            // remove podcast from this host's list of podcasts
+            for (PodcastInput podcast : host.getPodcasts()) {
+                if (podcast.getName().equals(this.name)) {
+                    host.getPodcasts().remove(podcast);
+                    return host.getUsername() + " deleted the podcast successfully.";
                 }
             }
         }
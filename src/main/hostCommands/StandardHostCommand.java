@@ -2,7 +2,6 @@ package main.hostCommands;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import main.commandsHandling.GeneralCommand;
-import main.Main;
 import users.Artist;
 import users.NormalUser;
 
@@ -25,17 +24,15 @@ public abstract class StandardHostCommand extends GeneralCommand {
     // check if the username exists, but it's not a host
     protected String checkUsernameExistence() {
         // look for the username in the normal users' list
-        for (NormalUser user : Main.normalUserList) {
-            if (user.getUsername().equals(this.username)) {
-                return this.username + " is not a host.";
-            }
+        NormalUser user = context.getUserRegistry().getNormalUser(this.username);
+        if (user != null) {
+            return this.username + " is not a host.";
         }
 
         // look for the username in the hosts' list
-        for (Artist artist : Main.artistsList) {
-            if (artist.getUsername().equals(this.username)) {
-                return this.username + " is not a host.";
-            }
+        Artist artist = context.getUserRegistry().getArtist(this.username);
+        if (artist != null) {
+            return this.username + " is not a host.";
         }
 
         // if we reached this point, it means that the user could not be found in any list
@@ -0,0 +1,371 @@
+package main.journal;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fileio.input.InputCommands;
+import fileio.input.LibraryCatalog;
+import fileio.output.OutputWriter;
+import main.SimulationContext;
+import main.commandsHandling.CommandInvoker;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Keeps a simulation recoverable after a restart. Every command applied to the simulation
+ * is appended to a journal (one JSON line per command) and, every few commands, the whole
+ * state of the simulation is saved as a checkpoint. Recovering restores the latest
+ * checkpoint and replays only the commands journaled after it. A checkpoint doesn't keep
+ * the outputs of the commands before it, so a run that writes all its outputs to a new
+ * file recovers by replaying the whole journal instead, and doesn't save checkpoints.
+ *
+ * <p>The journal is flushed when a checkpoint is written and when it's closed, so a crash
+ * may lose the last commands of the journal: those are applied again by the caller, which
+ * only skips the commands that are in the journal. Checkpoints can only be restored by
+ * classes with the same serialVersionUID as the ones that wrote them (it has to be changed
+ * when a class changes in a way that the saved state can't be read back); otherwise the
+ * whole journal is replayed.
+ */
+public final class SimulationJournal implements Closeable {
+    private static final String JOURNAL_FILE = "journal.jsonl";
+    private static final String CHECKPOINT_PREFIX = "checkpoint-";
+    private static final String CHECKPOINT_SUFFIX = ".bin";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    // the checkpoint interval of a journal that never saves checkpoints
+    public static final int NO_CHECKPOINTS = Integer.MAX_VALUE;
+
+    private final File directory;
+    private final File journalFile;
+    private final ObjectMapper objectMapper;
+    private final int checkpointInterval;
+    private final BufferedWriter journalWriter;
+
+    // the number of commands in the journal
+    private long appliedCommands;
+
+    // the number of commands applied to the state saved by the latest checkpoint
+    private long checkpointedCommands;
+
+    private SimulationJournal(final File directory, final ObjectMapper objectMapper,
+                              final int checkpointInterval) throws IOException {
+        this.directory = directory;
+        this.journalFile = new File(directory, JOURNAL_FILE);
+        // the fields that aren't set are left out, most commands only use a few of them
+        this.objectMapper = objectMapper.copy()
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        this.checkpointInterval = checkpointInterval;
+
+        Files.createDirectories(directory.toPath());
+        appliedCommands = countCommands(journalFile);
+        journalWriter = Files.newBufferedWriter(journalFile.toPath(), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Opens the journal kept in a directory, creating it if it doesn't exist.
+     *
+     * @param directory          the directory of the journal and of its checkpoints.
+     * @param objectMapper       the mapper used to read and write the commands.
+     * @param checkpointInterval the number of commands between two checkpoints, or
+     *                           NO_CHECKPOINTS.
+     * @return the opened journal.
+     * @throws IOException in case of exceptions to reading / writing
+     */
+    public static SimulationJournal open(final File directory, final ObjectMapper objectMapper,
+                                         final int checkpointInterval) throws IOException {
+        return new SimulationJournal(directory, objectMapper, checkpointInterval);
+    }
+
+    /**
+     * Rebuilds the simulation as it was after the last journaled command: restores the
+     * latest checkpoint (or starts from the library if there is none) and applies the
+     * commands journaled after it. Their outputs were already sent before the restart, so
+     * they are discarded.
+     *
+     * @param catalog the library the simulation was created from.
+     * @return the recovered simulation.
+     * @throws IOException in case of exceptions to reading
+     */
+    public SimulationContext recover(final LibraryCatalog catalog) throws IOException {
+        SimulationContext context = null;
+        long restoredCommands = 0;
+
+        File checkpoint = findLatestCheckpoint();
+        if (checkpoint != null) {
+            try (InputStream in = new BufferedInputStream(new FileInputStream(checkpoint))) {
+                context = SimulationContext.readFrom(in, catalog);
+                restoredCommands = checkpointCommands(checkpoint);
+            } catch (IOException e) {
+                // the checkpoint can't be used => the whole journal is replayed
+                context = null;
+            }
+        }
+        if (context == null) {
+            context = new SimulationContext(catalog);
+            restoredCommands = 0;
+        }
+
+        try (OutputWriter discarded = new OutputWriter(objectMapper,
+                OutputStream.nullOutputStream(), false)) {
+            replay(context, restoredCommands, discarded);
+        }
+        checkpointedCommands = restoredCommands;
+        return context;
+    }
+
+    /**
+     * Rebuilds the simulation as it was after the last journaled command by applying the
+     * whole journal to a new simulation, and writes the outputs of all the journaled
+     * commands again. Used by a run whose output file is written from the start, so that
+     * the file has the outputs of all the commands, not only of the ones after the restart
+     * (the journal of a completed run gives back the whole output file).
+     *
+     * @param catalog the library the simulation was created from.
+     * @param outputs the outputs of the run.
+     * @return the recovered simulation.
+     * @throws IOException in case of exceptions to reading / writing
+     */
+    public SimulationContext recover(final LibraryCatalog catalog, final OutputWriter outputs)
+            throws IOException {
+        SimulationContext context = new SimulationContext(catalog);
+        replay(context, 0, outputs);
+        checkpointedCommands = 0;
+        return context;
+    }
+
+    /**
+     * Applies the commands journaled after the first ones to a simulation.
+     *
+     * @param context         the simulation, after the skipped commands.
+     * @param skippedCommands the number of commands that are already applied.
+     * @param outputs         where the outputs of the applied commands are written.
+     * @throws IOException in case of exceptions to reading / writing
+     */
+    private void replay(final SimulationContext context, final long skippedCommands,
+                        final OutputWriter outputs) throws IOException {
+        try (TailReader tail = new TailReader(skippedCommands)) {
+            new CommandInvoker(tail, outputs, context).invokeCommands();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Appends a command that has just been applied to the simulation, and saves a
+     * checkpoint if enough commands have been applied since the last one.
+     *
+     * @param command the applied command.
+     * @param context the simulation the command was applied to.
+     * @throws IOException in case of exceptions to writing
+     */
+    public void append(final InputCommands command, final SimulationContext context)
+            throws IOException {
+        record(command);
+        checkpointIfDue(context);
+    }
+
+    /**
+     * Appends a command that has just been applied to the simulation, without saving a
+     * checkpoint. Used when several commands are applied at the same time, as the state
+     * of the simulation only matches the journal once all of them have been appended.
+     *
+     * @param command the applied command.
+     * @throws IOException in case of exceptions to writing
+     */
+    public void record(final InputCommands command) throws IOException {
+        journalWriter.write(objectMapper.writeValueAsString(command));
+        journalWriter.newLine();
+        appliedCommands++;
+    }
+
+    /**
+     * Saves a checkpoint if enough commands have been applied since the last one.
+     *
+     * @param context the simulation, after all the journaled commands.
+     * @throws IOException in case of exceptions to writing
+     */
+    public void checkpointIfDue(final SimulationContext context) throws IOException {
+        if (appliedCommands - checkpointedCommands >= checkpointInterval) {
+            checkpoint(context);
+        }
+    }
+
+    /**
+     * Saves the state of the simulation after the journaled commands. The checkpoint is
+     * written to a temporary file first, so that a crash never leaves half a checkpoint.
+     * The older checkpoints are deleted.
+     *
+     * @param context the simulation.
+     * @throws IOException in case of exceptions to writing
+     */
+    public void checkpoint(final SimulationContext context) throws IOException {
+        journalWriter.flush();
+
+        String name = CHECKPOINT_PREFIX + appliedCommands + CHECKPOINT_SUFFIX;
+        File temporary = new File(directory, name + TEMPORARY_SUFFIX);
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(temporary))) {
+            context.writeTo(out);
+        }
+        Files.move(temporary.toPath(), new File(directory, name).toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        checkpointedCommands = appliedCommands;
+
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (isCheckpoint(file) && checkpointCommands(file) < checkpointedCommands) {
+                Files.delete(file.toPath());
+            }
+        }
+    }
+
+    /**
+     * Gets the number of commands in the journal, which the caller doesn't need to
+     * apply again after recovering.
+     *
+     * @return the number of journaled commands.
+     */
+    public long getAppliedCommands() {
+        return appliedCommands;
+    }
+
+    /**
+     * Flushes the journal and closes it.
+     *
+     * @throws IOException in case of exceptions to writing
+     */
+    @Override
+    public void close() throws IOException {
+        journalWriter.close();
+    }
+
+    /**
+     * Counts the commands of a journal. A line cut by a crash is removed first.
+     *
+     * @param file the journal file.
+     * @return the number of complete lines.
+     * @throws IOException in case of exceptions to reading / writing
+     */
+    private static long countCommands(final File file) throws IOException {
+        if (!file.isFile()) {
+            return 0;
+        }
+
+        try (RandomAccessFile journal = new RandomAccessFile(file, "rw")) {
+            long end = journal.length();
+            while (end > 0) {
+                journal.seek(end - 1);
+                if (journal.read() == '\n') {
+                    break;
+                }
+                end--;
+            }
+            journal.setLength(end);
+        }
+
+        long lines = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(),
+                StandardCharsets.UTF_8)) {
+            while (reader.readLine() != null) {
+                lines++;
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Finds the checkpoint that covers the most commands, but no more than the journal
+     * has (a checkpoint is never ahead of the journal, unless the journal was removed).
+     *
+     * @return the latest checkpoint, or null if there is none.
+     */
+    private File findLatestCheckpoint() {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return null;
+        }
+
+        File latest = null;
+        for (File file : files) {
+            if (!isCheckpoint(file) || checkpointCommands(file) > appliedCommands) {
+                continue;
+            }
+            if (latest == null || checkpointCommands(file) > checkpointCommands(latest)) {
+                latest = file;
+            }
+        }
+        return latest;
+    }
+
+    private static boolean isCheckpoint(final File file) {
+        String name = file.getName();
+        return name.startsWith(CHECKPOINT_PREFIX) && name.endsWith(CHECKPOINT_SUFFIX);
+    }
+
+    private static long checkpointCommands(final File checkpoint) {
+        String name = checkpoint.getName();
+        return Long.parseLong(name.substring(CHECKPOINT_PREFIX.length(),
+                name.length() - CHECKPOINT_SUFFIX.length()));
+    }
+
+    /**
+     * Reads the commands journaled after a checkpoint, one at a time.
+     */
+    private final class TailReader implements Iterator<InputCommands>, Closeable {
+        private final BufferedReader reader;
+        private String nextLine;
+
+        TailReader(final long skippedCommands) throws IOException {
+            journalWriter.flush();
+            reader = Files.newBufferedReader(journalFile.toPath(), StandardCharsets.UTF_8);
+            for (long i = 0; i < skippedCommands; i++) {
+                reader.readLine();
+            }
+            nextLine = reader.readLine();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextLine != null;
+        }
+
+        @Override
+        public InputCommands next() {
+            if (nextLine == null) {
+                throw new NoSuchElementException();
+            }
+            try {
+                InputCommands command = objectMapper.readValue(nextLine, InputCommands.class);
+                nextLine = reader.readLine();
+                return command;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package main.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Flight Recorder event for every invoked command (see CommandProbe). It is only
+ * recorded when a recording enables it, with, for example:
+ * -XX:StartFlightRecording=settings=profile,filename=commands.jfr
+ * The duration of the event is the time spent executing the command.
+ */
+@Name("globalwaves.Command")
+@Label("Command")
+@Category("GlobalWaves")
+@Description("A command invoked in a simulation")
+public final class CommandEvent extends Event {
+    @Label("Command")
+    private String command;
+
+    @Label("User")
+    private String user;
+
+    @Label("Timestamp")
+    @Description("The timestamp of the command in the simulation")
+    private int timestamp;
+
+    @Label("Allocated")
+    @DataAmount
+    private long allocatedBytes;
+
+    @Label("Result Size")
+    @Description("The number of values in the output of the command")
+    private int resultSize;
+
+    /**
+     * @param command the name of the command.
+     */
+    public void setCommand(final String command) {
+        this.command = command;
+    }
+
+    /**
+     * @param user the user that gave the command (null for none).
+     */
+    public void setUser(final String user) {
+        this.user = user;
+    }
+
+    /**
+     * @param timestamp the timestamp of the command in the simulation.
+     */
+    public void setTimestamp(final int timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * @param allocatedBytes the bytes allocated while executing the command.
+     */
+    public void setAllocatedBytes(final long allocatedBytes) {
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    /**
+     * @param resultSize the number of values in the output of the command.
+     */
+    public void setResultSize(final int resultSize) {
+        this.resultSize = resultSize;
+    }
+}
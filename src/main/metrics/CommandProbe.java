@@ -0,0 +1,133 @@
+package main.metrics;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import fileio.input.InputCommands;
+import jdk.jfr.EventType;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures the execution of one command: started by the invoker before the command is
+ * created, stopped once its output is ready (before it is written). The measure is added
+ * to the simulation's metrics, if it keeps any, and recorded as a CommandEvent, if a
+ * Flight Recorder recording wants it. When neither does, no probe is created at all.
+ */
+public final class CommandProbe {
+    // the number of values in the output of a MessageCommand (command, user, timestamp, message)
+    public static final int MESSAGE_RESULT_SIZE = 4;
+
+    private static final EventType EVENT_TYPE = EventType.getEventType(CommandEvent.class);
+
+    // null if the JVM can't count the bytes allocated by a thread
+    private static final com.sun.management.ThreadMXBean THREADS = allocationCounter();
+
+    private final SimulationMetrics metrics;
+    private final InputCommands inputcommand;
+    private final CommandEvent event;
+    private final long startBytes;
+    private final long startNanos;
+
+    private CommandProbe(final SimulationMetrics metrics, final InputCommands inputcommand) {
+        this.metrics = metrics;
+        this.inputcommand = inputcommand;
+        event = new CommandEvent();
+        event.begin();
+        startBytes = allocatedBytes();
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * Starts measuring a command.
+     *
+     * @param metrics      the metrics of the simulation (null if it doesn't keep any).
+     * @param inputcommand the command about to be executed.
+     * @return the probe, or null if nothing wants the measure.
+     */
+    public static CommandProbe start(final SimulationMetrics metrics,
+                                     final InputCommands inputcommand) {
+        if (metrics == null && !EVENT_TYPE.isEnabled()) {
+            return null;
+        }
+        return new CommandProbe(metrics, inputcommand);
+    }
+
+    /**
+     * Stops measuring a command whose output is a JSON node.
+     *
+     * @param output the output of the command.
+     */
+    public void stop(final JsonNode output) {
+        long nanos = System.nanoTime() - startNanos;
+        long bytes = allocatedBytes() - startBytes;
+        // counting the values isn't part of the command
+        stop(nanos, bytes, sizeOf(output));
+    }
+
+    /**
+     * Stops measuring a command whose output has the given size.
+     *
+     * @param resultSize the number of values in the output (see sizeOf).
+     */
+    public void stop(final int resultSize) {
+        stop(System.nanoTime() - startNanos, allocatedBytes() - startBytes, resultSize);
+    }
+
+    private void stop(final long nanos, final long bytes, final int resultSize) {
+        if (metrics != null) {
+            metrics.getStatistics(inputcommand.getCommand()).record(nanos, bytes, resultSize);
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.setCommand(inputcommand.getCommand());
+            event.setUser(inputcommand.getUsername());
+            if (inputcommand.getTimestamp() != null) {
+                event.setTimestamp(inputcommand.getTimestamp());
+            }
+            event.setAllocatedBytes(bytes);
+            event.setResultSize(resultSize);
+            event.commit();
+        }
+    }
+
+    /**
+     * Counts the values in an output: the fields and the elements of the arrays which
+     * aren't objects or arrays themselves.
+     *
+     * @param output the output of a command (null for the commands that have none).
+     * @return the number of values.
+     */
+    public static int sizeOf(final JsonNode output) {
+        if (output == null) {
+            return 0;
+        }
+        if (!output.isContainerNode()) {
+            return 1;
+        }
+        int size = 0;
+        for (JsonNode child : output) {
+            size += sizeOf(child);
+        }
+        return size;
+    }
+
+    private static long allocatedBytes() {
+        if (THREADS == null) {
+            return 0;
+        }
+        return THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            return null;
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+        return threads;
+    }
+}
@@ -0,0 +1,94 @@
+package main.metrics;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * The metrics of all the invocations of one command: how many there were, how long they
+ * took, how much memory they allocated and how big their outputs were. The commands of a
+ * sharded replay are executed on several threads, so every method holds the lock of the
+ * statistics.
+ */
+public final class CommandStatistics {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final String[] PERCENTILE_NAMES = {"p50", "p90", "p99", "p99.9"};
+
+    private final String command;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private long allocatedBytes;
+    private long resultSize;
+    private long maxResultSize;
+
+    /**
+     * @param command the name of the command.
+     */
+    public CommandStatistics(final String command) {
+        this.command = command;
+    }
+
+    /**
+     * Adds an invocation of the command.
+     *
+     * @param nanos          how long the command took.
+     * @param allocatedBytes the bytes allocated by the thread while executing it.
+     * @param resultSize     the number of values in its output.
+     */
+    public synchronized void record(final long nanos, final long allocatedBytes,
+                                    final int resultSize) {
+        latencies.record(nanos);
+        this.allocatedBytes += allocatedBytes;
+        this.resultSize += resultSize;
+        maxResultSize = Math.max(maxResultSize, resultSize);
+    }
+
+    /**
+     * @return the name of the command.
+     */
+    public String getCommand() {
+        return command;
+    }
+
+    /**
+     * @return the number of invocations of the command.
+     */
+    public synchronized long getCount() {
+        return latencies.getTotalCount();
+    }
+
+    /**
+     * @return the time spent executing the command, in nanoseconds.
+     */
+    public synchronized long getTotalNanos() {
+        return latencies.getSum();
+    }
+
+    /**
+     * Generates a JSON node with the metrics of the command.
+     *
+     * @return the node, as it appears in the metrics report.
+     */
+    public synchronized ObjectNode toJson() {
+        long count = latencies.getTotalCount();
+        ObjectNode node = JsonNodeFactory.instance.objectNode();
+        node.put("command", command);
+        node.put("count", count);
+
+        ObjectNode latency = node.putObject("latencyNanos");
+        latency.put("total", latencies.getSum());
+        latency.put("mean", Math.round(latencies.getMean()));
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            latency.put(PERCENTILE_NAMES[i], latencies.getValueAtPercentile(PERCENTILES[i]));
+        }
+        latency.put("max", latencies.getMax());
+
+        ObjectNode allocation = node.putObject("allocatedBytes");
+        allocation.put("total", allocatedBytes);
+        allocation.put("perCommand", count == 0 ? 0 : allocatedBytes / count);
+
+        ObjectNode result = node.putObject("resultSize");
+        result.put("total", resultSize);
+        result.put("perCommand", count == 0 ? 0 : resultSize / count);
+        result.put("max", maxResultSize);
+        return node;
+    }
+}
@@ -0,0 +1,115 @@
+package main.metrics;
+
+/**
+ * Counts latencies (in nanoseconds) in buckets whose width grows with the value, like
+ * HdrHistogram does: the values below 128 have a bucket each, and every larger value is
+ * counted in a bucket no wider than 1/64 of it. So a percentile is known with two
+ * significant digits, whatever the number of recorded values, in a fixed amount of memory.
+ */
+public final class LatencyHistogram {
+    // the values below SUB_BUCKETS have a bucket each
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+
+    // enough buckets for any positive long
+    private static final int BUCKETS = SUB_BUCKETS
+            + (Long.SIZE - 1 - SUB_BUCKET_BITS) * HALF_SUB_BUCKETS;
+
+    private static final double HUNDRED = 100.0;
+
+    private final long[] counts = new long[BUCKETS];
+    private long totalCount;
+    private long sum;
+    private long max;
+
+    /**
+     * Adds a value to the histogram.
+     *
+     * @param value the latency, in nanoseconds (negative values count as 0).
+     */
+    public void record(final long value) {
+        long positive = Math.max(0, value);
+        counts[bucketOf(positive)]++;
+        totalCount++;
+        sum += positive;
+        max = Math.max(max, positive);
+    }
+
+    /**
+     * @return the number of recorded values.
+     */
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * @return the sum of the recorded values.
+     */
+    public long getSum() {
+        return sum;
+    }
+
+    /**
+     * @return the largest recorded value (exact).
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * @return the average of the recorded values, 0 if there are none.
+     */
+    public double getMean() {
+        if (totalCount == 0) {
+            return 0;
+        }
+        return (double) sum / totalCount;
+    }
+
+    /**
+     * Gets the value below which the given percentage of the recorded values are.
+     *
+     * @param percentile the percentage, from 0 to 100.
+     * @return the highest value of the bucket the percentile falls in (never more than
+     * the largest recorded value), 0 if there are no values.
+     */
+    public long getValueAtPercentile(final double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile / HUNDRED * totalCount);
+        rank = Math.max(1, Math.min(totalCount, rank));
+
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return Math.min(max, highestValueOf(bucket));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Gets the bucket of a value: the values below SUB_BUCKETS are exact, the others keep
+     * their SUB_BUCKET_BITS - 1 highest bits after the leading one.
+     */
+    private static int bucketOf(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - HALF_SUB_BUCKETS;
+        return SUB_BUCKETS + (shift - 1) * HALF_SUB_BUCKETS + subBucket;
+    }
+
+    private static long highestValueOf(final int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - SUB_BUCKETS) / HALF_SUB_BUCKETS + 1;
+        long subBucket = (bucket - SUB_BUCKETS) % HALF_SUB_BUCKETS + HALF_SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
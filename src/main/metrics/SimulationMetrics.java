@@ -0,0 +1,94 @@
+package main.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+
+/**
+ * The metrics of the commands invoked in a simulation, by command name (see
+ * CommandProbe). They are written as a JSON report when the simulation executes
+ * endProgram, the commands that took the most time first.
+ */
+public final class SimulationMetrics {
+    private final HashMap<String, CommandStatistics> statistics = new HashMap<>();
+    private final File report;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Creates empty metrics.
+     *
+     * @param report       the file the report is written to (null to only keep the
+     *                     metrics in memory).
+     * @param objectMapper the mapper used to write the report.
+     */
+    public SimulationMetrics(final File report, final ObjectMapper objectMapper) {
+        this.report = report;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Gets the metrics of a command, created when the command is first invoked.
+     *
+     * @param command the name of the command.
+     * @return the metrics of the command.
+     */
+    public synchronized CommandStatistics getStatistics(final String command) {
+        return statistics.computeIfAbsent(command, CommandStatistics::new);
+    }
+
+    /**
+     * Generates the report: the metrics of every invoked command, the ones that took
+     * the most time first.
+     *
+     * @return the JSON node of the report.
+     */
+    public ObjectNode toJson() {
+        ArrayList<CommandStatistics> commands;
+        synchronized (this) {
+            commands = new ArrayList<>(statistics.values());
+        }
+        commands.sort(new Comparator<CommandStatistics>() {
+            @Override
+            public int compare(final CommandStatistics first, final CommandStatistics second) {
+                int byTime = Long.compare(second.getTotalNanos(), first.getTotalNanos());
+                if (byTime != 0) {
+                    return byTime;
+                }
+                return first.getCommand().compareTo(second.getCommand());
+            }
+        });
+
+        ObjectNode node = JsonNodeFactory.instance.objectNode();
+        long totalCount = 0;
+        ArrayNode commandNodes = JsonNodeFactory.instance.arrayNode();
+        for (CommandStatistics command : commands) {
+            totalCount += command.getCount();
+            commandNodes.add(command.toJson());
+        }
+        node.put("totalCount", totalCount);
+        node.set("commands", commandNodes);
+        return node;
+    }
+
+    /**
+     * Writes the report to its file, if the metrics have one.
+     *
+     * @throws IOException in case of exceptions to writing
+     */
+    public void writeReport() throws IOException {
+        if (report == null) {
+            return;
+        }
+        // the simulations replayed at the same time share the directory
+        Files.createDirectories(report.getAbsoluteFile().getParentFile().toPath());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(report, toJson());
+    }
+}
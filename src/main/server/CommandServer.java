@@ -0,0 +1,279 @@
+package main.server;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import fileio.input.InputCommands;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Accepts commands over a local socket (TCP or Unix domain) and executes them in a
+ * session. Every line sent by a client is a command, as a JSON object, and every command
+ * gets back one line with its output, in the order in which the commands were sent.
+ * A client doesn't have to wait for an output before sending the next commands.
+ * A line that isn't a valid command, or a command that fails, gets back an object with
+ * an "error" field.
+ */
+public final class CommandServer implements Closeable {
+    // the commands of a client that can wait for their outputs at the same time
+    private static final int MAX_IN_FLIGHT = 1_024;
+
+    // put in the queue of outputs after the last command of a client
+    private static final CompletableFuture<ObjectNode> END_OF_INPUT =
+            CompletableFuture.completedFuture(null);
+
+    private final SimulationSession session;
+    private final ObjectMapper objectMapper;
+    private final ServerSocketChannel serverChannel;
+    private final ExecutorService connections;
+
+    /**
+     * Opens the server socket.
+     *
+     * @param session      the session the commands are executed in.
+     * @param objectMapper the mapper used to read the commands and write the outputs.
+     * @param address      a loopback address and port, or a UnixDomainSocketAddress.
+     * @throws IOException if the socket can't be opened.
+     */
+    public CommandServer(final SimulationSession session, final ObjectMapper objectMapper,
+                         final SocketAddress address) throws IOException {
+        this.session = session;
+        this.objectMapper = objectMapper;
+        if (address instanceof UnixDomainSocketAddress) {
+            serverChannel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        } else {
+            serverChannel = ServerSocketChannel.open();
+        }
+        serverChannel.bind(address);
+        connections = Executors.newCachedThreadPool();
+    }
+
+    /**
+     * Gets the address the server is listening on (useful when it was bound to port 0).
+     *
+     * @return the local address of the server socket.
+     * @throws IOException if the socket is closed.
+     */
+    public SocketAddress getAddress() throws IOException {
+        return serverChannel.getLocalAddress();
+    }
+
+    /**
+     * Accepts clients until the server is closed. Every client is served on its own
+     * threads, the commands of all clients go to the same session.
+     *
+     * @throws IOException in case of exceptions to accepting a client
+     */
+    public void serve() throws IOException {
+        while (serverChannel.isOpen()) {
+            SocketChannel client;
+            try {
+                client = serverChannel.accept();
+            } catch (ClosedChannelException e) {
+                // the server was closed while waiting for a client
+                return;
+            }
+            connections.execute(() -> handleClient(client));
+        }
+    }
+
+    /**
+     * Stops accepting clients. The clients already connected are served until they
+     * disconnect.
+     *
+     * @throws IOException in case of exceptions to closing the socket
+     */
+    @Override
+    public void close() throws IOException {
+        serverChannel.close();
+        connections.shutdown();
+    }
+
+    /**
+     * Reads the commands of a client and queues their outputs, which another thread
+     * writes back as soon as they are ready.
+     *
+     * @param client the client's socket.
+     */
+    private void handleClient(final SocketChannel client) {
+        BlockingQueue<CompletableFuture<ObjectNode>> outputs =
+                new LinkedBlockingQueue<>(MAX_IN_FLIGHT);
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(
+                () -> writeOutputs(client, outputs), connections);
+
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                new ChannelInput(client), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                outputs.put(submit(line));
+            }
+        } catch (IOException e) {
+            // the client is gone, the outputs of its commands are still written if possible
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            try {
+                outputs.put(END_OF_INPUT);
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (CompletionException e) {
+                // the client is gone, nothing left to write
+            }
+        }
+    }
+
+    /**
+     * Submits a line read from a client.
+     *
+     * @param line the line, which should be a command.
+     * @return the output of the command, or an error if the line isn't a command.
+     */
+    private CompletableFuture<ObjectNode> submit(final String line) {
+        InputCommands inputcommand;
+        try {
+            inputcommand = objectMapper.readValue(line, InputCommands.class);
+        } catch (IOException e) {
+            return CompletableFuture.completedFuture(error(null, e));
+        }
+        if (inputcommand.getCommand() == null) {
+            return CompletableFuture.completedFuture(error(null,
+                    new IllegalArgumentException("the command has no name")));
+        }
+        return session.submit(inputcommand)
+                .exceptionally(e -> error(inputcommand.getCommand(), e));
+    }
+
+    /**
+     * Writes the outputs of a client's commands, one per line, until the end of its input.
+     * The stream is flushed whenever no other output is ready.
+     *
+     * @param client  the client's socket.
+     * @param outputs the outputs, in the order in which the commands were read.
+     */
+    private void writeOutputs(final SocketChannel client,
+                              final BlockingQueue<CompletableFuture<ObjectNode>> outputs) {
+        try (BufferedWriter out = new BufferedWriter(new OutputStreamWriter(
+                new ChannelOutput(client), StandardCharsets.UTF_8))) {
+            while (true) {
+                CompletableFuture<ObjectNode> output = outputs.take();
+                if (output == END_OF_INPUT) {
+                    break;
+                }
+                out.write(objectMapper.writeValueAsString(output.join()));
+                out.newLine();
+                if (outputs.isEmpty()) {
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            // the client is gone, the remaining commands are still executed
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ObjectNode error(final String command, final Throwable e) {
+        Throwable cause = e;
+        if (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        ObjectNode node = JsonNodeFactory.instance.objectNode();
+        if (command != null) {
+            node.put("command", command);
+        }
+        node.put("error", String.valueOf(cause.getMessage()));
+        return node;
+    }
+
+    /**
+     * Reads from a socket channel directly. The streams of Channels share a lock between
+     * reading and writing, so a client's outputs couldn't be written while its next
+     * command is being read.
+     */
+    private static final class ChannelInput extends InputStream {
+        private final SocketChannel channel;
+
+        ChannelInput(final SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            if (read(single, 0, 1) < 0) {
+                return -1;
+            }
+            return single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int offset, final int length)
+                throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            return channel.read(ByteBuffer.wrap(bytes, offset, length));
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.shutdownInput();
+        }
+    }
+
+    /**
+     * Writes to a socket channel directly (see ChannelInput). Closing it closes the socket.
+     */
+    private static final class ChannelOutput extends OutputStream {
+        private final SocketChannel channel;
+
+        ChannelOutput(final SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public void write(final int value) throws IOException {
+            write(new byte[] {(byte) value}, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length)
+                throws IOException {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, length);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
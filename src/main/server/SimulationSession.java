@@ -0,0 +1,84 @@
+package main.server;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import fileio.input.InputCommands;
+import main.SimulationContext;
+import main.commandsHandling.CommandInvoker;
+import main.journal.SimulationJournal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A simulation that stays in memory and executes commands as they arrive (the in-process
+ * API of the command server). The commands of a simulation have to run on one thread, so
+ * the session has its own thread and executes the submitted commands one by one, in the
+ * order in which they were submitted. Any thread can submit commands, and many commands
+ * can be waiting for their outputs at the same time.
+ */
+public final class SimulationSession implements Closeable {
+    // how long close() waits for the submitted commands to be executed
+    private static final long CLOSE_TIMEOUT_SECONDS = 30;
+
+    private final ExecutorService executor;
+    private final CommandInvoker invoker;
+
+    /**
+     * Starts a session.
+     *
+     * @param context the simulation the commands are applied to.
+     * @param journal the journal of the applied commands (null if it isn't journaled).
+     */
+    public SimulationSession(final SimulationContext context, final SimulationJournal journal) {
+        this.executor = Executors.newSingleThreadExecutor();
+        this.invoker = new CommandInvoker(Collections.emptyIterator(), null, context, journal);
+    }
+
+    /**
+     * Submits a command to be executed after the ones submitted before it.
+     *
+     * @param inputcommand the command.
+     * @return the output of the command, once it has been executed.
+     */
+    public CompletableFuture<ObjectNode> submit(final InputCommands inputcommand) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return invoker.invokeCommand(inputcommand);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Executes a command and waits for its output.
+     *
+     * @param inputcommand the command.
+     * @return the output of the command.
+     */
+    public ObjectNode execute(final InputCommands inputcommand) {
+        return submit(inputcommand).join();
+    }
+
+    /**
+     * Executes the commands already submitted, then stops the session's thread.
+     *
+     * @throws IOException if the session's thread was interrupted while waiting.
+     */
+    @Override
+    public void close() throws IOException {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while closing the session", e);
+        }
+    }
+}
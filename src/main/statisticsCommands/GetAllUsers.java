@@ -1,7 +1,6 @@
 package main.statisticsCommands;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import main.Main;
 import users.Artist;
 import users.Host;
 import users.NormalUser;
@@ -9,7 +8,7 @@ import users.NormalUser;
 import java.util.ArrayList;
 
 public final class GetAllUsers extends StandardStatisticsCommand {
-    private static GetAllUsers instance = null;
+    private static final ThreadLocal<GetAllUsers> INSTANCE = new ThreadLocal<>();
 
     private GetAllUsers(final String command, final ObjectNode node, final Integer timestamp) {
         super(command, timestamp, node);
@@ -25,8 +24,10 @@ public final class GetAllUsers extends StandardStatisticsCommand {
      */
     public static GetAllUsers getInstance(final String command, final ObjectNode node,
                                           final Integer timestamp) {
+        GetAllUsers instance = INSTANCE.get();
         if (instance == null) {
             instance = new GetAllUsers(command, node, timestamp);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setNode(node);
@@ -54,13 +55,13 @@ public final class GetAllUsers extends StandardStatisticsCommand {
      */
     public ArrayList<String> getListOfAllUsersNames() {
         ArrayList<String> result = new ArrayList<>();
-        for (NormalUser user : Main.normalUserList) {
+        for (NormalUser user : context.getNormalUserList()) {
             result.add(user.getUsername());
         }
-        for (Artist artist : Main.artistsList) {
+        for (Artist artist : context.getArtistsList()) {
             result.add(artist.getUsername());
         }
-        for (Host host : Main.hostsList) {
+        for (Host host : context.getHostsList()) {
             result.add(host.getUsername());
         }
         return result;
@@ -72,7 +73,7 @@ public final class GetAllUsers extends StandardStatisticsCommand {
      * @return the singleton instance of `GetAllUsers`.
      */
     public static GetAllUsers getInstance() {
-        return instance;
+        return INSTANCE.get();
     }
 
     /**
@@ -81,7 +82,7 @@ public final class GetAllUsers extends StandardStatisticsCommand {
      * @param instance the singleton instance of `GetAllUsers`.
      */
     public static void setInstance(final GetAllUsers instance) {
-        GetAllUsers.instance = instance;
+        INSTANCE.set(instance);
     }
 
 }
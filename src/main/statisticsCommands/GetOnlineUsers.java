@@ -1,13 +1,12 @@
 package main.statisticsCommands;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import main.Main;
 import users.NormalUser;
 
 import java.util.ArrayList;
 
 public final class GetOnlineUsers extends StandardStatisticsCommand {
-    private static GetOnlineUsers instance = null;
+    private static final ThreadLocal<GetOnlineUsers> INSTANCE = new ThreadLocal<>();
 
     private GetOnlineUsers(final String command, final ObjectNode node, final Integer timestamp) {
         super(command, timestamp, node);
@@ -23,8 +22,10 @@ public final class GetOnlineUsers extends StandardStatisticsCommand {
      */
     public static GetOnlineUsers getInstance(final String command, final ObjectNode node,
                                              final Integer timestamp) {
+        GetOnlineUsers instance = INSTANCE.get();
         if (instance == null) {
             instance = new GetOnlineUsers(command, node, timestamp);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setNode(node);
@@ -42,7 +43,7 @@ public final class GetOnlineUsers extends StandardStatisticsCommand {
         node.put("command", this.getCommand());
         node.put("timestamp", this.getTimestamp());
         ArrayList<String> result = new ArrayList<>();
-        for (NormalUser user : Main.normalUserList) {
+        for (NormalUser user : context.getNormalUserList()) {
             if (user.getConnectionStatus()) {
                 result.add(user.getUsername());
             }
@@ -57,7 +58,7 @@ public final class GetOnlineUsers extends StandardStatisticsCommand {
      * @return the singleton instance of `GetOnlineUsers`.
      */
     public static GetOnlineUsers getInstance() {
-        return instance;
+        return INSTANCE.get();
     }
 
     /**
@@ -66,6 +67,6 @@ public final class GetOnlineUsers extends StandardStatisticsCommand {
      * @param instance the singleton instance of `GetOnlineUsers`.
      */
     public static void setInstance(final GetOnlineUsers instance) {
-        GetOnlineUsers.instance = instance;
+        INSTANCE.set(instance);
     }
 }
@@ -2,18 +2,14 @@ package main.statisticsCommands;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import fileio.input.audioEntities.Album;
-import main.Main;
-import users.Artist;
 
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.Objects;
 
 public final class GetTop5Albums extends StandardStatisticsCommand {
     private static final int MAX_RESULTS = 5;
 
-    // Singleton instance field
-    private static GetTop5Albums instance = null;
+    // Singleton instance field, one per thread running a simulation
+    private static final ThreadLocal<GetTop5Albums> INSTANCE = new ThreadLocal<>();
 
     private GetTop5Albums(final String command, final ObjectNode node, final Integer timestamp) {
         super(command, timestamp, node);
@@ -29,8 +25,10 @@ public final class GetTop5Albums extends StandardStatisticsCommand {
      */
     public static GetTop5Albums getInstance(final String command, final ObjectNode node,
                                             final Integer timestamp) {
+        GetTop5Albums instance = INSTANCE.get();
         if (instance == null) {
             instance = new GetTop5Albums(command, node, timestamp);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setTimestamp(timestamp);
@@ -51,37 +49,6 @@ public final class GetTop5Albums extends StandardStatisticsCommand {
         return node;
     }
 
-    /**
-     * Retrieves all albums from all artists in descending order by likes.
-     *
-     * @return a list of all albums in descending order by likes.
-     */
-    public ArrayList<Album> getAllAlbumsInDescendingOrder() {
-        // create a list with all albums from all artists
-        ArrayList<Album> allAlbums = new ArrayList<>();
-        for (Artist artist : Main.artistsList) {
-            for (Album album : artist.getAlbums()) {
-                // update the album's number of likes
-                album.updateAlbumNumberOfLikes();
-                allAlbums.add(album);
-            }
-        }
-
-        //sort the albums in descending order by likes
-        allAlbums.sort(new Comparator<Album>() {
-            @Override
-            public int compare(final Album album1, final Album album2) {
-                // if the number of likes is equal, sort in lexicographical order
-                if (Objects.equals(album1.getNumberOfLikes(), album2.getNumberOfLikes())) {
-                    return album1.getName().compareTo(album2.getName());
-                }
-                return album2.getNumberOfLikes() - album1.getNumberOfLikes();
-            }
-        });
-
-        return allAlbums;
-    }
-
     /**
      * Retrieves the names of the top 5 albums.
      *
@@ -89,17 +56,8 @@ public final class GetTop5Albums extends StandardStatisticsCommand {
      */
     public ArrayList<String> getTop5AlbumsNames() {
         ArrayList<String> result = new ArrayList<>();
-        ArrayList<Album> allAlbums = getAllAlbumsInDescendingOrder();
-
-        if (allAlbums.size() < MAX_RESULTS) {
-            for (int i = 0; i < allAlbums.size(); i++) {
-                result.add(allAlbums.get(i).getName());
-            }
-            return result;
-        }
-
-        for (int i = 0; i < MAX_RESULTS; i++) {
-            result.add(allAlbums.get(i).getName());
+        for (Album album : context.getLeaderboards().getTopAlbums(MAX_RESULTS)) {
+            result.add(album.getName());
         }
         return result;
     }
@@ -1,17 +1,15 @@
 package main.statisticsCommands;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import main.Main;
 import users.Artist;
 
 import java.util.ArrayList;
-import java.util.Comparator;
 
 public final class GetTop5Artists extends StandardStatisticsCommand {
     private static final int MAX_RESULTS = 5;
 
-    // Singleton instance field
-    private static GetTop5Artists instance = null;
+    // Singleton instance field, one per thread running a simulation
+    private static final ThreadLocal<GetTop5Artists> INSTANCE = new ThreadLocal<>();
 
     private GetTop5Artists(final String command, final ObjectNode node, final Integer timestamp) {
         super(command, timestamp, node);
@@ -27,8 +25,10 @@ public final class GetTop5Artists extends StandardStatisticsCommand {
      */
     public static GetTop5Artists getInstance(final String command, final ObjectNode node,
                                              final Integer timestamp) {
+        GetTop5Artists instance = INSTANCE.get();
         if (instance == null) {
             instance = new GetTop5Artists(command, node, timestamp);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setTimestamp(timestamp);
@@ -50,30 +50,6 @@ public final class GetTop5Artists extends StandardStatisticsCommand {
         return node;
     }
 
-    /**
-     * Retrieves all artists in descending order by likes.
-     *
-     * @return a list of all artists in descending order by likes.
-     */
-    public ArrayList<Artist> getAllArtistsInDescendingOrder() {
-        /* copy all the artists from the main list to a new list and sort
-        it in descending order by the artists' number of likes */
-        ArrayList<Artist> allArtists = new ArrayList<>();
-        for (Artist artist : Main.artistsList) {
-            artist.updateArtistNumberOfLikes();
-            allArtists.add(artist);
-        }
-
-        allArtists.sort(new Comparator<Artist>() {
-            @Override
-            public int compare(final Artist artist1, final Artist artist2) {
-                return artist2.getNumberOfLikes() - artist1.getNumberOfLikes();
-            }
-        });
-
-        return allArtists;
-    }
-
     /**
      * Retrieves the names of the top 5 artists.
      *
@@ -81,17 +57,8 @@ public final class GetTop5Artists extends StandardStatisticsCommand {
      */
     public ArrayList<String> getTopt5ArtistsNames() {
         ArrayList<String> result = new ArrayList<>();
-        ArrayList<Artist> allArtists = getAllArtistsInDescendingOrder();
-
-        if (allArtists.size() < MAX_RESULTS) {
-            for (int i = 0; i < allArtists.size(); i++) {
-                result.add(allArtists.get(i).getUsername());
-            }
-            return result;
-        }
-
-        for (int i = 0; i < MAX_RESULTS; i++) {
-            result.add(allArtists.get(i).getUsername());
+        for (Artist artist : context.getLeaderboards().getTopArtists(MAX_RESULTS)) {
+            result.add(artist.getUsername());
         }
         return result;
     }
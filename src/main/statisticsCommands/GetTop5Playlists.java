@@ -4,14 +4,13 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import fileio.input.audioEntities.Playlist;
 
 import java.util.ArrayList;
-import java.util.Comparator;
 
 public final class GetTop5Playlists extends StandardStatisticsCommand {
     private static final int MAX_RESULTS = 5;
     private ArrayList<Playlist> allUsersPlaylists;
 
-    // Singleton instance field
-    private static GetTop5Playlists instance = null;
+    // Singleton instance field, one per thread running a simulation
+    private static final ThreadLocal<GetTop5Playlists> INSTANCE = new ThreadLocal<>();
 
     /**
      * Constructs a new GetTop5Playlists with the specified parameters.
@@ -39,8 +38,10 @@ public final class GetTop5Playlists extends StandardStatisticsCommand {
     public static GetTop5Playlists getInstance(final String command, final ObjectNode node,
                                                final Integer timestamp,
                                                final ArrayList<Playlist> allUsersPlaylists) {
+        GetTop5Playlists instance = INSTANCE.get();
         if (instance == null) {
             instance = new GetTop5Playlists(command, node, timestamp, allUsersPlaylists);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setTimestamp(timestamp);
@@ -63,23 +64,6 @@ public final class GetTop5Playlists extends StandardStatisticsCommand {
     }
 
 
-    /**
-     * Retrieves all playlists sorted in descending order of followers.
-     *
-     * @return An ArrayList of playlists sorted by the number of followers in descending order.
-     */
-    public ArrayList<Playlist> getAllPlaylistsInDescendingOrder() {
-        // sort allUsersPlaylists by each playlist's number of followers in descending order
-        allUsersPlaylists.sort(new Comparator<Playlist>() {
-            @Override
-            public int compare(final Playlist playlist, final Playlist t1) {
-                return t1.getFollowers() - playlist.getFollowers();
-            }
-        });
-
-        return allUsersPlaylists;
-    }
-
     /**
      * Retrieves the names of the top 5 playlists sorted in descending order of followers.
      *
@@ -88,17 +72,8 @@ public final class GetTop5Playlists extends StandardStatisticsCommand {
      */
     public ArrayList<String> getTop5PlaylistsNames() {
         ArrayList<String> result = new ArrayList<>();
-        ArrayList<Playlist> listOfAllUsersPlaylists = getAllPlaylistsInDescendingOrder();
-
-        if (listOfAllUsersPlaylists.size() < MAX_RESULTS) {
-            for (int i = 0; i < listOfAllUsersPlaylists.size(); i++) {
-                result.add(listOfAllUsersPlaylists.get(i).getName());
-            }
-            return result;
-        }
-
-        for (int i = 0; i < MAX_RESULTS; i++) {
-            result.add(listOfAllUsersPlaylists.get(i).getName());
+        for (Playlist playlist : context.getLeaderboards().getTopPlaylists(MAX_RESULTS)) {
+            result.add(playlist.getName());
         }
         return result;
     }
@@ -129,7 +104,7 @@ public final class GetTop5Playlists extends StandardStatisticsCommand {
      * @return The singleton instance of GetTop5Playlists.
      */
     public static GetTop5Playlists getInstance() {
-        return instance;
+        return INSTANCE.get();
     }
 
     /**
@@ -138,6 +113,6 @@ public final class GetTop5Playlists extends StandardStatisticsCommand {
      * @param instance The singleton instance to set.
      */
     public static void setInstance(final GetTop5Playlists instance) {
-        GetTop5Playlists.instance = instance;
+        INSTANCE.set(instance);
     }
 }
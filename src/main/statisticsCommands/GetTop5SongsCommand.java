@@ -1,18 +1,17 @@
 package main.statisticsCommands;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import main.Main;
 import fileio.input.audioEntities.SongPlayInfo;
 
-import java.util.ArrayList;
+import java.util.List;
 
 public final class GetTop5SongsCommand extends StandardStatisticsCommand {
 
     private static final int MAX_RESULTS = 5;
-    private ArrayList<SongPlayInfo> songs;
+    private List<SongPlayInfo> songs;
 
-    // Singleton instance field
-    private static GetTop5SongsCommand instance = null;
+    // Singleton instance field, one per thread running a simulation
+    private static final ThreadLocal<GetTop5SongsCommand> INSTANCE = new ThreadLocal<>();
 
     /**
      * Constructs a new GetTop5SongsCommand with the specified parameters.
@@ -22,7 +21,7 @@ public final class GetTop5SongsCommand extends StandardStatisticsCommand {
      * @param node       The JSON node associated with the command.
      */
     // make constructor private for singleton implementation
-    private GetTop5SongsCommand(final String command, final ArrayList<SongPlayInfo> songs,
+    private GetTop5SongsCommand(final String command, final List<SongPlayInfo> songs,
                                 final Integer timestamp, final ObjectNode node) {
         super(command, timestamp, node);
         this.songs = songs;
@@ -37,11 +36,13 @@ public final class GetTop5SongsCommand extends StandardStatisticsCommand {
      * @return The singleton instance of GetTop5SongsCommand.
      */
     public static GetTop5SongsCommand getInstance(final String command,
-                                                  final ArrayList<SongPlayInfo> songs,
+                                                  final List<SongPlayInfo> songs,
                                                   final Integer timestamp,
                                                   final ObjectNode node) {
+        GetTop5SongsCommand instance = INSTANCE.get();
         if (instance == null) {
             instance = new GetTop5SongsCommand(command, songs, timestamp, node);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setSongs(songs);
@@ -59,8 +60,8 @@ public final class GetTop5SongsCommand extends StandardStatisticsCommand {
     public ObjectNode execute() {
         node.put("command", this.getCommand());
         node.put("timestamp", this.getTimestamp());
-        ArrayList<SongPlayInfo> sortedSongs = this.getSortedSongsByLikes(Main.songsList);
-        node.putPOJO("result", this.getSongNamesStrings(getTruncatedResultTop5Songs(sortedSongs)));
+        node.putPOJO("result", StandardStatisticsCommand.getSongNamesStrings(
+                context.getLeaderboards().getTopSongs(MAX_RESULTS)));
         return node;
     }
 
@@ -70,7 +71,7 @@ public final class GetTop5SongsCommand extends StandardStatisticsCommand {
      *
      * @return The list of songs.
      */
-    public ArrayList<SongPlayInfo> getSongs() {
+    public List<SongPlayInfo> getSongs() {
         return songs;
     }
 
@@ -79,16 +80,16 @@ public final class GetTop5SongsCommand extends StandardStatisticsCommand {
      *
      * @param songs The list of songs to set.
      */
-    public void setSongs(final ArrayList<SongPlayInfo> songs) {
+    public void setSongs(final List<SongPlayInfo> songs) {
         this.songs = songs;
     }
 
     public static GetTop5SongsCommand getInstance() {
-        return instance;
+        return INSTANCE.get();
     }
 
     public static void setInstance(final GetTop5SongsCommand instance) {
-        GetTop5SongsCommand.instance = instance;
+        INSTANCE.set(instance);
     }
 
 }
@@ -0,0 +1,527 @@
+package main.statisticsCommands;
+
+import fileio.input.audioEntities.Album;
+import fileio.input.audioEntities.Playlist;
+import fileio.input.audioEntities.SongPlayInfo;
+import users.Artist;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Keeps the songs, albums, artists and playlists ordered the way the top 5
+ * statistics commands rank them, so that a top 5 query only reads the first
+ * elements instead of sorting everything. The orders are kept up to date by the
+ * like, unlike, follow, unfollow, add and delete events.
+ *
+ * <p>The songs from the library are shared by all the simulations, so their likes are kept
+ * here too. A song from the library is only put in the order of the songs once it has
+ * likes: the ones without likes are already in catalog order in the library.
+ */
+public final class Leaderboards implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    // the distance between the ranks given to playlists when they are (re)numbered
+    private static final long RANK_GAP = 1L << 20;
+
+    // the songs from the library, shared with the other simulations
+    private final List<SongPlayInfo> librarySongs;
+
+    // song -> its number of likes (the songs without likes aren't kept)
+    private final IdentityHashMap<SongPlayInfo, Integer> songLikes;
+
+    // the songs from the library that were removed from the catalog
+    private final IdentityHashMap<SongPlayInfo, Boolean> removedLibrarySongs;
+
+    /* song added by an artist -> its position in the catalog (the tie-break of
+    getTop5Songs), after the positions of the songs from the library */
+    private final IdentityHashMap<SongPlayInfo, Long> songPositions;
+    private long nextSongPosition;
+
+    // song -> the album it belongs to (songs from the library have no album)
+    private final IdentityHashMap<SongPlayInfo, Album> albumOfSong;
+
+    // album -> the artist that owns it
+    private final IdentityHashMap<Album, Artist> artistOfAlbum;
+
+    // album -> the order in which albums were added (an artist's albums keep this order)
+    private final IdentityHashMap<Album, Long> albumPositions;
+    private long nextAlbumPosition;
+
+    // artist -> its position in the list of artists
+    private final IdentityHashMap<Artist, Long> artistPositions;
+    private long nextArtistPosition;
+
+    /* playlist -> its rank in the list of all playlists, as it was ordered by the last
+    getTop5Playlists. That command sorts the list in place with a stable sort, so the
+    playlists with the same number of followers keep the order of the previous sort */
+    private final IdentityHashMap<Playlist, Long> playlistRanks;
+    private long nextPlaylistRank;
+
+    // the playlists whose followers changed since the last getTop5Playlists
+    private final ArrayList<Playlist> movedPlaylists;
+
+    private final TreeSet<SongPlayInfo> songs;
+    private final TreeSet<Album> albums;
+    private final TreeSet<Artist> artists;
+    private final TreeSet<Playlist> playlists;
+
+    /**
+     * Creates the leaderboards of a simulation, with the songs from the library in them.
+     *
+     * @param librarySongs the songs from the library, in catalog order.
+     */
+    public Leaderboards(final List<SongPlayInfo> librarySongs) {
+        this.librarySongs = librarySongs;
+        songLikes = new IdentityHashMap<>();
+        removedLibrarySongs = new IdentityHashMap<>();
+        songPositions = new IdentityHashMap<>();
+        nextSongPosition = librarySongs.size();
+        albumOfSong = new IdentityHashMap<>();
+        artistOfAlbum = new IdentityHashMap<>();
+        albumPositions = new IdentityHashMap<>();
+        artistPositions = new IdentityHashMap<>();
+        playlistRanks = new IdentityHashMap<>();
+        movedPlaylists = new ArrayList<>();
+
+        songs = new TreeSet<>(new SongOrder());
+        albums = new TreeSet<>(new AlbumOrder());
+        artists = new TreeSet<>(new ArtistOrder());
+        playlists = new TreeSet<>(new PlaylistOrder());
+    }
+
+    /* the orders are named classes rather than anonymous ones, so that they can be
+    saved with the leaderboards when the simulation is checkpointed */
+
+    // by number of likes in descending order, then in catalog order
+    private final class SongOrder implements Comparator<SongPlayInfo>, Serializable {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public int compare(final SongPlayInfo song1, final SongPlayInfo song2) {
+            int likes1 = getSongLikes(song1);
+            int likes2 = getSongLikes(song2);
+            if (likes1 != likes2) {
+                return Integer.compare(likes2, likes1);
+            }
+            return Long.compare(getSongPosition(song1), getSongPosition(song2));
+        }
+    }
+
+    /* by number of likes in descending order, then in lexicographical order, then
+    in the order in which they appear in the artists' lists of albums */
+    private final class AlbumOrder implements Comparator<Album>, Serializable {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public int compare(final Album album1, final Album album2) {
+            if (!album1.getNumberOfLikes().equals(album2.getNumberOfLikes())) {
+                return Integer.compare(album2.getNumberOfLikes(), album1.getNumberOfLikes());
+            }
+            if (!album1.getName().equals(album2.getName())) {
+                return album1.getName().compareTo(album2.getName());
+            }
+            Long artistPosition1 = artistPositions.get(artistOfAlbum.get(album1));
+            Long artistPosition2 = artistPositions.get(artistOfAlbum.get(album2));
+            if (!artistPosition1.equals(artistPosition2)) {
+                return Long.compare(artistPosition1, artistPosition2);
+            }
+            return Long.compare(albumPositions.get(album1), albumPositions.get(album2));
+        }
+    }
+
+    // by number of likes in descending order, then in the order of the artists list
+    private final class ArtistOrder implements Comparator<Artist>, Serializable {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public int compare(final Artist artist1, final Artist artist2) {
+            if (!artist1.getNumberOfLikes().equals(artist2.getNumberOfLikes())) {
+                return Integer.compare(artist2.getNumberOfLikes(), artist1.getNumberOfLikes());
+            }
+            return Long.compare(artistPositions.get(artist1), artistPositions.get(artist2));
+        }
+    }
+
+    // by number of followers in descending order, then in the order of the last sort
+    private final class PlaylistOrder implements Comparator<Playlist>, Serializable {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public int compare(final Playlist playlist1, final Playlist playlist2) {
+            if (!playlist1.getFollowers().equals(playlist2.getFollowers())) {
+                return Integer.compare(playlist2.getFollowers(), playlist1.getFollowers());
+            }
+            return Long.compare(playlistRanks.get(playlist1), playlistRanks.get(playlist2));
+        }
+    }
+
+    /**
+     * Gets the number of likes of a song.
+     *
+     * @param songPlayInfo the song.
+     * @return the number of likes of the song in this simulation.
+     */
+    public int getSongLikes(final SongPlayInfo songPlayInfo) {
+        Integer likes = songLikes.get(songPlayInfo);
+        return likes == null ? 0 : likes;
+    }
+
+    /**
+     * @param songPlayInfo the song.
+     * @return the position of the song in the catalog.
+     */
+    private long getSongPosition(final SongPlayInfo songPlayInfo) {
+        Long position = songPositions.get(songPlayInfo);
+        return position == null ? songPlayInfo.getCatalogPosition() : position;
+    }
+
+    /**
+     * @param songPlayInfo the song.
+     * @return true if the song is in the catalog as a song from the library.
+     */
+    private boolean isListedLibrarySong(final SongPlayInfo songPlayInfo) {
+        return songPlayInfo.getCatalogPosition() >= 0
+                && !removedLibrarySongs.containsKey(songPlayInfo);
+    }
+
+    /**
+     * Adds songs at the end of the catalog.
+     *
+     * @param newSongs the songs to be added, in catalog order.
+     */
+    public void addSongs(final Collection<SongPlayInfo> newSongs) {
+        for (SongPlayInfo songPlayInfo : newSongs) {
+            if (songPositions.containsKey(songPlayInfo) || isListedLibrarySong(songPlayInfo)) {
+                continue;
+            }
+            songPositions.put(songPlayInfo, nextSongPosition++);
+            songs.add(songPlayInfo);
+        }
+    }
+
+    /**
+     * Removes a song from the catalog.
+     *
+     * @param songPlayInfo the song to be removed.
+     */
+    public void removeSong(final SongPlayInfo songPlayInfo) {
+        if (songPositions.containsKey(songPlayInfo)) {
+            songs.remove(songPlayInfo);
+            songPositions.remove(songPlayInfo);
+        } else if (isListedLibrarySong(songPlayInfo)) {
+            songs.remove(songPlayInfo);
+            removedLibrarySongs.put(songPlayInfo, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Adds an artist at the end of the list of artists.
+     *
+     * @param artist the artist to be added.
+     */
+    public void addArtist(final Artist artist) {
+        artistPositions.put(artist, nextArtistPosition++);
+        artists.add(artist);
+    }
+
+    /**
+     * Removes an artist (whose albums have already been removed).
+     *
+     * @param artist the artist to be removed.
+     */
+    public void removeArtist(final Artist artist) {
+        if (artistPositions.containsKey(artist)) {
+            artists.remove(artist);
+            artistPositions.remove(artist);
+        }
+    }
+
+    /**
+     * Adds a new album of an artist.
+     *
+     * @param artist the artist that owns the album.
+     * @param album  the album to be added.
+     */
+    public void addAlbum(final Artist artist, final Album album) {
+        album.updateAlbumNumberOfLikes(this);
+        for (SongPlayInfo songPlayInfo : album.getSongs()) {
+            albumOfSong.put(songPlayInfo, album);
+        }
+        artistOfAlbum.put(album, artist);
+        albumPositions.put(album, nextAlbumPosition++);
+        albums.add(album);
+
+        updateArtistLikes(artist, album.getNumberOfLikes());
+    }
+
+    /**
+     * Removes an album, together with the likes it brought to its artist.
+     *
+     * @param album the album to be removed.
+     */
+    public void removeAlbum(final Album album) {
+        Artist artist = artistOfAlbum.get(album);
+        if (artist == null) {
+            return;
+        }
+        albums.remove(album);
+        albumPositions.remove(album);
+        artistOfAlbum.remove(album);
+        for (SongPlayInfo songPlayInfo : album.getSongs()) {
+            albumOfSong.remove(songPlayInfo);
+        }
+
+        updateArtistLikes(artist, -album.getNumberOfLikes());
+    }
+
+    /**
+     * Adds a new playlist at the end of the list of all playlists.
+     *
+     * @param playlist the playlist to be added.
+     */
+    public void addPlaylist(final Playlist playlist) {
+        playlistRanks.put(playlist, nextPlaylistRank);
+        nextPlaylistRank += RANK_GAP;
+        playlists.add(playlist);
+    }
+
+    /**
+     * Changes the number of likes of a song (and of its album and artist).
+     *
+     * @param songPlayInfo the song that was liked or unliked.
+     * @param difference   +1 for a like, -1 for an unlike.
+     */
+    public void updateSongLikes(final SongPlayInfo songPlayInfo, final int difference) {
+        boolean inCatalog = songs.remove(songPlayInfo) || isListedLibrarySong(songPlayInfo);
+        int likes = getSongLikes(songPlayInfo) + difference;
+        if (likes == 0) {
+            songLikes.remove(songPlayInfo);
+        } else {
+            songLikes.put(songPlayInfo, likes);
+        }
+        // a song from the library without likes is left in its place in the library
+        if (inCatalog && (likes != 0 || songPositions.containsKey(songPlayInfo))) {
+            songs.add(songPlayInfo);
+        }
+
+        Album album = albumOfSong.get(songPlayInfo);
+        if (album == null) {
+            return;
+        }
+        albums.remove(album);
+        album.setNumberOfLikes(album.getNumberOfLikes() + difference);
+        albums.add(album);
+
+        updateArtistLikes(artistOfAlbum.get(album), difference);
+    }
+
+    /**
+     * Changes the number of followers of a playlist.
+     *
+     * @param playlist   the playlist that was followed or unfollowed.
+     * @param difference +1 for a follow, -1 for an unfollow.
+     */
+    public void updatePlaylistFollowers(final Playlist playlist, final int difference) {
+        boolean listed = playlists.remove(playlist);
+        playlist.setFollowers(playlist.getFollowers() + difference);
+        if (listed) {
+            playlists.add(playlist);
+            movedPlaylists.add(playlist);
+        }
+    }
+
+    /**
+     * Gets the songs with the most likes.
+     *
+     * @param count the maximum number of songs.
+     * @return the first songs, in the order of getTop5Songs.
+     */
+    public ArrayList<SongPlayInfo> getTopSongs(final int count) {
+        ArrayList<SongPlayInfo> top = new ArrayList<>(count);
+        Iterator<SongPlayInfo> ordered = songs.iterator();
+        SongPlayInfo next = ordered.hasNext() ? ordered.next() : null;
+
+        // the songs with likes come first
+        while (top.size() < count && next != null && getSongLikes(next) > 0) {
+            top.add(next);
+            next = ordered.hasNext() ? ordered.next() : null;
+        }
+        // then the songs from the library without likes, which come before the added ones
+        for (int i = 0; i < librarySongs.size() && top.size() < count; i++) {
+            SongPlayInfo songPlayInfo = librarySongs.get(i);
+            if (!songLikes.containsKey(songPlayInfo)
+                    && !removedLibrarySongs.containsKey(songPlayInfo)) {
+                top.add(songPlayInfo);
+            }
+        }
+        // then the other songs without likes (and the ones with less than zero, if any)
+        while (top.size() < count && next != null) {
+            top.add(next);
+            next = ordered.hasNext() ? ordered.next() : null;
+        }
+        return top;
+    }
+
+    /**
+     * Gets the albums with the most likes.
+     *
+     * @param count the maximum number of albums.
+     * @return the first albums, in the order of getTop5Albums.
+     */
+    public ArrayList<Album> getTopAlbums(final int count) {
+        return getFirst(albums, count);
+    }
+
+    /**
+     * Gets the artists with the most likes.
+     *
+     * @param count the maximum number of artists.
+     * @return the first artists, in the order of getTop5Artists.
+     */
+    public ArrayList<Artist> getTopArtists(final int count) {
+        return getFirst(artists, count);
+    }
+
+    /**
+     * Gets the playlists with the most followers. Like the sort done by the old
+     * command, this fixes the current order as the tie-break of the next query.
+     *
+     * @param count the maximum number of playlists.
+     * @return the first playlists, in the order of getTop5Playlists.
+     */
+    public ArrayList<Playlist> getTopPlaylists(final int count) {
+        fixMovedPlaylistsRanks();
+        return getFirst(playlists, count);
+    }
+
+    /**
+     * Gives the playlists whose followers changed new ranks that match their current
+     * place in the order, as the stable sort of the old command would have done.
+     */
+    private void fixMovedPlaylistsRanks() {
+        if (movedPlaylists.isEmpty()) {
+            return;
+        }
+
+        // the moved playlists, in their current order, without duplicates
+        TreeSet<Playlist> moved = new TreeSet<>(playlists.comparator());
+        moved.addAll(movedPlaylists);
+        movedPlaylists.clear();
+        playlists.removeAll(moved);
+
+        /* the playlists left have ranks that match their order, so the moved playlists
+        are grouped in runs that fall between the same two of them (the successor of
+        a run is null if the run is at the end) */
+        ArrayList<ArrayList<Playlist>> runs = new ArrayList<>();
+        ArrayList<Playlist> successors = new ArrayList<>();
+        for (Playlist playlist : moved) {
+            Playlist successor = playlists.higher(playlist);
+            if (runs.isEmpty() || successor != successors.get(successors.size() - 1)) {
+                runs.add(new ArrayList<>());
+                successors.add(successor);
+            }
+            runs.get(runs.size() - 1).add(playlist);
+        }
+
+        boolean enoughRoom = true;
+        for (int i = 0; i < runs.size(); i++) {
+            enoughRoom &= rankRun(runs.get(i), successors.get(i), false);
+        }
+
+        if (!enoughRoom) {
+            // some gap is too small, so all the playlists get evenly spaced ranks again
+            playlists.addAll(moved);
+            ArrayList<Playlist> ordered = new ArrayList<>(playlists);
+            playlists.clear();
+            nextPlaylistRank = 0;
+            for (Playlist playlist : ordered) {
+                playlistRanks.put(playlist, nextPlaylistRank);
+                nextPlaylistRank += RANK_GAP;
+            }
+            playlists.addAll(ordered);
+            return;
+        }
+
+        for (int i = 0; i < runs.size(); i++) {
+            rankRun(runs.get(i), successors.get(i), true);
+        }
+        playlists.addAll(moved);
+    }
+
+    /**
+     * Computes the ranks of a run of moved playlists that fall in the same gap.
+     *
+     * @param run       the moved playlists, in order.
+     * @param successor the playlist that follows the run (null if the run is last).
+     * @param apply     true to give the ranks to the playlists, false to only check the gap.
+     * @return false if the gap is too small for the run, true otherwise.
+     */
+    private boolean rankRun(final ArrayList<Playlist> run, final Playlist successor,
+                            final boolean apply) {
+        long low;
+        long high;
+        if (successor == null) {
+            low = playlists.isEmpty() ? 0 : playlistRanks.get(playlists.last());
+            high = Math.max(nextPlaylistRank, low + RANK_GAP) + run.size() * RANK_GAP;
+        } else {
+            Playlist predecessor = playlists.lower(successor);
+            high = playlistRanks.get(successor);
+            low = predecessor == null ? high - (run.size() + 1) * RANK_GAP
+                    : playlistRanks.get(predecessor);
+        }
+
+        long step = (high - low) / (run.size() + 1);
+        if (step == 0) {
+            return false;
+        }
+        if (apply) {
+            for (int i = 0; i < run.size(); i++) {
+                playlistRanks.put(run.get(i), low + (i + 1) * step);
+            }
+            if (successor == null) {
+                nextPlaylistRank = high;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Changes the number of likes of an artist.
+     *
+     * @param artist     the artist.
+     * @param difference the number of likes to be added (may be negative).
+     */
+    private void updateArtistLikes(final Artist artist, final int difference) {
+        boolean listed = artists.remove(artist);
+        artist.setNumberOfLikes(artist.getNumberOfLikes() + difference);
+        if (listed) {
+            artists.add(artist);
+        }
+    }
+
+    /**
+     * Gets the first elements of an ordered set.
+     *
+     * @param set   the ordered set.
+     * @param count the maximum number of elements.
+     * @param <T>   the type of the elements.
+     * @return the first elements, in order.
+     */
+    private static <T> ArrayList<T> getFirst(final TreeSet<T> set, final int count) {
+        ArrayList<T> result = new ArrayList<>();
+        for (T element : set) {
+            if (result.size() == count) {
+                break;
+            }
+            result.add(element);
+        }
+        return result;
+    }
+}
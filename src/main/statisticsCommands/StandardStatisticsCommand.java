@@ -3,10 +3,7 @@ package main.statisticsCommands;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import fileio.input.audioEntities.SongPlayInfo;
 import main.commandsHandling.GeneralCommand;
-import main.Main;
 import users.Artist;
-import users.NormalUser;
-import fileio.input.wrappedEntities.WrappedArtist;
 import fileio.input.wrappedEntities.WrappedFan;
 
 import java.util.ArrayList;
@@ -27,20 +24,8 @@ public abstract class StandardStatisticsCommand  extends GeneralCommand {
      * @return The list of WrappedFan objects representing fans of the artist.
      */
     public ArrayList<WrappedFan> getArtistFans(final Artist artist) {
-        ArrayList<WrappedFan> artistWrappedFans = new ArrayList<>();
-
-        /* go through the wrapped artists list of each user and populate
-        the wrapped fans list of the artist */
-        for (NormalUser user : Main.normalUserList) {
-            for (WrappedArtist userWrappedArtist : user.getWrappedArtists()) {
-                if (userWrappedArtist.getArtistName().equals(artist.getUsername())) {
-                    WrappedFan wrappedFan = new WrappedFan(user);
-                    artistWrappedFans.add(wrappedFan);
-                    wrappedFan.setListens(userWrappedArtist.getListens());
-                }
-            }
-        }
-        return artistWrappedFans;
+        // the listens of all users are added up while they listen
+        return context.getWrappedAggregates().getArtistFans(artist.getUsername());
     }
 
     /**
@@ -51,9 +36,9 @@ public abstract class StandardStatisticsCommand  extends GeneralCommand {
      */
     public ArrayList<WrappedFan> getTopFansList(
             final ArrayList<WrappedFan> wrappedFansList) {
-        /* sort the user's wrapped artist list by count of plays in descending order and
-        in case of equality, sort lexicographically */
-        wrappedFansList.sort(new Comparator<WrappedFan>() {
+        /* keep the first 5 fans by count of plays in descending order and in
+        case of equality, in lexicographical order (the list isn't reordered) */
+        Comparator<WrappedFan> order = new Comparator<WrappedFan>() {
             @Override
             public int compare(final WrappedFan wrappedFan1, final WrappedFan wrappedFan2) {
                 // if the number of listens is equal, sort in lexicographical order
@@ -63,23 +48,8 @@ public abstract class StandardStatisticsCommand  extends GeneralCommand {
                 }
                 return wrappedFan2.getListens() - wrappedFan1.getListens();
             }
-        });
-
-        // keep only the first 5 objects
-        ArrayList<WrappedFan> topFansList = new ArrayList<>();
-
-        // check if we have less than 5 artists
-        if (wrappedFansList.size() < MAX_RESULTS) {
-            for (int i = 0; i < wrappedFansList.size(); i++) {
-                topFansList.add(wrappedFansList.get(i));
-            }
-            return topFansList;
-        }
-
-        for (int i = 0; i < MAX_RESULTS; i++) {
-            topFansList.add(wrappedFansList.get(i));
-        }
-        return topFansList;
+        };
+        return TopSelector.select(wrappedFansList, MAX_RESULTS, order);
     }
 
     /**
@@ -98,50 +68,23 @@ public abstract class StandardStatisticsCommand  extends GeneralCommand {
     }
 
     /**
-     * Retrieves the list of songs sorted by the number of likes in descending order.
+     * Retrieves the songs with the most likes, in descending order of likes.
+     * Songs with the same number of likes keep their order from the given list.
      *
-     * @param songList The list of SongPlayInfo objects.
-     * @return The list of sorted SongPlayInfo objects.
+     * @param songList The list of SongPlayInfo objects (left unchanged).
+     * @param count    The maximum number of songs to be retrieved.
+     * @param leaderboards The leaderboards that keep the likes of the songs.
+     * @return The list of the first count SongPlayInfo objects.
      */
-    public ArrayList<SongPlayInfo> getSortedSongsByLikes(
-            final ArrayList<SongPlayInfo> songList) {
-        ArrayList<SongPlayInfo> sortedSongs = new ArrayList<>();
-        sortedSongs.addAll(songList);
-
-        // sort the Songs list by the NumberOf Likes in descending order
-        sortedSongs.sort(new Comparator<SongPlayInfo>() {
+    public static ArrayList<SongPlayInfo> getTopSongsByLikes(
+            final ArrayList<SongPlayInfo> songList, final int count,
+            final Leaderboards leaderboards) {
+        return TopSelector.select(songList, count, new Comparator<SongPlayInfo>() {
             @Override
             public int compare(final SongPlayInfo song1, final SongPlayInfo song2) {
-                return song2.getNumberOfLikes() - song1.getNumberOfLikes();
+                return leaderboards.getSongLikes(song2) - leaderboards.getSongLikes(song1);
             }
         });
-
-        return sortedSongs;
-    }
-
-    /**
-     * Retrieves the truncated result containing the top 5 songs.
-     *
-     * @param sortedSongs The list of sorted SongPlayInfo objects.
-     * @return The truncated result containing the top 5 songs.
-     */
-    public static ArrayList<SongPlayInfo> getTruncatedResultTop5Songs(
-            final ArrayList<SongPlayInfo> sortedSongs) {
-        ArrayList<SongPlayInfo> result = new ArrayList<>();
-
-        if (sortedSongs.size() < MAX_RESULTS) {
-            for (int i = 0; i < sortedSongs.size(); i++) {
-                result.add(sortedSongs.get(i));
-            }
-            return result;
-        }
-
-
-        for (int i = 0; i < MAX_RESULTS; i++) {
-            result.add(sortedSongs.get(i));
-        }
-
-        return result;
     }
 
     /**
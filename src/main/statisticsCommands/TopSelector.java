@@ -0,0 +1,56 @@
+package main.statisticsCommands;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Picks the first elements of a list in a given order without sorting (or changing)
+ * the whole list. The result is the same as the beginning of a stable sort: elements
+ * that are equal keep the order they had in the list.
+ */
+public final class TopSelector {
+
+    /**
+     * for coding style
+     */
+    private TopSelector() {
+    }
+
+    /**
+     * Gets the first elements of a list in the given order. Only a buffer of count
+     * elements is kept, and most elements are rejected after one comparison with
+     * the last element of the buffer.
+     *
+     * @param elements the elements to choose from (left unchanged).
+     * @param count    the maximum number of elements to be returned.
+     * @param order    the order of the elements.
+     * @param <T>      the type of the elements.
+     * @return the first count elements (or fewer, if there aren't enough), in order.
+     */
+    public static <T> ArrayList<T> select(final List<T> elements, final int count,
+                                          final Comparator<? super T> order) {
+        ArrayList<T> result = new ArrayList<>(Math.max(0, Math.min(count, elements.size())));
+        if (count <= 0) {
+            return result;
+        }
+
+        for (T element : elements) {
+            if (result.size() == count) {
+                // an element that isn't strictly before the last one kept doesn't make it
+                if (order.compare(element, result.get(count - 1)) >= 0) {
+                    continue;
+                }
+                result.remove(count - 1);
+            }
+
+            // insert the element after the ones that aren't after it, to keep ties in order
+            int position = result.size();
+            while (position > 0 && order.compare(element, result.get(position - 1)) < 0) {
+                position--;
+            }
+            result.add(position, element);
+        }
+        return result;
+    }
+}
@@ -3,19 +3,21 @@ package main.statisticsCommands;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import fileio.input.audioEntities.Playlist;
 import fileio.input.audioEntities.SongPlayInfo;
-import main.Main;
+import main.commandsHandling.MessageCommand;
 import users.Artist;
 import users.Host;
 import users.NormalUser;
 import fileio.input.wrappedEntities.WrappedFan;
 import fileio.input.wrappedEntities.WrappedGenre;
+import fileio.input.wrappedEntities.WrappedCounter;
 
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Objects;
 import java.util.Random;
 
-public final class UpdateRecommendations extends StandardStatisticsCommand {
+public final class UpdateRecommendations extends StandardStatisticsCommand
+        implements MessageCommand {
     private String username;
     private String recommendationType;
     private static final int MAX_RESULTS = 3;
@@ -29,8 +31,8 @@ public final class UpdateRecommendations extends StandardStatisticsCommand {
     private static final int NUMBER_OF_RANKED_GENRES = 3;
     private static final int NUMBER_OF_RANKED_SONGS = 5;
 
-    // Singleton instance field
-    private static UpdateRecommendations instance = null;
+    // Singleton instance field, one per thread running a simulation
+    private static final ThreadLocal<UpdateRecommendations> INSTANCE = new ThreadLocal<>();
 
     /**
      * Constructs a new UpdateRecommendations with the specified parameters.
@@ -62,9 +64,11 @@ public final class UpdateRecommendations extends StandardStatisticsCommand {
                                                     final Integer timestamp,
                                                     final String recommendationType,
                                                     final ObjectNode node) {
+        UpdateRecommendations instance = INSTANCE.get();
         if (instance == null) {
             instance = new UpdateRecommendations(command, username,
                     timestamp, recommendationType, node);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -88,28 +92,31 @@ public final class UpdateRecommendations extends StandardStatisticsCommand {
         int passedTime = 0;
         switch (user.getLastLoadTypeIndicator()) {
             case TYPE_SONG:
+                // a song that has ended has no session, and no time has passed since then
                 currentSongPlayInfo = user.getLastLoadedSongPlayInfo();
-                passedTime = user.getLastLoadedSongPlayInfo().getCurrentSecond();
+                if (user.getSongSession() != null) {
+                    passedTime = user.getSongSession().getCurrentSecond();
+                }
                 break;
             case TYPE_PLAYLIST:
-                if (!user.getLastLoadedPlaylist().getShuffleStatus()) {
+                if (!user.getPlaylistSession().getShuffleStatus()) {
                     currentSongPlayInfo = user.getLastLoadedPlaylist().getPlaylistSongs().
-                            get(user.getLastLoadedPlaylist().getCurrentSongIndex());
+                            get(user.getPlaylistSession().getCurrentSongIndex());
                 } else {
-                    currentSongPlayInfo = user.getLastLoadedPlaylist().getShuffledPlaylistSongs().
-                            get(user.getLastLoadedPlaylist().getCurrentSongIndex());
+                    currentSongPlayInfo = user.getPlaylistSession().getShuffledSongs().
+                            get(user.getPlaylistSession().getCurrentSongIndex());
                 }
-                passedTime = user.getLastLoadedPlaylist().getCurrentSongSecond();
+                passedTime = user.getPlaylistSession().getCurrentSecond();
                 break;
             case TYPE_ALBUM:
-                if (!user.getLastLoadedAlbum().getShuffleStatus()) {
+                if (!user.getAlbumSession().getShuffleStatus()) {
                     currentSongPlayInfo = user.getLastLoadedAlbum().getSongs().
-                            get(user.getLastLoadedAlbum().getCurrentSongIndex());
+                            get(user.getAlbumSession().getCurrentSongIndex());
                 } else {
-                    currentSongPlayInfo = user.getLastLoadedAlbum().getShuffledSongs().
-                            get(user.getLastLoadedAlbum().getCurrentSongIndex());
+                    currentSongPlayInfo = user.getAlbumSession().getShuffledSongs().
+                            get(user.getAlbumSession().getCurrentSongIndex());
                 }
-                passedTime = user.getLastLoadedAlbum().getCurrentSongSecond();
+                passedTime = user.getAlbumSession().getCurrentSecond();
                 break;
             default:
                 break;
@@ -121,7 +128,7 @@ public final class UpdateRecommendations extends StandardStatisticsCommand {
 
         // create the list of songs that have the same genre as the current song
         ArrayList<SongPlayInfo> songsWithSameGenre = new ArrayList<>();
-        for (SongPlayInfo song : Main.songsList) {
+        for (SongPlayInfo song : context.getSongsList()) {
             if (song.getSong().getGenre().equals(currentSongPlayInfo.
                     getSong().getGenre())) {
                 songsWithSameGenre.add(song);
@@ -154,7 +161,7 @@ public final class UpdateRecommendations extends StandardStatisticsCommand {
         field will contain the sum of the number of likes + appearances in
         playlists created by the user + appearances in playlists followed
         by the user */
-        ArrayList<WrappedGenre> userWrappedGenres = new ArrayList<>();
+        WrappedCounter<WrappedGenre> userWrappedGenres = new WrappedCounter<>();
 
         // browse through the user's liked songs
         for (SongPlayInfo song : user.getLikedSongs()) {
@@ -176,7 +183,7 @@ public final class UpdateRecommendations extends StandardStatisticsCommand {
         }
 
         // sort the list of genres
-        ArrayList<WrappedGenre> top3Genres = getTop3GenresList(userWrappedGenres);
+        ArrayList<WrappedGenre> top3Genres = getTop3GenresList(userWrappedGenres.getEntries());
 
         if (top3Genres.isEmpty()) {
             return "No new recommendations were found";
@@ -211,7 +218,7 @@ public final class UpdateRecommendations extends StandardStatisticsCommand {
         // create a list with all the songs whose genre is the third one
         ArrayList<SongPlayInfo> songsWithThirdGenre = new ArrayList<>();
 
-        for (SongPlayInfo librarySong : Main.songsList) {
+        for (SongPlayInfo librarySong : context.getSongsList()) {
             if (librarySong.getSong().getGenre().equals(top3Genres.get(0).getGenre())) {
                 songsWithFirstGenre.add(librarySong);
             }
@@ -228,8 +235,9 @@ public final class UpdateRecommendations extends StandardStatisticsCommand {
             }
         }
 
-        // sort all the 3 lists of songs by number of likes
-        songsWithFirstGenre = sortSongListByNumberOfLikes(songsWithFirstGenre);
+        // keep only the most liked songs from each of the 3 lists
+        songsWithFirstGenre = getTopSongsByLikes(songsWithFirstGenre, NUMBER_OF_RANKED_SONGS,
+                context.getLeaderboards());
         // add the first 5 songs from the first list to the playlist
         if (songsWithFirstGenre.size() < NUMBER_OF_RANKED_SONGS) {
             randomPlaylist.getPlaylistSongs().addAll(songsWithFirstGenre);
@@ -239,7 +247,8 @@ public final class UpdateRecommendations extends StandardStatisticsCommand {
         }
 
         if (top3Genres.size() >= 2) {
-            songsWithSecondGenre = sortSongListByNumberOfLikes(songsWithSecondGenre);
+            songsWithSecondGenre = getTopSongsByLikes(songsWithSecondGenre,
+                    NUMBER_OF_RANKED_GENRES, context.getLeaderboards());
             // add the first 3 songs from the second list to the playlist
             if (songsWithSecondGenre.size() < NUMBER_OF_RANKED_GENRES) {
                 randomPlaylist.getPlaylistSongs().addAll(songsWithSecondGenre);
@@ -249,7 +258,8 @@ public final class UpdateRecommendations extends StandardStatisticsCommand {
             }
 
             if (top3Genres.size() >= NUMBER_OF_RANKED_GENRES) {
-                songsWithThirdGenre = sortSongListByNumberOfLikes(songsWithThirdGenre);
+                songsWithThirdGenre = getTopSongsByLikes(songsWithThirdGenre, 2,
+                        context.getLeaderboards());
                 // add the first 2 songs from the third list to the playlist
                 if (songsWithThirdGenre.size() < 2) {
                     randomPlaylist.getPlaylistSongs().addAll(songsWithThirdGenre);
@@ -262,24 +272,6 @@ public final class UpdateRecommendations extends StandardStatisticsCommand {
         return randomPlaylist;
     }
 
-    /**
-     * Sorts a list of songs by the number of likes.
-     *
-     * @param songList the list of songs to sort.
-     * @return the sorted list of songs.
-     */
-    ArrayList<SongPlayInfo> sortSongListByNumberOfLikes(final ArrayList<SongPlayInfo> songList) {
-        // sort the Songs list by the NumberOf Likes in descending order
-        songList.sort(new Comparator<SongPlayInfo>() {
-            @Override
-            public int compare(final SongPlayInfo song1, final SongPlayInfo song2) {
-                return song2.getNumberOfLikes() - song1.getNumberOfLikes();
-            }
-        });
-
-        return songList;
-    }
-
     /**
      * Gets the top 3 genres from a list of user-wrapped genres.
      *
@@ -288,9 +280,9 @@ public final class UpdateRecommendations extends StandardStatisticsCommand {
      */
     public ArrayList<WrappedGenre> getTop3GenresList(final ArrayList<WrappedGenre>
                                                              userWrappedGenres) {
-        /* sort the user's wrapped artist list by count of plays in descending
-        order and in case of equality, sort lexicographically */
-        userWrappedGenres.sort(new Comparator<WrappedGenre>() {
+        /* keep the first 3 genres by count of plays in descending order
+        and in case of equality, in lexicographical order */
+        Comparator<WrappedGenre> order = new Comparator<WrappedGenre>() {
             @Override
             public int compare(final WrappedGenre wrappedGenre1, final WrappedGenre wrappedGenre2) {
                 // if the number of listens is equal, sort in lexicographical order
@@ -299,23 +291,8 @@ public final class UpdateRecommendations extends StandardStatisticsCommand {
                 }
                 return wrappedGenre2.getListens() - wrappedGenre1.getListens();
             }
-        });
-
-        // keep only the first 5 objects
-        ArrayList<WrappedGenre> topGenresList = new ArrayList<>();
-
-        // check if we have less than 3 genres
-        if (userWrappedGenres.size() < MAX_RESULTS) {
-            for (int i = 0; i < userWrappedGenres.size(); i++) {
-                topGenresList.add(userWrappedGenres.get(i));
-            }
-            return topGenresList;
-        }
-
-        for (int i = 0; i < MAX_RESULTS; i++) {
-            topGenresList.add(userWrappedGenres.get(i));
-        }
-        return topGenresList;
+        };
+        return TopSelector.select(userWrappedGenres, MAX_RESULTS, order);
     }
 
     /**
@@ -328,32 +305,33 @@ public final class UpdateRecommendations extends StandardStatisticsCommand {
         SongPlayInfo currentSongPlayInfo = identifyLastLoadedSong(user);
 
         // identify the artist of the current song
-        for (Artist artist : Main.artistsList) {
-            if (artist.getUsername().equals(currentSongPlayInfo.getSong().getArtist())) {
-                String playlistName = artist.getUsername() + " Fan Club recommendations";
-                Playlist fansPlaylistRecommendations = new Playlist(playlistName, false,
-                        user.getUsername());
-                ArrayList<WrappedFan> artistFans =  getTopFansList(getArtistFans(artist));
-                if (artistFans.isEmpty()) {
-                    return "No new recommendations were found";
-                }
+        Artist artist = context.getUserRegistry().getArtist(currentSongPlayInfo.getSong()
+                .getArtist());
+        if (artist != null) {
+            String playlistName = artist.getUsername() + " Fan Club recommendations";
+            Playlist fansPlaylistRecommendations = new Playlist(playlistName, false,
+                    user.getUsername());
+            ArrayList<WrappedFan> artistFans =  getTopFansList(getArtistFans(artist));
+            if (artistFans.isEmpty()) {
+                return "No new recommendations were found";
+            }
 
-                // find top 5 songs according to the number of likes for each fan
-                for (WrappedFan fan : artistFans) {
-                    ArrayList<SongPlayInfo> fansSongs = getTruncatedResultTop5Songs(
-                            getSortedSongsByLikes(fan.getNormalUser().getLikedSongs()));
-                    for (SongPlayInfo fanSong : fansSongs) {
-                        if (!fansPlaylistRecommendations.getPlaylistSongs().contains(fanSong)) {
-                            fansPlaylistRecommendations.getPlaylistSongs().add(fanSong);
-                        }
+            // find top 5 songs according to the number of likes for each fan
+            for (WrappedFan fan : artistFans) {
+                ArrayList<SongPlayInfo> fansSongs = getTopSongsByLikes(
+                        fan.getNormalUser().getLikedSongs(), NUMBER_OF_RANKED_SONGS,
+                        context.getLeaderboards());
+                for (SongPlayInfo fanSong : fansSongs) {
+                    if (!fansPlaylistRecommendations.getPlaylistSongs().contains(fanSong)) {
+                        fansPlaylistRecommendations.getPlaylistSongs().add(fanSong);
                     }
                 }
-
-                user.setFansPlaylistRecommendations(fansPlaylistRecommendations);
-                user.setLastRecommendationType("fans_playlist");
-                return "The recommendations for user " + this.getUsername()
-                        + " have been updated successfully.";
             }
+
+            user.setFansPlaylistRecommendations(fansPlaylistRecommendations);
+            user.setLastRecommendationType("fans_playlist");
+            return "The recommendations for user " + this.getUsername()
+                    + " have been updated successfully.";
         }
         return null;
     }
@@ -365,29 +343,28 @@ public final class UpdateRecommendations extends StandardStatisticsCommand {
      */
     public String getCommandMessage() {
         // look for the user in the normal users list
-        for (NormalUser user : Main.normalUserList) {
-            if (user.getUsername().equals(this.getUsername())) {
-                // check if the user has loaded a song / playlist / album
-                if (!user.getLoaded()) {
-                    return "No new recommendations were found";
-                }
+        NormalUser user = context.getUserRegistry().getNormalUser(this.getUsername());
+        if (user != null) {
+            // check if the user has loaded a song / playlist / album
+            if (!user.getLoaded()) {
+                return "No new recommendations were found";
+            }
 
-                if (user.getLastLoadTypeIndicator() == TYPE_PODCAST) {
-                    return "No new recommendations were found";
-                }
+            if (user.getLastLoadTypeIndicator() == TYPE_PODCAST) {
+                return "No new recommendations were found";
+            }
 
-                // call the specific method according to the recommendation type
-                updateLastLoadedEntity(user);
-                switch (this.getRecommendationType()) {
-                    case "random_song":
-                        return getRandomSongRecommendation(user);
-                    case  "random_playlist":
-                        return getRandomPlaylistRecommendation(user);
-                    case "fans_playlist":
-                        return getFansPlaylistRecommendation(user);
-                    default:
-                        break;
-                }
+            // call the specific method according to the recommendation type
+            updateLastLoadedEntity(user);
+            switch (this.getRecommendationType()) {
+                case "random_song":
+                    return getRandomSongRecommendation(user);
+                case  "random_playlist":
+                    return getRandomPlaylistRecommendation(user);
+                case "fans_playlist":
+                    return getFansPlaylistRecommendation(user);
+                default:
+                    break;
             }
         }
 
@@ -395,16 +372,14 @@ public final class UpdateRecommendations extends StandardStatisticsCommand {
         for it in the list of artists and in the list of hosts to see if
         the given username exists, but it doesn't belong to a normal
         user or it doesn't exist at all */
-        for (Artist artist : Main.artistsList) {
-            if (artist.getUsername().equals(this.getUsername())) {
-                return this.getUsername() + " is not a normal user.";
-            }
+        Artist artist = context.getUserRegistry().getArtist(this.getUsername());
+        if (artist != null) {
+            return this.getUsername() + " is not a normal user.";
         }
 
-        for (Host host : Main.hostsList) {
-            if (host.getUsername().equals(this.getUsername())) {
-                return this.getUsername() + " is not a normal user.";
-            }
+        Host host = context.getUserRegistry().getHost(this.getUsername());
+        if (host != null) {
+            return this.getUsername() + " is not a normal user.";
         }
 
         // if we reached this point, it means that the username doesn't exist at all
@@ -418,11 +393,7 @@ public final class UpdateRecommendations extends StandardStatisticsCommand {
      */
     @Override
     public ObjectNode execute() {
-        node.put("command", this.getCommand());
-        node.put("user", this.getUsername());
-        node.put("timestamp", this.getTimestamp());
-        node.put("message", getCommandMessage());
-        return node;
+        return writeMessageOutput();
     }
 
     /**
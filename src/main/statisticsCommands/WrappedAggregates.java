@@ -0,0 +1,166 @@
+package main.statisticsCommands;
+
+import fileio.input.audioEntities.SongPlayInfo;
+import fileio.input.wrappedEntities.WrappedArtist;
+import fileio.input.wrappedEntities.WrappedEpisode;
+import fileio.input.wrappedEntities.WrappedFan;
+import fileio.input.wrappedEntities.WrappedSong;
+import users.NormalUser;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+
+/**
+ * Adds up the wrapped statistics of all normal users while they listen, so that
+ * the wrapped report of an artist or a host doesn't need to go through the
+ * wrapped lists of every user. The totals only count the users that still exist.
+ * The users of a sharded replay add their listens from several threads, so every
+ * method holds the lock of the aggregates.
+ */
+public final class WrappedAggregates implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    // artist name -> song name -> listens of that song from all users
+    private final HashMap<String, HashMap<String, WrappedSong>> songsByArtist;
+
+    // artist name -> user -> listens of that artist from that user (the artist's fans)
+    private final HashMap<String, LinkedHashMap<NormalUser, WrappedFan>> fansByArtist;
+
+    // episode name -> listens of that episode from all users
+    private final HashMap<String, Integer> episodesListens;
+
+    public WrappedAggregates() {
+        songsByArtist = new HashMap<>();
+        fansByArtist = new HashMap<>();
+        episodesListens = new HashMap<>();
+    }
+
+    /**
+     * Adds the listens of a song. The song is counted for the artist of the user's
+     * wrapped song, as the user's wrapped songs are kept by name.
+     *
+     * @param userWrappedSong the user's wrapped song that got the listens.
+     * @param listens         the number of listens to be added.
+     */
+    public synchronized void addSongListens(final WrappedSong userWrappedSong, final int listens) {
+        SongPlayInfo songPlayInfo = userWrappedSong.getSongPlayInfo();
+        HashMap<String, WrappedSong> artistSongs = songsByArtist.computeIfAbsent(
+                songPlayInfo.getSong().getArtist(), artistName -> new HashMap<>());
+
+        WrappedSong artistWrappedSong = artistSongs.get(songPlayInfo.getSong().getName());
+        if (artistWrappedSong != null) {
+            artistWrappedSong.setListens(artistWrappedSong.getListens() + listens);
+            return;
+        }
+        artistWrappedSong = new WrappedSong(songPlayInfo);
+        artistWrappedSong.setListens(listens);
+        artistSongs.put(songPlayInfo.getSong().getName(), artistWrappedSong);
+    }
+
+    /**
+     * Adds the listens of a user to an artist.
+     *
+     * @param user       the user that listened to the artist.
+     * @param artistName the name of the artist.
+     * @param listens    the number of listens to be added.
+     */
+    public synchronized void addFanListens(final NormalUser user, final String artistName,
+                              final int listens) {
+        WrappedFan wrappedFan = fansByArtist.computeIfAbsent(artistName,
+                name -> new LinkedHashMap<>()).computeIfAbsent(user, WrappedFan::new);
+        wrappedFan.setListens(wrappedFan.getListens() + listens);
+    }
+
+    /**
+     * Adds the listens of an episode.
+     *
+     * @param episodeName the name of the episode.
+     * @param listens     the number of listens to be added.
+     */
+    public synchronized void addEpisodeListens(final String episodeName, final int listens) {
+        episodesListens.merge(episodeName, listens, Integer::sum);
+    }
+
+    /**
+     * Takes out everything a user has listened to (used when the user is deleted).
+     *
+     * @param user the user to be taken out.
+     */
+    public synchronized void removeUser(final NormalUser user) {
+        for (WrappedSong userWrappedSong : user.getWrappedSongs()) {
+            SongPlayInfo songPlayInfo = userWrappedSong.getSongPlayInfo();
+            HashMap<String, WrappedSong> artistSongs = songsByArtist.get(
+                    songPlayInfo.getSong().getArtist());
+            if (artistSongs == null) {
+                continue;
+            }
+            WrappedSong artistWrappedSong = artistSongs.get(songPlayInfo.getSong().getName());
+            if (artistWrappedSong == null) {
+                continue;
+            }
+            artistWrappedSong.setListens(artistWrappedSong.getListens()
+                    - userWrappedSong.getListens());
+            if (artistWrappedSong.getListens() <= 0) {
+                artistSongs.remove(songPlayInfo.getSong().getName());
+            }
+        }
+
+        for (WrappedArtist userWrappedArtist : user.getWrappedArtists()) {
+            LinkedHashMap<NormalUser, WrappedFan> fans = fansByArtist.get(
+                    userWrappedArtist.getArtistName());
+            if (fans != null) {
+                fans.remove(user);
+            }
+        }
+
+        for (WrappedEpisode userWrappedEpisode : user.getWrappedEpisodes()) {
+            String episodeName = userWrappedEpisode.getEpisode().getName();
+            int listens = getEpisodeListens(episodeName) - userWrappedEpisode.getListens();
+            if (listens <= 0) {
+                episodesListens.remove(episodeName);
+            } else {
+                episodesListens.put(episodeName, listens);
+            }
+        }
+    }
+
+    /**
+     * Gets the songs of an artist that have been listened to, with the listens of all users.
+     *
+     * @param artistName the name of the artist.
+     * @return a new list with the artist's wrapped songs.
+     */
+    public synchronized ArrayList<WrappedSong> getArtistSongs(final String artistName) {
+        HashMap<String, WrappedSong> artistSongs = songsByArtist.get(artistName);
+        if (artistSongs == null) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(artistSongs.values());
+    }
+
+    /**
+     * Gets the users that have listened to an artist, with their number of listens.
+     *
+     * @param artistName the name of the artist.
+     * @return a new list with the artist's fans.
+     */
+    public synchronized ArrayList<WrappedFan> getArtistFans(final String artistName) {
+        LinkedHashMap<NormalUser, WrappedFan> fans = fansByArtist.get(artistName);
+        if (fans == null) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(fans.values());
+    }
+
+    /**
+     * Gets the listens of an episode from all users.
+     *
+     * @param episodeName the name of the episode.
+     * @return the total number of listens (0 if nobody has listened to it).
+     */
+    public synchronized int getEpisodeListens(final String episodeName) {
+        return episodesListens.getOrDefault(episodeName, 0);
+    }
+}
@@ -2,10 +2,8 @@ package main.statisticsCommands;
 
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import fileio.input.audioEntities.Album;
 import fileio.input.audioEntities.EpisodeInput;
 import fileio.input.audioEntities.PodcastInput;
-import main.Main;
 import users.Artist;
 import users.Host;
 import users.NormalUser;
@@ -14,6 +12,7 @@ import fileio.input.wrappedEntities.WrappedGenre;
 import fileio.input.wrappedEntities.WrappedAlbum;
 import fileio.input.wrappedEntities.WrappedSong;
 import fileio.input.wrappedEntities.WrappedArtist;
+import fileio.input.wrappedEntities.WrappedFan;
 
 import java.util.ArrayList;
 import java.util.Comparator;
@@ -21,7 +20,7 @@ import java.util.Objects;
 
 public final class WrappedCommand extends StandardStatisticsCommand {
     private String username;
-    private static WrappedCommand instance = null;
+    private static final ThreadLocal<WrappedCommand> INSTANCE = new ThreadLocal<>();
     private static final int MAX_RESULTS = 5;
 
     // make constructor private for singleton implementation
@@ -44,8 +43,10 @@ public final class WrappedCommand extends StandardStatisticsCommand {
     public static WrappedCommand getInstance(final String command, final String username,
                                                       final Integer timestamp,
                                                       final ObjectNode node) {
+        WrappedCommand instance = INSTANCE.get();
         if (instance == null) {
             instance = new WrappedCommand(command, username, timestamp, node);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -62,9 +63,10 @@ public final class WrappedCommand extends StandardStatisticsCommand {
      * @return The list of top artists.
      */
     public ArrayList<WrappedArtist> getTopArtistsList(final NormalUser user) {
-        /* sort the user's wrapped artist list by count of plays in descending
-        order and in case of equality, sort lexicographically */
-        user.getWrappedArtists().sort(new Comparator<WrappedArtist>() {
+        /* keep the first 5 of the user's wrapped artists by count of plays in descending
+        order and in case of equality, in lexicographical order (the user's list isn't
+        reordered) */
+        Comparator<WrappedArtist> order = new Comparator<WrappedArtist>() {
             @Override
             public int compare(final WrappedArtist wrappedArtist1,
                                final WrappedArtist wrappedArtist2) {
@@ -74,23 +76,8 @@ public final class WrappedCommand extends StandardStatisticsCommand {
                 }
                 return wrappedArtist2.getListens() - wrappedArtist1.getListens();
             }
-        });
-
-        // keep only the first 5 objects
-        ArrayList<WrappedArtist> topArtistsList = new ArrayList<>();
-
-        // check if we have less than 5 artists
-        if (user.getWrappedArtists().size() < MAX_RESULTS) {
-            for (int i = 0; i < user.getWrappedArtists().size(); i++) {
-                topArtistsList.add(user.getWrappedArtists().get(i));
-            }
-            return topArtistsList;
-        }
-
-        for (int i = 0; i < MAX_RESULTS; i++) {
-            topArtistsList.add(user.getWrappedArtists().get(i));
-        }
-        return topArtistsList;
+        };
+        return TopSelector.select(user.getWrappedArtists(), MAX_RESULTS, order);
     }
 
     /**
@@ -100,9 +87,9 @@ public final class WrappedCommand extends StandardStatisticsCommand {
      * @return The list of top songs.
      */
     public ArrayList<WrappedSong> getTopSongsList(final ArrayList<WrappedSong> wrappedSongList) {
-        /* sort the user's wrapped songs list by count of plays in
-        descending order and in case of equality, sort lexicographically */
-        wrappedSongList.sort(new Comparator<WrappedSong>() {
+        /* keep the first 5 wrapped songs by count of plays in
+        descending order and in case of equality, in lexicographical order */
+        Comparator<WrappedSong> order = new Comparator<WrappedSong>() {
             @Override
             public int compare(final WrappedSong wrappedSong1, final WrappedSong wrappedSong2) {
                 // if the number of listens is equal, sort in lexicographical order
@@ -112,23 +99,8 @@ public final class WrappedCommand extends StandardStatisticsCommand {
                 }
                 return wrappedSong2.getListens() - wrappedSong1.getListens();
             }
-        });
-
-        // keep only the first 5 objects
-        ArrayList<WrappedSong> topSongsList = new ArrayList<>();
-
-        // check if we have less than 5 artists
-        if (wrappedSongList.size() < MAX_RESULTS) {
-            for (int i = 0; i < wrappedSongList.size(); i++) {
-                topSongsList.add(wrappedSongList.get(i));
-            }
-            return topSongsList;
-        }
-
-        for (int i = 0; i < MAX_RESULTS; i++) {
-            topSongsList.add(wrappedSongList.get(i));
-        }
-        return topSongsList;
+        };
+        return TopSelector.select(wrappedSongList, MAX_RESULTS, order);
     }
 
     /**
@@ -138,9 +110,9 @@ public final class WrappedCommand extends StandardStatisticsCommand {
      * @return The list of top genres.
      */
     public ArrayList<WrappedGenre> getTopGenresList(final NormalUser user) {
-        /* sort the user's wrapped genres list by count of plays in
-        descending order and in case of equality, sort lexicographically */
-        user.getWrappedGenres().sort(new Comparator<WrappedGenre>() {
+        /* keep the first 5 of the user's wrapped genres by count of plays in
+        descending order and in case of equality, in lexicographical order */
+        Comparator<WrappedGenre> order = new Comparator<WrappedGenre>() {
             @Override
             public int compare(final WrappedGenre wrappedGenre1, final WrappedGenre wrappedGenre2) {
                 // if the number of listens is equal, sort in lexicographical order
@@ -149,23 +121,8 @@ public final class WrappedCommand extends StandardStatisticsCommand {
                 }
                 return wrappedGenre2.getListens() - wrappedGenre1.getListens();
             }
-        });
-
-        // keep only the first 5 objects
-        ArrayList<WrappedGenre> topGenresList = new ArrayList<>();
-
-        // check if we have less than 5 genres
-        if (user.getWrappedGenres().size() < MAX_RESULTS) {
-            for (int i = 0; i < user.getWrappedGenres().size(); i++) {
-                topGenresList.add(user.getWrappedGenres().get(i));
-            }
-            return topGenresList;
-        }
-
-        for (int i = 0; i < MAX_RESULTS; i++) {
-            topGenresList.add(user.getWrappedGenres().get(i));
-        }
-        return topGenresList;
+        };
+        return TopSelector.select(user.getWrappedGenres(), MAX_RESULTS, order);
     }
 
     /**
@@ -176,9 +133,9 @@ public final class WrappedCommand extends StandardStatisticsCommand {
      */
     public ArrayList<WrappedEpisode> getTopEpisodesList(final ArrayList<WrappedEpisode>
                                                                 wrappedEpisodesList) {
-        /* sort the user's wrapped episodes list by count of plays in descending order
-        and in case of equality, sort lexicographically */
-        wrappedEpisodesList.sort(new Comparator<WrappedEpisode>() {
+        /* keep the first 5 wrapped episodes by count of plays in descending order
+        and in case of equality, in lexicographical order */
+        Comparator<WrappedEpisode> order = new Comparator<WrappedEpisode>() {
             @Override
             public int compare(final WrappedEpisode wrappedEpisode1,
                                final WrappedEpisode wrappedEpisode2) {
@@ -189,23 +146,8 @@ public final class WrappedCommand extends StandardStatisticsCommand {
                 }
                 return wrappedEpisode2.getListens() - wrappedEpisode1.getListens();
             }
-        });
-
-        // keep only the first 5 objects
-        ArrayList<WrappedEpisode> topEpisodesList = new ArrayList<>();
-
-        // check if we have less than 5 artists
-        if (wrappedEpisodesList.size() < MAX_RESULTS) {
-            for (int i = 0; i < wrappedEpisodesList.size(); i++) {
-                topEpisodesList.add(wrappedEpisodesList.get(i));
-            }
-            return topEpisodesList;
-        }
-
-        for (int i = 0; i < MAX_RESULTS; i++) {
-            topEpisodesList.add(wrappedEpisodesList.get(i));
-        }
-        return topEpisodesList;
+        };
+        return TopSelector.select(wrappedEpisodesList, MAX_RESULTS, order);
     }
 
     /**
@@ -216,9 +158,9 @@ public final class WrappedCommand extends StandardStatisticsCommand {
      */
     public ArrayList<WrappedAlbum> getTopAlbumsList(final ArrayList<WrappedAlbum>
                                                             wrappedAlbumsList) {
-        /* sort the user's wrapped albums list by count of plays
-        in descending order and in case of equality, sort lexicographically */
-        wrappedAlbumsList.sort(new Comparator<WrappedAlbum>() {
+        /* keep the first 5 wrapped albums by count of plays
+        in descending order and in case of equality, in lexicographical order */
+        Comparator<WrappedAlbum> order = new Comparator<WrappedAlbum>() {
             @Override
             public int compare(final WrappedAlbum wrappedAlbum1, final WrappedAlbum wrappedAlbum2) {
                 // if the number of listens is equal, sort in lexicographical order
@@ -227,23 +169,8 @@ public final class WrappedCommand extends StandardStatisticsCommand {
                 }
                 return wrappedAlbum2.getListens() - wrappedAlbum1.getListens();
             }
-        });
-
-        // keep only the first 5 objects
-        ArrayList<WrappedAlbum> topAlbumsList = new ArrayList<>();
-
-        // check if we have less than 5 artists
-        if (wrappedAlbumsList.size() < MAX_RESULTS) {
-            for (int i = 0; i < wrappedAlbumsList.size(); i++) {
-                topAlbumsList.add(wrappedAlbumsList.get(i));
-            }
-            return topAlbumsList;
-        }
-
-        for (int i = 0; i < MAX_RESULTS; i++) {
-            topAlbumsList.add(wrappedAlbumsList.get(i));
-        }
-        return topAlbumsList;
+        };
+        return TopSelector.select(wrappedAlbumsList, MAX_RESULTS, order);
     }
 
     /**
@@ -325,46 +252,6 @@ public final class WrappedCommand extends StandardStatisticsCommand {
         return albumsResult;
     }
 
-    /**
-     * Gets a list of wrapped albums for a given artist.
-     *
-     * @param artist The artist for whom the wrapped albums list is retrieved.
-     * @return The list of wrapped albums.
-     */
-    public ArrayList<WrappedAlbum> getArtistWrappedAlbums(final Artist artist) {
-        // get the list of albums paired with their number of listens
-        ArrayList<WrappedAlbum> artistWrappedAlbums = new ArrayList<>();
-
-        for (Album album: artist.getAlbums()) {
-            // populate the list with all the albums of the artist
-            WrappedAlbum artistWrappedAlbum = new WrappedAlbum(album.getName());
-            artistWrappedAlbum.setListens(0);
-            artistWrappedAlbums.add(artistWrappedAlbum);
-
-            updateAlbumListens(album, artistWrappedAlbum);
-        }
-        return artistWrappedAlbums;
-    }
-
-    /**
-     * Updates the listens for a given album based on the listens from all users.
-     *
-     * @param album              The album for which the listens are updated.
-     * @param artistWrappedAlbum The wrapped album object containing the listens.
-     */
-    public void updateAlbumListens(final Album album, final WrappedAlbum
-            artistWrappedAlbum) {
-        // look for the album in the wrappedLists of all users
-        for (NormalUser user : Main.normalUserList) {
-            for (WrappedAlbum userWrappedAlbum : user.getWrappedAlbums()) {
-                if (userWrappedAlbum.getAlbumName().equals(album.getName())) {
-                    artistWrappedAlbum.setListens(userWrappedAlbum.getListens()
-                            + artistWrappedAlbum.getListens());
-                }
-            }
-        }
-    }
-
     /**
      * Gets a list of wrapped songs for a given artist.
      *
@@ -372,48 +259,10 @@ public final class WrappedCommand extends StandardStatisticsCommand {
      * @return The list of wrapped songs.
      */
     public ArrayList<WrappedSong> getArtistWrappedSongs(final Artist artist) {
-        ArrayList<WrappedSong> artistWrappedSongs = new ArrayList<>();
-
-        for (NormalUser user : Main.normalUserList) {
-            for (WrappedSong userWrappedSong : user.getWrappedSongs()) {
-                if (userWrappedSong.getSongPlayInfo().getSong().getArtist().
-                        equals(artist.getUsername())) {
-                    updateListensForSong(artistWrappedSongs, userWrappedSong);
-                }
-            }
-        }
-
-        return artistWrappedSongs;
+        // the listens of all users are added up while they listen
+        return context.getWrappedAggregates().getArtistSongs(artist.getUsername());
     }
 
-    /**
-     * Updates the listens for a given song based on the listens from all users.
-     *
-     * @param artistWrappedSongs The list of wrapped songs for the artist.
-     * @param userWrappedSong    The wrapped song object containing the listens.
-     */
-    public void updateListensForSong(final ArrayList<WrappedSong> artistWrappedSongs,
-                                     final WrappedSong userWrappedSong) {
-        boolean found = false;
-        for (WrappedSong artistWrappedSong : artistWrappedSongs) {
-            if (artistWrappedSong.getSongPlayInfo().getSong().getName().
-                    equals(userWrappedSong.
-                    getSongPlayInfo().getSong().getName())) {
-                artistWrappedSong.setListens(artistWrappedSong.getListens()
-                        + userWrappedSong.getListens());
-                found = true;
-                break;
-            }
-        }
-
-        if (!found) {
-            WrappedSong artistWrappedSong = new WrappedSong(userWrappedSong.getSongPlayInfo());
-            artistWrappedSong.setListens(userWrappedSong.getListens());
-            artistWrappedSongs.add(artistWrappedSong);
-        }
-    }
-
-
     /**
      * Gets a list of wrapped episodes for a given host.
      *
@@ -423,40 +272,27 @@ public final class WrappedCommand extends StandardStatisticsCommand {
     public ArrayList<WrappedEpisode> getHostWrappedEpisodes(final Host host) {
         ArrayList<WrappedEpisode> hostWrappedEpisodes = new ArrayList<>();
 
+        /* only the players of the users with something loaded can move (a player that
+        finishes doesn't load anything else, so the list stays good for every episode) */
+        ArrayList<NormalUser> loadedUsers = context.getLoadedContentRegistry().getLoadedUsers();
         for (PodcastInput hostPodcast : host.getPodcasts()) {
             for (EpisodeInput episode : hostPodcast.getEpisodes()) {
                 // add all episodes of the user to the list
+                /* updateStats doesn't move the last play timestamp, so the users'
+                players are still updated once for every episode */
+                for (NormalUser user : loadedUsers) {
+                    updateStats(user);
+                }
+
                 WrappedEpisode wrappedEpisode = new WrappedEpisode(episode);
-                wrappedEpisode.setListens(0);
+                wrappedEpisode.setListens(context.getWrappedAggregates().getEpisodeListens(
+                        episode.getName()));
                 hostWrappedEpisodes.add(wrappedEpisode);
-
-                updateAllEpisodesListens(wrappedEpisode, episode);
             }
         }
         return hostWrappedEpisodes;
     }
 
-    /**
-     * Updates the listens for a given episode based on the listens from all users.
-     *
-     * @param wrappedEpisode The wrapped episode object containing the listens.
-     * @param episode        The original episode input.
-     */
-    public void updateAllEpisodesListens(final WrappedEpisode wrappedEpisode,
-                                         final EpisodeInput episode) {
-        // update each episode's number of listens
-        for (NormalUser user : Main.normalUserList) {
-            updateStats(user);
-            for (WrappedEpisode userWrappedEpisode : user.getWrappedEpisodes()) {
-                if (userWrappedEpisode.getEpisode().getName().
-                        equals(episode.getName())) {
-                    wrappedEpisode.setListens(wrappedEpisode.getListens()
-                            + userWrappedEpisode.getListens());
-                }
-            }
-        }
-    }
-
     /**
      * Removes wrapped episodes with zero listens from the list.
      *
@@ -523,15 +359,16 @@ public final class WrappedCommand extends StandardStatisticsCommand {
         public void getWrappedResultNode(final Artist artist) {
             ObjectNode result = JsonNodeFactory.instance.objectNode();
 
-            for (NormalUser user : Main.normalUserList) {
+            // only the players of the users with something loaded can move
+            for (NormalUser user : context.getLoadedContentRegistry().getLoadedUsers()) {
                 updateStats(user);
             }
 
             ArrayList<WrappedSong> artistWrappedSongs = getArtistWrappedSongs(artist);
-            ArrayList<WrappedAlbum> artistWrappedAlbums = getArtistWrappedAlbums(artist);
+            ArrayList<WrappedFan> artistFans = getArtistFans(artist);
 
-            if (artistWrappedAlbums.isEmpty() && getArtistWrappedSongs(artist).isEmpty()
-                    && getArtistFans(artist).isEmpty()) {
+            if (artist.getAlbums().isEmpty() && artistWrappedSongs.isEmpty()
+                    && artistFans.isEmpty()) {
                 node.put("message", "No data to show for artist " + getUsername() + ".");
                 return;
             }
@@ -540,9 +377,8 @@ public final class WrappedCommand extends StandardStatisticsCommand {
                     getTopAlbumsList(artist.getWrappedAlbums())));
             result.put("topSongs", getTopSongsNode(
                     getTopSongsList(artistWrappedSongs)));
-            result.putPOJO("topFans", getTopFansListString(getTopFansList(
-                    getArtistFans(artist))));
-            result.put("listeners", getArtistFans(artist).size());
+            result.putPOJO("topFans", getTopFansListString(getTopFansList(artistFans)));
+            result.put("listeners", artistFans.size());
             node.putPOJO("result", result);
         }
 
@@ -569,36 +405,33 @@ public final class WrappedCommand extends StandardStatisticsCommand {
      */
     public void executeCommandAccordingToUserType() {
         // check if the user is a normal one
-        for (NormalUser user : Main.normalUserList) {
-            if (user.getUsername().equals(this.getUsername())) {
-                WrappedExecutionAccordingToUSerType wrappedExecutionAccordingToUSerType;
-                wrappedExecutionAccordingToUSerType = new
-                        WrappedExecutionAccordingToUSerType();
-                wrappedExecutionAccordingToUSerType.getWrappedResultNode(user);
-                return;
-            }
+        NormalUser user = context.getUserRegistry().getNormalUser(this.getUsername());
+        if (user != null) {
+            WrappedExecutionAccordingToUSerType wrappedExecutionAccordingToUSerType;
+            wrappedExecutionAccordingToUSerType = new
+                    WrappedExecutionAccordingToUSerType();
+            wrappedExecutionAccordingToUSerType.getWrappedResultNode(user);
+            return;
         }
 
         // check if the user is an artist
-        for (Artist artist : Main.artistsList) {
-            if (artist.getUsername().equals(this.getUsername())) {
-                WrappedExecutionAccordingToUSerType wrappedExecutionAccordingToUSerType;
-                wrappedExecutionAccordingToUSerType = new
-                        WrappedExecutionAccordingToUSerType();
-                wrappedExecutionAccordingToUSerType.getWrappedResultNode(artist);
-                return;
-            }
+        Artist artist = context.getUserRegistry().getArtist(this.getUsername());
+        if (artist != null) {
+            WrappedExecutionAccordingToUSerType wrappedExecutionAccordingToUSerType;
+            wrappedExecutionAccordingToUSerType = new
+                    WrappedExecutionAccordingToUSerType();
+            wrappedExecutionAccordingToUSerType.getWrappedResultNode(artist);
+            return;
         }
 
         // check if the user is a host
-        for (Host host : Main.hostsList) {
-            if (host.getUsername().equals(this.getUsername())) {
-                WrappedExecutionAccordingToUSerType wrappedExecutionAccordingToUSerType;
-                wrappedExecutionAccordingToUSerType = new
-                        WrappedExecutionAccordingToUSerType();
-                wrappedExecutionAccordingToUSerType.getWrappedResultNode(host);
-                return;
-            }
+        Host host = context.getUserRegistry().getHost(this.getUsername());
+        if (host != null) {
+            WrappedExecutionAccordingToUSerType wrappedExecutionAccordingToUSerType;
+            wrappedExecutionAccordingToUSerType = new
+                    WrappedExecutionAccordingToUSerType();
+            wrappedExecutionAccordingToUSerType.getWrappedResultNode(host);
+            return;
         }
 
         // if we reached this point, it means that the user does not exist
@@ -5,8 +5,8 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 public final class AdBreak extends StandardCommandForUserPlayer {
     private int price;
 
-    // Singleton instance field
-    private static AdBreak instance = null;
+    // Singleton instance field, one per thread running a simulation
+    private static final ThreadLocal<AdBreak> INSTANCE = new ThreadLocal<>();
 
     private AdBreak(final String command, final String username, final Integer timestamp,
                     final ObjectNode node, final int price) {
@@ -27,8 +27,10 @@ public final class AdBreak extends StandardCommandForUserPlayer {
     public static AdBreak getInstance(final String command, final String username,
                                       final Integer timestamp, final ObjectNode node,
                                       final int price) {
+        AdBreak instance = INSTANCE.get();
         if (instance == null) {
             instance = new AdBreak(command, username, timestamp, node, price);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
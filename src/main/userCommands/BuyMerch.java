@@ -3,14 +3,14 @@ package main.userCommands;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import fileio.input.Pagination.ArtistPage;
 import fileio.input.entitiesForArtist.Merch;
-import main.Main;
+import main.commandsHandling.MessageCommand;
 import users.NormalUser;
 
-public final class BuyMerch extends StandardCommandForUserPlayer {
+public final class BuyMerch extends StandardCommandForUserPlayer implements MessageCommand {
     private static final int TYPE_ARTIST = 5;
     private String name;
 
-    private static BuyMerch instance = null;
+    private static final ThreadLocal<BuyMerch> INSTANCE = new ThreadLocal<>();
 
     private BuyMerch(final String command, final String username,
                     final Integer timestamp, final ObjectNode node, final String name) {
@@ -30,8 +30,10 @@ public final class BuyMerch extends StandardCommandForUserPlayer {
      */
     public static BuyMerch getInstance(final String command, final String username,
                     final Integer timestamp, final ObjectNode node, final String name) {
+        BuyMerch instance = INSTANCE.get();
         if (instance == null) {
             instance = new BuyMerch(command, username, timestamp, node, name);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -48,13 +50,8 @@ public final class BuyMerch extends StandardCommandForUserPlayer {
      * @return The command message.
      */
     public String getCommandMessage() {
-        NormalUser user = null;
         // check if the username exists
-        for (NormalUser normalUser : Main.normalUserList) {
-            if (normalUser.getUsername().equals(this.getUsername())) {
-                user = normalUser;
-            }
-        }
+        NormalUser user = context.getUserRegistry().getNormalUser(this.getUsername());
         if (user == null) {
             return "The username " + this.getUsername() + " doesn't exist.";
         }
@@ -85,11 +82,7 @@ public final class BuyMerch extends StandardCommandForUserPlayer {
      * @return The JSON node containing the result of the execution.
      */
     public ObjectNode execute() {
-        node.put("command", this.getCommand());
-        node.put("user", this.getUsername());
-        node.put("timestamp", this.getTimestamp());
-        node.put("message", this.getCommandMessage());
-        return node;
+        return writeMessageOutput();
     }
 
     /**
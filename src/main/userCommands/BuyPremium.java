@@ -1,14 +1,13 @@
 package main.userCommands;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import main.Main;
+import fileio.input.wrappedEntities.WrappedCounter;
+import main.commandsHandling.MessageCommand;
 import users.NormalUser;
 
-import java.util.ArrayList;
-
-public final class BuyPremium extends StandardCommandForUserPlayer {
-    // Singleton instance field
-    private static BuyPremium instance = null;
+public final class BuyPremium extends StandardCommandForUserPlayer implements MessageCommand {
+    // Singleton instance field, one per thread running a simulation
+    private static final ThreadLocal<BuyPremium> INSTANCE = new ThreadLocal<>();
 
     private BuyPremium(final String command, final String username,
                        final Integer timestamp, final ObjectNode node) {
@@ -26,8 +25,10 @@ public final class BuyPremium extends StandardCommandForUserPlayer {
      */
     public static BuyPremium getInstance(final String command, final String username,
                                          final Integer timestamp, final ObjectNode node) {
+        BuyPremium instance = INSTANCE.get();
         if (instance == null) {
             instance = new BuyPremium(command, username, timestamp, node);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -43,13 +44,7 @@ public final class BuyPremium extends StandardCommandForUserPlayer {
      * @return A String message indicating the result of the premium subscription purchase.
      */
     public String getCommandMessage() {
-        NormalUser user = null;
-        for (NormalUser normalUser : Main.normalUserList) {
-            if (normalUser.getUsername().equals(this.getUsername())) {
-                user = normalUser;
-                break;
-            }
-        }
+        NormalUser user = context.getUserRegistry().getNormalUser(this.getUsername());
 
         if (user == null) {
             return "The username " + this.getUsername() + " doesn't exist.";
@@ -63,8 +58,8 @@ public final class BuyPremium extends StandardCommandForUserPlayer {
         /* if we reached this point, it means that the user is not
         premium, so we need to make it premium */
         user.setIsPremium(true);
-        user.setSongsPlayedWhilePremium(new ArrayList<>());
-        user.setArtistsPlayedWhilePremium(new ArrayList<>());
+        user.setSongsPlayedWhilePremium(new WrappedCounter<>());
+        user.setArtistsPlayedWhilePremium(new WrappedCounter<>());
         return this.getUsername() + " bought the subscription successfully.";
 
     }
@@ -75,10 +70,6 @@ public final class BuyPremium extends StandardCommandForUserPlayer {
      * @return The JSON node containing the results of the command execution.
      */
     public ObjectNode execute() {
-        node.put("command", this.getCommand());
-        node.put("user", this.getUsername());
-        node.put("timestamp", this.getTimestamp());
-        node.put("message", getCommandMessage());
-        return node;
+        return writeMessageOutput();
     }
 }
@@ -1,12 +1,12 @@
 package main.userCommands;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import main.Main;
+import main.commandsHandling.MessageCommand;
 import users.NormalUser;
 
-public final class CancelPremium extends StandardCommandForUserPlayer {
-    // Singleton instance field
-    private static CancelPremium instance = null;
+public final class CancelPremium extends StandardCommandForUserPlayer implements MessageCommand {
+    // Singleton instance field, one per thread running a simulation
+    private static final ThreadLocal<CancelPremium> INSTANCE = new ThreadLocal<>();
 
     private CancelPremium(final String command, final String username,
                           final Integer timestamp, final ObjectNode node) {
@@ -24,8 +24,10 @@ public final class CancelPremium extends StandardCommandForUserPlayer {
      */
     public static CancelPremium getInstance(final String command, final String username,
                                              final Integer timestamp, final ObjectNode node) {
+        CancelPremium instance = INSTANCE.get();
         if (instance == null) {
             instance = new CancelPremium(command, username, timestamp, node);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -41,13 +43,7 @@ public final class CancelPremium extends StandardCommandForUserPlayer {
      * @return A String message indicating the result of canceling the premium subscription.
      */
     public String getCommandMessage() {
-        NormalUser user = null;
-        for (NormalUser normalUser : Main.normalUserList) {
-            if (normalUser.getUsername().equals(this.getUsername())) {
-                user = normalUser;
-                break;
-            }
-        }
+        NormalUser user = context.getUserRegistry().getNormalUser(this.getUsername());
 
         if (user == null) {
             return "The username " + this.getUsername() + " doesn't exist.";
@@ -71,10 +67,6 @@ public final class CancelPremium extends StandardCommandForUserPlayer {
      * @return The JSON node containing the results of the command execution.
      */
     public ObjectNode execute() {
-        node.put("command", this.getCommand());
-        node.put("user", this.getUsername());
-        node.put("timestamp", this.getTimestamp());
-        node.put("message", getCommandMessage());
-        return node;
+        return writeMessageOutput();
     }
 }
@@ -1,14 +1,13 @@
 package main.userCommands;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import main.Main;
 import users.NormalUser;
 
 import java.util.ArrayList;
 
 public final class GetNotifications extends StandardCommandForUserPlayer {
-    // Singleton instance field
-    private static GetNotifications instance = null;
+    // Singleton instance field, one per thread running a simulation
+    private static final ThreadLocal<GetNotifications> INSTANCE = new ThreadLocal<>();
 
     private GetNotifications(final String command, final String username,
                              final Integer timestamp, final ObjectNode node) {
@@ -26,8 +25,10 @@ public final class GetNotifications extends StandardCommandForUserPlayer {
      */
     public static GetNotifications getInstance(final String command, final String username,
                                                final Integer timestamp, final ObjectNode node) {
+        GetNotifications instance = INSTANCE.get();
         if (instance == null) {
             instance = new GetNotifications(command, username, timestamp, node);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -47,13 +48,7 @@ public final class GetNotifications extends StandardCommandForUserPlayer {
         node.put("command", this.getCommand());
         node.put("user", this.getUsername());
         node.put("timestamp", this.getTimestamp());
-        NormalUser user = null;
-        for (NormalUser normalUser : Main.normalUserList) {
-            if (normalUser.getUsername().equals(this.getUsername())) {
-                user = normalUser;
-                break;
-            }
-        }
+        NormalUser user = context.getUserRegistry().getNormalUser(this.getUsername());
         if (user == null) {
             node.put("message", this.getUsername() + " doesn't exist.");
             return node;
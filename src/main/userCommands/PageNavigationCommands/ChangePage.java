@@ -6,7 +6,6 @@ import fileio.input.Pagination.HomePage;
 import fileio.input.Pagination.LikedSongsPage;
 import fileio.input.Pagination.ArtistPage;
 import fileio.input.Pagination.HostPage;
-import main.Main;
 import main.userCommands.StandardCommandForUserPlayer;
 import users.Artist;
 import users.Host;
@@ -21,8 +20,8 @@ public final class ChangePage extends StandardCommandForUserPlayer {
 
     private static final int TYPE_ALBUM = 4;
 
-    // Singleton instance field
-    private static ChangePage instance = null;
+    // Singleton instance field, one per thread running a simulation
+    private static final ThreadLocal<ChangePage> INSTANCE = new ThreadLocal<>();
 
     private ChangePage(final String command, final String username, final Integer timestamp,
                        final ObjectNode node, final String nextPage) {
@@ -43,8 +42,10 @@ public final class ChangePage extends StandardCommandForUserPlayer {
     public static ChangePage getInstance(final String command, final String username,
                                          final Integer timestamp, final ObjectNode node,
                                          final String nextPage) {
+        ChangePage instance = INSTANCE.get();
         if (instance == null) {
             instance = new ChangePage(command, username, timestamp, node, nextPage);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -99,82 +100,65 @@ public final class ChangePage extends StandardCommandForUserPlayer {
             return this.username + " is trying to access a non-existent page.";
         }
 
-        for (NormalUser user : Main.normalUserList) {
-            if (user.getUsername().equals(this.username)) {
-                switch (this.getNextPage()) {
-                    case "Home":
-                        Page homePage = new HomePage(user);
-                        user.getPageHistory().add(homePage);
-                        break;
-                    case "LikedContent":
-                        Page likedSongsPage = new LikedSongsPage(user);
-                        user.getPageHistory().add(likedSongsPage);
-                        break;
-                    case "Artist":
-                        // get the artist of the last loaded audiofile
-                        if (user.getLastLoadTypeIndicator() == TYPE_PODCAST) {
-                            return this.username + " is trying to access a non-existent page.";
-                        }
-
-                        Artist artistPageOwner = null;
-                        switch (user.getLastLoadTypeIndicator()) {
-                            case TYPE_SONG:
-                                for (Artist artist : Main.artistsList) {
-                                    if (artist.getUsername().equals(user.
-                                            getLastLoadedSongPlayInfo().getSong().getArtist())) {
-                                        artistPageOwner = artist;
-                                        break;
-                                    }
-                                }
-                                break;
-                            case TYPE_ALBUM:
-                                for (Artist artist : Main.artistsList) {
-                                    if (artist.getUsername().equals(user.getLastLoadedAlbum().
-                                            getSongs().get(0).getSong().getArtist())) {
-                                        artistPageOwner = artist;
-                                        break;
-                                    }
-                                }
-                                break;
-                            case TYPE_PLAYLIST:
-                                for (Artist artist : Main.artistsList) {
-                                    if (artist.getUsername().equals(user.getLastLoadedPlaylist().
-                                            getPlaylistSongs().get(user.getLastLoadedPlaylist().
-                                                    getCurrentSongIndex()).getSong().getArtist())) {
-                                        artistPageOwner = artist;
-                                        break;
-                                    }
-                                }
-                                break;
-                            default:
-                                break;
-                        }
-                        if (artistPageOwner == null) {
-                            return this.username + " is trying to access a non-existent page.";
-                        }
-
-                        Page artistPage = new ArtistPage(artistPageOwner);
-                        user.getPageHistory().add(artistPage);
-                        break;
-                    case "Host":
-                        // get the host of the last loaded audiofile
-                        if (user.getLastLoadTypeIndicator() != TYPE_PODCAST) {
-                            return this.username + " is trying to access a non-existent page.";
-                        }
-                        for (Host host : Main.hostsList) {
-                            if (host.getUsername().equals(user.getLastLoadedPodcast().
-                                    getPodcast().getOwner())) {
-                                Page hostPage = new HostPage(host);
-                                user.getPageHistory().add(hostPage);
-                                break;
-                            }
-                        }
-                        break;
-                    default:
-                        break;
-                }
-                user.setCurrentPageIndex(user.getPageHistory().size() - 1);
+        NormalUser user = context.getUserRegistry().getNormalUser(this.username);
+        if (user != null) {
+            switch (this.getNextPage()) {
+                case "Home":
+                    Page homePage = new HomePage(user);
+                    user.getPageHistory().add(homePage);
+                    break;
+                case "LikedContent":
+                    Page likedSongsPage = new LikedSongsPage(user);
+                    user.getPageHistory().add(likedSongsPage);
+                    break;
+                case "Artist":
+                    // get the artist of the last loaded audiofile
+                    if (user.getLastLoadTypeIndicator() == TYPE_PODCAST) {
+                        return this.username + " is trying to access a non-existent page.";
+                    }
+
+                    Artist artistPageOwner = null;
+                    switch (user.getLastLoadTypeIndicator()) {
+                        case TYPE_SONG:
+                            artistPageOwner = context.getUserRegistry().getArtist(user.
+                                    getLastLoadedSongPlayInfo().getSong().getArtist());
+                            break;
+                        case TYPE_ALBUM:
+                            artistPageOwner = context.getUserRegistry().getArtist(user.
+                                    getLastLoadedAlbum().getSongs().get(0).getSong().getArtist());
+                            break;
+                        case TYPE_PLAYLIST:
+                            artistPageOwner = context.getUserRegistry().getArtist(user.
+                                    getLastLoadedPlaylist().getPlaylistSongs().get(user.
+                                            getPlaylistSession().getCurrentSongIndex()).
+                                    getSong().getArtist());
+                            break;
+                        default:
+                            break;
+                    }
+                    if (artistPageOwner == null) {
+                        return this.username + " is trying to access a non-existent page.";
+                    }
+
+                    Page artistPage = new ArtistPage(artistPageOwner);
+                    user.getPageHistory().add(artistPage);
+                    break;
+                case "Host":
+                    // get the host of the last loaded audiofile
+                    if (user.getLastLoadTypeIndicator() != TYPE_PODCAST) {
+                        return this.username + " is trying to access a non-existent page.";
+                    }
+                    Host host = context.getUserRegistry().getHost(user.getLastLoadedPodcast().
+                            getPodcast().getOwner());
+                    if (host != null) {
+                        Page hostPage = new HostPage(host);
+                        user.getPageHistory().add(hostPage);
+                    }
+                    break;
+                default:
+                    break;
             }
+            user.setCurrentPageIndex(user.getPageHistory().size() - 1);
         }
         return this.username + " accessed " + this.getNextPage() + " successfully.";
     }
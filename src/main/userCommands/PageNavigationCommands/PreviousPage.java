@@ -1,13 +1,12 @@
 package main.userCommands.PageNavigationCommands;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import main.Main;
 import main.userCommands.StandardCommandForUserPlayer;
 import users.NormalUser;
 
 public final class PreviousPage extends StandardCommandForUserPlayer {
-    // Singleton instance field
-    private static PreviousPage instance = null;
+    // Singleton instance field, one per thread running a simulation
+    private static final ThreadLocal<PreviousPage> INSTANCE = new ThreadLocal<>();
 
     private PreviousPage(final String command, final String username, final Integer timestamp,
                          final ObjectNode node) {
@@ -25,8 +24,10 @@ public final class PreviousPage extends StandardCommandForUserPlayer {
      */
     public static PreviousPage getInstance(final String command, final String username,
                                            final Integer timestamp, final ObjectNode node) {
+        PreviousPage instance = INSTANCE.get();
         if (instance == null) {
             instance = new PreviousPage(command, username, timestamp, node);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -63,10 +64,9 @@ public final class PreviousPage extends StandardCommandForUserPlayer {
         node.put("user", this.getUsername());
         node.put("timestamp", this.getTimestamp());
 
-        for (NormalUser user : Main.normalUserList) {
-            if (user.getUsername().equals(this.getUsername())) {
-                node.put("message", getCommandExecutionMessage(user));
-            }
+        NormalUser user = context.getUserRegistry().getNormalUser(this.getUsername());
+        if (user != null) {
+            node.put("message", getCommandExecutionMessage(user));
         }
 
         return node;
@@ -1,7 +1,6 @@
 package main.userCommands.PageNavigationCommands;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import main.Main;
 import main.userCommands.StandardCommandForUserPlayer;
 import users.NormalUser;
 
@@ -11,7 +10,7 @@ public final class PrintCurrentPage extends StandardCommandForUserPlayer {
     private static final int TYPE_ARTIST = 5;
     private static final int TYPE_HOST = 6;
     private static final int MAX_RESULTS = 5;
-    private static PrintCurrentPage instance = null;
+    private static final ThreadLocal<PrintCurrentPage> INSTANCE = new ThreadLocal<>();
 
     /**
      * Constructs a new PrintCurrentPage command with the specified parameters.
@@ -35,8 +34,10 @@ public final class PrintCurrentPage extends StandardCommandForUserPlayer {
      */
     public static PrintCurrentPage getInstance(final String command, final String username,
                                                final Integer timestamp, final ObjectNode node) {
+        PrintCurrentPage instance = INSTANCE.get();
         if (instance == null) {
             instance = new PrintCurrentPage(command, username, timestamp, node);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -56,18 +57,17 @@ public final class PrintCurrentPage extends StandardCommandForUserPlayer {
         node.put("command", this.getCommand());
         node.put("timestamp", this.getTimestamp());
 
-        for (NormalUser user : Main.normalUserList) {
-            if (user.getUsername().equals(this.getUsername())) {
-                // check if the user is online
-                if (!user.getConnectionStatus()) {
-                    node.put("message", this.getUsername() + " is offline.");
-                    ArrayList<String> result = new ArrayList<>();
-                    return node;
-                }
-
-                node.put("message", user.getPageHistory().
-                        get(user.getCurrentPageIndex()).pageToString());
+        NormalUser user = context.getUserRegistry().getNormalUser(this.getUsername());
+        if (user != null) {
+            // check if the user is online
+            if (!user.getConnectionStatus()) {
+                node.put("message", this.getUsername() + " is offline.");
+                ArrayList<String> result = new ArrayList<>();
+                return node;
             }
+
+            node.put("message", user.getPageHistory().
+                    get(user.getCurrentPageIndex()).pageToString());
         }
         return node;
     }
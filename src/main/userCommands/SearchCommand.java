@@ -1,14 +1,13 @@
 package main.userCommands;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import fileio.input.LibraryInput;
+import fileio.input.LibraryCatalog;
 import fileio.input.Filters;
 import fileio.input.audioEntities.Playlist;
 import fileio.input.audioEntities.PodcastInput;
 import fileio.input.audioEntities.PodcastPlayInfo;
 import fileio.input.audioEntities.SongPlayInfo;
 import fileio.input.audioEntities.Album;
-import main.Main;
 import users.Artist;
 import users.Host;
 import users.NormalUser;
@@ -25,16 +24,16 @@ public final class SearchCommand extends StandardCommandForUserPlayer {
     private static final int TYPE_ARTIST = 5;
     private static final int TYPE_HOST = 6;
 
-    private final LibraryInput library;
+    private final LibraryCatalog library;
     private String type;
     private Filters filters;
 
     /**
      * Retrieves the library associated with this SearchCommand.
      *
-     * @return the LibraryInput object associated with this SearchCommand.
+     * @return the LibraryCatalog object associated with this SearchCommand.
      */
-    public LibraryInput getLibrary() {
+    public LibraryCatalog getLibrary() {
         return library;
     }
 
@@ -74,8 +73,8 @@ public final class SearchCommand extends StandardCommandForUserPlayer {
         this.filters = filters;
     }
 
-    // instance field that will help implement the singleton design pattern
-    private static SearchCommand instance = null;
+    // instance field that will help implement the singleton design pattern (one per thread)
+    private static final ThreadLocal<SearchCommand> INSTANCE = new ThreadLocal<>();
 
     /**
      * Gets the singleton instance of SearchCommand.
@@ -83,7 +82,7 @@ public final class SearchCommand extends StandardCommandForUserPlayer {
      * @return the singleton instance of SearchCommand.
      */
     public static SearchCommand getInstance() {
-        return instance;
+        return INSTANCE.get();
     }
 
     /**
@@ -92,13 +91,13 @@ public final class SearchCommand extends StandardCommandForUserPlayer {
      * @param instance the singleton instance of SearchCommand.
      */
     public static void setInstance(final SearchCommand instance) {
-        SearchCommand.instance = instance;
+        INSTANCE.set(instance);
     }
 
     /**
      * Constructs a new SearchCommand with the specified parameters.
      *
-     * @param library   the LibraryInput associated with this SearchCommand.
+     * @param library   the LibraryCatalog associated with this SearchCommand.
      * @param username  the username associated with the command.
      * @param timestamp the timestamp of the command.
      * @param type      the type of media entities to be searched.
@@ -107,7 +106,7 @@ public final class SearchCommand extends StandardCommandForUserPlayer {
      */
 
     // make constructor private for the singleton design pattern
-    private SearchCommand(final LibraryInput library, final String command, final String username,
+    private SearchCommand(final LibraryCatalog library, final String command, final String username,
                           final Integer timestamp, final String type, final Filters filters,
                           final ObjectNode node) {
         super(command, timestamp, node, username);
@@ -119,7 +118,7 @@ public final class SearchCommand extends StandardCommandForUserPlayer {
     /**
      * Gets the singleton instance of SearchCommand.
      *
-     * @param library   the LibraryInput associated with the command.
+     * @param library   the LibraryCatalog associated with the command.
      * @param username  the username associated with the command.
      * @param timestamp the timestamp of the command.
      * @param type      the type of media entities to be searched.
@@ -127,13 +126,15 @@ public final class SearchCommand extends StandardCommandForUserPlayer {
      * @param node      the JSON node associated with the command.
      * @return the singleton instance of SearchCommand.
      */
-    public static SearchCommand getInstance(final LibraryInput library, final String command,
+    public static SearchCommand getInstance(final LibraryCatalog library, final String command,
                                             final String username,
                                             final Integer timestamp, final String type,
                                             final Filters filters, final ObjectNode node) {
+        SearchCommand instance = INSTANCE.get();
         if (instance == null) {
             instance = new SearchCommand(library, command, username, timestamp,
                     type, filters, node);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -166,18 +167,16 @@ public final class SearchCommand extends StandardCommandForUserPlayer {
         /* the search command removes the last loaded entity from the player, so, before
         conducting another search, we need to update the status of the last audio entity
         loaded in the player for the wrapped command */
-        for (NormalUser user : Main.normalUserList) {
-            if (user.getUsername().equals(this.getUsername())) {
-                updateLastLoadedEntity(user);
-            }
+        NormalUser user = context.getUserRegistry().getNormalUser(this.getUsername());
+        if (user != null) {
+            updateLastLoadedEntity(user);
         }
 
         switch (this.getType()) {
             case "song":
                 SearchCommand.SearchCommandForSongs searchCommandForSongs;
                 searchCommandForSongs = this.new SearchCommandForSongs();
-                ArrayList<SongPlayInfo> resultSong =
-                        searchCommandForSongs.executeSearch(Main.songsList);
+                ArrayList<SongPlayInfo> resultSong = searchCommandForSongs.executeSearch();
                 node.put("message", "Search returned " + resultSong.size() + " results");
                 node.putPOJO("results", searchCommandForSongs.getResultsNames(resultSong));
                 break;
@@ -185,23 +184,21 @@ public final class SearchCommand extends StandardCommandForUserPlayer {
                 SearchCommand.SearchCommandForPodcasts searchCommandForPodcasts;
                 searchCommandForPodcasts = this.new SearchCommandForPodcasts();
                 ArrayList<PodcastInput> resultPodcast =
-                        searchCommandForPodcasts.executeSearch(Main.podcastsList);
+                        searchCommandForPodcasts.executeSearch(context.getPodcastsList());
                 node.put("message", "Search returned " + resultPodcast.size() + " results");
                 node.putPOJO("results", searchCommandForPodcasts.getResultsNames(resultPodcast));
                 break;
             case "playlist":
-                for (NormalUser user : Main.normalUserList) {
-                    if (user.getUsername().equals(this.getUsername())) {
-                        // search in the playlists owned by the user
-                        SearchCommand.SearchCommandForPlaylists searchCommandForPlaylists;
-                        searchCommandForPlaylists = this.new SearchCommandForPlaylists();
-                        ArrayList<Playlist> resultPlaylist =
-                                searchCommandForPlaylists.executeSearch(user.getPlaylists());
-                        node.put("message", "Search returned " + resultPlaylist.size()
-                                + " results");
-                        node.putPOJO("results",
-                                searchCommandForPlaylists.getResultsNames(resultPlaylist));
-                    }
+                if (user != null) {
+                    // search in the playlists owned by the user
+                    SearchCommand.SearchCommandForPlaylists searchCommandForPlaylists;
+                    searchCommandForPlaylists = this.new SearchCommandForPlaylists();
+                    ArrayList<Playlist> resultPlaylist =
+                            searchCommandForPlaylists.executeSearch(user.getPlaylists());
+                    node.put("message", "Search returned " + resultPlaylist.size()
+                            + " results");
+                    node.putPOJO("results",
+                            searchCommandForPlaylists.getResultsNames(resultPlaylist));
                 }
                 break;
             case "album":
@@ -230,23 +227,19 @@ public final class SearchCommand extends StandardCommandForUserPlayer {
         }
 
         // search acts like the pause command on podcasts running in the player
-
-        for (NormalUser user : Main.normalUserList) {
-            if (user.getUsername().equals(this.getUsername())) {
-                user.setLoaded(false);
-                user.setSelected(false);
-                user.setLastSelectedSong(null);
-                user.setLastSelectedPodcast(null);
-                user.setLastSelectedPlaylist(null);
-                user.setLastSelectedAlbum(null);
-                // check if there is any podcast playing
-                if (user.getLastLoadedPodcast() != null) {
-                    if (!user.getLastLoadedPodcast().getPodcastPaused()) {
-                        PodcastPlayInfo podcast = user.getLastLoadedPodcast();
-                        podcast.updatePodcastStatus(user, this.getTimestamp());
-                    }
+        if (user != null) {
+            user.setLoaded(false);
+            user.setSelected(false);
+            user.setLastSelectedSong(null);
+            user.setLastSelectedPodcast(null);
+            user.setLastSelectedPlaylist(null);
+            user.setLastSelectedAlbum(null);
+            // check if there is any podcast playing
+            if (user.getLastLoadedPodcast() != null) {
+                if (!user.getLastLoadedPodcast().getPodcastPaused()) {
+                    PodcastPlayInfo podcast = user.getLastLoadedPodcast();
+                    podcast.updatePodcastStatus(user, this.getTimestamp());
                 }
-
             }
         }
 
@@ -255,94 +248,103 @@ public final class SearchCommand extends StandardCommandForUserPlayer {
 
     public class SearchCommandForSongs {
         /**
-         * Searches for songs in the given list based on specified filters.
+         * Searches for songs in the catalog based on specified filters. Only the songs
+         * of the most selective indexed filter are checked, in catalog order, and the
+         * search stops as soon as there are enough results.
          *
-         * @param songList the list of songs to search within.
          * @return an ArrayList of SongInput objects that match the search criteria
          * (truncated to only max 5 elements).
          */
-        public ArrayList<SongPlayInfo> executeSearch(final ArrayList<SongPlayInfo> songList) {
+        public ArrayList<SongPlayInfo> executeSearch() {
             ArrayList<SongPlayInfo> result = new ArrayList<>();
-            for (SongPlayInfo songPlayInfo : songList) {
-                if (filters.getName() != null) {
-                    // name is one of the filters
-                    if (!songPlayInfo.getSong().getName().toLowerCase().
-                            startsWith(filters.getName().toLowerCase())) {
-                        continue;
-                    }
+            for (SongPlayInfo songPlayInfo : context.getSongSearchIndex().getCandidates(filters)) {
+                if (result.size() == MAX_SEARCH_RESULTS) {
+                    // keep only the first 5 songs that resulted from the search
+                    break;
                 }
-                if (filters.getAlbum() != null) {
-                    // album is one of the filters
-                    if (!songPlayInfo.getSong().getAlbum().equalsIgnoreCase(filters.getAlbum())) {
-                        continue;
-                    }
+                if (matchesFilters(songPlayInfo)) {
+                    result.add(songPlayInfo);
                 }
-                if (filters.getTags() != null) {
-                    // the tag list is one of the filters
-                    if (!songPlayInfo.getSong().getTags().containsAll(filters.getTags())) {
-                        continue;
-                    }
+            }
+
+            NormalUser user = context.getUserRegistry().getNormalUser(username);
+            if (user != null) {
+                user.setLastSongSearchResult(result);
+                user.setSearched(true);
+                user.setLastSearchTypeIndicator(TYPE_SONG);
+            }
+            return result;
+        }
+
+        /**
+         * Checks if a song respects all the filters of the search.
+         *
+         * @param songPlayInfo the song to be checked.
+         * @return true if the song respects all the filters, false otherwise.
+         */
+        public boolean matchesFilters(final SongPlayInfo songPlayInfo) {
+            if (filters.getName() != null) {
+                // name is one of the filters
+                if (!songPlayInfo.getSong().getName().toLowerCase().
+                        startsWith(filters.getName().toLowerCase())) {
+                    return false;
                 }
-                if (filters.getLyrics() != null) {
-                    // lyrics is one of the filters
-                    if (!songPlayInfo.getSong().getLyrics().toLowerCase()
-                            .contains(filters.getLyrics().toLowerCase())) {
-                        continue;
-                    }
+            }
+            if (filters.getAlbum() != null) {
+                // album is one of the filters
+                if (!songPlayInfo.getSong().getAlbum().equalsIgnoreCase(filters.getAlbum())) {
+                    return false;
                 }
-                if (filters.getGenre() != null) {
-                    // genre is one of the filters
-                    if (!songPlayInfo.getSong().getGenre().equalsIgnoreCase(filters.getGenre())) {
-                        continue;
-                    }
+            }
+            if (filters.getTags() != null) {
+                // the tag list is one of the filters
+                if (!songPlayInfo.getSong().getTags().containsAll(filters.getTags())) {
+                    return false;
                 }
-                if (filters.getReleaseYear() != null) {
-                    // extract the operator from the string
-                    char operator = filters.getReleaseYear().charAt(0);
-                    String digitStringReleaseYear = filters.getReleaseYear().substring(1);
-                    Integer intValueOfReleaseYear = Integer.parseInt(digitStringReleaseYear);
-                    if (operator == '>') {
-                        if (songPlayInfo.getSong().getReleaseYear() <= intValueOfReleaseYear) {
-                            continue;
+            }
+            if (filters.getLyrics() != null) {
+                // lyrics is one of the filters
+                if (!context.getSongSearchIndex().getLowerCaseLyrics(songPlayInfo)
+                        .contains(filters.getLyrics().toLowerCase())) {
+                    return false;
+                }
+            }
+            if (filters.getGenre() != null) {
+                // genre is one of the filters
+                if (!songPlayInfo.getSong().getGenre().equalsIgnoreCase(filters.getGenre())) {
+                    return false;
+                }
+            }
+            if (filters.getReleaseYear() != null) {
+                // extract the operator from the string
+                char operator = filters.getReleaseYear().charAt(0);
+                String digitStringReleaseYear = filters.getReleaseYear().substring(1);
+                Integer intValueOfReleaseYear = Integer.parseInt(digitStringReleaseYear);
+                if (operator == '>') {
+                    if (songPlayInfo.getSong().getReleaseYear() <= intValueOfReleaseYear) {
+                        return false;
+                    }
+                } else {
+                    if (operator == '<') {
+                        if (songPlayInfo.getSong().getReleaseYear() >= intValueOfReleaseYear) {
+                            return false;
                         }
                     } else {
-                        if (operator == '<') {
-                            if (songPlayInfo.getSong().getReleaseYear() >= intValueOfReleaseYear) {
-                                continue;
-                            }
-                        } else {
-                            // it means that the operator is '='
-                            if (songPlayInfo.getSong().getReleaseYear() != intValueOfReleaseYear) {
-                                continue;
-                            }
+                        // it means that the operator is '='
+                        if (songPlayInfo.getSong().getReleaseYear() != intValueOfReleaseYear) {
+                            return false;
                         }
                     }
                 }
-                if (filters.getArtist() != null) {
-                    if (!songPlayInfo.getSong().getArtist().equalsIgnoreCase(filters.getArtist())) {
-                        continue;
-                    }
-                }
-
-                // if we have reached this point, it means that all the filters were respected
-                result.add(songPlayInfo);
             }
-
-            // keep only the first 5 songs that resulted from the search
-            if (result.size() > MAX_SEARCH_RESULTS) {
-                for (int i = result.size() - 1; i >= MAX_SEARCH_RESULTS; i--) {
-                    result.remove(i);
+            if (filters.getArtist() != null) {
+                if (!songPlayInfo.getSong().getArtist().equalsIgnoreCase(filters.getArtist())) {
+                    return false;
                 }
             }
 
-            for (NormalUser user : Main.normalUserList) {
-                if (user.getUsername().equals(username)) {
-                    user.setLastSongSearchResult(result);
-                    user.setSearched(true);
-                    user.setLastSearchTypeIndicator(TYPE_SONG);
-                }
-            }
-            return result;
+            // if we have reached this point, it means that all the filters were respected
+            return true;
         }
 
         /**
@@ -394,12 +396,11 @@ public final class SearchCommand extends StandardCommandForUserPlayer {
                 }
             }
 
-            for (NormalUser user : Main.normalUserList) {
-                if (user.getUsername().equals(username)) {
-                    user.setLastPodcastSearchResult(result);
-                    user.setLastSearchTypeIndicator(TYPE_PODCAST);
-                    user.setSearched(true);
-                }
+            NormalUser user = context.getUserRegistry().getNormalUser(username);
+            if (user != null) {
+                user.setLastPodcastSearchResult(result);
+                user.setLastSearchTypeIndicator(TYPE_PODCAST);
+                user.setSearched(true);
             }
 
             return result;
@@ -430,7 +431,7 @@ public final class SearchCommand extends StandardCommandForUserPlayer {
          */
         public ArrayList<Playlist> executeSearch(final ArrayList<Playlist> playlists) {
             ArrayList<Playlist> result = new ArrayList<>();
-            for (NormalUser user : Main.normalUserList) {
+            for (NormalUser user : context.getNormalUserList()) {
                 for (Playlist playlist : user.getPlaylists()) {
                     if (!playlist.getVisibility() || playlist.getOwner().equals(username)) {
                         if (filters.getName() != null) {
@@ -457,12 +458,11 @@ public final class SearchCommand extends StandardCommandForUserPlayer {
                     result.remove(i);
                 }
             }
-            for (NormalUser user : Main.normalUserList) {
-                if (user.getUsername().equals(username)) {
-                    user.setLastPlaylistSearchResult(result);
-                    user.setLastSearchTypeIndicator(TYPE_PLAYLIST);
-                    user.setSearched(true);
-                }
+            NormalUser user = context.getUserRegistry().getNormalUser(username);
+            if (user != null) {
+                user.setLastPlaylistSearchResult(result);
+                user.setLastSearchTypeIndicator(TYPE_PLAYLIST);
+                user.setSearched(true);
             }
             return result;
         }
@@ -491,7 +491,7 @@ public final class SearchCommand extends StandardCommandForUserPlayer {
          */
         public ArrayList<Album> executeSearch() {
             ArrayList<Album> result = new ArrayList<>();
-            for (Artist artist : Main.artistsList) {
+            for (Artist artist : context.getArtistsList()) {
                 if (filters.getOwner() != null) {
                     if (!artist.getUsername().toLowerCase().
                             startsWith(filters.getOwner().toLowerCase())) {
@@ -527,12 +527,11 @@ public final class SearchCommand extends StandardCommandForUserPlayer {
                 }
             }
 
-            for (NormalUser user : Main.normalUserList) {
-                if (user.getUsername().equals(username)) {
-                    user.setLastAlbumSearchResult(result);
-                    user.setLastSearchTypeIndicator(TYPE_ALBUM);
-                    user.setSearched(true);
-                }
+            NormalUser user = context.getUserRegistry().getNormalUser(username);
+            if (user != null) {
+                user.setLastAlbumSearchResult(result);
+                user.setLastSearchTypeIndicator(TYPE_ALBUM);
+                user.setSearched(true);
             }
 
             return result;
@@ -562,7 +561,7 @@ public final class SearchCommand extends StandardCommandForUserPlayer {
          */
         public ArrayList<Artist> executeSearch() {
             ArrayList<Artist> result = new ArrayList<>();
-            for (Artist artist : Main.artistsList) {
+            for (Artist artist : context.getArtistsList()) {
                 if (filters.getName() != null) {
                     if (!artist.getUsername().toLowerCase().
                             startsWith(filters.getName().toLowerCase())) {
@@ -581,12 +580,11 @@ public final class SearchCommand extends StandardCommandForUserPlayer {
                 }
             }
 
-            for (NormalUser user : Main.normalUserList) {
-                if (user.getUsername().equals(username)) {
-                    user.setLastArtistSearchResult(result);
-                    user.setLastSearchTypeIndicator(TYPE_ARTIST);
-                    user.setSearched(true);
-                }
+            NormalUser user = context.getUserRegistry().getNormalUser(username);
+            if (user != null) {
+                user.setLastArtistSearchResult(result);
+                user.setLastSearchTypeIndicator(TYPE_ARTIST);
+                user.setSearched(true);
             }
 
             return result;
@@ -616,7 +614,7 @@ public final class SearchCommand extends StandardCommandForUserPlayer {
          */
         public ArrayList<Host> executeSearch() {
             ArrayList<Host> result = new ArrayList<>();
-            for (Host host : Main.hostsList) {
+            for (Host host : context.getHostsList()) {
                 if (filters.getName() != null) {
                     if (!host.getUsername().toLowerCase().
                             startsWith(filters.getName().toLowerCase())) {
@@ -635,12 +633,11 @@ public final class SearchCommand extends StandardCommandForUserPlayer {
                 }
             }
 
-            for (NormalUser user : Main.normalUserList) {
-                if (user.getUsername().equals(username)) {
-                    user.setLastHostSearchResult(result);
-                    user.setLastSearchTypeIndicator(TYPE_HOST);
-                    user.setSearched(true);
-                }
+            NormalUser user = context.getUserRegistry().getNormalUser(username);
+            if (user != null) {
+                user.setLastHostSearchResult(result);
+                user.setLastSearchTypeIndicator(TYPE_HOST);
+                user.setSearched(true);
             }
 
             return result;
@@ -2,13 +2,12 @@ package main.userCommands;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import fileio.input.entitiesForArtist.Merch;
-import main.Main;
 import users.NormalUser;
 
 import java.util.ArrayList;
 
 public final class SeeMerch extends StandardCommandForUserPlayer {
-    private static SeeMerch instance = null;
+    private static final ThreadLocal<SeeMerch> INSTANCE = new ThreadLocal<>();
 
     private SeeMerch(final String command, final String username,
                     final Integer timestamp, final ObjectNode node) {
@@ -26,8 +25,10 @@ public final class SeeMerch extends StandardCommandForUserPlayer {
      */
     public static SeeMerch getInstance(final String command, final String username,
                                         final Integer timestamp, final ObjectNode node) {
+        SeeMerch instance = INSTANCE.get();
         if (instance == null) {
             instance = new SeeMerch(command, username, timestamp, node);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -61,13 +62,8 @@ public final class SeeMerch extends StandardCommandForUserPlayer {
         node.put("user", this.getUsername());
         node.put("timestamp", this.getTimestamp());
         // look for the username
-        NormalUser user = null;
         // check if the username exists
-        for (NormalUser normalUser : Main.normalUserList) {
-            if (normalUser.getUsername().equals(this.getUsername())) {
-                user = normalUser;
-            }
-        }
+        NormalUser user = context.getUserRegistry().getNormalUser(this.getUsername());
         if (user == null) {
             node.put("message", "The username " + this.getUsername() + " doesn't exist.");
             return node;
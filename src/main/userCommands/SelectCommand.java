@@ -8,12 +8,12 @@ import fileio.input.audioEntities.Playlist;
 import fileio.input.audioEntities.PodcastInput;
 import fileio.input.audioEntities.SongPlayInfo;
 import fileio.input.audioEntities.Album;
-import main.Main;
+import main.commandsHandling.MessageCommand;
 import users.Artist;
 import users.Host;
 import users.NormalUser;
 
-public final class SelectCommand extends StandardCommandForUserPlayer {
+public final class SelectCommand extends StandardCommandForUserPlayer implements MessageCommand {
     private static final int TYPE_SONG = 1;
     private static final int TYPE_PODCAST = 2;
     private static final int TYPE_PLAYLIST = 3;
@@ -40,8 +40,8 @@ public final class SelectCommand extends StandardCommandForUserPlayer {
         this.itemNumber = itemNumber;
     }
 
-    // Singleton instance field
-    private static SelectCommand instance = null;
+    // Singleton instance field, one per thread running a simulation
+    private static final ThreadLocal<SelectCommand> INSTANCE = new ThreadLocal<>();
 
     /**
      * Gets the singleton instance of SelectCommand.
@@ -49,7 +49,7 @@ public final class SelectCommand extends StandardCommandForUserPlayer {
      * @return the singleton instance of SelectCommand.
      */
     public static SelectCommand getInstance() {
-        return instance;
+        return INSTANCE.get();
     }
 
     /**
@@ -58,7 +58,7 @@ public final class SelectCommand extends StandardCommandForUserPlayer {
      * @param instance the singleton instance of SelectCommand.
      */
     public static void setInstance(final SelectCommand instance) {
-        SelectCommand.instance = instance;
+        INSTANCE.set(instance);
     }
 
     /**
@@ -89,8 +89,10 @@ public final class SelectCommand extends StandardCommandForUserPlayer {
     public static SelectCommand getInstance(final String command, final String username,
                                             final Integer timestamp,
                                             final Integer itemNumber, final ObjectNode node) {
+        SelectCommand instance = INSTANCE.get();
         if (instance == null) {
             instance = new SelectCommand(command, username, timestamp, itemNumber, node);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -107,15 +109,7 @@ public final class SelectCommand extends StandardCommandForUserPlayer {
      * @return the JSON node representing the select command results.
      */
     public ObjectNode execute() {
-        node.put("command", this.getCommand());
-        node.put("user", this.getUsername());
-        node.put("timestamp", this.getTimestamp());
-        if (!this.isUserOnline(this.getUsername())) {
-            node.put("message", this.getUsername() + " is offline.");
-            return node;
-        }
-        node.put("message", this.getCommandMessage());
-        return node;
+        return writeMessageOutput();
     }
 
     /**
@@ -124,87 +118,89 @@ public final class SelectCommand extends StandardCommandForUserPlayer {
      * @return a String message indicating the result of the selection.
      */
     public String getCommandMessage() {
-        for (NormalUser user : Main.normalUserList) {
-            if (user.getUsername().equals(this.username)) {
-                if (!user.getSearched()) {
-                    return "Please conduct a search before making a selection.";
-                }
-                if (user.getLastSearchTypeIndicator() == TYPE_SONG) {
-                    // the last search command type was song
-                    if (user.getLastSongSearchResult().size() < this.itemNumber) {
-                        return "The selected ID is too high.";
-                    }
-                    user.setSelected(true);
-                    SongPlayInfo result;
-                    result = user.getLastSongSearchResult().get(this.itemNumber - 1);
-                    user.setLastSelectedSong(result);
-                    return "Successfully selected " + user.getLastSelectedSong()
-                            .getSong().getName() + ".";
+        if (!this.isUserOnline(this.username)) {
+            return this.username + " is offline.";
+        }
+        NormalUser user = context.getUserRegistry().getNormalUser(this.username);
+        if (user != null) {
+            if (!user.getSearched()) {
+                return "Please conduct a search before making a selection.";
+            }
+            if (user.getLastSearchTypeIndicator() == TYPE_SONG) {
+                // the last search command type was song
+                if (user.getLastSongSearchResult().size() < this.itemNumber) {
+                    return "The selected ID is too high.";
                 }
-                if (user.getLastSearchTypeIndicator() == TYPE_PODCAST) {
-                    // the last search command type was podcast
-                    if (user.getLastPodcastSearchResult().size() < this.itemNumber) {
-                        return "The selected ID is too high.";
-                    }
-                    user.setSelected(true);
-                    PodcastInput result;
-                    result = user.getLastPodcastSearchResult().get(this.itemNumber - 1);
-                    user.setLastSelectedPodcast(result);
-                    return "Successfully selected " + user.getLastSelectedPodcast().getName() + ".";
+                user.setSelected(true);
+                SongPlayInfo result;
+                result = user.getLastSongSearchResult().get(this.itemNumber - 1);
+                user.setLastSelectedSong(result);
+                return "Successfully selected " + user.getLastSelectedSong()
+                        .getSong().getName() + ".";
+            }
+            if (user.getLastSearchTypeIndicator() == TYPE_PODCAST) {
+                // the last search command type was podcast
+                if (user.getLastPodcastSearchResult().size() < this.itemNumber) {
+                    return "The selected ID is too high.";
                 }
-                if (user.getLastSearchTypeIndicator() == TYPE_PLAYLIST) {
-                    // the last search command type was podcast
-                    if (user.getLastPlaylistSearchResult().size() < this.itemNumber) {
-                        return "The selected ID is too high.";
-                    }
-                    user.setSelected(true);
-                    Playlist result;
-                    result = user.getLastPlaylistSearchResult().get(this.itemNumber - 1);
-                    user.setLastSelectedPlaylist(result);
-                    String resultName = user.getLastSelectedPlaylist().getName();
-                    return "Successfully selected " + resultName + ".";
+                user.setSelected(true);
+                PodcastInput result;
+                result = user.getLastPodcastSearchResult().get(this.itemNumber - 1);
+                user.setLastSelectedPodcast(result);
+                return "Successfully selected " + user.getLastSelectedPodcast().getName() + ".";
+            }
+            if (user.getLastSearchTypeIndicator() == TYPE_PLAYLIST) {
+                // the last search command type was podcast
+                if (user.getLastPlaylistSearchResult().size() < this.itemNumber) {
+                    return "The selected ID is too high.";
                 }
-                if (user.getLastSearchTypeIndicator() == TYPE_ALBUM) {
-                    // the last search command type was album
-                    if (user.getLastAlbumSearchResult().size() < this.itemNumber) {
-                        return "The selected ID is too high.";
-                    }
-                    user.setSelected(true);
-                    Album result;
-                    result = user.getLastAlbumSearchResult().get(this.itemNumber - 1);
-                    user.setLastSelectedAlbum(result);
-                    String resultName = user.getLastSelectedAlbum().getName();
-                    return "Successfully selected " + resultName + ".";
+                user.setSelected(true);
+                Playlist result;
+                result = user.getLastPlaylistSearchResult().get(this.itemNumber - 1);
+                user.setLastSelectedPlaylist(result);
+                String resultName = user.getLastSelectedPlaylist().getName();
+                return "Successfully selected " + resultName + ".";
+            }
+            if (user.getLastSearchTypeIndicator() == TYPE_ALBUM) {
+                // the last search command type was album
+                if (user.getLastAlbumSearchResult().size() < this.itemNumber) {
+                    return "The selected ID is too high.";
                 }
-                if (user.getLastSearchTypeIndicator() == TYPE_ARTIST) {
-                    // the last search command type was artist
-                    if (user.getLastArtistSearchResult().size() < this.itemNumber) {
-                        return "The selected ID is too high.";
-                    }
-                    user.setSelected(true);
-                    Artist selectedArtist = user.getLastArtistSearchResult()
-                            .get(this.itemNumber - 1);
-                    //change the user's page to the artist's page
-                    Page artistPage = new ArtistPage(selectedArtist);
-                    user.getPageHistory().add(artistPage);
-                    user.setCurrentPageIndex(user.getPageHistory().size() - 1);
-
-                    return "Successfully selected " + selectedArtist.getUsername() + "'s page.";
+                user.setSelected(true);
+                Album result;
+                result = user.getLastAlbumSearchResult().get(this.itemNumber - 1);
+                user.setLastSelectedAlbum(result);
+                String resultName = user.getLastSelectedAlbum().getName();
+                return "Successfully selected " + resultName + ".";
+            }
+            if (user.getLastSearchTypeIndicator() == TYPE_ARTIST) {
+                // the last search command type was artist
+                if (user.getLastArtistSearchResult().size() < this.itemNumber) {
+                    return "The selected ID is too high.";
                 }
-                if (user.getLastSearchTypeIndicator() == TYPE_HOST) {
-                    // the last search command type was host
-                    if (user.getLastHostSearchResult().size() < this.itemNumber) {
-                        return "The selected ID is too high.";
-                    }
-                    user.setSelected(true);
-                    Host selectedHost = user.getLastHostSearchResult().get(this.itemNumber - 1);
-                    //change the user's page to the host's page
-                    Page hostPage = new HostPage(selectedHost);
-                    user.getPageHistory().add(hostPage);
-                    user.setCurrentPageIndex(user.getPageHistory().size() - 1);
-
-                    return "Successfully selected " + selectedHost.getUsername() + "'s page.";
+                user.setSelected(true);
+                Artist selectedArtist = user.getLastArtistSearchResult()
+                        .get(this.itemNumber - 1);
+                //change the user's page to the artist's page
+                Page artistPage = new ArtistPage(selectedArtist);
+                user.getPageHistory().add(artistPage);
+                user.setCurrentPageIndex(user.getPageHistory().size() - 1);
+
+                return "Successfully selected " + selectedArtist.getUsername() + "'s page.";
+            }
+            if (user.getLastSearchTypeIndicator() == TYPE_HOST) {
+                // the last search command type was host
+                if (user.getLastHostSearchResult().size() < this.itemNumber) {
+                    return "The selected ID is too high.";
                 }
+                user.setSelected(true);
+                Host selectedHost = user.getLastHostSearchResult().get(this.itemNumber - 1);
+                //change the user's page to the host's page
+                Page hostPage = new HostPage(selectedHost);
+                user.getPageHistory().add(hostPage);
+                user.setCurrentPageIndex(user.getPageHistory().size() - 1);
+
+                return "Successfully selected " + selectedHost.getUsername() + "'s page.";
             }
         }
 
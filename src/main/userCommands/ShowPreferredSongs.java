@@ -2,15 +2,14 @@ package main.userCommands;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import fileio.input.audioEntities.SongPlayInfo;
-import main.Main;
 import users.NormalUser;
 
 import java.util.ArrayList;
 
 public final class ShowPreferredSongs extends StandardCommandForUserPlayer {
 
-    // Singleton instance field
-    private static ShowPreferredSongs instance = null;
+    // Singleton instance field, one per thread running a simulation
+    private static final ThreadLocal<ShowPreferredSongs> INSTANCE = new ThreadLocal<>();
 
     /**
      * Constructs a new ShowPreferredSongs command with the specified parameters.
@@ -34,8 +33,10 @@ public final class ShowPreferredSongs extends StandardCommandForUserPlayer {
      */
     public static ShowPreferredSongs getInstance(final String command, final String username,
                                                  final Integer timestamp, final ObjectNode node) {
+        ShowPreferredSongs instance = INSTANCE.get();
         if (instance == null) {
             instance = new ShowPreferredSongs(command, username, timestamp, node);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -55,11 +56,10 @@ public final class ShowPreferredSongs extends StandardCommandForUserPlayer {
         node.put("user", this.getUsername());
         node.put("timestamp", this.getTimestamp());
         ArrayList<String> likedSongsNames = new ArrayList<>();
-        for (NormalUser user : Main.normalUserList) {
-            if (user.getUsername().equals(this.getUsername())) {
-                for (SongPlayInfo songPlayInfo : user.getLikedSongs()) {
-                    likedSongsNames.add(songPlayInfo.getSong().getName());
-                }
+        NormalUser user = context.getUserRegistry().getNormalUser(this.getUsername());
+        if (user != null) {
+            for (SongPlayInfo songPlayInfo : user.getLikedSongs()) {
+                likedSongsNames.add(songPlayInfo.getSong().getName());
             }
         }
         node.putPOJO("result", likedSongsNames);
@@ -1,7 +1,6 @@
 package main.userCommands;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import main.Main;
 import main.commandsHandling.GeneralCommand;
 import users.Artist;
 import users.Host;
@@ -23,17 +22,15 @@ public abstract class StandardCommandForUserPlayer extends GeneralCommand {
      */
     protected String checkUsernameExistence() {
         // look for the username in the artists' list
-        for (Artist artist : Main.artistsList) {
-            if (artist.getUsername().equals(this.username)) {
-                return this.username + " is not a normal user.";
-            }
+        Artist artist = context.getUserRegistry().getArtist(this.username);
+        if (artist != null) {
+            return this.username + " is not a normal user.";
         }
 
         // look for the username in the hosts' list
-        for (Host host : Main.hostsList) {
-            if (host.getUsername().equals(this.username)) {
-                return this.username + " is not an artist.";
-            }
+        Host host = context.getUserRegistry().getHost(this.username);
+        if (host != null) {
+            return this.username + " is not an artist.";
         }
 
         // if we reached this point, it means that the user could not be found in any list
@@ -65,10 +62,9 @@ public abstract class StandardCommandForUserPlayer extends GeneralCommand {
      * @return True if the user is online, false otherwise.
      */
     public Boolean isUserOnline(final String usernameToCheck) {
-        for (NormalUser user : Main.normalUserList) {
-            if (user.getUsername().equals(usernameToCheck)) {
-                return user.getConnectionStatus();
-            }
+        NormalUser user = context.getUserRegistry().getNormalUser(usernameToCheck);
+        if (user != null) {
+            return user.getConnectionStatus();
         }
         return false;
     }
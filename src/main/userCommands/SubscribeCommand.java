@@ -3,15 +3,14 @@ package main.userCommands;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import fileio.input.Pagination.ArtistPage;
 import fileio.input.Pagination.HostPage;
-import main.Main;
 import users.NormalUser;
 
 public final class SubscribeCommand extends StandardCommandForUserPlayer {
     private static final int TYPE_ARTIST = 5;
     private static final int TYPE_HOST = 6;
 
-    // Singleton instance field
-    private static SubscribeCommand instance = null;
+    // Singleton instance field, one per thread running a simulation
+    private static final ThreadLocal<SubscribeCommand> INSTANCE = new ThreadLocal<>();
 
     private SubscribeCommand(final String command, final String username,
                              final Integer timestamp, final ObjectNode node) {
@@ -30,8 +29,10 @@ public final class SubscribeCommand extends StandardCommandForUserPlayer {
     public static SubscribeCommand getInstance(final String command, final String username,
                                                final Integer timestamp,
                                                final ObjectNode node) {
+        SubscribeCommand instance = INSTANCE.get();
         if (instance == null) {
             instance = new SubscribeCommand(command, username, timestamp, node);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -48,12 +49,7 @@ public final class SubscribeCommand extends StandardCommandForUserPlayer {
      */
     public String getSubscribeMessage() {
         // check if the username exists in the database
-        NormalUser user = null;
-        for (NormalUser normalUser : Main.normalUserList) {
-            if (normalUser.getUsername().equals(this.getUsername())) {
-                user = normalUser;
-            }
-        }
+        NormalUser user = context.getUserRegistry().getNormalUser(this.getUsername());
         if (user == null) {
             return "The username " + this.getUsername() + " doesn't exist.";
         }
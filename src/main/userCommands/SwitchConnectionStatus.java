@@ -1,16 +1,17 @@
 package main.userCommands;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import main.Main;
+import main.commandsHandling.MessageCommand;
 import users.NormalUser;
 
-public final class SwitchConnectionStatus extends StandardCommandForUserPlayer {
+public final class SwitchConnectionStatus extends StandardCommandForUserPlayer
+        implements MessageCommand {
     private static final int TYPE_SONG = 1;
     private static final int TYPE_PODCAST = 2;
     private static final int TYPE_PLAYLIST = 3;
 
     private static final int TYPE_ALBUM = 4;
-    private static SwitchConnectionStatus instance = null;
+    private static final ThreadLocal<SwitchConnectionStatus> INSTANCE = new ThreadLocal<>();
 
     private SwitchConnectionStatus(final String command, final String username,
                                    final Integer timestamp, final ObjectNode node) {
@@ -28,8 +29,10 @@ public final class SwitchConnectionStatus extends StandardCommandForUserPlayer {
     public static SwitchConnectionStatus getInstance(final String command, final String username,
                                                      final Integer timestamp,
                                                      final ObjectNode node) {
+        SwitchConnectionStatus instance = INSTANCE.get();
         if (instance == null) {
             instance = new SwitchConnectionStatus(command, username, timestamp, node);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -46,11 +49,7 @@ public final class SwitchConnectionStatus extends StandardCommandForUserPlayer {
      * @return The ObjectNode containing information about the command execution.
      */
     public ObjectNode execute() {
-        node.put("command", this.getCommand());
-        node.put("user", this.getUsername());
-        node.put("timestamp", this.getTimestamp());
-        node.put("message", this.getCommandMessage());
-        return node;
+        return writeMessageOutput();
     }
 
     /**
@@ -87,92 +86,91 @@ public final class SwitchConnectionStatus extends StandardCommandForUserPlayer {
      * or an error message if the user is not found.
      */
     public String getCommandMessage() {
-        for (NormalUser user : Main.normalUserList) {
-            if (user.getUsername().equals(this.username)) {
-                // if we reached this point, it means that the user is a normal user
-                // check if there was anything playing when switching the connection status
-                if (!user.getLoaded()) {
-                    // nothing even loaded => just switch status
-                    return changeStatus(user);
-                }
+        NormalUser user = context.getUserRegistry().getNormalUser(this.username);
+        if (user != null) {
+            // if we reached this point, it means that the user is a normal user
+            // check if there was anything playing when switching the connection status
+            if (!user.getLoaded()) {
+                // nothing even loaded => just switch status
+                return changeStatus(user);
+            }
 
-                if (user.getLastLoadTypeIndicator() == TYPE_SONG) {
-                    // a song is loaded in the player
-                    if (!user.getLastLoadedSongPlayInfo().getSongPaused()) {
-                        // the song is currently playing
-                        if (user.getConnectionStatus()) {
-                            /* we are switching from online to offline while
-                            the song was playing => update status */
-                            if (!user.isSongStillLoaded(this.timestamp)) {
-                                return changeStatus(user);
-                            }
-                        } else {
-                            /* we are switching from offline to online while
-                            the song was playing => just update the timestamp */
-                            user.getLastLoadedSongPlayInfo().setLastPlayTimestamp(this.timestamp);
+            if (user.getLastLoadTypeIndicator() == TYPE_SONG) {
+                // a song is loaded in the player
+                if (!user.getSongSession().getPaused()) {
+                    // the song is currently playing
+                    if (user.getConnectionStatus()) {
+                        /* we are switching from online to offline while
+                        the song was playing => update status */
+                        if (!user.isSongStillLoaded(this.timestamp)) {
+                            return changeStatus(user);
                         }
+                    } else {
+                        /* we are switching from offline to online while
+                        the song was playing => just update the timestamp */
+                        user.getSongSession().setLastPlayTimestamp(this.timestamp);
                     }
-                    return changeStatus(user);
                 }
+                return changeStatus(user);
+            }
 
-                if (user.getLastLoadTypeIndicator() == TYPE_PODCAST) {
-                    // a podcast is loaded in the player
-                    if (!user.getLastLoadedPodcast().getPodcastPaused()) {
-                        // the podcast is currently playing
-                        if (user.getConnectionStatus()) {
-                            /* we are switching from online to offline while
-                            the podcast was playing => update status */
-                            if (!user.isPodcastStillLoaded(this.timestamp)) {
-                                return changeStatus(user);
-                            }
-                        } else {
-                            /* we are switching from offline to online while the
-                            podcast was playing => just update the timestamp */
-                            user.getLastLoadedPodcast().setLastPlayTimestamp(this.timestamp);
+            if (user.getLastLoadTypeIndicator() == TYPE_PODCAST) {
+                // a podcast is loaded in the player
+                if (!user.getLastLoadedPodcast().getPodcastPaused()) {
+                    // the podcast is currently playing
+                    if (user.getConnectionStatus()) {
+                        /* we are switching from online to offline while
+                        the podcast was playing => update status */
+                        if (!user.isPodcastStillLoaded(this.timestamp)) {
+                            return changeStatus(user);
                         }
+                    } else {
+                        /* we are switching from offline to online while the
+                        podcast was playing => just update the timestamp */
+                        user.getLastLoadedPodcast().setLastPlayTimestamp(this.timestamp);
                     }
-                    return changeStatus(user);
                 }
+                return changeStatus(user);
+            }
 
-                if (user.getLastLoadTypeIndicator() == TYPE_PLAYLIST) {
-                    // a playlist is currently playing
-                    if (!user.getLastLoadedPlaylist().getPaused()) {
-                        //the playlist is currently playing
-                        if (user.getConnectionStatus()) {
-                            /* we are switching from online to offline while the
-                             playlist was playing => update status */
-                            if (user.isPlaylistStillLoaded(this.timestamp)) {
-                                return changeStatus(user);
-                            }
-                        } else {
-                            /* we are switching from offline to online while the
-                            playlist was playing => just update the timestamp */
-                            user.getLastLoadedPlaylist().setLastPlayTimestamp(this.timestamp);
+            if (user.getLastLoadTypeIndicator() == TYPE_PLAYLIST) {
+                // a playlist is currently playing
+                if (!user.getPlaylistSession().getPaused()) {
+                    //the playlist is currently playing
+                    if (user.getConnectionStatus()) {
+                        /* we are switching from online to offline while the
+                         playlist was playing => update status */
+                        if (user.isPlaylistStillLoaded(this.timestamp)) {
+                            return changeStatus(user);
                         }
+                    } else {
+                        /* we are switching from offline to online while the
+                        playlist was playing => just update the timestamp */
+                        user.getPlaylistSession().setLastPlayTimestamp(this.timestamp);
                     }
-                    return changeStatus(user);
                 }
+                return changeStatus(user);
+            }
 
-                if (user.getLastLoadTypeIndicator() == TYPE_ALBUM) {
-                    // an album is currently playing
-                    if (!user.getLastLoadedAlbum().getPaused()) {
-                        //the album is currently playing
-                        if (user.getConnectionStatus()) {
-                            /* we are switching from online to offline while
-                            the album was playing => update status */
-                            if (user.isAlbumStillLoaded(this.timestamp)) {
-                                return changeStatus(user);
-                            }
-                        } else {
-                            /* we are switching from offline to online while
-                            the album was playing => just update the timestamp */
-                            user.getLastLoadedAlbum().setLastPlayTimestamp(this.timestamp);
+            if (user.getLastLoadTypeIndicator() == TYPE_ALBUM) {
+                // an album is currently playing
+                if (!user.getAlbumSession().getPaused()) {
+                    //the album is currently playing
+                    if (user.getConnectionStatus()) {
+                        /* we are switching from online to offline while
+                        the album was playing => update status */
+                        if (user.isAlbumStillLoaded(this.timestamp)) {
+                            return changeStatus(user);
                         }
+                    } else {
+                        /* we are switching from offline to online while
+                        the album was playing => just update the timestamp */
+                        user.getAlbumSession().setLastPlayTimestamp(this.timestamp);
                     }
-                    return changeStatus(user);
                 }
-
+                return changeStatus(user);
             }
+
         }
 
         /* if we reached this point, it means that we haven't
@@ -1,7 +1,6 @@
 package main.userCommands.playerCommands;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import main.Main;
 import fileio.input.audioEntities.PodcastPlayInfo;
 import main.userCommands.StandardCommandForUserPlayer;
 import users.NormalUser;
@@ -10,8 +9,8 @@ public final class BackwardCommand extends StandardCommandForUserPlayer {
     private static final int BACKWARD_SECONDS = 90;
     private static final int TYPE_PODCAST = 2;
 
-    // Singleton instance field
-    private static BackwardCommand instance = null;
+    // Singleton instance field, one per thread running a simulation
+    private static final ThreadLocal<BackwardCommand> INSTANCE = new ThreadLocal<>();
 
     /**
      * Constructs a new BackwardCommand with the specified parameters.
@@ -35,8 +34,10 @@ public final class BackwardCommand extends StandardCommandForUserPlayer {
      */
     public static BackwardCommand getInstance(final String command, final String username,
                                               final Integer timestamp, final ObjectNode node) {
+        BackwardCommand instance = INSTANCE.get();
         if (instance == null) {
             instance = new BackwardCommand(command, username, timestamp, node);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -93,16 +94,15 @@ public final class BackwardCommand extends StandardCommandForUserPlayer {
      * @return The message indicating the result of the backward command.
      */
     public String getMessage() {
-        for (NormalUser user : Main.normalUserList) {
-            if (user.getUsername().equals(this.username)) {
-                if (!user.stillHasSomethingLoaded(this.timestamp)) {
-                    return "Please load a source before skipping backward.";
-                }
-                if (user.getLastSearchTypeIndicator() != TYPE_PODCAST) {
-                    return "The loaded source is not a podcast.";
-                }
-                executeCommand(user);
+        NormalUser user = context.getUserRegistry().getNormalUser(this.username);
+        if (user != null) {
+            if (!user.stillHasSomethingLoaded(this.timestamp)) {
+                return "Please load a source before skipping backward.";
             }
+            if (user.getLastSearchTypeIndicator() != TYPE_PODCAST) {
+                return "The loaded source is not a podcast.";
+            }
+            executeCommand(user);
         }
         return "Rewound successfully.";
     }
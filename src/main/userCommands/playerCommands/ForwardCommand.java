@@ -2,7 +2,6 @@ package main.userCommands.playerCommands;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import fileio.input.audioEntities.EpisodeInput;
-import main.Main;
 import fileio.input.audioEntities.PodcastPlayInfo;
 import main.userCommands.StandardCommandForUserPlayer;
 import users.NormalUser;
@@ -11,8 +10,8 @@ public final class ForwardCommand extends StandardCommandForUserPlayer {
     private static final int FORWARD_SECONDS = 90;
     private static final int TYPE_PODCAST = 2;
 
-    // Singleton instance field
-    private static ForwardCommand instance = null;
+    // Singleton instance field, one per thread running a simulation
+    private static final ThreadLocal<ForwardCommand> INSTANCE = new ThreadLocal<>();
 
     /**
      * Constructs a new ForwardCommand with the specified parameters.
@@ -37,8 +36,10 @@ public final class ForwardCommand extends StandardCommandForUserPlayer {
      */
     public static ForwardCommand getInstance(final String command, final String username,
                                              final Integer timestamp, final ObjectNode node) {
+        ForwardCommand instance = INSTANCE.get();
         if (instance == null) {
             instance = new ForwardCommand(command, username, timestamp, node);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -91,16 +92,15 @@ public final class ForwardCommand extends StandardCommandForUserPlayer {
      * @return The message indicating the result of the forward command.
      */
     public String getMessage() {
-        for (NormalUser user : Main.normalUserList) {
-            if (user.getUsername().equals(this.username)) {
-                if (!user.stillHasSomethingLoaded(this.timestamp)) {
-                    return "Please load a source before attempting to forward.";
-                }
-                if (user.getLastSearchTypeIndicator() != TYPE_PODCAST) {
-                    return "The loaded source is not a podcast.";
-                }
-                executeCommand(user);
+        NormalUser user = context.getUserRegistry().getNormalUser(this.username);
+        if (user != null) {
+            if (!user.stillHasSomethingLoaded(this.timestamp)) {
+                return "Please load a source before attempting to forward.";
             }
+            if (user.getLastSearchTypeIndicator() != TYPE_PODCAST) {
+                return "The loaded source is not a podcast.";
+            }
+            executeCommand(user);
         }
         return "Skipped forward successfully.";
     }
@@ -2,22 +2,23 @@ package main.userCommands.playerCommands;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import fileio.input.audioEntities.Album;
-import main.Main;
+import fileio.input.audioEntities.PlaybackSession;
 import fileio.input.audioEntities.Playlist;
 import fileio.input.audioEntities.SongPlayInfo;
+import main.commandsHandling.MessageCommand;
 import main.userCommands.StandardCommandForUserPlayer;
 import users.NormalUser;
 
 import java.util.ArrayList;
 
-public final class LikeCommand extends StandardCommandForUserPlayer {
+public final class LikeCommand extends StandardCommandForUserPlayer implements MessageCommand {
 
     private static final int TYPE_SONG = 1;
     private static final int TYPE_PLAYLIST = 3;
     private static final int TYPE_ALBUM = 4;
 
-    // Singleton instance field
-    private static LikeCommand instance = null;
+    // Singleton instance field, one per thread running a simulation
+    private static final ThreadLocal<LikeCommand> INSTANCE = new ThreadLocal<>();
 
     /**
      * Constructs a new LikeCommand with the specified parameters.
@@ -43,8 +44,10 @@ public final class LikeCommand extends StandardCommandForUserPlayer {
      */
     public static LikeCommand getInstance(final String command, final String username,
                                           final Integer timestamp, final ObjectNode node) {
+        LikeCommand instance = INSTANCE.get();
         if (instance == null) {
             instance = new LikeCommand(command, username, timestamp, node);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -60,15 +63,7 @@ public final class LikeCommand extends StandardCommandForUserPlayer {
      * @return The ObjectNode containing information about the like operation.
      */
     public ObjectNode execute() {
-        node.put("command", this.getCommand());
-        node.put("user", this.getUsername());
-        node.put("timestamp", this.getTimestamp());
-        if (!this.isUserOnline(this.getUsername())) {
-            node.put("message", this.getUsername() + " is offline.");
-            return node;
-        }
-        node.put("message", this.getCommandMessage());
-        return node;
+        return writeMessageOutput();
     }
 
 
@@ -88,7 +83,8 @@ public final class LikeCommand extends StandardCommandForUserPlayer {
                 if (songPlayInfo.getSong().getName().equals(loadedSong.getSong().getName())) {
                     // the song has already been liked, so we need to unlike it
                     user.getLikedSongs().remove(songPlayInfo);
-                    songPlayInfo.setNumberOfLikes(songPlayInfo.getNumberOfLikes() - 1);
+                    context.getSongUsageIndex().removeLike(user, songPlayInfo);
+                    context.getLeaderboards().updateSongLikes(songPlayInfo, -1);
                     return "Unlike registered successfully.";
                 }
             }
@@ -96,8 +92,9 @@ public final class LikeCommand extends StandardCommandForUserPlayer {
 
         // if we have reached this point, it means that the loaded song hasn't been liked
         user.getLikedSongs().add(loadedSong);
+        context.getSongUsageIndex().addLike(user, loadedSong);
         SongPlayInfo songPlayInfo = user.getLikedSongs().get(user.getLikedSongs().size() - 1);
-        songPlayInfo.setNumberOfLikes(songPlayInfo.getNumberOfLikes() + 1);
+        context.getLeaderboards().updateSongLikes(songPlayInfo, 1);
         return "Like registered successfully.";
     }
 
@@ -125,13 +122,14 @@ public final class LikeCommand extends StandardCommandForUserPlayer {
      * @return A message indicating the success of the like or unlike operation.
      */
     public String executeLikeOnASongInAPlaylist(final NormalUser user) {
-        Integer currentSongIndex = user.getLastLoadedPlaylist().getCurrentSongIndex();
         Playlist playlist = user.getLastLoadedPlaylist();
-        if (!user.getLastLoadedPlaylist().getShuffleStatus()) {
+        PlaybackSession session = user.getPlaylistSession();
+        Integer currentSongIndex = session.getCurrentSongIndex();
+        if (!session.getShuffleStatus()) {
             ArrayList<SongPlayInfo> playlistSongs = playlist.getPlaylistSongs();
             return likeSong(user, playlistSongs.get(currentSongIndex));
         } else {
-            ArrayList<SongPlayInfo> shuffledPlaylistSongs = playlist.getShuffledPlaylistSongs();
+            ArrayList<SongPlayInfo> shuffledPlaylistSongs = session.getShuffledSongs();
             return likeSong(user, shuffledPlaylistSongs.get(currentSongIndex));
         }
     }
@@ -147,13 +145,14 @@ public final class LikeCommand extends StandardCommandForUserPlayer {
      * @return A message indicating the success of the like or unlike operation.
      */
     public String executeLikeOnASongInAnAlbum(final NormalUser user) {
-        Integer currentSongIndex = user.getLastLoadedAlbum().getCurrentSongIndex();
         Album album = user.getLastLoadedAlbum();
-        if (!user.getLastLoadedAlbum().getShuffleStatus()) {
+        PlaybackSession session = user.getAlbumSession();
+        Integer currentSongIndex = session.getCurrentSongIndex();
+        if (!session.getShuffleStatus()) {
             ArrayList<SongPlayInfo> albumSongs = album.getSongs();
             return likeSong(user, albumSongs.get(currentSongIndex));
         } else {
-            ArrayList<SongPlayInfo> shuffledAlbumSongs = album.getShuffledSongs();
+            ArrayList<SongPlayInfo> shuffledAlbumSongs = session.getShuffledSongs();
             return likeSong(user, shuffledAlbumSongs.get(currentSongIndex));
         }
     }
@@ -168,32 +167,34 @@ public final class LikeCommand extends StandardCommandForUserPlayer {
      * @return A message indicating the success of the like or unlike operation.
      */
     public String getCommandMessage() {
-        for (NormalUser user : Main.normalUserList) {
-            if (user.getUsername().equals(this.username)) {
-                // check if the user had previously loaded anything
-                if (!user.stillHasSomethingLoaded(this.timestamp)) {
-                    return "Please load a source before liking or unliking.";
-                }
+        if (!this.isUserOnline(this.username)) {
+            return this.username + " is offline.";
+        }
+        NormalUser user = context.getUserRegistry().getNormalUser(this.username);
+        if (user != null) {
+            // check if the user had previously loaded anything
+            if (!user.stillHasSomethingLoaded(this.timestamp)) {
+                return "Please load a source before liking or unliking.";
+            }
 
-                /* check if the loaded source is a song or a
-                song in a playlist or a song in an album */
-                if (user.getLastLoadTypeIndicator() != TYPE_SONG
-                        && user.getLastLoadTypeIndicator() != TYPE_PLAYLIST
-                        && user.getLastLoadTypeIndicator() != TYPE_ALBUM) {
-                    return "Loaded source is not a song.";
-                }
+            /* check if the loaded source is a song or a
+            song in a playlist or a song in an album */
+            if (user.getLastLoadTypeIndicator() != TYPE_SONG
+                    && user.getLastLoadTypeIndicator() != TYPE_PLAYLIST
+                    && user.getLastLoadTypeIndicator() != TYPE_ALBUM) {
+                return "Loaded source is not a song.";
+            }
 
-                // treat the case of an individual song
-                if (user.getLastLoadTypeIndicator() == TYPE_SONG) {
-                    return executeLikeOnASong(user);
-                }
+            // treat the case of an individual song
+            if (user.getLastLoadTypeIndicator() == TYPE_SONG) {
+                return executeLikeOnASong(user);
+            }
 
-                if (user.getLastLoadTypeIndicator() == TYPE_PLAYLIST) {
-                    return executeLikeOnASongInAPlaylist(user);
-                }
-                if (user.getLastLoadTypeIndicator() == TYPE_ALBUM) {
-                    return executeLikeOnASongInAnAlbum(user);
-                }
+            if (user.getLastLoadTypeIndicator() == TYPE_PLAYLIST) {
+                return executeLikeOnASongInAPlaylist(user);
+            }
+            if (user.getLastLoadTypeIndicator() == TYPE_ALBUM) {
+                return executeLikeOnASongInAnAlbum(user);
             }
         }
         return "Like registered successfully.";
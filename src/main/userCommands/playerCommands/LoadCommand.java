@@ -2,21 +2,21 @@ package main.userCommands.playerCommands;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import fileio.input.audioEntities.Album;
-import main.Main;
 import fileio.input.audioEntities.PodcastPlayInfo;
+import main.commandsHandling.MessageCommand;
 import main.userCommands.StandardCommandForUserPlayer;
 import users.Artist;
 import users.Host;
 import users.NormalUser;
 
-public final class LoadCommand extends StandardCommandForUserPlayer {
+public final class LoadCommand extends StandardCommandForUserPlayer implements MessageCommand {
     private static final int TYPE_SONG = 1;
     private static final int TYPE_PODCAST = 2;
     private static final int TYPE_PLAYLIST = 3;
     private static final int TYPE_ALBUM = 4;
 
-    // Singleton instance field
-    private static LoadCommand instance = null;
+    // Singleton instance field, one per thread running a simulation
+    private static final ThreadLocal<LoadCommand> INSTANCE = new ThreadLocal<>();
 
     /**
      * Constructs a new LoadCommand with the specified parameters.
@@ -41,8 +41,10 @@ public final class LoadCommand extends StandardCommandForUserPlayer {
      */
     public static LoadCommand getInstance(final String command, final String username,
                                           final Integer timestamp, final ObjectNode node) {
+        LoadCommand instance = INSTANCE.get();
         if (instance == null) {
             instance = new LoadCommand(command, username, timestamp, node);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -58,15 +60,7 @@ public final class LoadCommand extends StandardCommandForUserPlayer {
      * @return the JSON node representing the load command results.
      */
     public ObjectNode execute() {
-        node.put("command", this.getCommand());
-        node.put("user", this.getUsername());
-        node.put("timestamp", this.getTimestamp());
-        if (!this.isUserOnline(this.getUsername())) {
-            node.put("message", this.getUsername() + " is offline.");
-            return node;
-        }
-        node.put("message", this.getCommandMessage());
-        return node;
+        return writeMessageOutput();
     }
 
     /**
@@ -77,13 +71,11 @@ public final class LoadCommand extends StandardCommandForUserPlayer {
      */
     public void updateHostsListOfListeners(final PodcastPlayInfo podcastPlayInfo,
                                            final NormalUser user) {
-        for (Host host : Main.hostsList) {
-            if (host.getUsername().equals(podcastPlayInfo.getPodcast().getOwner())) {
-                // check if the user is already in the list
-                if (!host.getListeners().contains(user)) {
-                    host.getListeners().add(user);
-                }
-                break;
+        Host host = context.getUserRegistry().getHost(podcastPlayInfo.getPodcast().getOwner());
+        if (host != null) {
+            // check if the user is already in the list
+            if (!host.getListeners().contains(user)) {
+                host.getListeners().add(user);
             }
         }
     }
@@ -97,11 +89,10 @@ public final class LoadCommand extends StandardCommandForUserPlayer {
 
         user.setLastLoadTypeIndicator(TYPE_SONG);
         user.setLastLoadedSongPlayInfo(user.getLastSelectedSong());
-        user.getLastLoadedSongPlayInfo().setSong(user.getLastSelectedSong().getSong());
-        user.getLastLoadedSongPlayInfo().setLastPlayTimestamp(this.timestamp);
-        user.getLastLoadedSongPlayInfo().setRepeatStatus(0);
-        user.getLastLoadedSongPlayInfo().setSongPaused(false);
-        user.getLastLoadedSongPlayInfo().setCurrentSecond(0);
+        user.getSongSession().setLastPlayTimestamp(this.timestamp);
+        user.getSongSession().setRepeatStatus(0);
+        user.getSongSession().setPaused(false);
+        user.getSongSession().setCurrentSecond(0);
         user.setLastSelectedSong(null);
         user.updateEverythingForSong(user.getLastLoadedSongPlayInfo());
         if (user.getIsPremium()) {
@@ -164,21 +155,21 @@ public final class LoadCommand extends StandardCommandForUserPlayer {
     public void loadPlaylist(final NormalUser user) {
         user.setLastLoadTypeIndicator(TYPE_PLAYLIST);
         user.setLastLoadedPlaylist(user.getLastSelectedPlaylist());
-        user.getLastLoadedPlaylist().setLastPlayTimestamp(this.timestamp);
-        user.getLastLoadedPlaylist().setPaused(false);
-        user.getLastLoadedPlaylist().setShuffleStatus(false);
+        user.getPlaylistSession().setLastPlayTimestamp(this.timestamp);
+        user.getPlaylistSession().setPaused(false);
+        user.getPlaylistSession().setShuffleStatus(false);
 
         user.setLastSelectedPlaylist(null);
-        if (!user.getLastLoadedPlaylist().getShuffleStatus()) {
+        if (!user.getPlaylistSession().getShuffleStatus()) {
             user.updateEverythingForSong(user.
                     getLastLoadedPlaylist().getPlaylistSongs().get(0));
             updateArtistHadSomethingOnPlay(user.getLastLoadedPlaylist().
                     getPlaylistSongs().get(0));
         } else {
-            user.updateEverythingForSong(user.getLastLoadedPlaylist().
-                    getShuffledPlaylistSongs().get(0));
-            updateArtistHadSomethingOnPlay(user.getLastLoadedPlaylist().
-                    getShuffledPlaylistSongs().get(0));
+            user.updateEverythingForSong(user.getPlaylistSession().
+                    getShuffledSongs().get(0));
+            updateArtistHadSomethingOnPlay(user.getPlaylistSession().
+                    getShuffledSongs().get(0));
         }
 
         if (user.getIsPremium()) {
@@ -195,17 +186,17 @@ public final class LoadCommand extends StandardCommandForUserPlayer {
     public void loadAlbum(final NormalUser user) {
         user.setLastLoadTypeIndicator(TYPE_ALBUM);
         user.setLastLoadedAlbum(user.getLastSelectedAlbum());
-        user.getLastLoadedAlbum().setLastPlayTimestamp(this.timestamp);
-        user.getLastLoadedAlbum().setCurrentSongIndex(0);
-        user.getLastLoadedAlbum().setCurrentSongSecond(0);
-        user.getLastLoadedAlbum().setPaused(false);
-        user.getLastLoadedAlbum().setShuffleStatus(false);
+        user.getAlbumSession().setLastPlayTimestamp(this.timestamp);
+        user.getAlbumSession().setCurrentSongIndex(0);
+        user.getAlbumSession().setCurrentSecond(0);
+        user.getAlbumSession().setPaused(false);
+        user.getAlbumSession().setShuffleStatus(false);
 
         user.setLastSelectedAlbum(null);
-        if (!user.getLastLoadedAlbum().getShuffleStatus()) {
+        if (!user.getAlbumSession().getShuffleStatus()) {
             user.updateEverythingForSong(user.getLastLoadedAlbum().getSongs().get(0));
         } else {
-            user.updateEverythingForSong(user.getLastLoadedAlbum().
+            user.updateEverythingForSong(user.getAlbumSession().
                     getShuffledSongs().get(0));
         }
 
@@ -215,7 +206,7 @@ public final class LoadCommand extends StandardCommandForUserPlayer {
         }
 
         // update the field which indicates that the artist has had something on play
-        for (Artist artist : Main.artistsList) {
+        for (Artist artist : context.getArtistsList()) {
             for (Album album : artist.getAlbums()) {
                 if (album.getName().equals(user.getLastLoadedAlbum().getName())) {
                     artist.setHadSomethingOnPlay(true);
@@ -232,55 +223,57 @@ public final class LoadCommand extends StandardCommandForUserPlayer {
      * @return a String message indicating the result of the load operation.
      */
     public String getCommandMessage() {
-        for (NormalUser user : Main.normalUserList) {
-            if (user.getUsername().equals(this.username)) {
-                // check if the user has previously made any selection
-                if (!user.getSelected()) {
+        if (!this.isUserOnline(this.username)) {
+            return this.username + " is offline.";
+        }
+        NormalUser user = context.getUserRegistry().getNormalUser(this.username);
+        if (user != null) {
+            // check if the user has previously made any selection
+            if (!user.getSelected()) {
+                return "Please select a source before attempting to load.";
+            }
+
+            if (user.getLastSearchTypeIndicator() == TYPE_SONG) {
+                // song
+                if (user.getLastSelectedSong() == null) {
                     return "Please select a source before attempting to load.";
                 }
+                loadSong(user);
+            }
 
-                if (user.getLastSearchTypeIndicator() == TYPE_SONG) {
-                    // song
-                    if (user.getLastSelectedSong() == null) {
-                        return "Please select a source before attempting to load.";
-                    }
-                    loadSong(user);
+            if (user.getLastSearchTypeIndicator() == TYPE_PODCAST) {
+                // podcast
+                if (user.getLastSelectedPodcast() == null) {
+                    return "Please select a source before attempting to load.";
                 }
+                loadPodcast(user);
+            }
 
-                if (user.getLastSearchTypeIndicator() == TYPE_PODCAST) {
-                    // podcast
-                    if (user.getLastSelectedPodcast() == null) {
-                        return "Please select a source before attempting to load.";
-                    }
-                    loadPodcast(user);
+            if (user.getLastSearchTypeIndicator() == TYPE_PLAYLIST) {
+                // playlist
+                if (user.getLastSelectedPlaylist() == null) {
+                    return "Please select a source before attempting to load.";
                 }
-
-                if (user.getLastSearchTypeIndicator() == TYPE_PLAYLIST) {
-                    // playlist
-                    if (user.getLastSelectedPlaylist() == null) {
-                        return "Please select a source before attempting to load.";
-                    }
-                    if (user.getLastSelectedPlaylist().getPlaylistSongs().isEmpty()) {
-                        return "You can't load an empty audio collection!";
-                    }
-                    loadPlaylist(user);
+                if (user.getLastSelectedPlaylist().getPlaylistSongs().isEmpty()) {
+                    return "You can't load an empty audio collection!";
                 }
+                loadPlaylist(user);
+            }
 
-                if (user.getLastSearchTypeIndicator() == TYPE_ALBUM) {
-                    // album
-                    if (user.getLastSelectedAlbum() == null) {
-                        return "Please select a source before attempting to load.";
-                    }
-                    if (user.getLastSelectedAlbum().getSongs().isEmpty()) {
-                        return "You can't load an empty audio collection!";
-                    }
-                    loadAlbum(user);
+            if (user.getLastSearchTypeIndicator() == TYPE_ALBUM) {
+                // album
+                if (user.getLastSelectedAlbum() == null) {
+                    return "Please select a source before attempting to load.";
                 }
-
-                user.setLoaded(true);
-                user.setSelected(false);
-                user.setSearched(false);
+                if (user.getLastSelectedAlbum().getSongs().isEmpty()) {
+                    return "You can't load an empty audio collection!";
+                }
+                loadAlbum(user);
             }
+
+            user.setLoaded(true);
+            user.setSelected(false);
+            user.setSearched(false);
         }
         return "Playback loaded successfully.";
     }
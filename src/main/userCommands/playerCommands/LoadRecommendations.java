@@ -1,13 +1,12 @@
 package main.userCommands.playerCommands;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import main.Main;
 import main.userCommands.StandardCommandForUserPlayer;
 import users.NormalUser;
 
 public final class LoadRecommendations extends StandardCommandForUserPlayer {
-    // Singleton instance field
-    private static LoadRecommendations instance = null;
+    // Singleton instance field, one per thread running a simulation
+    private static final ThreadLocal<LoadRecommendations> INSTANCE = new ThreadLocal<>();
     private static final int TYPE_SONG = 1;
 
     private LoadRecommendations(final String command, final String username,
@@ -26,8 +25,10 @@ public final class LoadRecommendations extends StandardCommandForUserPlayer {
      */
     public static LoadRecommendations getInstance(final String command, final String username,
                                                   final Integer timestamp, final ObjectNode node) {
+        LoadRecommendations instance = INSTANCE.get();
         if (instance == null) {
             instance = new LoadRecommendations(command, username, timestamp, node);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -60,10 +61,10 @@ public final class LoadRecommendations extends StandardCommandForUserPlayer {
         if (user.getLastRecommendationType().equals("random_song")) {
             user.setLastLoadTypeIndicator(TYPE_SONG);
             user.setLastLoadedSongPlayInfo(user.getLastSongRecommendation());
-            user.getLastLoadedSongPlayInfo().setLastPlayTimestamp(this.timestamp);
-            user.getLastLoadedSongPlayInfo().setRepeatStatus(0);
-            user.getLastLoadedSongPlayInfo().setSongPaused(false);
-            user.getLastLoadedSongPlayInfo().setCurrentSecond(0);
+            user.getSongSession().setLastPlayTimestamp(this.timestamp);
+            user.getSongSession().setRepeatStatus(0);
+            user.getSongSession().setPaused(false);
+            user.getSongSession().setCurrentSecond(0);
             user.setLastSelectedSong(null);
             user.updateEverythingForSong(user.getLastLoadedSongPlayInfo());
 
@@ -87,11 +88,9 @@ public final class LoadRecommendations extends StandardCommandForUserPlayer {
         node.put("user", this.getUsername());
         node.put("timestamp", this.getTimestamp());
 
-        for (NormalUser user : Main.normalUserList) {
-            if (user.getUsername().equals(this.getUsername())) {
-                node.put("message", getCommandExecutionMessage(user));
-                break;
-            }
+        NormalUser user = context.getUserRegistry().getNormalUser(this.getUsername());
+        if (user != null) {
+            node.put("message", getCommandExecutionMessage(user));
         }
         return node;
     }
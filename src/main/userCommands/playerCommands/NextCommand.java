@@ -3,10 +3,10 @@ package main.userCommands.playerCommands;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import fileio.input.audioEntities.Album;
 import fileio.input.audioEntities.EpisodeInput;
+import fileio.input.audioEntities.PlaybackSession;
 import fileio.input.audioEntities.Playlist;
 import fileio.input.audioEntities.PodcastPlayInfo;
 import fileio.input.audioEntities.SongPlayInfo;
-import main.Main;
 import main.userCommands.StandardCommandForUserPlayer;
 import users.NormalUser;
 
@@ -17,8 +17,8 @@ public final class NextCommand extends StandardCommandForUserPlayer {
     private static final int TYPE_PLAYLIST = 3;
     private static final int TYPE_ALBUM = 4;
 
-    // Singleton instance field
-    private static NextCommand instance = null;
+    // Singleton instance field, one per thread running a simulation
+    private static final ThreadLocal<NextCommand> INSTANCE = new ThreadLocal<>();
 
     /**
      * Constructs a new NextCommand with the specified parameters.
@@ -43,8 +43,10 @@ public final class NextCommand extends StandardCommandForUserPlayer {
      */
     public static NextCommand getInstance(final String command, final String username,
                                           final Integer timestamp, final ObjectNode node) {
+        NextCommand instance = INSTANCE.get();
         if (instance == null) {
             instance = new NextCommand(command, username, timestamp, node);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -166,58 +168,60 @@ public final class NextCommand extends StandardCommandForUserPlayer {
     public String updateCurrentPlaylistSongToNext(final NormalUser user,
                                           final ArrayList<SongPlayInfo> songList) {
         Playlist playlist = user.getLastLoadedPlaylist();
-        Integer currentSongIndex = playlist.getCurrentSongIndex();
+        PlaybackSession session = user.getPlaylistSession();
+        Integer currentSongIndex = session.getCurrentSongIndex();
 
-        if (user.getLastLoadedPlaylist().getRepeatStatus() == 0) {
+        if (session.getRepeatStatus() == 0) {
             if (songList.size() <= currentSongIndex + 1) {
                 // we have reached the end of the playlist. No next song
-                playlist.setPaused(true);
+                session.setPaused(true);
                 user.setLastLoadedPlaylist(null);
+                user.setLoaded(false);
                 return "Please load a source before skipping to the next track.";
             }
-            user.getLastLoadedPlaylist().setCurrentSongSecond(0);
-            user.getLastLoadedPlaylist().setCurrentSongIndex(currentSongIndex + 1);
+            session.setCurrentSecond(0);
+            session.setCurrentSongIndex(currentSongIndex + 1);
             currentSongIndex++;
             String currentTrackName = songList.get(currentSongIndex).getSong().getName();
-            user.getLastLoadedPlaylist().setPaused(false);
-            user.getLastLoadedPlaylist().setLastPlayTimestamp(this.timestamp);
+            session.setPaused(false);
+            session.setLastPlayTimestamp(this.timestamp);
             return "Skipped to next track successfully. The current track is "
                     + currentTrackName + ".";
         }
-        if (user.getLastLoadedPlaylist().getRepeatStatus() == 1) {
+        if (session.getRepeatStatus() == 1) {
             if (songList.size() > currentSongIndex + 1) {
-                user.getLastLoadedPlaylist().setCurrentSongSecond(0);
-                user.getLastLoadedPlaylist().setCurrentSongIndex(currentSongIndex + 1);
+                session.setCurrentSecond(0);
+                session.setCurrentSongIndex(currentSongIndex + 1);
                 currentSongIndex++;
                 String currentTrackName = songList.get(currentSongIndex).getSong().getName();
-                user.getLastLoadedPlaylist().setPaused(false);
-                user.getLastLoadedPlaylist().setLastPlayTimestamp(this.timestamp);
+                session.setPaused(false);
+                session.setLastPlayTimestamp(this.timestamp);
                 return "Skipped to next track successfully. The current track is "
                         + currentTrackName + ".";
             } else {
-                user.getLastLoadedPlaylist().setCurrentSongSecond(0);
-                user.getLastLoadedPlaylist().setCurrentSongIndex(0);
+                session.setCurrentSecond(0);
+                session.setCurrentSongIndex(0);
                 currentSongIndex = 0;
                 String currentTrackName = songList.get(currentSongIndex).getSong().getName();
-                user.getLastLoadedPlaylist().setPaused(false);
-                user.getLastLoadedPlaylist().setLastPlayTimestamp(this.timestamp);
+                session.setPaused(false);
+                session.setLastPlayTimestamp(this.timestamp);
                 return "Skipped to next track successfully. The current track is "
                         + currentTrackName + ".";
             }
         }
-        if (user.getLastLoadedPlaylist().getRepeatStatus() == 2) {
+        if (session.getRepeatStatus() == 2) {
             if (songList.size() > currentSongIndex + 1) {
-                user.getLastLoadedPlaylist().setCurrentSongSecond(0);
+                session.setCurrentSecond(0);
                 String currentTrackName = songList.get(currentSongIndex).getSong().getName();
-                user.getLastLoadedPlaylist().setPaused(false);
-                user.getLastLoadedPlaylist().setLastPlayTimestamp(this.timestamp);
+                session.setPaused(false);
+                session.setLastPlayTimestamp(this.timestamp);
                 return "Skipped to next track successfully. The current track is "
                         + currentTrackName + ".";
             } else {
-                user.getLastLoadedPlaylist().setCurrentSongSecond(0);
+                session.setCurrentSecond(0);
                 String currentTrackName = songList.get(currentSongIndex).getSong().getName();
-                user.getLastLoadedPlaylist().setPaused(false);
-                user.getLastLoadedPlaylist().setLastPlayTimestamp(this.timestamp);
+                session.setPaused(false);
+                session.setLastPlayTimestamp(this.timestamp);
                 return "Skipped to next track successfully. The current track is "
                         + currentTrackName + ".";
             }
@@ -237,59 +241,60 @@ public final class NextCommand extends StandardCommandForUserPlayer {
     public String updateCurrentAlbumSongToNext(final NormalUser user,
                                                   final ArrayList<SongPlayInfo> songList) {
         Album album = user.getLastLoadedAlbum();
-        Integer currentSongIndex = album.getCurrentSongIndex();
+        PlaybackSession session = user.getAlbumSession();
+        Integer currentSongIndex = session.getCurrentSongIndex();
 
-        if (user.getLastLoadedAlbum().getRepeatStatus() == 0) {
+        if (session.getRepeatStatus() == 0) {
             if (songList.size() <= currentSongIndex + 1) {
                 // we have reached the end of the album. No next song
-                album.setPaused(true);
+                session.setPaused(true);
                 user.setLastLoadedAlbum(null);
                 user.setLoaded(false);
                 return "Please load a source before skipping to the next track.";
             }
-            user.getLastLoadedAlbum().setCurrentSongSecond(0);
-            user.getLastLoadedAlbum().setCurrentSongIndex(currentSongIndex + 1);
+            session.setCurrentSecond(0);
+            session.setCurrentSongIndex(currentSongIndex + 1);
             currentSongIndex++;
             String currentTrackName = songList.get(currentSongIndex).getSong().getName();
-            user.getLastLoadedAlbum().setPaused(false);
-            user.getLastLoadedAlbum().setLastPlayTimestamp(this.timestamp);
+            session.setPaused(false);
+            session.setLastPlayTimestamp(this.timestamp);
             return "Skipped to next track successfully. The current track is "
                     + currentTrackName + ".";
         }
-        if (user.getLastLoadedAlbum().getRepeatStatus() == 1) {
+        if (session.getRepeatStatus() == 1) {
             if (songList.size() > currentSongIndex + 1) {
-                user.getLastLoadedAlbum().setCurrentSongSecond(0);
-                user.getLastLoadedAlbum().setCurrentSongIndex(currentSongIndex + 1);
+                session.setCurrentSecond(0);
+                session.setCurrentSongIndex(currentSongIndex + 1);
                 currentSongIndex++;
                 String currentTrackName = songList.get(currentSongIndex).getSong().getName();
-                user.getLastLoadedAlbum().setPaused(false);
-                user.getLastLoadedAlbum().setLastPlayTimestamp(this.timestamp);
+                session.setPaused(false);
+                session.setLastPlayTimestamp(this.timestamp);
                 return "Skipped to next track successfully. The current track is "
                         + currentTrackName + ".";
             } else {
-                user.getLastLoadedAlbum().setCurrentSongSecond(0);
-                user.getLastLoadedAlbum().setCurrentSongIndex(0);
+                session.setCurrentSecond(0);
+                session.setCurrentSongIndex(0);
                 currentSongIndex = 0;
                 String currentTrackName = songList.get(currentSongIndex).getSong().getName();
-                user.getLastLoadedAlbum().setPaused(false);
-                user.getLastLoadedAlbum().setLastPlayTimestamp(this.timestamp);
+                session.setPaused(false);
+                session.setLastPlayTimestamp(this.timestamp);
                 return "Skipped to next track successfully. The current track is "
                         + currentTrackName + ".";
             }
         }
-        if (user.getLastLoadedAlbum().getRepeatStatus() == 2) {
+        if (session.getRepeatStatus() == 2) {
             if (songList.size() > currentSongIndex + 1) {
-                user.getLastLoadedAlbum().setCurrentSongSecond(0);
+                session.setCurrentSecond(0);
                 String currentTrackName = songList.get(currentSongIndex).getSong().getName();
-                user.getLastLoadedAlbum().setPaused(false);
-                user.getLastLoadedAlbum().setLastPlayTimestamp(this.timestamp);
+                session.setPaused(false);
+                session.setLastPlayTimestamp(this.timestamp);
                 return "Skipped to next track successfully. The current track is "
                         + currentTrackName + ".";
             } else {
-                user.getLastLoadedAlbum().setCurrentSongSecond(0);
+                session.setCurrentSecond(0);
                 String currentTrackName = songList.get(currentSongIndex).getSong().getName();
-                user.getLastLoadedAlbum().setPaused(false);
-                user.getLastLoadedAlbum().setLastPlayTimestamp(this.timestamp);
+                session.setPaused(false);
+                session.setLastPlayTimestamp(this.timestamp);
                 return "Skipped to next track successfully. The current track is "
                         + currentTrackName + ".";
             }
@@ -308,10 +313,11 @@ public final class NextCommand extends StandardCommandForUserPlayer {
      */
     public String executePlaylistNext(final NormalUser user) {
         Playlist playlist = user.getLastLoadedPlaylist();
-        if (!playlist.getShuffleStatus()) {
+        PlaybackSession session = user.getPlaylistSession();
+        if (!session.getShuffleStatus()) {
             return updateCurrentPlaylistSongToNext(user, playlist.getPlaylistSongs());
         } else {
-            return updateCurrentPlaylistSongToNext(user, playlist.getShuffledPlaylistSongs());
+            return updateCurrentPlaylistSongToNext(user, session.getShuffledSongs());
         }
     }
 
@@ -326,10 +332,11 @@ public final class NextCommand extends StandardCommandForUserPlayer {
      */
     public String executeAlbumNext(final NormalUser user) {
         Album album = user.getLastLoadedAlbum();
-        if (!album.getShuffleStatus()) {
+        PlaybackSession session = user.getAlbumSession();
+        if (!session.getShuffleStatus()) {
             return updateCurrentAlbumSongToNext(user, album.getSongs());
         } else {
-            return updateCurrentAlbumSongToNext(user, album.getShuffledSongs());
+            return updateCurrentAlbumSongToNext(user, session.getShuffledSongs());
         }
     }
 
@@ -343,24 +350,23 @@ public final class NextCommand extends StandardCommandForUserPlayer {
      * @return A message indicating the success of skipping to the next track or episode.
      */
     public String getMessage() {
-        for (NormalUser user : Main.normalUserList) {
-            if (user.getUsername().equals(this.username)) {
-                if (!user.stillHasSomethingLoaded(this.timestamp)) {
-                    return "Please load a source before skipping to the next track.";
-                }
-                if (user.getLastSearchTypeIndicator() == TYPE_PLAYLIST) {
-                    user.getLastLoadedPlaylist().setLastPlayTimestamp(this.timestamp);
-                    user.getLastLoadedPlaylist().setPaused(false);
-                    return executePlaylistNext(user);
-                }
-                if (user.getLastSearchTypeIndicator() == TYPE_ALBUM) {
-                    user.getLastLoadedAlbum().setLastPlayTimestamp(this.timestamp);
-                    user.getLastLoadedAlbum().setPaused(false);
-                    return executeAlbumNext(user);
-                }
-                if (user.getLastSearchTypeIndicator() == TYPE_PODCAST) {
-                    return executePodcastNext(user);
-                }
+        NormalUser user = context.getUserRegistry().getNormalUser(this.username);
+        if (user != null) {
+            if (!user.stillHasSomethingLoaded(this.timestamp)) {
+                return "Please load a source before skipping to the next track.";
+            }
+            if (user.getLastSearchTypeIndicator() == TYPE_PLAYLIST) {
+                user.getPlaylistSession().setLastPlayTimestamp(this.timestamp);
+                user.getPlaylistSession().setPaused(false);
+                return executePlaylistNext(user);
+            }
+            if (user.getLastSearchTypeIndicator() == TYPE_ALBUM) {
+                user.getAlbumSession().setLastPlayTimestamp(this.timestamp);
+                user.getAlbumSession().setPaused(false);
+                return executeAlbumNext(user);
+            }
+            if (user.getLastSearchTypeIndicator() == TYPE_PODCAST) {
+                return executePodcastNext(user);
             }
         }
         return null;
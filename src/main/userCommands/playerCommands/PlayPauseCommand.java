@@ -2,21 +2,22 @@ package main.userCommands.playerCommands;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import fileio.input.audioEntities.Album;
+import fileio.input.audioEntities.PlaybackSession;
 import fileio.input.audioEntities.Playlist;
 import fileio.input.audioEntities.PodcastPlayInfo;
-import main.Main;
 import fileio.input.audioEntities.SongPlayInfo;
+import main.commandsHandling.MessageCommand;
 import main.userCommands.StandardCommandForUserPlayer;
 import users.NormalUser;
 
 import java.util.ArrayList;
 
-public final class PlayPauseCommand extends StandardCommandForUserPlayer {
+public final class PlayPauseCommand extends StandardCommandForUserPlayer implements MessageCommand {
     private static final int TYPE_PLAYLIST = 3;
     private static final int TYPE_ALBUM = 4;
 
-    // Singleton instance field
-    private static PlayPauseCommand instance = null;
+    // Singleton instance field, one per thread running a simulation
+    private static final ThreadLocal<PlayPauseCommand> INSTANCE = new ThreadLocal<>();
 
     /**
      * Constructs a new PlayPauseCommand with the specified parameters.
@@ -41,8 +42,10 @@ public final class PlayPauseCommand extends StandardCommandForUserPlayer {
      */
     public static PlayPauseCommand getInstance(final String command, final String username,
                                                final Integer timestamp, final ObjectNode node) {
+        PlayPauseCommand instance = INSTANCE.get();
         if (instance == null) {
             instance = new PlayPauseCommand(command, username, timestamp, node);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -58,15 +61,7 @@ public final class PlayPauseCommand extends StandardCommandForUserPlayer {
      * @return The ObjectNode containing information about the play/pause action.
      */
     public ObjectNode execute() {
-        node.put("command", this.getCommand());
-        node.put("user", this.getUsername());
-        node.put("timestamp", this.getTimestamp());
-        if (!this.isUserOnline(this.getUsername())) {
-            node.put("message", this.getUsername() + " is offline.");
-            return node;
-        }
-        node.put("message", this.getCommandMessage());
-        return node;
+        return writeMessageOutput();
     }
 
 
@@ -82,7 +77,7 @@ public final class PlayPauseCommand extends StandardCommandForUserPlayer {
         }
 
         // check if we are switching from play to pause
-        if (!user.getLastLoadedSongPlayInfo().getSongPaused()) {
+        if (!user.getSongSession().getPaused()) {
             SongPlayInfo songPlayInfo = user.getLastLoadedSongPlayInfo();
             songPlayInfo.updateSongStatus(user, this.timestamp);
 
@@ -91,13 +86,13 @@ public final class PlayPauseCommand extends StandardCommandForUserPlayer {
                 return "Please load a source before attempting to pause or resume playback.";
             }
 
-            user.getLastLoadedSongPlayInfo().setSongPaused(true);
+            user.getSongSession().setPaused(true);
             return "Playback paused successfully.";
         }
 
         // if we are here, it means that we are switching from pause to play
-        user.getLastLoadedSongPlayInfo().setLastPlayTimestamp(this.timestamp);
-        user.getLastLoadedSongPlayInfo().setSongPaused(false);
+        user.getSongSession().setLastPlayTimestamp(this.timestamp);
+        user.getSongSession().setPaused(false);
         return "Playback resumed successfully.";
     }
 
@@ -140,18 +135,19 @@ public final class PlayPauseCommand extends StandardCommandForUserPlayer {
             return "Please load a source before attempting to pause or resume playback.";
         }
 
-        if (!user.getLastLoadedPlaylist().getPaused()) {
+        if (!user.getPlaylistSession().getPaused()) {
             // the playlist is currently playing
             Playlist playList = user.getLastLoadedPlaylist();
+            PlaybackSession session = user.getPlaylistSession();
 
             // check playlist shuffle status
-            if (!playList.getShuffleStatus()) {
+            if (!session.getShuffleStatus()) {
                 ArrayList<SongPlayInfo> playlistSongs;
                 playlistSongs = user.getLastLoadedPlaylist().getPlaylistSongs();
                 playList.updatePlaylistStatus(user, timestamp, playlistSongs);
             } else {
                 ArrayList<SongPlayInfo> shuffledSongs;
-                shuffledSongs = user.getLastLoadedPlaylist().getShuffledPlaylistSongs();
+                shuffledSongs = session.getShuffledSongs();
                 playList.updatePlaylistStatus(user, timestamp, shuffledSongs);
             }
 
@@ -160,12 +156,12 @@ public final class PlayPauseCommand extends StandardCommandForUserPlayer {
                 return "Please load a source before attempting to pause or resume playback.";
             }
 
-            user.getLastLoadedPlaylist().setPaused(true);
+            session.setPaused(true);
             return "Playback paused successfully.";
         } else {
             // playlist is currently paused
-            user.getLastLoadedPlaylist().setLastPlayTimestamp(this.timestamp);
-            user.getLastLoadedPlaylist().setPaused(false);
+            user.getPlaylistSession().setLastPlayTimestamp(this.timestamp);
+            user.getPlaylistSession().setPaused(false);
             return "Playback resumed successfully.";
         }
     }
@@ -181,18 +177,19 @@ public final class PlayPauseCommand extends StandardCommandForUserPlayer {
             return "Please load a source before attempting to pause or resume playback.";
         }
 
-        if (!user.getLastLoadedAlbum().getPaused()) {
+        if (!user.getAlbumSession().getPaused()) {
             // the album is currently playing
             Album album = user.getLastLoadedAlbum();
+            PlaybackSession session = user.getAlbumSession();
 
             // check album shuffle status
-            if (!album.getShuffleStatus()) {
+            if (!session.getShuffleStatus()) {
                 ArrayList<SongPlayInfo> albumSongs;
                 albumSongs = user.getLastLoadedAlbum().getSongs();
                 album.updateAlbumStatus(user, timestamp, albumSongs);
             } else {
                 ArrayList<SongPlayInfo> shuffledSongs;
-                shuffledSongs = user.getLastLoadedAlbum().getShuffledSongs();
+                shuffledSongs = session.getShuffledSongs();
                 album.updateAlbumStatus(user, timestamp, shuffledSongs);
             }
 
@@ -201,12 +198,12 @@ public final class PlayPauseCommand extends StandardCommandForUserPlayer {
                 return "Please load a source before attempting to pause or resume playback.";
             }
 
-            user.getLastLoadedAlbum().setPaused(true);
+            session.setPaused(true);
             return "Playback paused successfully.";
         } else {
             // album is currently paused
-            user.getLastLoadedAlbum().setLastPlayTimestamp(this.timestamp);
-            user.getLastLoadedAlbum().setPaused(false);
+            user.getAlbumSession().setLastPlayTimestamp(this.timestamp);
+            user.getAlbumSession().setPaused(false);
             return "Playback resumed successfully.";
         }
     }
@@ -217,32 +214,34 @@ public final class PlayPauseCommand extends StandardCommandForUserPlayer {
      * @return A message indicating the result of the play/pause action.
      */
     public String getCommandMessage() {
-        for (NormalUser user : Main.normalUserList) {
-            if (user.getUsername().equals(this.username)) {
-                if (!user.getLoaded()) {
-                    return "Please load a source before attempting to pause or resume playback.";
-                }
-
-                // decide if we are operating a song, podcast or playlist
-                if (user.getLastSearchTypeIndicator() == 1) {
-                    // song
-                    return executePlayPauseSong(user);
-                }
-
-                if (user.getLastSearchTypeIndicator() == 2) {
-                    //podcast
-                    return executePlayPausePodcast(user);
-                }
-
-                if (user.getLastSearchTypeIndicator() == TYPE_PLAYLIST) {
-                    // playlist
-                    return executePlayPausePlaylist(user);
-                }
-
-                if (user.getLastSearchTypeIndicator() == TYPE_ALBUM) {
-                    // album
-                    return executePlayPauseAlbum(user);
-                }
+        if (!this.isUserOnline(this.username)) {
+            return this.username + " is offline.";
+        }
+        NormalUser user = context.getUserRegistry().getNormalUser(this.username);
+        if (user != null) {
+            if (!user.getLoaded()) {
+                return "Please load a source before attempting to pause or resume playback.";
+            }
+
+            // decide if we are operating a song, podcast or playlist
+            if (user.getLastSearchTypeIndicator() == 1) {
+                // song
+                return executePlayPauseSong(user);
+            }
+
+            if (user.getLastSearchTypeIndicator() == 2) {
+                //podcast
+                return executePlayPausePodcast(user);
+            }
+
+            if (user.getLastSearchTypeIndicator() == TYPE_PLAYLIST) {
+                // playlist
+                return executePlayPausePlaylist(user);
+            }
+
+            if (user.getLastSearchTypeIndicator() == TYPE_ALBUM) {
+                // album
+                return executePlayPauseAlbum(user);
             }
         }
         return null;
@@ -2,7 +2,7 @@ package main.userCommands.playerCommands;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import fileio.input.audioEntities.Album;
-import main.Main;
+import fileio.input.audioEntities.PlaybackSession;
 import fileio.input.audioEntities.Playlist;
 import fileio.input.audioEntities.SongPlayInfo;
 import main.userCommands.StandardCommandForUserPlayer;
@@ -14,8 +14,8 @@ public final class PrevCommand extends StandardCommandForUserPlayer {
     private static final int TYPE_PLAYLIST = 3;
     private static final int TYPE_ALBUM = 4;
 
-    // Singleton instance field
-    private static PrevCommand instance = null;
+    // Singleton instance field, one per thread running a simulation
+    private static final ThreadLocal<PrevCommand> INSTANCE = new ThreadLocal<>();
 
     /**
      * Constructs a new PrevCommand with the specified parameters.
@@ -40,8 +40,10 @@ public final class PrevCommand extends StandardCommandForUserPlayer {
      */
     public static PrevCommand getInstance(final String command, final String username,
                                           final Integer timestamp, final ObjectNode node) {
+        PrevCommand instance = INSTANCE.get();
         if (instance == null) {
             instance = new PrevCommand(command, username, timestamp, node);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -80,10 +82,11 @@ public final class PrevCommand extends StandardCommandForUserPlayer {
      */
     public String executePlaylistPrev(final NormalUser user) {
         Playlist playlist = user.getLastLoadedPlaylist();
-        if (!user.getLastLoadedPlaylist().getShuffleStatus()) {
+        PlaybackSession session = user.getPlaylistSession();
+        if (!session.getShuffleStatus()) {
             return updateCurrentToPrevPlaylist(user, playlist.getPlaylistSongs());
         } else {
-            return updateCurrentToPrevPlaylist(user, playlist.getShuffledPlaylistSongs());
+            return updateCurrentToPrevPlaylist(user, session.getShuffledSongs());
         }
 
     }
@@ -99,10 +102,11 @@ public final class PrevCommand extends StandardCommandForUserPlayer {
      */
     public String executeAlbumPrev(final NormalUser user) {
         Album album = user.getLastLoadedAlbum();
-        if (!user.getLastLoadedAlbum().getShuffleStatus()) {
+        PlaybackSession session = user.getAlbumSession();
+        if (!session.getShuffleStatus()) {
             return updateCurrentToPrevAlbum(user, album.getSongs());
         } else {
-            return updateCurrentToPrevAlbum(user, album.getShuffledSongs());
+            return updateCurrentToPrevAlbum(user, session.getShuffledSongs());
         }
 
     }
@@ -120,33 +124,34 @@ public final class PrevCommand extends StandardCommandForUserPlayer {
     public String updateCurrentToPrevPlaylist(final NormalUser user,
                                               final ArrayList<SongPlayInfo> songList) {
         Playlist playlist = user.getLastLoadedPlaylist();
-        Integer currentSongSecond = playlist.getCurrentSongSecond();
-        Integer currentSongIndex = playlist.getCurrentSongIndex();
+        PlaybackSession session = user.getPlaylistSession();
+        Integer currentSongSecond = session.getCurrentSecond();
+        Integer currentSongIndex = session.getCurrentSongIndex();
         if (currentSongSecond > 0) {
             // go to the beginning of the same song
-            user.getLastLoadedPlaylist().setCurrentSongSecond(0);
-            user.getLastLoadedPlaylist().setPaused(false);
-            user.getLastLoadedPlaylist().setLastPlayTimestamp(this.timestamp);
+            session.setCurrentSecond(0);
+            session.setPaused(false);
+            session.setLastPlayTimestamp(this.timestamp);
             String currentTrackName = songList.get(currentSongIndex).getSong().getName();
             return "Returned to previous track successfully. The current track is "
                     + currentTrackName + ".";
         } else {
             //check if this is the first song of the playlist
             if (currentSongIndex != 0) {
-                user.getLastLoadedPlaylist().setCurrentSongSecond(0);
-                user.getLastLoadedPlaylist().setCurrentSongIndex(currentSongIndex - 1);
-                user.getLastLoadedPlaylist().setPaused(false);
-                user.getLastLoadedPlaylist().setLastPlayTimestamp(this.timestamp);
+                session.setCurrentSecond(0);
+                session.setCurrentSongIndex(currentSongIndex - 1);
+                session.setPaused(false);
+                session.setLastPlayTimestamp(this.timestamp);
                 String currentTrackName = songList.get(currentSongIndex - 1).getSong().getName();
                 return "Returned to previous track successfully. The current track is "
                         + currentTrackName + ".";
             }
 
             // replay playlist from the beginning
-            user.getLastLoadedPlaylist().setCurrentSongSecond(0);
-            user.getLastLoadedPlaylist().setCurrentSongIndex(0);
-            user.getLastLoadedPlaylist().setPaused(false);
-            user.getLastLoadedPlaylist().setLastPlayTimestamp(this.timestamp);
+            session.setCurrentSecond(0);
+            session.setCurrentSongIndex(0);
+            session.setPaused(false);
+            session.setLastPlayTimestamp(this.timestamp);
             String currentTrackName = songList.get(0).getSong().getName();
             return "Returned to previous track successfully. The current track is "
                     + currentTrackName + ".";
@@ -167,33 +172,34 @@ public final class PrevCommand extends StandardCommandForUserPlayer {
     public String updateCurrentToPrevAlbum(final NormalUser user,
                                            final ArrayList<SongPlayInfo> songList) {
         Album album = user.getLastLoadedAlbum();
-        Integer currentSongSecond = album.getCurrentSongSecond();
-        Integer currentSongIndex = album.getCurrentSongIndex();
+        PlaybackSession session = user.getAlbumSession();
+        Integer currentSongSecond = session.getCurrentSecond();
+        Integer currentSongIndex = session.getCurrentSongIndex();
         if (currentSongSecond > 0) {
             // go to the beginning of the same song
-            user.getLastLoadedAlbum().setCurrentSongSecond(0);
-            user.getLastLoadedAlbum().setPaused(false);
-            user.getLastLoadedAlbum().setLastPlayTimestamp(this.timestamp);
+            session.setCurrentSecond(0);
+            session.setPaused(false);
+            session.setLastPlayTimestamp(this.timestamp);
             String currentTrackName = songList.get(currentSongIndex).getSong().getName();
             return "Returned to previous track successfully. The current track is "
                     + currentTrackName + ".";
         } else {
             //check if this is the first song of the album
             if (currentSongIndex != 0) {
-                user.getLastLoadedAlbum().setCurrentSongSecond(0);
-                user.getLastLoadedAlbum().setCurrentSongIndex(currentSongIndex - 1);
-                user.getLastLoadedAlbum().setPaused(false);
-                user.getLastLoadedAlbum().setLastPlayTimestamp(this.timestamp);
+                session.setCurrentSecond(0);
+                session.setCurrentSongIndex(currentSongIndex - 1);
+                session.setPaused(false);
+                session.setLastPlayTimestamp(this.timestamp);
                 String currentTrackName = songList.get(currentSongIndex - 1).getSong().getName();
                 return "Returned to previous track successfully. The current track is "
                         + currentTrackName + ".";
             }
 
             // replay album from the beginning
-            user.getLastLoadedAlbum().setCurrentSongSecond(0);
-            user.getLastLoadedAlbum().setCurrentSongIndex(0);
-            user.getLastLoadedAlbum().setPaused(false);
-            user.getLastLoadedAlbum().setLastPlayTimestamp(this.timestamp);
+            session.setCurrentSecond(0);
+            session.setCurrentSongIndex(0);
+            session.setPaused(false);
+            session.setLastPlayTimestamp(this.timestamp);
             String currentTrackName = songList.get(0).getSong().getName();
             return "Returned to previous track successfully. The current track is "
                     + currentTrackName + ".";
@@ -210,17 +216,16 @@ public final class PrevCommand extends StandardCommandForUserPlayer {
      * @return A message indicating the success of returning to the previous track.
      */
     public String getMessage() {
-        for (NormalUser user : Main.normalUserList) {
-            if (user.getUsername().equals(this.username)) {
-                if (!user.stillHasSomethingLoaded(this.timestamp)) {
-                    return "Please load a source before returning to the previous track.";
-                }
-                if (user.getLastSearchTypeIndicator() == TYPE_PLAYLIST) {
-                    return executePlaylistPrev(user);
-                }
-                if (user.getLastSearchTypeIndicator() == TYPE_ALBUM) {
-                    return executeAlbumPrev(user);
-                }
+        NormalUser user = context.getUserRegistry().getNormalUser(this.username);
+        if (user != null) {
+            if (!user.stillHasSomethingLoaded(this.timestamp)) {
+                return "Please load a source before returning to the previous track.";
+            }
+            if (user.getLastSearchTypeIndicator() == TYPE_PLAYLIST) {
+                return executePlaylistPrev(user);
+            }
+            if (user.getLastSearchTypeIndicator() == TYPE_ALBUM) {
+                return executeAlbumPrev(user);
             }
         }
         return null;
@@ -1,7 +1,6 @@
 package main.userCommands.playerCommands;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import main.Main;
 import main.userCommands.StandardCommandForUserPlayer;
 import users.NormalUser;
 
@@ -12,8 +11,8 @@ public final class RepeatCommand extends StandardCommandForUserPlayer {
 
     private static final int TYPE_ALBUM = 4;
 
-    // Singleton instance field
-    private static RepeatCommand instance = null;
+    // Singleton instance field, one per thread running a simulation
+    private static final ThreadLocal<RepeatCommand> INSTANCE = new ThreadLocal<>();
 
     /**
      * Constructs a new RepeatCommand with the specified parameters.
@@ -38,8 +37,10 @@ public final class RepeatCommand extends StandardCommandForUserPlayer {
      */
     public static RepeatCommand getInstance(final String command, final String username,
                                             final Integer timestamp, final ObjectNode node) {
+        RepeatCommand instance = INSTANCE.get();
         if (instance == null) {
             instance = new RepeatCommand(command, username, timestamp, node);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -58,30 +59,29 @@ public final class RepeatCommand extends StandardCommandForUserPlayer {
         node.put("command", this.getCommand());
         node.put("user", this.getUsername());
         node.put("timestamp", this.getTimestamp());
-        for (NormalUser user : Main.normalUserList) {
-            if (user.getUsername().equals(this.getUsername())) {
-                if (!user.getConnectionStatus()) {
-                    // the user is offline
-                    node.put("message", this.getUsername() + " is offline.");
-                    return node;
-                }
-                if (!user.stillHasSomethingLoaded(this.getTimestamp())) {
-                    // check if any source has been loaded
-                    node.put("message", "Please load a source before setting the repeat status.");
-                    return node;
-                }
-                if (user.getLastSearchTypeIndicator() == TYPE_SONG) {
-                    node.put("message", this.changeSongRepeatMode(user));
-                }
-                if (user.getLastSearchTypeIndicator() == TYPE_PODCAST) {
-                    node.put("message", this.changePodcastRepeatMode(user));
-                }
-                if (user.getLastSearchTypeIndicator() == TYPE_PLAYLIST) {
-                    node.put("message", this.changePlaylistRepeatMode(user));
-                }
-                if (user.getLastSearchTypeIndicator() == TYPE_ALBUM) {
-                    node.put("message", this.changeAlbumRepeatMode(user));
-                }
+        NormalUser user = context.getUserRegistry().getNormalUser(this.getUsername());
+        if (user != null) {
+            if (!user.getConnectionStatus()) {
+                // the user is offline
+                node.put("message", this.getUsername() + " is offline.");
+                return node;
+            }
+            if (!user.stillHasSomethingLoaded(this.getTimestamp())) {
+                // check if any source has been loaded
+                node.put("message", "Please load a source before setting the repeat status.");
+                return node;
+            }
+            if (user.getLastSearchTypeIndicator() == TYPE_SONG) {
+                node.put("message", this.changeSongRepeatMode(user));
+            }
+            if (user.getLastSearchTypeIndicator() == TYPE_PODCAST) {
+                node.put("message", this.changePodcastRepeatMode(user));
+            }
+            if (user.getLastSearchTypeIndicator() == TYPE_PLAYLIST) {
+                node.put("message", this.changePlaylistRepeatMode(user));
+            }
+            if (user.getLastSearchTypeIndicator() == TYPE_ALBUM) {
+                node.put("message", this.changeAlbumRepeatMode(user));
             }
         }
         return node;
@@ -95,16 +95,16 @@ public final class RepeatCommand extends StandardCommandForUserPlayer {
      * @return A message indicating the result of the repeat mode change for the song.
      */
     public String changeSongRepeatMode(final NormalUser user) {
-        if (user.getLastLoadedSongPlayInfo().getRepeatStatus() == 0) {
-            user.getLastLoadedSongPlayInfo().setRepeatStatus(1);
+        if (user.getSongSession().getRepeatStatus() == 0) {
+            user.getSongSession().setRepeatStatus(1);
             return "Repeat mode changed to repeat once.";
         }
-        if (user.getLastLoadedSongPlayInfo().getRepeatStatus() == 1) {
-            user.getLastLoadedSongPlayInfo().setRepeatStatus(2);
+        if (user.getSongSession().getRepeatStatus() == 1) {
+            user.getSongSession().setRepeatStatus(2);
             return "Repeat mode changed to repeat infinite.";
         }
-        if (user.getLastLoadedSongPlayInfo().getRepeatStatus() == 2) {
-            user.getLastLoadedSongPlayInfo().setRepeatStatus(0);
+        if (user.getSongSession().getRepeatStatus() == 2) {
+            user.getSongSession().setRepeatStatus(0);
             return "Repeat mode changed to no repeat.";
         }
         return null;
@@ -123,12 +123,12 @@ public final class RepeatCommand extends StandardCommandForUserPlayer {
             return "Repeat mode changed to Repeat Once.";
         }
 
-        if (user.getLastLoadedPlaylist().getRepeatStatus() == 1) {
+        if (user.getPlaylistSession().getRepeatStatus() == 1) {
             user.getLastLoadedPodcast().setRepeatStatus(2);
             return "Repeat mode changed to Repeat Infinite.";
         }
 
-        if (user.getLastLoadedPlaylist().getRepeatStatus() == 2) {
+        if (user.getPlaylistSession().getRepeatStatus() == 2) {
             user.getLastLoadedPodcast().setRepeatStatus(0);
             return "Repeat mode changed to No Repeat.";
         }
@@ -143,18 +143,18 @@ public final class RepeatCommand extends StandardCommandForUserPlayer {
      * @return A message indicating the result of the repeat mode change for the playlist.
      */
     public String changePlaylistRepeatMode(final NormalUser user) {
-        if (user.getLastLoadedPlaylist().getRepeatStatus() == 0) {
-            user.getLastLoadedPlaylist().setRepeatStatus(1);
+        if (user.getPlaylistSession().getRepeatStatus() == 0) {
+            user.getPlaylistSession().setRepeatStatus(1);
             return "Repeat mode changed to repeat all.";
         }
 
-        if (user.getLastLoadedPlaylist().getRepeatStatus() == 1) {
-            user.getLastLoadedPlaylist().setRepeatStatus(2);
+        if (user.getPlaylistSession().getRepeatStatus() == 1) {
+            user.getPlaylistSession().setRepeatStatus(2);
             return "Repeat mode changed to repeat current song.";
         }
 
-        if (user.getLastLoadedPlaylist().getRepeatStatus() == 2) {
-            user.getLastLoadedPlaylist().setRepeatStatus(0);
+        if (user.getPlaylistSession().getRepeatStatus() == 2) {
+            user.getPlaylistSession().setRepeatStatus(0);
             return "Repeat mode changed to no repeat.";
         }
         return null;
@@ -167,18 +167,18 @@ public final class RepeatCommand extends StandardCommandForUserPlayer {
      * @return A message indicating the result of the repeat mode change for the album.
      */
     public String changeAlbumRepeatMode(final NormalUser user) {
-        if (user.getLastLoadedAlbum().getRepeatStatus() == 0) {
-            user.getLastLoadedAlbum().setRepeatStatus(1);
+        if (user.getAlbumSession().getRepeatStatus() == 0) {
+            user.getAlbumSession().setRepeatStatus(1);
             return "Repeat mode changed to repeat all.";
         }
 
-        if (user.getLastLoadedAlbum().getRepeatStatus() == 1) {
-            user.getLastLoadedAlbum().setRepeatStatus(2);
+        if (user.getAlbumSession().getRepeatStatus() == 1) {
+            user.getAlbumSession().setRepeatStatus(2);
             return "Repeat mode changed to repeat current song.";
         }
 
-        if (user.getLastLoadedAlbum().getRepeatStatus() == 2) {
-            user.getLastLoadedAlbum().setRepeatStatus(0);
+        if (user.getAlbumSession().getRepeatStatus() == 2) {
+            user.getAlbumSession().setRepeatStatus(0);
             return "Repeat mode changed to no repeat.";
         }
         return null;
@@ -2,9 +2,9 @@ package main.userCommands.playerCommands;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import fileio.input.audioEntities.Album;
+import fileio.input.audioEntities.PlaybackSession;
 import fileio.input.audioEntities.Playlist;
 import fileio.input.audioEntities.SongPlayInfo;
-import main.Main;
 import main.userCommands.StandardCommandForUserPlayer;
 import users.NormalUser;
 
@@ -19,8 +19,8 @@ public final class ShuffleCommand extends StandardCommandForUserPlayer {
 
     private static final int TYPE_ALBUM = 4;
 
-    // Singleton instance field
-    private static ShuffleCommand instance = null;
+    // Singleton instance field, one per thread running a simulation
+    private static final ThreadLocal<ShuffleCommand> INSTANCE = new ThreadLocal<>();
 
     /**
      * Gets the shuffle seed.
@@ -66,8 +66,10 @@ public final class ShuffleCommand extends StandardCommandForUserPlayer {
     public static ShuffleCommand getInstance(final String command, final String username,
                                              final Integer timestamp, final Integer seed,
                                              final ObjectNode node) {
+        ShuffleCommand instance = INSTANCE.get();
         if (instance == null) {
             instance = new ShuffleCommand(command, username, timestamp, seed, node);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -87,55 +89,54 @@ public final class ShuffleCommand extends StandardCommandForUserPlayer {
         node.put("command", this.getCommand());
         node.put("user", this.getUsername());
         node.put("timestamp", this.getTimestamp());
-        for (NormalUser user : Main.normalUserList) {
-            if (user.getUsername().equals(this.getUsername())) {
-                if (!user.getConnectionStatus()) {
-                    // the user is offline
-                    node.put("message", this.getUsername() + " is offline.");
-                    return node;
-                }
-                if (!user.stillHasSomethingLoaded(this.getTimestamp())) {
-                    node.put("message", "Please load a source before using the shuffle function.");
+        NormalUser user = context.getUserRegistry().getNormalUser(this.getUsername());
+        if (user != null) {
+            if (!user.getConnectionStatus()) {
+                // the user is offline
+                node.put("message", this.getUsername() + " is offline.");
+                return node;
+            }
+            if (!user.stillHasSomethingLoaded(this.getTimestamp())) {
+                node.put("message", "Please load a source before using the shuffle function.");
+                return node;
+            }
+            if (user.getLastLoadTypeIndicator() == 1) {
+                node.put("message", "The loaded source is not a playlist or an album.");
+            }
+            if (user.getLastLoadTypeIndicator() == 2) {
+                node.put("message", "The loaded source is not a playlist or an album.");
+            }
+            if (user.getLastLoadTypeIndicator() == TYPE_PLAYLIST) {
+                if (user.getLastLoadedPlaylist() == null) {
+                    node.put("message",
+                            "Please load a source before using the shuffle function.");
                     return node;
                 }
-                if (user.getLastLoadTypeIndicator() == 1) {
-                    node.put("message", "The loaded source is not a playlist or an album.");
+                if (!user.getPlaylistSession().getShuffleStatus()) {
+                    // we need to switch to shuffle mode
+                    return this.activateShuffleModeForPlaylist(user);
+                } else {
+                    // we need to unshuffle the playlist
+                    return this.deactivateShuffleModeForPlaylist(user);
                 }
-                if (user.getLastLoadTypeIndicator() == 2) {
-                    node.put("message", "The loaded source is not a playlist or an album.");
-                }
-                if (user.getLastLoadTypeIndicator() == TYPE_PLAYLIST) {
-                    if (user.getLastLoadedPlaylist() == null) {
-                        node.put("message",
-                                "Please load a source before using the shuffle function.");
-                        return node;
-                    }
-                    if (!user.getLastLoadedPlaylist().getShuffleStatus()) {
-                        // we need to switch to shuffle mode
-                        return this.activateShuffleModeForPlaylist(user);
-                    } else {
-                        // we need to unshuffle the playlist
-                        return this.deactivateShuffleModeForPlaylist(user);
-                    }
 
+            }
+            if (user.getLastLoadTypeIndicator() == TYPE_ALBUM) {
+                if (user.getLastLoadedAlbum() == null) {
+                    node.put("message",
+                            "Please load a source before using the shuffle function.");
+                    return node;
                 }
-                if (user.getLastLoadTypeIndicator() == TYPE_ALBUM) {
-                    if (user.getLastLoadedAlbum() == null) {
-                        node.put("message",
-                                "Please load a source before using the shuffle function.");
-                        return node;
-                    }
-                    if (!user.getLastLoadedAlbum().getShuffleStatus()) {
-                        // we need to switch to shuffle mode
-                        return this.activateShuffleModeForAlbum(user);
-                    } else {
-                        // we need to unshuffle the album
-                        return this.deactivateShuffleModeForAlbum(user);
-                    }
-
+                if (!user.getAlbumSession().getShuffleStatus()) {
+                    // we need to switch to shuffle mode
+                    return this.activateShuffleModeForAlbum(user);
+                } else {
+                    // we need to unshuffle the album
+                    return this.deactivateShuffleModeForAlbum(user);
                 }
 
             }
+
         }
         return node;
     }
@@ -182,14 +183,15 @@ public final class ShuffleCommand extends StandardCommandForUserPlayer {
      */
     void updateIndextoShuffledListForPlaylist(final NormalUser user) {
         Playlist playlist = user.getLastLoadedPlaylist();
-        Integer currentSongIdx = playlist.getCurrentSongIndex();
+        PlaybackSession session = user.getPlaylistSession();
+        Integer currentSongIdx = session.getCurrentSongIndex();
         String currentSongName = playlist.getPlaylistSongs().get(currentSongIdx)
                 .getSong().getName();
-        for (int i = 0; i < playlist.getShuffledPlaylistSongs().size(); i++) {
+        for (int i = 0; i < session.getShuffledSongs().size(); i++) {
             String shuffledSongName;
-            shuffledSongName = playlist.getShuffledPlaylistSongs().get(i).getSong().getName();
+            shuffledSongName = session.getShuffledSongs().get(i).getSong().getName();
             if (shuffledSongName.equals(currentSongName)) {
-                user.getLastLoadedPlaylist().setCurrentSongIndex(i);
+                session.setCurrentSongIndex(i);
             }
         }
     }
@@ -201,13 +203,14 @@ public final class ShuffleCommand extends StandardCommandForUserPlayer {
      */
     void updateIndextoShuffledListForAlbum(final NormalUser user) {
         Album album = user.getLastLoadedAlbum();
-        Integer currentSongIdx = album.getCurrentSongIndex();
+        PlaybackSession session = user.getAlbumSession();
+        Integer currentSongIdx = session.getCurrentSongIndex();
         String currentSongName = album.getSongs().get(currentSongIdx).getSong().getName();
-        for (int i = 0; i < album.getShuffledSongs().size(); i++) {
+        for (int i = 0; i < session.getShuffledSongs().size(); i++) {
             String shuffledSongName;
-            shuffledSongName = album.getShuffledSongs().get(i).getSong().getName();
+            shuffledSongName = session.getShuffledSongs().get(i).getSong().getName();
             if (shuffledSongName.equals(currentSongName)) {
-                user.getLastLoadedAlbum().setCurrentSongIndex(i);
+                session.setCurrentSongIndex(i);
             }
         }
     }
@@ -219,14 +222,15 @@ public final class ShuffleCommand extends StandardCommandForUserPlayer {
      */
     void getIndexBackToUnshuffledListForPlaylist(final NormalUser user) {
         Playlist playlist = user.getLastLoadedPlaylist();
-        Integer currentSongIdx = playlist.getCurrentSongIndex();
-        String currentSongName = playlist.getShuffledPlaylistSongs()
+        PlaybackSession session = user.getPlaylistSession();
+        Integer currentSongIdx = session.getCurrentSongIndex();
+        String currentSongName = session.getShuffledSongs()
                 .get(currentSongIdx).getSong().getName();
         for (int i = 0; i < playlist.getPlaylistSongs().size(); i++) {
             String unshuffledSongName;
             unshuffledSongName = playlist.getPlaylistSongs().get(i).getSong().getName();
             if (unshuffledSongName.equals(currentSongName)) {
-                user.getLastLoadedPlaylist().setCurrentSongIndex(i);
+                session.setCurrentSongIndex(i);
             }
         }
     }
@@ -238,13 +242,14 @@ public final class ShuffleCommand extends StandardCommandForUserPlayer {
      */
     void getIndexBackToUnshuffledListForAlbum(final NormalUser user) {
         Album album = user.getLastLoadedAlbum();
-        Integer currentSongIdx = album.getCurrentSongIndex();
-        String currentSongName = album.getShuffledSongs().get(currentSongIdx).getSong().getName();
+        PlaybackSession session = user.getAlbumSession();
+        Integer currentSongIdx = session.getCurrentSongIndex();
+        String currentSongName = session.getShuffledSongs().get(currentSongIdx).getSong().getName();
         for (int i = 0; i < album.getSongs().size(); i++) {
             String unshuffledSongName;
             unshuffledSongName = album.getSongs().get(i).getSong().getName();
             if (unshuffledSongName.equals(currentSongName)) {
-                user.getLastLoadedAlbum().setCurrentSongIndex(i);
+                session.setCurrentSongIndex(i);
             }
         }
     }
@@ -260,13 +265,13 @@ public final class ShuffleCommand extends StandardCommandForUserPlayer {
      * @throws NullPointerException If the playlist or its songs are null.
      */
     public ObjectNode activateShuffleModeForPlaylist(final NormalUser user) {
-        Playlist playlist = user.getLastLoadedPlaylist();
-        playlist.setShuffledPlaylistSongs(createShuffledSongListForPlaylist(user, this.seed));
+        PlaybackSession session = user.getPlaylistSession();
+        session.setShuffledSongs(createShuffledSongListForPlaylist(user, this.seed));
 
         // identify the current song index in the shuffled array
         updateIndextoShuffledListForPlaylist(user);
 
-        user.getLastLoadedPlaylist().setShuffleStatus(true);
+        session.setShuffleStatus(true);
         node.put("message", "Shuffle function activated successfully.");
         return node;
     }
@@ -282,13 +287,13 @@ public final class ShuffleCommand extends StandardCommandForUserPlayer {
      * @throws NullPointerException If the album or its songs are null.
      */
     public ObjectNode activateShuffleModeForAlbum(final NormalUser user) {
-        Album album = user.getLastLoadedAlbum();
-        album.setShuffledSongs(createShuffledSongListForAlbum(user, this.seed));
+        PlaybackSession session = user.getAlbumSession();
+        session.setShuffledSongs(createShuffledSongListForAlbum(user, this.seed));
 
         // identify the current song index in the shuffled array
         updateIndextoShuffledListForAlbum(user);
 
-        user.getLastLoadedAlbum().setShuffleStatus(true);
+        session.setShuffleStatus(true);
         node.put("message", "Shuffle function activated successfully.");
         return node;
     }
@@ -304,9 +309,10 @@ public final class ShuffleCommand extends StandardCommandForUserPlayer {
      * @throws NullPointerException If the playlist or its songs are null.
      */
     public ObjectNode deactivateShuffleModeForPlaylist(final NormalUser user) {
-        if (!user.getLastLoadedPlaylist().getPaused()) {
+        PlaybackSession session = user.getPlaylistSession();
+        if (!session.getPaused()) {
             ArrayList<SongPlayInfo> shuffledSongs;
-            shuffledSongs = user.getLastLoadedPlaylist().getShuffledPlaylistSongs();
+            shuffledSongs = session.getShuffledSongs();
             Playlist playList = user.getLastLoadedPlaylist();
             playList.updatePlaylistStatus(user, this.timestamp, shuffledSongs);
             if (user.getLastLoadedPlaylist() == null) {
@@ -314,14 +320,14 @@ public final class ShuffleCommand extends StandardCommandForUserPlayer {
                         "Please load a source before using the shuffle function.");
                 return node;
             }
-            user.getLastLoadedPlaylist().setLastPlayTimestamp(this.timestamp);
+            session.setLastPlayTimestamp(this.timestamp);
         }
 
         // identify the current song index in the unshuffled array
         getIndexBackToUnshuffledListForPlaylist(user);
 
-        user.getLastLoadedPlaylist().setShuffledPlaylistSongs(null);
-        user.getLastLoadedPlaylist().setShuffleStatus(false);
+        session.setShuffledSongs(null);
+        session.setShuffleStatus(false);
         node.put("message", "Shuffle function deactivated successfully.");
         return node;
     }
@@ -337,9 +343,10 @@ public final class ShuffleCommand extends StandardCommandForUserPlayer {
      * @throws NullPointerException If the album or its songs are null.
      */
     public ObjectNode deactivateShuffleModeForAlbum(final NormalUser user) {
-        if (!user.getLastLoadedAlbum().getPaused()) {
+        PlaybackSession session = user.getAlbumSession();
+        if (!session.getPaused()) {
             ArrayList<SongPlayInfo> shuffledSongs;
-            shuffledSongs = user.getLastLoadedAlbum().getShuffledSongs();
+            shuffledSongs = session.getShuffledSongs();
             Album album = user.getLastLoadedAlbum();
             album.updateAlbumStatus(user, this.timestamp, shuffledSongs);
             if (user.getLastLoadedAlbum() == null) {
@@ -347,14 +354,14 @@ public final class ShuffleCommand extends StandardCommandForUserPlayer {
                         "Please load a source before using the shuffle function.");
                 return node;
             }
-            user.getLastLoadedAlbum().setLastPlayTimestamp(this.timestamp);
+            session.setLastPlayTimestamp(this.timestamp);
         }
 
         // identify the current song index in the unshuffled array
         getIndexBackToUnshuffledListForAlbum(user);
 
-        user.getLastLoadedAlbum().setShuffledSongs(null);
-        user.getLastLoadedAlbum().setShuffleStatus(false);
+        session.setShuffledSongs(null);
+        session.setShuffleStatus(false);
         node.put("message", "Shuffle function deactivated successfully.");
         return node;
     }
@@ -3,11 +3,9 @@ package main.userCommands.playerCommands;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import fileio.input.audioEntities.SongPlayInfo;
-import fileio.input.audioEntities.Playlist;
-import fileio.input.audioEntities.Album;
 import fileio.input.audioEntities.EpisodeInput;
+import fileio.input.audioEntities.PlaybackSession;
 import fileio.input.audioEntities.PodcastPlayInfo;
-import main.Main;
 import main.userCommands.StandardCommandForUserPlayer;
 import users.NormalUser;
 
@@ -19,8 +17,8 @@ public final class StatusCommand extends StandardCommandForUserPlayer {
     private static final int TYPE_PLAYLIST = 3;
     private static final int TYPE_ALBUM = 4;
 
-    // Singleton instance field
-    private static StatusCommand instance = null;
+    // Singleton instance field, one per thread running a simulation
+    private static final ThreadLocal<StatusCommand> INSTANCE = new ThreadLocal<>();
 
     /**
      * Constructs a new StatusCommand with the specified parameters.
@@ -44,8 +42,10 @@ public final class StatusCommand extends StandardCommandForUserPlayer {
      */
     public static StatusCommand getInstance(final String command, final String username,
                                             final Integer timestamp, final ObjectNode node) {
+        StatusCommand instance = INSTANCE.get();
         if (instance == null) {
             instance = new StatusCommand(command, username, timestamp, node);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -65,25 +65,24 @@ public final class StatusCommand extends StandardCommandForUserPlayer {
         node.put("command", this.getCommand());
         node.put("user", this.getUsername());
         node.put("timestamp", this.getTimestamp());
-        for (NormalUser user : Main.normalUserList) {
-            if (user.getUsername().equals(this.getUsername())) {
-                if (!user.getLoaded()) {
-                    ObjectNode nodeStats = JsonNodeFactory.instance.objectNode();
-                    return printfDefault(node, nodeStats);
-                }
+        NormalUser user = context.getUserRegistry().getNormalUser(this.getUsername());
+        if (user != null) {
+            if (!user.getLoaded()) {
                 ObjectNode nodeStats = JsonNodeFactory.instance.objectNode();
-                if (user.getLastSearchTypeIndicator() == TYPE_SONG) {
-                    return this.executeStatusOnSong(node, nodeStats, user);
-                }
-                if (user.getLastSearchTypeIndicator() == TYPE_PODCAST) {
-                    return this.executeStatusOnPodcast(node, nodeStats, user);
-                }
-                if (user.getLastSearchTypeIndicator() == TYPE_PLAYLIST) {
-                    return this.executeStatusOnPlaylist(node, nodeStats, user);
-                }
-                if (user.getLastSearchTypeIndicator() == TYPE_ALBUM) {
-                    return this.executeStatusOnAlbum(node, nodeStats, user);
-                }
+                return printfDefault(node, nodeStats);
+            }
+            ObjectNode nodeStats = JsonNodeFactory.instance.objectNode();
+            if (user.getLastSearchTypeIndicator() == TYPE_SONG) {
+                return this.executeStatusOnSong(node, nodeStats, user);
+            }
+            if (user.getLastSearchTypeIndicator() == TYPE_PODCAST) {
+                return this.executeStatusOnPodcast(node, nodeStats, user);
+            }
+            if (user.getLastSearchTypeIndicator() == TYPE_PLAYLIST) {
+                return this.executeStatusOnPlaylist(node, nodeStats, user);
+            }
+            if (user.getLastSearchTypeIndicator() == TYPE_ALBUM) {
+                return this.executeStatusOnAlbum(node, nodeStats, user);
             }
         }
         return null;
@@ -93,20 +92,22 @@ public final class StatusCommand extends StandardCommandForUserPlayer {
      * Retrieves the repeat status of an audio file.
      *
      * @param songInfo The SongPlayInfo object containing information about the audio file.
+     * @param session  The user's playback session of the audio file.
      * @return A string representing the repeat status ("No Repeat," "Repeat Once,"
      * or "Repeat Infinite").
      */
-    public String getRepeatStatusAudioFile(final SongPlayInfo songInfo) {
+    public String getRepeatStatusAudioFile(final SongPlayInfo songInfo,
+                                           final PlaybackSession session) {
         if (songInfo.getSong() == null) {
             return "No Repeat";
         }
-        if (songInfo.getRepeatStatus() == 0) {
+        if (session.getRepeatStatus() == 0) {
             return "No Repeat";
         }
-        if (songInfo.getRepeatStatus() == 1) {
+        if (session.getRepeatStatus() == 1) {
             return "Repeat Once";
         }
-        if (songInfo.getRepeatStatus() == 2) {
+        if (session.getRepeatStatus() == 2) {
             return "Repeat Infinite";
         }
         return "No Repeat";
@@ -115,21 +116,21 @@ public final class StatusCommand extends StandardCommandForUserPlayer {
     /**
      * Retrieves the repeat status of a playlist.
      *
-     * @param playlist The Playlist object containing information about the playlist.
+     * @param session The user's playback session of the playlist.
      * @return A string representing the repeat status ("No Repeat," "Repeat All,"
      * or "Repeat Current Song").
      */
-    public String getRepeatPlaylist(final Playlist playlist) {
-        if (playlist.getRepeatStatus() == null) {
+    public String getRepeatPlaylist(final PlaybackSession session) {
+        if (session.getRepeatStatus() == null) {
             return "No Repeat";
         }
-        if (playlist.getRepeatStatus() == 0) {
+        if (session.getRepeatStatus() == 0) {
             return "No Repeat";
         }
-        if (playlist.getRepeatStatus() == 1) {
+        if (session.getRepeatStatus() == 1) {
             return "Repeat All";
         }
-        if (playlist.getRepeatStatus() == 2) {
+        if (session.getRepeatStatus() == 2) {
             return "Repeat Current Song";
         }
         return "No Repeat";
@@ -138,21 +139,21 @@ public final class StatusCommand extends StandardCommandForUserPlayer {
     /**
      * Retrieves the repeat status of an album.
      *
-     * @param album The Album object containing information about the album.
+     * @param session The user's playback session of the album.
      * @return A string representing the repeat status ("No Repeat," "Repeat All,"
      * or "Repeat Current Song").
      */
-    public String getRepeatAlbum(final Album album) {
-        if (album.getRepeatStatus() == null) {
+    public String getRepeatAlbum(final PlaybackSession session) {
+        if (session.getRepeatStatus() == null) {
             return "No Repeat";
         }
-        if (album.getRepeatStatus() == 0) {
+        if (session.getRepeatStatus() == 0) {
             return "No Repeat";
         }
-        if (album.getRepeatStatus() == 1) {
+        if (session.getRepeatStatus() == 1) {
             return "Repeat All";
         }
-        if (album.getRepeatStatus() == 2) {
+        if (session.getRepeatStatus() == 2) {
             return "Repeat Current Song";
         }
         return "No Repeat";
@@ -205,12 +206,11 @@ public final class StatusCommand extends StandardCommandForUserPlayer {
      * @return The name of the currently loaded song.
      */
     public String getName() {
-        for (NormalUser user : Main.normalUserList) {
-            if (user.getUsername().equals(this.username)) {
-                if (user.getLastSearchTypeIndicator() == 1) {
-                    // song
-                    return user.getLastLoadedSongPlayInfo().getSong().getName();
-                }
+        NormalUser user = context.getUserRegistry().getNormalUser(this.username);
+        if (user != null) {
+            if (user.getLastSearchTypeIndicator() == 1) {
+                // song
+                return user.getLastLoadedSongPlayInfo().getSong().getName();
             }
         }
         return null;
@@ -262,12 +262,13 @@ public final class StatusCommand extends StandardCommandForUserPlayer {
     public void getSongStats(final ObjectNode node, final ObjectNode nodeStats,
                                 final NormalUser user) {
         SongPlayInfo songInfo = user.getLastLoadedSongPlayInfo();
+        PlaybackSession session = user.getSongSession();
         nodeStats.put("name", songInfo.getSong().getName());
-        Integer remainedTime = songInfo.getSong().getDuration() - songInfo.getCurrentSecond();
+        Integer remainedTime = songInfo.getSong().getDuration() - session.getCurrentSecond();
         nodeStats.put("remainedTime", remainedTime);
-        nodeStats.put("repeat", getRepeatStatusAudioFile(user.getLastLoadedSongPlayInfo()));
+        nodeStats.put("repeat", getRepeatStatusAudioFile(songInfo, session));
         nodeStats.put("shuffle", getShuffleStatusIfNotPlaylist());
-        nodeStats.put("paused", songInfo.getSongPaused());
+        nodeStats.put("paused", session.getPaused());
         node.putPOJO("stats", nodeStats);
 
     }
@@ -330,14 +331,14 @@ public final class StatusCommand extends StandardCommandForUserPlayer {
      */
     public void getPlaylistStats(final ObjectNode node, final ObjectNode nodeStats,
                                  final NormalUser user, final ArrayList<SongPlayInfo> songs) {
-        Integer currentSongIndex = user.getLastLoadedPlaylist().getCurrentSongIndex();
-        Integer currentSongSecond = user.getLastLoadedPlaylist().getCurrentSongSecond();
+        Integer currentSongIndex = user.getPlaylistSession().getCurrentSongIndex();
+        Integer currentSongSecond = user.getPlaylistSession().getCurrentSecond();
         Integer currentSongDuration = songs.get(currentSongIndex).getSong().getDuration();
         nodeStats.put("name", songs.get(currentSongIndex).getSong().getName());
         nodeStats.put("remainedTime", currentSongDuration - currentSongSecond);
-        nodeStats.put("repeat", getRepeatPlaylist(user.getLastLoadedPlaylist()));
-        nodeStats.put("shuffle", user.getLastLoadedPlaylist().getShuffleStatus());
-        nodeStats.put("paused", user.getLastLoadedPlaylist().getPaused());
+        nodeStats.put("repeat", getRepeatPlaylist(user.getPlaylistSession()));
+        nodeStats.put("shuffle", user.getPlaylistSession().getShuffleStatus());
+        nodeStats.put("paused", user.getPlaylistSession().getPaused());
         node.putPOJO("stats", nodeStats);
     }
 
@@ -356,14 +357,14 @@ public final class StatusCommand extends StandardCommandForUserPlayer {
             return printfDefault(node, nodeStats);
         }
         if (!user.getConnectionStatus()) {
-            if (!user.getLastLoadedPlaylist().getShuffleStatus()) {
+            if (!user.getPlaylistSession().getShuffleStatus()) {
                 getPlaylistStats(node, nodeStats, user,
                         user.getLastLoadedPlaylist().getPlaylistSongs());
             } else {
 
 
                 getPlaylistStats(node, nodeStats, user,
-                        user.getLastLoadedPlaylist().getShuffledPlaylistSongs());
+                        user.getPlaylistSession().getShuffledSongs());
             }
             return node;
         }
@@ -371,12 +372,12 @@ public final class StatusCommand extends StandardCommandForUserPlayer {
         if (!user.isPlaylistStillLoaded(this.timestamp)) {
             return printfDefault(node, nodeStats);
         } else {
-            if (!user.getLastLoadedPlaylist().getShuffleStatus()) {
+            if (!user.getPlaylistSession().getShuffleStatus()) {
                 getPlaylistStats(node, nodeStats, user,
                         user.getLastLoadedPlaylist().getPlaylistSongs());
             } else {
                 getPlaylistStats(node, nodeStats, user,
-                        user.getLastLoadedPlaylist().getShuffledPlaylistSongs());
+                        user.getPlaylistSession().getShuffledSongs());
             }
             return node;
         }
@@ -396,10 +397,10 @@ public final class StatusCommand extends StandardCommandForUserPlayer {
             return printfDefault(node, nodeStats);
         }
         if (!user.getConnectionStatus()) {
-            if (!user.getLastLoadedAlbum().getShuffleStatus()) {
+            if (!user.getAlbumSession().getShuffleStatus()) {
                 getAlbumStats(node, nodeStats, user, user.getLastLoadedAlbum().getSongs());
             } else {
-                getAlbumStats(node, nodeStats, user, user.getLastLoadedAlbum().getShuffledSongs());
+                getAlbumStats(node, nodeStats, user, user.getAlbumSession().getShuffledSongs());
             }
             return node;
         }
@@ -407,10 +408,10 @@ public final class StatusCommand extends StandardCommandForUserPlayer {
         if (!user.isAlbumStillLoaded(this.timestamp)) {
             return printfDefault(node, nodeStats);
         } else {
-            if (!user.getLastLoadedAlbum().getShuffleStatus()) {
+            if (!user.getAlbumSession().getShuffleStatus()) {
                 getAlbumStats(node, nodeStats, user, user.getLastLoadedAlbum().getSongs());
             } else {
-                getAlbumStats(node, nodeStats, user, user.getLastLoadedAlbum().getShuffledSongs());
+                getAlbumStats(node, nodeStats, user, user.getAlbumSession().getShuffledSongs());
             }
             return node;
         }
@@ -425,14 +426,14 @@ public final class StatusCommand extends StandardCommandForUserPlayer {
      */
     public void getAlbumStats(final ObjectNode node, final ObjectNode nodeStats,
                               final NormalUser user, final ArrayList<SongPlayInfo> songs) {
-        Integer currentSongIndex = user.getLastLoadedAlbum().getCurrentSongIndex();
-        Integer currentSongSecond = user.getLastLoadedAlbum().getCurrentSongSecond();
+        Integer currentSongIndex = user.getAlbumSession().getCurrentSongIndex();
+        Integer currentSongSecond = user.getAlbumSession().getCurrentSecond();
         Integer currentSongDuration = songs.get(currentSongIndex).getSong().getDuration();
         nodeStats.put("name", songs.get(currentSongIndex).getSong().getName());
         nodeStats.put("remainedTime", currentSongDuration - currentSongSecond);
-        nodeStats.put("repeat", getRepeatAlbum(user.getLastLoadedAlbum()));
-        nodeStats.put("shuffle", user.getLastLoadedAlbum().getShuffleStatus());
-        nodeStats.put("paused", user.getLastLoadedAlbum().getPaused());
+        nodeStats.put("repeat", getRepeatAlbum(user.getAlbumSession()));
+        nodeStats.put("shuffle", user.getAlbumSession().getShuffleStatus());
+        nodeStats.put("paused", user.getAlbumSession().getPaused());
         node.putPOJO("stats", nodeStats);
     }
 
@@ -2,18 +2,20 @@ package main.userCommands.userPlaylistHandling;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import fileio.input.audioEntities.Album;
-import main.Main;
+import fileio.input.audioEntities.PlaybackSession;
 import fileio.input.audioEntities.Playlist;
 import fileio.input.audioEntities.SongPlayInfo;
+import main.commandsHandling.MessageCommand;
 import main.userCommands.StandardCommandForUserPlayer;
 import users.NormalUser;
 
-public final class AddRemoveInPlaylist extends StandardCommandForUserPlayer {
+public final class AddRemoveInPlaylist extends StandardCommandForUserPlayer
+        implements MessageCommand {
     private Integer playlistId;
     private static final int TYPE_ALBUM = 4;
 
-    // Singleton instance field
-    private static AddRemoveInPlaylist instance = null;
+    // Singleton instance field, one per thread running a simulation
+    private static final ThreadLocal<AddRemoveInPlaylist> INSTANCE = new ThreadLocal<>();
 
     /**
      * Constructs a new AddRemoveInPlaylist with the specified parameters.
@@ -42,8 +44,10 @@ public final class AddRemoveInPlaylist extends StandardCommandForUserPlayer {
     public static AddRemoveInPlaylist getInstance(final String command, final String username,
                                                   final Integer timestamp, final Integer playlistId,
                                                   final ObjectNode node) {
+        AddRemoveInPlaylist instance = INSTANCE.get();
         if (instance == null) {
             instance = new AddRemoveInPlaylist(command, username, timestamp, playlistId, node);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -60,15 +64,7 @@ public final class AddRemoveInPlaylist extends StandardCommandForUserPlayer {
      * @return The ObjectNode containing information about the command execution.
      */
     public ObjectNode execute() {
-        node.put("command", this.getCommand());
-        node.put("user", this.getUsername());
-        node.put("timestamp", this.getTimestamp());
-        if (!this.isUserOnline(this.getUsername())) {
-            node.put("message", this.getUsername() + " is offline.");
-            return node;
-        }
-        node.put("message", this.getCommandMessage());
-        return node;
+        return writeMessageOutput();
     }
 
     /**
@@ -98,55 +94,63 @@ public final class AddRemoveInPlaylist extends StandardCommandForUserPlayer {
      * @return A message indicating the success of adding or removing the song from the playlist.
      */
     public String getCommandMessage() {
-        for (NormalUser user : Main.normalUserList) {
-            if (user.getUsername().equals(this.username)) {
-                // check if the user had previously loaded anything
-                if (!user.stillHasSomethingLoaded(this.timestamp)) {
-                    return "Please load a source before adding to or removing from the playlist.";
-                }
+        if (!this.isUserOnline(this.username)) {
+            return this.username + " is offline.";
+        }
+        NormalUser user = context.getUserRegistry().getNormalUser(this.username);
+        if (user != null) {
+            // check if the user had previously loaded anything
+            if (!user.stillHasSomethingLoaded(this.timestamp)) {
+                return "Please load a source before adding to or removing from the playlist.";
+            }
 
-                // check if the entity that was loaded is a song
-                if (user.getLastLoadTypeIndicator() != 1
-                        && user.getLastLoadTypeIndicator() != TYPE_ALBUM) {
-                    return "The loaded source is not a song.";
-                }
+            // check if the entity that was loaded is a song
+            if (user.getLastLoadTypeIndicator() != 1
+                    && user.getLastLoadTypeIndicator() != TYPE_ALBUM) {
+                return "The loaded source is not a song.";
+            }
 
-                // check if the specified playlist exists in the list
-                if (user.getPlaylists().size() < this.playlistId) {
-                    return "The specified playlist does not exist.";
-                }
+            // check if the specified playlist exists in the list
+            if (user.getPlaylists().size() < this.playlistId) {
+                return "The specified playlist does not exist.";
+            }
 
-                SongPlayInfo loadedSong;
-                if (user.getLastLoadTypeIndicator() == TYPE_ALBUM) {
-                    //store the song that is currently playing in the album
-                    Album album = user.getLastLoadedAlbum();
-                    if (!album.getShuffleStatus()) {
-                        loadedSong = album.getSongs().get(album.getCurrentSongIndex());
-                    } else {
-                        loadedSong = album.getShuffledSongs().get(album.getCurrentSongIndex());
-                    }
+            SongPlayInfo loadedSong;
+            if (user.getLastLoadTypeIndicator() == TYPE_ALBUM) {
+                //store the song that is currently playing in the album
+                Album album = user.getLastLoadedAlbum();
+                PlaybackSession session = user.getAlbumSession();
+                if (!session.getShuffleStatus()) {
+                    loadedSong = album.getSongs().get(session.getCurrentSongIndex());
                 } else {
-                    loadedSong = user.getLastLoadedSongPlayInfo();
+                    loadedSong = session.getShuffledSongs().get(session.getCurrentSongIndex());
                 }
+            } else {
+                loadedSong = user.getLastLoadedSongPlayInfo();
+            }
 
-                // search for the currently loaded song in the playlist
-                Playlist currentPlaylist = user.getPlaylists().get(this.playlistId - 1);
-
-                for (SongPlayInfo songPlayInfo : currentPlaylist.getPlaylistSongs()) {
-                    if (songPlayInfo != null) {
-                        if (songPlayInfo.getSong().getName()
-                                .equals(loadedSong.getSong().getName())) {
-                            // this song already exists in the playlist, so remove it
-                            currentPlaylist.getPlaylistSongs().remove(songPlayInfo);
-                            return "Successfully removed from playlist.";
-                        }
+            // search for the currently loaded song in the playlist
+            Playlist currentPlaylist = user.getPlaylists().get(this.playlistId - 1);
+
+            for (SongPlayInfo songPlayInfo : currentPlaylist.getPlaylistSongs()) {
+                if (songPlayInfo != null) {
+                    if (songPlayInfo.getSong().getName()
+                            .equals(loadedSong.getSong().getName())) {
+                        // this song already exists in the playlist, so remove it
+                        currentPlaylist.getPlaylistSongs().remove(songPlayInfo);
+                        context.getSongUsageIndex().removePlaylistSong(currentPlaylist,
+                                songPlayInfo);
+                        context.getLoadedContentRegistry().updatePlaylist(currentPlaylist);
+                        return "Successfully removed from playlist.";
                     }
                 }
-
-                /* if we reached this point, it means that we have not found the
-                currently loaded song in the playlist */
-                currentPlaylist.getPlaylistSongs().add(loadedSong);
             }
+
+            /* if we reached this point, it means that we have not found the
+            currently loaded song in the playlist */
+            currentPlaylist.getPlaylistSongs().add(loadedSong);
+            context.getSongUsageIndex().addPlaylistSong(currentPlaylist, loadedSong);
+            context.getLoadedContentRegistry().updatePlaylist(currentPlaylist);
         }
         return "Successfully added to playlist.";
     }
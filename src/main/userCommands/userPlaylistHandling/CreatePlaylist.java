@@ -1,7 +1,6 @@
 package main.userCommands.userPlaylistHandling;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import main.Main;
 import fileio.input.audioEntities.Playlist;
 import main.userCommands.StandardCommandForUserPlayer;
 import users.NormalUser;
@@ -13,8 +12,8 @@ public final class CreatePlaylist extends StandardCommandForUserPlayer {
     private String owner;
     private ArrayList<Playlist> allUsersList;
 
-    // Singleton instance field
-    private static CreatePlaylist instance = null;
+    // Singleton instance field, one per thread running a simulation
+    private static final ThreadLocal<CreatePlaylist> INSTANCE = new ThreadLocal<>();
 
     /**
      * Constructs a new CreatePlaylist with the specified parameters.
@@ -49,9 +48,11 @@ public final class CreatePlaylist extends StandardCommandForUserPlayer {
                                              final Integer timestamp,
                                              final String playlistName, final ObjectNode node,
                                              final ArrayList<Playlist> allUsersList) {
+        CreatePlaylist instance = INSTANCE.get();
         if (instance == null) {
             instance = new CreatePlaylist(command, username, timestamp, playlistName,
                     node, allUsersList);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -133,18 +134,18 @@ public final class CreatePlaylist extends StandardCommandForUserPlayer {
      * @return A message indicating the result of the playlist creation.
      */
     public String executeCreatePlaylist(final ArrayList<Playlist> allUsersPlaylists) {
-        for (NormalUser user : Main.normalUserList) {
-            if (user.getUsername().equals(this.username)) {
-                // check if there is already a playlist with the same name
-                if (isThisNameTaken(user)) {
-                    return "A playlist with the same name already exists.";
-                }
-
-                // create a new playlist
-                Playlist newPlaylist = new Playlist(this.playlistName, false, this.username);
-                user.getPlaylists().add(newPlaylist);
-                allUsersPlaylists.add(newPlaylist);
+        NormalUser user = context.getUserRegistry().getNormalUser(this.username);
+        if (user != null) {
+            // check if there is already a playlist with the same name
+            if (isThisNameTaken(user)) {
+                return "A playlist with the same name already exists.";
             }
+
+            // create a new playlist
+            Playlist newPlaylist = new Playlist(this.playlistName, false, this.username);
+            user.getPlaylists().add(newPlaylist);
+            allUsersPlaylists.add(newPlaylist);
+            context.getLeaderboards().addPlaylist(newPlaylist);
         }
         return "Playlist created successfully.";
     }
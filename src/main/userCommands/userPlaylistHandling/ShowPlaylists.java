@@ -3,7 +3,6 @@ package main.userCommands.userPlaylistHandling;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import fileio.input.audioEntities.Playlist;
-import main.Main;
 import main.userCommands.StandardCommandForUserPlayer;
 import users.NormalUser;
 
@@ -11,8 +10,8 @@ import java.util.ArrayList;
 
 public final class ShowPlaylists extends StandardCommandForUserPlayer {
 
-    // Singleton instance field
-    private static ShowPlaylists instance = null;
+    // Singleton instance field, one per thread running a simulation
+    private static final ThreadLocal<ShowPlaylists> INSTANCE = new ThreadLocal<>();
 
     /**
      * Constructs a new ShowPlaylists command with the specified parameters.
@@ -39,8 +38,10 @@ public final class ShowPlaylists extends StandardCommandForUserPlayer {
     public static ShowPlaylists getInstance(final String command, final String username,
                                             final Integer timestamp,
                                             final ObjectNode node) {
+        ShowPlaylists instance = INSTANCE.get();
         if (instance == null) {
             instance = new ShowPlaylists(command, username, timestamp, node);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -61,25 +62,24 @@ public final class ShowPlaylists extends StandardCommandForUserPlayer {
         node.put("user", this.getUsername());
         node.put("timestamp", this.getTimestamp());
         ArrayList<ObjectNode> result = new ArrayList<>();
-        for (NormalUser user : Main.normalUserList) {
-            if (user.getUsername().equals(this.getUsername())) {
-                // iterate through the user's list of playlists
-                for (Playlist playlist : user.getPlaylists()) {
+        NormalUser user = context.getUserRegistry().getNormalUser(this.getUsername());
+        if (user != null) {
+            // iterate through the user's list of playlists
+            for (Playlist playlist : user.getPlaylists()) {
 
-                    ObjectNode playlistNode = JsonNodeFactory.instance.objectNode();
-                    playlistNode.put("name", playlist.getName());
-                    playlistNode.putPOJO("songs", playlist.getSongsNames());
+                ObjectNode playlistNode = JsonNodeFactory.instance.objectNode();
+                playlistNode.put("name", playlist.getName());
+                playlistNode.putPOJO("songs", playlist.getSongsNames());
 
-                    if (playlist.getVisibility()) {
-                        playlistNode.put("visibility", "private");
-                    } else {
-                        playlistNode.put("visibility", "public");
-                    }
-                    playlistNode.put("followers", playlist.getFollowers());
-                    result.add(playlistNode);
+                if (playlist.getVisibility()) {
+                    playlistNode.put("visibility", "private");
+                } else {
+                    playlistNode.put("visibility", "public");
                 }
-                node.putPOJO("result", result);
+                playlistNode.put("followers", playlist.getFollowers());
+                result.add(playlistNode);
             }
+            node.putPOJO("result", result);
         }
         return node;
     }
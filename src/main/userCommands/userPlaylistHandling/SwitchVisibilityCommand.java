@@ -1,15 +1,14 @@
 package main.userCommands.userPlaylistHandling;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import main.Main;
 import main.userCommands.StandardCommandForUserPlayer;
 import users.NormalUser;
 
 public final class SwitchVisibilityCommand extends StandardCommandForUserPlayer {
     private Integer playlistId;
 
-    // Singleton instance field
-    private static SwitchVisibilityCommand instance = null;
+    // Singleton instance field, one per thread running a simulation
+    private static final ThreadLocal<SwitchVisibilityCommand> INSTANCE = new ThreadLocal<>();
 
     /**
      * Constructs a new SwitchVisibilityCommand with the specified parameters.
@@ -41,8 +40,10 @@ public final class SwitchVisibilityCommand extends StandardCommandForUserPlayer
                                                       final Integer timestamp,
                                                       final Integer playlistId,
                                                       final ObjectNode node) {
+        SwitchVisibilityCommand instance = INSTANCE.get();
         if (instance == null) {
             instance = new SwitchVisibilityCommand(command, username, timestamp, playlistId, node);
+            INSTANCE.set(instance);
         } else {
             instance.setCommand(command);
             instance.setUsername(username);
@@ -63,31 +64,30 @@ public final class SwitchVisibilityCommand extends StandardCommandForUserPlayer
         node.put("command", this.getCommand());
         node.put("user", this.getUsername());
         node.put("timestamp", this.getTimestamp());
-        for (NormalUser user : Main.normalUserList) {
-            if (user.getUsername().equals(this.getUsername())) {
-                // check if the user is offline
-                if (!user.getConnectionStatus()) {
-                    // the user is offline
-                    node.put("message", this.getUsername() + " is offline.");
-                    return node;
-                }
+        NormalUser user = context.getUserRegistry().getNormalUser(this.getUsername());
+        if (user != null) {
+            // check if the user is offline
+            if (!user.getConnectionStatus()) {
+                // the user is offline
+                node.put("message", this.getUsername() + " is offline.");
+                return node;
+            }
 
-                /* check if the playlistID is within the bounds of
-                the current user's list of playlists */
-                if (user.getPlaylists().size() < this.getPlaylistId()) {
-                    node.put("message", "The specified playlist ID is too high.");
-                    return node;
-                }
-                if (user.getPlaylists().get(this
-                        .getPlaylistId() - 1).getVisibility()) {
-                    user.getPlaylists().get(this
-                            .getPlaylistId() - 1).setVisibility(false);
-                    node.put("message", "Visibility status updated successfully to public.");
-                } else {
-                    user.getPlaylists().get(this
-                            .getPlaylistId() - 1).setVisibility(true);
-                    node.put("message", "Visibility status updated successfully to private.");
-                }
+            /* check if the playlistID is within the bounds of
+            the current user's list of playlists */
+            if (user.getPlaylists().size() < this.getPlaylistId()) {
+                node.put("message", "The specified playlist ID is too high.");
+                return node;
+            }
+            if (user.getPlaylists().get(this
+                    .getPlaylistId() - 1).getVisibility()) {
+                user.getPlaylists().get(this
+                        .getPlaylistId() - 1).setVisibility(false);
+                node.put("message", "Visibility status updated successfully to public.");
+            } else {
+                user.getPlaylists().get(this
+                        .getPlaylistId() - 1).setVisibility(true);
+                node.put("message", "Visibility status updated successfully to private.");
             }
         }
         return node;
@@ -5,20 +5,24 @@ import fileio.input.audioEntities.Album;
 import fileio.input.entitiesForArtist.Event;
 import fileio.input.entitiesForArtist.Merch;
 import fileio.input.audioEntities.SongPlayInfo;
+import fileio.input.audioEntities.PlaybackSession;
 import fileio.input.audioEntities.Playlist;
-import main.Main;
+import main.SimulationContext;
 import main.adminCommands.VisitableDeletion;
 import main.adminCommands.VisitorDeletion;
+import main.statisticsCommands.Leaderboards;
 import main.statisticsCommands.VisitableWrapped;
 import main.statisticsCommands.VisitorWrapped;
 import fileio.input.wrappedEntities.MonetizedSong;
 import fileio.input.wrappedEntities.WrappedAlbum;
+import fileio.input.wrappedEntities.WrappedCounter;
 
 import java.util.ArrayList;
+import java.util.Set;
 
 public class Artist extends GeneralUser implements VisitableDeletion, VisitableWrapped, Subject {
+    private static final long serialVersionUID = 1L;
     private static final int TYPE_ALBUM = 4;
-    private static final int TYPE_PLAYLIST = 3;
     private static final int TYPE_SONG = 1;
     private static final double HUNDRED = 100.0;
     private ArrayList<Album> albums;
@@ -36,7 +40,7 @@ public class Artist extends GeneralUser implements VisitableDeletion, VisitableW
     // variable that indicates if the artist has ever had anything on play
     private boolean hadSomethingOnPlay;
 
-    private ArrayList<WrappedAlbum> wrappedAlbums;
+    private WrappedCounter<WrappedAlbum> wrappedAlbums;
     private ArrayList<NormalUser> subscribers;
 
     private ArrayList<MonetizedSong> monetizedSongs;
@@ -52,7 +56,7 @@ public class Artist extends GeneralUser implements VisitableDeletion, VisitableW
         this.ranking = 0;
         this.mostProfitableSong = null;
         this.hadSomethingOnPlay = false;
-        this.wrappedAlbums = new ArrayList<>();
+        this.wrappedAlbums = new WrappedCounter<>();
         this.subscribers = new ArrayList<>();
         this.monetizedSongs = new ArrayList<>();
     }
@@ -93,29 +97,41 @@ public class Artist extends GeneralUser implements VisitableDeletion, VisitableW
      * @param albumName The name of the album to be updated.
      */
     public void updateArtistWrappedAlbums(final String albumName) {
+        updateArtistWrappedAlbums(albumName, 1);
+    }
+
+    /**
+     * Updates the number of listens for the artist's wrapped albums based
+     * on the provided album name, adding several listens at once. Synchronized,
+     * as the listeners of the artist may be replayed on different threads.
+     *
+     * @param albumName The name of the album to be updated.
+     * @param listens   The number of listens to be added.
+     */
+    public synchronized void updateArtistWrappedAlbums(final String albumName,
+                                                       final int listens) {
         // look for the album in the list of wrapped albums
-        for (WrappedAlbum wrappedAlbum : wrappedAlbums) {
-            if (wrappedAlbum.getAlbumName().equals(albumName)) {
-                // increment the number of listens
-                wrappedAlbum.setListens(wrappedAlbum.getListens() + 1);
-                return;
-            }
+        if (wrappedAlbums.addListens(albumName, listens)) {
+            return;
         }
 
         // if we are here, it means that the genre was not found, so we need to add it to the list
         WrappedAlbum newWrappedAlbum = new WrappedAlbum(albumName);
-        wrappedAlbums.add(newWrappedAlbum);
+        newWrappedAlbum.setListens(listens);
+        wrappedAlbums.add(albumName, newWrappedAlbum);
     }
 
 
 
     /**
      * Updates the total number of likes for the artist based on the likes of albums.
+     *
+     * @param leaderboards the leaderboards that keep the likes of the songs.
      */
-    public void updateArtistNumberOfLikes() {
+    public void updateArtistNumberOfLikes(final Leaderboards leaderboards) {
         Integer artistNumberOfLikes = 0;
         for (Album album : this.albums) {
-            album.updateAlbumNumberOfLikes();
+            album.updateAlbumNumberOfLikes(leaderboards);
             artistNumberOfLikes += album.getNumberOfLikes();
         }
         this.setNumberOfLikes(artistNumberOfLikes);
@@ -142,103 +158,23 @@ public class Artist extends GeneralUser implements VisitableDeletion, VisitableW
         visitor.getWrappedResultNode(this);
     }
 
-    /**
-     * Checks if the album to be deleted is loaded by any user.
-     *
-     * @param albumToBeDeleted the album to be deleted.
-     * @param user             the user to check.
-     * @return true if the album is not loaded, false otherwise.
-     */
-    // check if the user has loaded the album that needs to be deleted
-    public Boolean checkLoadedAlbums(final Album albumToBeDeleted, final NormalUser user) {
-        // check if the album to be deleted is the one that is loaded
-        if (user.getLastLoadedAlbum().getName().equals(albumToBeDeleted.getName())) {
-            return false;
-        }
-        return true;
-    }
-
-    /**
-     * Checks if any song from the album to be deleted is loaded by any user.
-     *
-     * @param albumToBeDeleted the album to be deleted.
-     * @param user             the user to check.
-     * @return true if no song from the album is loaded, false otherwise.
-     */
-    public Boolean checkLoadedSongs(final Album albumToBeDeleted, final NormalUser user) {
-        // check if the song in the user's player belongs to the album that needs to be deleted
-        for (SongPlayInfo song : albumToBeDeleted.getSongs()) {
-            if (user.getLastLoadedSongPlayInfo().getSong()
-                    .getName().equals(song.getSong().getName())) {
-                return false;
-            }
-        }
-        return true;
-    }
-
-    /**
-     * Checks if any playlist containing a song from the album to be deleted is loaded by any user.
-     *
-     * @param albumToBeDeleted the album to be deleted.
-     * @param user             the user to check.
-     * @return true if no playlist containing a song from the album is loaded, false otherwise.
-     */
-    public Boolean checkLoadedPlaylists(final Album albumToBeDeleted, final NormalUser user) {
-        /* check if any of the songs in the loaded playlist belongs
-        to the album that needs to be deleted */
-        for (SongPlayInfo song : albumToBeDeleted.getSongs()) {
-            for (SongPlayInfo playlistSong : user.getLastLoadedPlaylist().getPlaylistSongs()) {
-                if (playlistSong.getSong().getName().equals(song.getSong().getName())) {
-                    return false;
-                }
-            }
-        }
-        return true;
-    }
-
     /**
      * Checks if the artist can delete the album based on user interactions.
      *
      * @param albumToBeDeleted the album to be deleted.
      * @param timestamp        the timestamp of the deletion command.
+     * @param context          the simulation of the artist.
      * @return true if the artist can delete the album, false otherwise.
      */
-    public Boolean canDeleteAlbum(final Album albumToBeDeleted, final Integer timestamp) {
-        for (NormalUser user : Main.normalUserList) {
-            // check if the user has anything loaded in player
-            if (!user.stillHasSomethingLoaded(timestamp)) {
-                continue;
-            }
-
-            // check if the user has the album loaded
-            if (user.getLastLoadTypeIndicator() == TYPE_ALBUM) {
-                if (checkLoadedAlbums(albumToBeDeleted, user)) {
-                    continue;
-                } else {
-                    return false;
-                }
-            }
-
-            // check if the user has loaded a song
-            if (user.getLastLoadTypeIndicator() == TYPE_SONG) {
-                if (checkLoadedSongs(albumToBeDeleted, user)) {
-                    continue;
-                } else {
-                    return false;
-                }
-            }
-
-            // check if the user has loaded a playlist
-            if (user.getLastLoadTypeIndicator() == TYPE_PLAYLIST) {
-                if (checkLoadedPlaylists(albumToBeDeleted, user)) {
-                    continue;
-                } else {
-                    return false;
-                }
-            }
-        }
-
-        return true;
+    public Boolean canDeleteAlbum(final Album albumToBeDeleted, final Integer timestamp,
+                                  final SimulationContext context) {
+        LoadedContentRegistry loadedContentRegistry = context.getLoadedContentRegistry();
+        /* only the users that had something of the album loaded when their players were
+        last updated can still have it loaded, the players of the others are only moved */
+        Set<NormalUser> usersLoadingAlbum =
+                loadedContentRegistry.getUsersLoadingAlbum(albumToBeDeleted);
+        return !LoadedContentRegistry.advanceUntilStillLoaded(
+                loadedContentRegistry.getLoadedUsers(), usersLoadingAlbum, timestamp);
     }
 
 
@@ -246,20 +182,40 @@ public class Artist extends GeneralUser implements VisitableDeletion, VisitableW
      * Prepares for the removal of an album by removing its songs from various lists.
      *
      * @param albumToBeDeleted the album to be deleted.
+     * @param context          the simulation of the artist.
      */
-    public void prepareAlbumRemoval(final Album albumToBeDeleted) {
+    public void prepareAlbumRemoval(final Album albumToBeDeleted,
+                                    final SimulationContext context) {
+        context.getLeaderboards().removeAlbum(albumToBeDeleted);
+        SongUsageIndex songUsageIndex = context.getSongUsageIndex();
+
         // remove all album's songs from the big song list
         for (SongPlayInfo songPlayInfo : albumToBeDeleted.getSongs()) {
             // remove song from the big list of songs
-            Main.songsList.remove(songPlayInfo);
-
-            for (NormalUser user : Main.normalUserList) {
-                removeSongFromEverywhere(user, songPlayInfo);
+            context.removeSong(songPlayInfo);
+            context.getSongSearchIndex().removeSong(songPlayInfo);
+            context.getLeaderboards().removeSong(songPlayInfo);
+
+            // only the playlists, likes and selections that refer to the song are visited
+            String songName = songPlayInfo.getSong().getName();
+            for (Playlist playlist : songUsageIndex.getPlaylists(songName)) {
+                removeSongFromPlaylist(playlist, songPlayInfo, context);
+            }
+            for (NormalUser user : songUsageIndex.getLikers(songName)) {
+                removeSongFromLikedSongs(user, songPlayInfo, context);
+            }
+            // if an user had selected a song from the album to be deleted, delete selection
+            for (NormalUser user : songUsageIndex.getSelectors(songName)) {
+                if (user.getSearched()) {
+                    removeSongSelection(user, songPlayInfo);
+                }
             }
         }
 
-        // check if any user had the album selected => delete selection
-        for (NormalUser user : Main.normalUserList) {
+        /* forget the users' sessions of the album, and check if any user had the album
+        selected => delete selection */
+        for (NormalUser user : context.getNormalUserList()) {
+            user.removeAlbumSession(albumToBeDeleted);
             if (!user.getSearched()) {
                 continue;
             }
@@ -273,46 +229,30 @@ public class Artist extends GeneralUser implements VisitableDeletion, VisitableW
     }
 
     /**
-     * Removes a song from various locations for a specific user, including playlists,
-     * liked songs list, and the user's selected song if applicable.
+     * Removes a song from a playlist created by a normal user.
      *
-     * @param user           The user from whose lists the song will be removed.
+     * @param playlist       The playlist from which the song will be removed.
      * @param songPlayInfo   The song play information to be removed.
-     */
-    public void removeSongFromEverywhere(final NormalUser user, final SongPlayInfo songPlayInfo) {
-        // remove song from playlists
-        removeSongFromPlaylists(user, songPlayInfo);
-
-        // remove song from user's liked songs list
-        removeSongFromLikedSongs(user, songPlayInfo);
-
-        // if an user had selected a song from the album to be deleted, delete selection
-        if (!user.getSearched()) {
-            return;
-        }
-        removeSongSelection(user, songPlayInfo);
-    }
-
-
-    /**
-     * Removes a song from the playlists of a specific user.
-     *
-     * @param user           The user from whose playlists the song will be removed.
-     * @param songPlayInfo   The song play information to be removed.
-     */
-    public void removeSongFromPlaylists(final NormalUser user, final SongPlayInfo songPlayInfo) {
-        for (Playlist playlist : user.getPlaylists()) {
-            for (SongPlayInfo playlistSong : playlist.getPlaylistSongs()) {
-                if (playlistSong.getSong().getName().equals(songPlayInfo
-                        .getSong().getName())) {
-                    playlist.getPlaylistSongs().remove(playlistSong);
-
-                    // also look for the song in the shuffled songs list
-                    if (playlist.getShuffledPlaylistSongs() != null) {
-                        playlist.getShuffledPlaylistSongs().remove(playlistSong);
+     * @param context        The simulation of the artist.
+     */
+    public void removeSongFromPlaylist(final Playlist playlist, final SongPlayInfo songPlayInfo,
+                                       final SimulationContext context) {
+        for (SongPlayInfo playlistSong : playlist.getPlaylistSongs()) {
+            if (playlistSong.getSong().getName().equals(songPlayInfo
+                    .getSong().getName())) {
+                playlist.getPlaylistSongs().remove(playlistSong);
+                context.getSongUsageIndex().removePlaylistSong(playlist, playlistSong);
+                context.getLoadedContentRegistry().updatePlaylist(playlist);
+
+                /* also look for the song in the shuffled songs list of every
+                user that has played the playlist */
+                for (NormalUser listener : context.getNormalUserList()) {
+                    PlaybackSession session = listener.findPlaylistSession(playlist);
+                    if (session != null && session.getShuffledSongs() != null) {
+                        session.getShuffledSongs().remove(playlistSong);
                     }
-                    break;
                 }
+                break;
             }
         }
     }
@@ -338,11 +278,14 @@ public class Artist extends GeneralUser implements VisitableDeletion, VisitableW
      *
      * @param user           The user from whose liked songs the song will be removed.
      * @param songPlayInfo   The song play information for the liked song.
+     * @param context        The simulation of the artist.
      */
-    public void removeSongFromLikedSongs(final NormalUser user, final SongPlayInfo songPlayInfo) {
+    public void removeSongFromLikedSongs(final NormalUser user, final SongPlayInfo songPlayInfo,
+                                         final SimulationContext context) {
         for (SongPlayInfo likedSong : user.getLikedSongs()) {
             if (likedSong.getSong().getName().equals(songPlayInfo.getSong().getName())) {
                 user.getLikedSongs().remove(likedSong);
+                context.getSongUsageIndex().removeLike(user, likedSong);
                 break;
             }
         }
@@ -525,7 +468,7 @@ public class Artist extends GeneralUser implements VisitableDeletion, VisitableW
      * @return the list of wrapped albums.
      */
     public ArrayList<WrappedAlbum> getWrappedAlbums() {
-        return wrappedAlbums;
+        return wrappedAlbums.getEntries();
     }
 
     /**
@@ -533,7 +476,7 @@ public class Artist extends GeneralUser implements VisitableDeletion, VisitableW
      *
      * @param wrappedAlbums the list of wrapped albums to be set.
      */
-    public void setWrappedAlbums(final ArrayList<WrappedAlbum> wrappedAlbums) {
+    public void setWrappedAlbums(final WrappedCounter<WrappedAlbum> wrappedAlbums) {
         this.wrappedAlbums = wrappedAlbums;
     }
 
@@ -1,6 +1,10 @@
 package users;
 
-public class GeneralUser {
+import java.io.Serializable;
+
+public class GeneralUser implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private String type;
     private String username;
     private Integer age;
@@ -3,15 +3,17 @@ package users;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import fileio.input.entitiesForHost.Announcement;
 import fileio.input.audioEntities.PodcastInput;
-import main.Main;
+import main.SimulationContext;
 import main.adminCommands.VisitableDeletion;
 import main.adminCommands.VisitorDeletion;
 import main.statisticsCommands.VisitableWrapped;
 import main.statisticsCommands.VisitorWrapped;
 
 import java.util.ArrayList;
+import java.util.Set;
 
 public class Host extends GeneralUser implements VisitableDeletion, VisitableWrapped, Subject {
+    private static final long serialVersionUID = 1L;
     private static final int TYPE_PODCAST = 2;
     private ArrayList<PodcastInput> podcasts;
     private ArrayList<Announcement> announcements;
@@ -21,11 +23,11 @@ public class Host extends GeneralUser implements VisitableDeletion, VisitableWra
     private ArrayList<NormalUser> subscribers;
 
     public Host(final String type, final String username, final Integer age,
-                final String city) {
+                final String city, final ArrayList<PodcastInput> podcastsList) {
         super(type, username, age, city);
 
         this.podcasts = new ArrayList<>();
-        for (PodcastInput podcast : Main.podcastsList) {
+        for (PodcastInput podcast : podcastsList) {
             if (podcast.getOwner().equals(username)) {
                 this.podcasts.add(podcast);
             }
@@ -71,40 +73,18 @@ public class Host extends GeneralUser implements VisitableDeletion, VisitableWra
      *
      * @param podcastToBeDeleted The podcast to be deleted.
      * @param timestamp          The timestamp used for updating podcast status.
+     * @param context            The simulation of the host.
      * @return True if the podcast can be deleted; false otherwise.
      */
     public Boolean canDeletePodcast(final PodcastInput podcastToBeDeleted,
-                                    final Integer timestamp) {
-        // check if any user has the given podcast loaded in the player
-        for (NormalUser user : Main.normalUserList) {
-            // check if the user has anything loaded in the player
-            if (!user.getLoaded()) {
-                continue;
-            }
-
-            // check if the user has loaded a podcast
-            if (user.getLastLoadTypeIndicator() != TYPE_PODCAST) {
-                continue;
-            }
-
-            // update status of the loaded podcast in the player
-            if (!user.getLastLoadedPodcast().getPodcastPaused()) {
-                user.getLastLoadedPodcast().updatePodcastStatus(user, timestamp);
-                // check if the podcast has ended meanwhile
-                if (user.getLastLoadedPodcast() == null) {
-                    continue;
-                }
-                user.getLastLoadedPodcast().setLastPlayTimestamp(timestamp);
-                user.getLastLoadedPodcast().setPodcastPaused(false);
-            }
-
-            // check if the podcast to be deleted is the one loaded in the player
-            if (user.getLastLoadedPodcast().getPodcast().getName()
-                    .equals(podcastToBeDeleted.getName())) {
-                return false;
-            }
-        }
-        return true;
+                                    final Integer timestamp, final SimulationContext context) {
+        /* only the players with a podcast loaded are moved, up to the first user that still
+        has the given podcast loaded */
+        LoadedContentRegistry loadedContentRegistry = context.getLoadedContentRegistry();
+        Set<NormalUser> usersLoadingPodcast =
+                loadedContentRegistry.getUsersLoadingPodcast(podcastToBeDeleted.getName());
+        return !LoadedContentRegistry.advanceUntilStillLoaded(
+                loadedContentRegistry.getPodcastUsers(), usersLoadingPodcast, timestamp);
     }
 
     /**
@@ -112,18 +92,20 @@ public class Host extends GeneralUser implements VisitableDeletion, VisitableWra
      * and updating the user selections if necessary.
      *
      * @param podcastToBeDeleted The podcast to be removed.
+     * @param context            The simulation of the host.
      */
-    public void preparePodcastRemoval(final PodcastInput podcastToBeDeleted) {
+    public void preparePodcastRemoval(final PodcastInput podcastToBeDeleted,
+                                      final SimulationContext context) {
         // remove podcast from the big list with all the podcasts in the app
-        for (PodcastInput podcast : Main.podcastsList) {
+        for (PodcastInput podcast : context.getPodcastsList()) {
             if (podcast.getName().equals(podcastToBeDeleted.getName())) {
-                Main.podcastsList.remove(podcast);
+                context.getPodcastsList().remove(podcast);
                 break;
             }
         }
 
         // check if any user has this podcast selected
-        for (NormalUser user : Main.normalUserList) {
+        for (NormalUser user : context.getNormalUserList()) {
             if (!user.getSearched() || !user.getSelected()) {
                 continue;
             }
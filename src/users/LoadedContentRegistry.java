@@ -0,0 +1,342 @@
+package users;
+
+import fileio.input.audioEntities.Album;
+import fileio.input.audioEntities.Playlist;
+import fileio.input.audioEntities.SongPlayInfo;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Keeps the normal users that have something loaded in their players and, for every song,
+ * album, playlist, podcast and playlist owner, the users that have it loaded, as their
+ * players were last updated. The deletion checks find the users that can stop a deletion
+ * here, and don't compare what every user has loaded with what is deleted.
+ * Every NormalUser is given the registry of its simulation when it's created, and records
+ * itself here every time one of the fields that say what is loaded changes (load, the end
+ * of a playback...). The songs of a loaded playlist are indexed by name when it's loaded,
+ * so updatePlaylist has to be called when the songs of a playlist change.
+ *
+ * <p>A player isn't moved forward until something asks for it, and the deletion checks
+ * move forward the players they look at, which changes what later commands print (the
+ * status, the wrapped statistics and the revenue of a user depend on when their player was
+ * last updated). So the checks still move every player they used to move, in the order of
+ * the list, up to the first user that still has the deleted content loaded (all of them
+ * when nobody has it loaded), but they only look at the users that have something loaded
+ * (for the others there's nothing to move). Select and load run on the shard threads of a
+ * sharded replay, so every method that reads or changes the indexes holds the lock of the
+ * registry.
+ */
+public final class LoadedContentRegistry implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final int TYPE_SONG = 1;
+    private static final int TYPE_PODCAST = 2;
+    private static final int TYPE_PLAYLIST = 3;
+    private static final int TYPE_ALBUM = 4;
+
+    /**
+     * What a user has loaded, as the deletion checks see it.
+     */
+    private static final class LoadedContent implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private int position;
+        private String songName;
+        private String albumName;
+        private Playlist playlist;
+        private HashSet<String> playlistSongNames;
+        private String podcastName;
+        // the owner of the last loaded playlist, even when something else was loaded after it
+        private String playlistOwner;
+    }
+
+    private final UserRegistry userRegistry;
+
+    // what every user with something loaded has loaded
+    private final IdentityHashMap<NormalUser, LoadedContent> loadedContents;
+
+    // the users with something loaded, by their position in the list of normal users
+    private final TreeMap<Integer, NormalUser> loadedUsers;
+
+    // the users with a podcast loaded, by their position in the list of normal users
+    private final TreeMap<Integer, NormalUser> podcastUsers;
+
+    // song name -> users that have a song with that name loaded
+    private final HashMap<String, LinkedHashSet<NormalUser>> usersBySong;
+
+    // album name -> users that have an album with that name loaded
+    private final HashMap<String, LinkedHashSet<NormalUser>> usersByAlbum;
+
+    // playlist -> users that have it loaded
+    private final HashMap<Playlist, LinkedHashSet<NormalUser>> usersByPlaylist;
+
+    // song name -> users that have a playlist with a song with that name loaded
+    private final HashMap<String, LinkedHashSet<NormalUser>> usersByPlaylistSong;
+
+    // podcast name -> users that have a podcast with that name loaded
+    private final HashMap<String, LinkedHashSet<NormalUser>> usersByPodcast;
+
+    // owner -> users with something loaded whose last loaded playlist is one of the owner's
+    private final HashMap<String, LinkedHashSet<NormalUser>> usersByPlaylistOwner;
+
+    /**
+     * @param userRegistry the users of the simulation, which give the order of the users.
+     */
+    public LoadedContentRegistry(final UserRegistry userRegistry) {
+        this.userRegistry = userRegistry;
+        loadedContents = new IdentityHashMap<>();
+        loadedUsers = new TreeMap<>();
+        podcastUsers = new TreeMap<>();
+        usersBySong = new HashMap<>();
+        usersByAlbum = new HashMap<>();
+        usersByPlaylist = new HashMap<>();
+        usersByPlaylistSong = new HashMap<>();
+        usersByPodcast = new HashMap<>();
+        usersByPlaylistOwner = new HashMap<>();
+    }
+
+    /**
+     * Records what a user has loaded now, replacing what was recorded before. A user that
+     * isn't in the list of normal users (a deleted one) isn't recorded.
+     *
+     * @param user the user whose player has changed.
+     */
+    public synchronized void update(final NormalUser user) {
+        remove(user);
+
+        LoadedContent content = loadedContentOf(user);
+        if (content == null) {
+            return;
+        }
+        content.position = userRegistry.getNormalUserPosition(user);
+        if (content.position < 0) {
+            return;
+        }
+        loadedContents.put(user, content);
+        loadedUsers.put(content.position, user);
+        add(usersBySong, content.songName, user);
+        add(usersByAlbum, content.albumName, user);
+        add(usersByPlaylist, content.playlist, user);
+        if (content.playlistSongNames != null) {
+            for (String songName : content.playlistSongNames) {
+                add(usersByPlaylistSong, songName, user);
+            }
+        }
+        if (content.podcastName != null) {
+            podcastUsers.put(content.position, user);
+        }
+        add(usersByPodcast, content.podcastName, user);
+        add(usersByPlaylistOwner, content.playlistOwner, user);
+    }
+
+    /**
+     * Indexes again the songs of a playlist whose songs have changed, for the users that
+     * have it loaded.
+     *
+     * @param playlist the changed playlist.
+     */
+    public synchronized void updatePlaylist(final Playlist playlist) {
+        LinkedHashSet<NormalUser> users = usersByPlaylist.get(playlist);
+        if (users == null) {
+            return;
+        }
+        for (NormalUser user : new ArrayList<>(users)) {
+            update(user);
+        }
+    }
+
+    /**
+     * Forgets a deleted user.
+     *
+     * @param user the deleted user.
+     */
+    public synchronized void removeUser(final NormalUser user) {
+        remove(user);
+    }
+
+    /**
+     * Gets the users that may have something of an album loaded: the album itself, one of
+     * its songs, or a playlist with one of its songs (the songs are matched by name).
+     *
+     * @param album the album.
+     * @return the users.
+     */
+    public synchronized Set<NormalUser> getUsersLoadingAlbum(final Album album) {
+        HashSet<String> songNames = new HashSet<>();
+        for (SongPlayInfo song : album.getSongs()) {
+            songNames.add(song.getSong().getName());
+        }
+
+        LinkedHashSet<NormalUser> users = new LinkedHashSet<>();
+        addAll(users, usersByAlbum.get(album.getName()));
+        for (String songName : songNames) {
+            addAll(users, usersBySong.get(songName));
+            addAll(users, usersByPlaylistSong.get(songName));
+        }
+        return users;
+    }
+
+    /**
+     * Gets the users that have a podcast loaded (matched by name).
+     *
+     * @param podcastName the name of the podcast.
+     * @return the users.
+     */
+    public synchronized Set<NormalUser> getUsersLoadingPodcast(final String podcastName) {
+        LinkedHashSet<NormalUser> users = new LinkedHashSet<>();
+        addAll(users, usersByPodcast.get(podcastName));
+        return users;
+    }
+
+    /**
+     * Gets the users with something loaded whose last loaded playlist belongs to an owner.
+     *
+     * @param owner the username of the owner.
+     * @return the users.
+     */
+    public synchronized Set<NormalUser> getUsersLoadingPlaylistsOf(final String owner) {
+        LinkedHashSet<NormalUser> users = new LinkedHashSet<>();
+        addAll(users, usersByPlaylistOwner.get(owner));
+        return users;
+    }
+
+    /**
+     * Gets the users that have something loaded in their players, in the order of the list
+     * of normal users.
+     *
+     * @return the users.
+     */
+    public synchronized ArrayList<NormalUser> getLoadedUsers() {
+        return new ArrayList<>(loadedUsers.values());
+    }
+
+    /**
+     * Gets the users that have a podcast loaded in their players, in the order of the list
+     * of normal users.
+     *
+     * @return the users.
+     */
+    public synchronized ArrayList<NormalUser> getPodcastUsers() {
+        return new ArrayList<>(podcastUsers.values());
+    }
+
+    /**
+     * Moves forward players in the order given, up to the first of some users that still
+     * has something loaded. Once all of those users have been checked, the rest of the
+     * players are only moved.
+     *
+     * @param players   the players to move, in the order of the list of normal users.
+     * @param users     the users that had the content loaded before their players moved.
+     * @param timestamp the timestamp to move the players to.
+     * @return true if one of the users still has the content loaded, false otherwise.
+     */
+    public static boolean advanceUntilStillLoaded(final List<NormalUser> players,
+                                                  final Set<NormalUser> users,
+                                                  final Integer timestamp) {
+        // a player that keeps something loaded keeps what it had, so it's still in the set
+        int usersLeft = users.size();
+        for (NormalUser user : players) {
+            boolean loaded = user.stillHasSomethingLoaded(timestamp);
+            if (usersLeft > 0 && users.contains(user)) {
+                if (loaded) {
+                    return true;
+                }
+                usersLeft--;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Works out what a user has loaded from the fields of its player, the same way the
+     * deletion checks used to compare them (null if nothing is loaded).
+     */
+    private static LoadedContent loadedContentOf(final NormalUser user) {
+        if (!Boolean.TRUE.equals(user.getLoaded())) {
+            return null;
+        }
+
+        LoadedContent content = new LoadedContent();
+        Integer loadType = user.getLastLoadTypeIndicator();
+        if (loadType != null) {
+            if (loadType == TYPE_SONG && user.getLastLoadedSongPlayInfo() != null
+                    && user.getLastLoadedSongPlayInfo().getSong() != null) {
+                content.songName = user.getLastLoadedSongPlayInfo().getSong().getName();
+            }
+            if (loadType == TYPE_ALBUM && user.getLastLoadedAlbum() != null) {
+                content.albumName = user.getLastLoadedAlbum().getName();
+            }
+            if (loadType == TYPE_PLAYLIST && user.getLastLoadedPlaylist() != null) {
+                content.playlist = user.getLastLoadedPlaylist();
+                content.playlistSongNames = new HashSet<>();
+                for (SongPlayInfo playlistSong : content.playlist.getPlaylistSongs()) {
+                    if (playlistSong != null) {
+                        content.playlistSongNames.add(playlistSong.getSong().getName());
+                    }
+                }
+            }
+            if (loadType == TYPE_PODCAST && user.getLastLoadedPodcast() != null) {
+                content.podcastName = user.getLastLoadedPodcast().getPodcast().getName();
+            }
+        }
+        if (user.getLastLoadedPlaylist() != null) {
+            content.playlistOwner = user.getLastLoadedPlaylist().getOwner();
+        }
+        return content;
+    }
+
+    private void remove(final NormalUser user) {
+        LoadedContent content = loadedContents.remove(user);
+        if (content == null) {
+            return;
+        }
+        loadedUsers.remove(content.position);
+        podcastUsers.remove(content.position);
+        remove(usersBySong, content.songName, user);
+        remove(usersByAlbum, content.albumName, user);
+        remove(usersByPlaylist, content.playlist, user);
+        if (content.playlistSongNames != null) {
+            for (String songName : content.playlistSongNames) {
+                remove(usersByPlaylistSong, songName, user);
+            }
+        }
+        remove(usersByPodcast, content.podcastName, user);
+        remove(usersByPlaylistOwner, content.playlistOwner, user);
+    }
+
+    private static <K> void add(final HashMap<K, LinkedHashSet<NormalUser>> index,
+                                final K key, final NormalUser user) {
+        if (key != null) {
+            index.computeIfAbsent(key, newKey -> new LinkedHashSet<>()).add(user);
+        }
+    }
+
+    private static <K> void remove(final HashMap<K, LinkedHashSet<NormalUser>> index,
+                                   final K key, final NormalUser user) {
+        if (key == null) {
+            return;
+        }
+        LinkedHashSet<NormalUser> users = index.get(key);
+        if (users == null) {
+            return;
+        }
+        users.remove(user);
+        if (users.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private static void addAll(final LinkedHashSet<NormalUser> users,
+                               final LinkedHashSet<NormalUser> more) {
+        if (more != null) {
+            users.addAll(more);
+        }
+    }
+}
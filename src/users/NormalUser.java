@@ -5,33 +5,33 @@ import fileio.input.Pagination.HomePage;
 import fileio.input.Pagination.Page;
 import fileio.input.audioEntities.EpisodeInput;
 import fileio.input.audioEntities.Playlist;
+import fileio.input.audioEntities.PlaybackSession;
 import fileio.input.audioEntities.SongPlayInfo;
 import fileio.input.audioEntities.PodcastInput;
 import fileio.input.audioEntities.PodcastPlayInfo;
 import fileio.input.audioEntities.Album;
 import fileio.input.entitiesForArtist.Merch;
-import main.Main;
+import main.SimulationContext;
 import main.adminCommands.VisitableDeletion;
 import main.adminCommands.VisitorDeletion;
 import main.statisticsCommands.VisitableWrapped;
 import main.statisticsCommands.VisitorWrapped;
+import main.statisticsCommands.WrappedAggregates;
 import fileio.input.wrappedEntities.WrappedArtist;
 import fileio.input.wrappedEntities.WrappedGenre;
 import fileio.input.wrappedEntities.WrappedAlbum;
 import fileio.input.wrappedEntities.WrappedSong;
 import fileio.input.wrappedEntities.WrappedEpisode;
 import fileio.input.wrappedEntities.MonetizedSong;
+import fileio.input.wrappedEntities.WrappedCounter;
 
 
 import java.util.ArrayList;
+import java.util.HashMap;
 
 public class NormalUser extends GeneralUser implements VisitableDeletion,
         VisitableWrapped, Observer {
-    private static final int TYPE_SONG = 1;
-    private static final int TYPE_PODCAST = 2;
-    private static final int TYPE_PLAYLIST = 3;
-
-    private static final int TYPE_ALBUM = 4;
+    private static final long serialVersionUID = 1L;
     private static final int MONETIZATION_POWER_BASE = 10;
     private static final int MONETIZATION_POWER_EXPONENT = 6;
     private static final double HUNDRED = 100.0;
@@ -85,6 +85,15 @@ public class NormalUser extends GeneralUser implements VisitableDeletion,
 
     private ArrayList<PodcastPlayInfo> podcastPlayInfoList;
 
+    /* the user's playback state of the loaded song, and of every album and playlist loaded
+    by the user; the audio files are shared by all users, so the user's state is kept here,
+    like for podcasts. A song is played from the start every time it's loaded, so only the
+    state of the last one is kept, while the albums and playlists keep their state between
+    two loads (the repeat mode, and the position in a playlist) */
+    private PlaybackSession songSession;
+    private HashMap<Album, PlaybackSession> albumSessions;
+    private HashMap<Playlist, PlaybackSession> playlistSessions;
+
     private ArrayList<Playlist> playlists;
 
     private ArrayList<SongPlayInfo> likedSongs;
@@ -93,21 +102,28 @@ public class NormalUser extends GeneralUser implements VisitableDeletion,
     // true - online; false - offline
     private Boolean connectionStatus;
 
+    // moves the player forward in time, when a command reads or changes it
+    private PlaybackClock playbackClock;
+
+    /* the simulation of the user, whose registries are told every time what is loaded in
+    the player changes and every time the current page changes */
+    private final SimulationContext context;
+
     private ArrayList<Page> pageHistory;
 
     private int currentPageIndex;
 
     /* keep a list of all artists the user has ever listened to,
     associated with their number of listens */
-    private ArrayList<WrappedArtist> wrappedArtists;
+    private WrappedCounter<WrappedArtist> wrappedArtists;
 
-    private ArrayList<WrappedGenre> wrappedGenres;
+    private WrappedCounter<WrappedGenre> wrappedGenres;
 
-    private ArrayList<WrappedAlbum> wrappedAlbums;
+    private WrappedCounter<WrappedAlbum> wrappedAlbums;
 
-    private ArrayList<WrappedSong> wrappedSongs;
+    private WrappedCounter<WrappedSong> wrappedSongs;
 
-    private ArrayList<WrappedEpisode> wrappedEpisodes;
+    private WrappedCounter<WrappedEpisode> wrappedEpisodes;
 
     // list of all the merch items bought by this user
     private ArrayList<Merch> boughtMerch;
@@ -123,26 +139,36 @@ public class NormalUser extends GeneralUser implements VisitableDeletion,
     private boolean isPremium;
 
     // list of songs that have been played by the user while being premium
-    private ArrayList<WrappedSong> songsPlayedWhilePremium;
+    private WrappedCounter<WrappedSong> songsPlayedWhilePremium;
 
-    private ArrayList<WrappedArtist> artistsPlayedWhilePremium;
+    private WrappedCounter<WrappedArtist> artistsPlayedWhilePremium;
 
-    public NormalUser(final String username) {
+    /**
+     * Creates a normal user, with nothing loaded, on the home page.
+     *
+     * @param username the username.
+     * @param context  the simulation the user is added to.
+     */
+    public NormalUser(final String username, final SimulationContext context) {
         super("user", username);
+        this.context = context;
         playlists = new ArrayList<>();
         likedSongs = new ArrayList<>();
         podcastPlayInfoList = new ArrayList<>();
+        albumSessions = new HashMap<>();
+        playlistSessions = new HashMap<>();
         lastLoadedSongPlayInfo = new SongPlayInfo();
+        songSession = new PlaybackSession();
         following = new ArrayList<>();
         loaded = false;
         selected = false;
         searched = false;
         connectionStatus = true;
-        wrappedArtists = new ArrayList<>();
-        wrappedAlbums = new ArrayList<>();
-        wrappedGenres = new ArrayList<>();
-        wrappedEpisodes = new ArrayList<>();
-        wrappedSongs = new ArrayList<>();
+        wrappedArtists = new WrappedCounter<>();
+        wrappedAlbums = new WrappedCounter<>();
+        wrappedGenres = new WrappedCounter<>();
+        wrappedEpisodes = new WrappedCounter<>();
+        wrappedSongs = new WrappedCounter<>();
         boughtMerch = new ArrayList<>();
         pageHistory = new ArrayList<>();
 
@@ -154,6 +180,7 @@ public class NormalUser extends GeneralUser implements VisitableDeletion,
         songRecommendations = new ArrayList<>();
         notifications = new ArrayList<>();
         isPremium = false;
+        playbackClock = new PlaybackClock(this);
     }
 
     /**
@@ -182,16 +209,14 @@ public class NormalUser extends GeneralUser implements VisitableDeletion,
 
         // get total number of songs listened by this user while being premium
         int totalNumberOfSongs = 0;
-        for (WrappedSong song : songsPlayedWhilePremium) {
+        for (WrappedSong song : songsPlayedWhilePremium.getEntries()) {
             totalNumberOfSongs += song.getListens();
         }
 
-        for (Artist artist : Main.artistsList) {
-            for (WrappedArtist wrappedArtist : artistsPlayedWhilePremium) {
-                if (artist.getUsername().equals(wrappedArtist.getArtistName())) {
-                    calculateMonetizationForThisArtist(artist, wrappedArtist, totalNumberOfSongs);
-                    break;
-                }
+        for (WrappedArtist wrappedArtist : artistsPlayedWhilePremium.getEntries()) {
+            Artist artist = context.getUserRegistry().getArtist(wrappedArtist.getArtistName());
+            if (artist != null) {
+                calculateMonetizationForThisArtist(artist, wrappedArtist, totalNumberOfSongs);
             }
         }
     }
@@ -260,20 +285,31 @@ public class NormalUser extends GeneralUser implements VisitableDeletion,
      * @param wrappedArtistsList  The list of wrapped artists.
      */
     public void updateWrappedArtists(final String artistName,
-                                     final ArrayList<WrappedArtist> wrappedArtistsList) {
+                                     final WrappedCounter<WrappedArtist> wrappedArtistsList) {
+        updateWrappedArtists(artistName, wrappedArtistsList, 1);
+    }
+
+    /**
+     * Updates the list of wrapped artists based on the artist name, adding
+     * several listens at once.
+     *
+     * @param artistName          The name of the artist to update.
+     * @param wrappedArtistsList  The list of wrapped artists.
+     * @param listens             The number of listens to be added.
+     */
+    public void updateWrappedArtists(final String artistName,
+                                     final WrappedCounter<WrappedArtist> wrappedArtistsList,
+                                     final int listens) {
         // look for the artist in the list of wrapped artists
-        for (WrappedArtist wrappedArtist : wrappedArtistsList) {
-            if (wrappedArtist.getArtistName().equals(artistName)) {
-                // increment the number of listens
-                wrappedArtist.setListens(wrappedArtist.getListens() + 1);
-                return;
-            }
+        if (wrappedArtistsList.addListens(artistName, listens)) {
+            return;
         }
 
         /* if we are here, it means that the artist was not found,
         so we need to add it to the list */
         WrappedArtist newWrappedArtist = new WrappedArtist(artistName);
-        wrappedArtistsList.add(newWrappedArtist);
+        newWrappedArtist.setListens(listens);
+        wrappedArtistsList.add(artistName, newWrappedArtist);
     }
 
     /**
@@ -283,19 +319,29 @@ public class NormalUser extends GeneralUser implements VisitableDeletion,
      * @param wrappedGenreList    The list of wrapped genres.
      */
     public void updateWrappedGenres(final String genre,
-                                    final ArrayList<WrappedGenre> wrappedGenreList) {
+                                    final WrappedCounter<WrappedGenre> wrappedGenreList) {
+        updateWrappedGenres(genre, wrappedGenreList, 1);
+    }
+
+    /**
+     * Updates the list of wrapped genres based on the genre, adding several listens at once.
+     *
+     * @param genre               The genre to update.
+     * @param wrappedGenreList    The list of wrapped genres.
+     * @param listens             The number of listens to be added.
+     */
+    public void updateWrappedGenres(final String genre,
+                                    final WrappedCounter<WrappedGenre> wrappedGenreList,
+                                    final int listens) {
         // look for the genre in the list of wrapped genres
-        for (WrappedGenre wrappedGenre : wrappedGenreList) {
-            if (wrappedGenre.getGenre().equals(genre)) {
-                // increment the number of listens
-                wrappedGenre.setListens(wrappedGenre.getListens() + 1);
-                return;
-            }
+        if (wrappedGenreList.addListens(genre, listens)) {
+            return;
         }
 
         // if we are here, it means that the genre was not found, so we need to add it to the list
         WrappedGenre newWrappedGenre = new WrappedGenre(genre);
-        wrappedGenreList.add(newWrappedGenre);
+        newWrappedGenre.setListens(listens);
+        wrappedGenreList.add(genre, newWrappedGenre);
     }
 
     /**
@@ -304,18 +350,25 @@ public class NormalUser extends GeneralUser implements VisitableDeletion,
      * @param albumName           The name of the album to update.
      */
     public void updateWrappedAlbums(final String albumName) {
+        updateWrappedAlbums(albumName, 1);
+    }
+
+    /**
+     * Updates the list of wrapped albums based on the album name, adding several listens at once.
+     *
+     * @param albumName           The name of the album to update.
+     * @param listens             The number of listens to be added.
+     */
+    public void updateWrappedAlbums(final String albumName, final int listens) {
         // look for the album in the list of wrapped albums
-        for (WrappedAlbum wrappedAlbum : wrappedAlbums) {
-            if (wrappedAlbum.getAlbumName().equals(albumName)) {
-                // increment the number of listens
-                wrappedAlbum.setListens(wrappedAlbum.getListens() + 1);
-                return;
-            }
+        if (wrappedAlbums.addListens(albumName, listens)) {
+            return;
         }
 
         // if we are here, it means that the genre was not found, so we need to add it to the list
         WrappedAlbum newWrappedAlbum = new WrappedAlbum(albumName);
-        wrappedAlbums.add(newWrappedAlbum);
+        newWrappedAlbum.setListens(listens);
+        wrappedAlbums.add(albumName, newWrappedAlbum);
     }
 
     /**
@@ -325,20 +378,30 @@ public class NormalUser extends GeneralUser implements VisitableDeletion,
      * @param wrappedSongsList    The list of wrapped songs.
      */
     public void updateWrappedSongs(final SongPlayInfo songPlayInfo, final
-    ArrayList<WrappedSong> wrappedSongsList) {
-        // look for the song in the list of wrapped songs
-        for (WrappedSong wrappedSong : wrappedSongsList) {
-            if (wrappedSong.getSongPlayInfo().getSong().getName().
-                    equals(songPlayInfo.getSong().getName())) {
-                // increment the number of listens
-                wrappedSong.setListens(wrappedSong.getListens() + 1);
-                return;
-            }
+    WrappedCounter<WrappedSong> wrappedSongsList) {
+        updateWrappedSongs(songPlayInfo, wrappedSongsList, 1);
+    }
+
+    /**
+     * Updates the list of wrapped songs based on the song play information,
+     * adding several listens at once.
+     *
+     * @param songPlayInfo        The song play information to update.
+     * @param wrappedSongsList    The list of wrapped songs.
+     * @param listens             The number of listens to be added.
+     */
+    public void updateWrappedSongs(final SongPlayInfo songPlayInfo, final
+    WrappedCounter<WrappedSong> wrappedSongsList, final int listens) {
+        // look for the song (by name) in the list of wrapped songs
+        String songName = songPlayInfo.getSong().getName();
+        if (wrappedSongsList.addListens(songName, listens)) {
+            return;
         }
 
         // if we are here, it means that the song was not found, so we need to add it to the list
         WrappedSong newWrappedSong = new WrappedSong(songPlayInfo);
-        wrappedSongsList.add(newWrappedSong);
+        newWrappedSong.setListens(listens);
+        wrappedSongsList.add(songName, newWrappedSong);
     }
 
     /**
@@ -347,18 +410,28 @@ public class NormalUser extends GeneralUser implements VisitableDeletion,
      * @param episode             The episode information to update.
      */
     public void updateWrappedEpisodes(final EpisodeInput episode) {
+        updateWrappedEpisodes(episode, 1);
+    }
+
+    /**
+     * Updates the list of wrapped episodes based on the episode information,
+     * adding several listens at once.
+     *
+     * @param episode             The episode information to update.
+     * @param listens             The number of listens to be added.
+     */
+    public void updateWrappedEpisodes(final EpisodeInput episode, final int listens) {
+        context.getWrappedAggregates().addEpisodeListens(episode.getName(), listens);
+
         // look for the episode in the list of wrapped episodes
-        for (WrappedEpisode wrappedEpisode : wrappedEpisodes) {
-            if (wrappedEpisode.getEpisode().getName().equals(episode.getName())) {
-                // increment the number of listens
-                wrappedEpisode.setListens(wrappedEpisode.getListens() + 1);
-                return;
-            }
+        if (wrappedEpisodes.addListens(episode.getName(), listens)) {
+            return;
         }
 
         // if we are here, it means that the episode was not found, so we need to add it to the list
         WrappedEpisode newWrappedEpisode = new WrappedEpisode(episode);
-        wrappedEpisodes.add(newWrappedEpisode);
+        newWrappedEpisode.setListens(listens);
+        wrappedEpisodes.add(episode.getName(), newWrappedEpisode);
     }
 
     /**
@@ -367,15 +440,28 @@ public class NormalUser extends GeneralUser implements VisitableDeletion,
      * @param songPlayInfo        The song play information to update.
      */
     public void updateEverythingForSong(final SongPlayInfo songPlayInfo) {
-        updateWrappedSongs(songPlayInfo, wrappedSongs);
-        updateWrappedGenres(songPlayInfo.getSong().getGenre(), wrappedGenres);
-        updateWrappedArtists(songPlayInfo.getSong().getArtist(), wrappedArtists);
-        updateWrappedAlbums(songPlayInfo.getSong().getAlbum());
-        for (Artist artist : Main.artistsList) {
-            if (artist.getUsername().equals(songPlayInfo.getSong().getArtist())) {
-                artist.updateArtistWrappedAlbums(songPlayInfo.getSong().getAlbum());
-                break;
-            }
+        updateEverythingForSong(songPlayInfo, 1);
+    }
+
+    /**
+     * Updates various entities (songs, genres, artists, albums) for a song
+     * that has been listened to several times in a row.
+     *
+     * @param songPlayInfo        The song play information to update.
+     * @param listens             The number of listens to be added.
+     */
+    public void updateEverythingForSong(final SongPlayInfo songPlayInfo, final int listens) {
+        updateWrappedSongs(songPlayInfo, wrappedSongs, listens);
+        updateWrappedGenres(songPlayInfo.getSong().getGenre(), wrappedGenres, listens);
+        updateWrappedArtists(songPlayInfo.getSong().getArtist(), wrappedArtists, listens);
+        WrappedAggregates wrappedAggregates = context.getWrappedAggregates();
+        wrappedAggregates.addSongListens(wrappedSongs.get(songPlayInfo.getSong().getName()),
+                listens);
+        wrappedAggregates.addFanListens(this, songPlayInfo.getSong().getArtist(), listens);
+        updateWrappedAlbums(songPlayInfo.getSong().getAlbum(), listens);
+        Artist artist = context.getUserRegistry().getArtist(songPlayInfo.getSong().getArtist());
+        if (artist != null) {
+            artist.updateArtistWrappedAlbums(songPlayInfo.getSong().getAlbum(), listens);
         }
     }
 
@@ -385,8 +471,21 @@ public class NormalUser extends GeneralUser implements VisitableDeletion,
      * @param songPlayInfo        The song play information to update for premium users.
      */
     public void updateSongAndArtistForPremiumUser(final SongPlayInfo songPlayInfo) {
-        updateWrappedSongs(songPlayInfo, songsPlayedWhilePremium);
-        updateWrappedArtists(songPlayInfo.getSong().getArtist(), artistsPlayedWhilePremium);
+        updateSongAndArtistForPremiumUser(songPlayInfo, 1);
+    }
+
+    /**
+     * Updates songs and artists for premium users for a song that has been
+     * listened to several times in a row.
+     *
+     * @param songPlayInfo        The song play information to update for premium users.
+     * @param listens             The number of listens to be added.
+     */
+    public void updateSongAndArtistForPremiumUser(final SongPlayInfo songPlayInfo,
+                                                  final int listens) {
+        updateWrappedSongs(songPlayInfo, songsPlayedWhilePremium, listens);
+        updateWrappedArtists(songPlayInfo.getSong().getArtist(), artistsPlayedWhilePremium,
+                listens);
     }
 
     /**
@@ -418,23 +517,7 @@ public class NormalUser extends GeneralUser implements VisitableDeletion,
      * @return True if the song is still loaded, false if it has finished.
      */
     public Boolean isSongStillLoaded(final Integer timestamp) {
-        // update song status from the last update until now
-        if (this.getLastLoadedSongPlayInfo() == null) {
-            return false;
-        }
-
-        // check if the song was on play
-        if (!this.getLastLoadedSongPlayInfo().getSongPaused()) {
-            SongPlayInfo songPlayInfo = this.getLastLoadedSongPlayInfo();
-            songPlayInfo.updateSongStatus(this, timestamp);
-            if (this.getLastLoadedSongPlayInfo() == null) {
-                // the song has finished => it isn't loaded anymore
-                return false;
-            }
-            this.getLastLoadedSongPlayInfo().setLastPlayTimestamp(timestamp);
-        }
-
-        return true;
+        return playbackClock.advanceSong(timestamp);
     }
 
     /**
@@ -444,24 +527,7 @@ public class NormalUser extends GeneralUser implements VisitableDeletion,
      * @return True if the podcast is still loaded, false if it has finished.
      */
     public Boolean isPodcastStillLoaded(final Integer timestamp) {
-        // update podcast status from the last update until now
-        if (this.getLastLoadedPodcast() == null) {
-            return false;
-        }
-
-        // check if the loaded podcast is on play
-        if (!this.getLastLoadedPodcast().getPodcastPaused()) {
-            PodcastPlayInfo podcast = this.getLastLoadedPodcast();
-            podcast.updatePodcastStatus(this, timestamp);
-            // check if the podcast is null after leaving the previous method
-            if (this.getLastLoadedPodcast() == null) {
-                // the podcast has finished => it isn't loaded anymore
-                return false;
-            }
-            this.getLastLoadedPodcast().setLastPlayTimestamp(timestamp);
-            this.getLastLoadedPodcast().setPodcastPaused(false);
-        }
-        return true;
+        return playbackClock.advancePodcast(timestamp);
     }
 
     /**
@@ -471,33 +537,7 @@ public class NormalUser extends GeneralUser implements VisitableDeletion,
      * @return True if the playlist is still loaded, false if it has finished.
      */
     public Boolean isPlaylistStillLoaded(final Integer timestamp) {
-        // update playlist status from the last update until now
-        if (this.getLastLoadedPlaylist() == null) {
-            return false;
-        }
-
-        // check if the loaded playlist was on play
-        if (!this.getLastLoadedPlaylist().getPaused()) {
-            Playlist playList = this.getLastLoadedPlaylist();
-
-            // check playlist shuffle status
-            if (!playList.getShuffleStatus()) {
-                ArrayList<SongPlayInfo> playlistSongs;
-                playlistSongs = this.getLastLoadedPlaylist().getPlaylistSongs();
-                playList.updatePlaylistStatus(this, timestamp, playlistSongs);
-            } else {
-                ArrayList<SongPlayInfo> shuffledSongs;
-                shuffledSongs = this.getLastLoadedPlaylist().getShuffledPlaylistSongs();
-                playList.updatePlaylistStatus(this, timestamp, shuffledSongs);
-            }
-
-            if (this.getLastLoadedPlaylist() == null) {
-                // the playlist has finished => it isn't loaded anymore
-                return false;
-            }
-            this.getLastLoadedPlaylist().setLastPlayTimestamp(timestamp);
-        }
-        return true;
+        return playbackClock.advancePlaylist(timestamp);
     }
 
     /**
@@ -507,31 +547,7 @@ public class NormalUser extends GeneralUser implements VisitableDeletion,
      * @return True if the album is still loaded, false if it has finished.
      */
     public Boolean isAlbumStillLoaded(final Integer timestamp) {
-        // update album status from the last update until now
-        if (this.getLastLoadedAlbum() == null) {
-            return false;
-        }
-
-        // check if the loaded album was on play
-        if (!this.getLastLoadedAlbum().getPaused()) {
-            Album album = this.getLastLoadedAlbum();
-
-            // check album shuffle status
-            if (!album.getShuffleStatus()) {
-                ArrayList<SongPlayInfo> albumSongs;
-                albumSongs = this.getLastLoadedAlbum().getSongs();
-                album.updateAlbumStatus(this, timestamp, albumSongs);
-            } else {
-                album.updateAlbumStatus(this, timestamp, album.getShuffledSongs());
-            }
-
-            if (this.getLastLoadedAlbum() == null) {
-                // the album has finished => it isn't loaded anymore
-                return false;
-            }
-            this.getLastLoadedAlbum().setLastPlayTimestamp(timestamp);
-        }
-        return true;
+        return playbackClock.advanceAlbum(timestamp);
     }
 
     /**
@@ -541,24 +557,26 @@ public class NormalUser extends GeneralUser implements VisitableDeletion,
      * @return True if the audio entity is still loaded, false if it has finished.
      */
     public Boolean stillHasSomethingLoaded(final Integer timestamp) {
-        if (!this.getLoaded()) {
-            return false;
-        }
+        return playbackClock.advance(timestamp);
+    }
 
-        switch (this.getLastLoadTypeIndicator()) {
-            case TYPE_SONG:
-                return isSongStillLoaded(timestamp);
-            case TYPE_PODCAST:
-                return isPodcastStillLoaded(timestamp);
-            case TYPE_PLAYLIST:
-                return isPlaylistStillLoaded(timestamp);
-            case TYPE_ALBUM:
-                return isAlbumStillLoaded(timestamp);
-            default:
-                return false;
-        }
+    /**
+     * Gets the simulation the user belongs to.
+     *
+     * @return The context of the user's simulation.
+     */
+    public SimulationContext getContext() {
+        return context;
     }
 
+    /**
+     * Gets the clock that moves the user's player forward in time.
+     *
+     * @return The playback clock of the user.
+     */
+    public PlaybackClock getPlaybackClock() {
+        return playbackClock;
+    }
 
     /**
      * Gets the list of liked songs for the user.
@@ -665,6 +683,10 @@ public class NormalUser extends GeneralUser implements VisitableDeletion,
      * @param lastSelectedSong The new last selected song.
      */
     public void setLastSelectedSong(final SongPlayInfo lastSelectedSong) {
+        if (this.lastSelectedSong != lastSelectedSong) {
+            context.getSongUsageIndex().changeSelection(this, this.lastSelectedSong,
+                    lastSelectedSong);
+        }
         this.lastSelectedSong = lastSelectedSong;
     }
 
@@ -702,6 +724,7 @@ public class NormalUser extends GeneralUser implements VisitableDeletion,
      */
     public void setLastLoadTypeIndicator(final Integer lastLoadTypeIndicator) {
         this.lastLoadTypeIndicator = lastLoadTypeIndicator;
+        context.getLoadedContentRegistry().update(this);
     }
 
     /**
@@ -758,6 +781,96 @@ public class NormalUser extends GeneralUser implements VisitableDeletion,
         this.podcastPlayInfoList = podcastPlayInfoList;
     }
 
+    /**
+     * Gets the user's playback session of the last loaded song.
+     *
+     * @return the playback session of the last loaded song, or null if the song has ended.
+     */
+    public PlaybackSession getSongSession() {
+        return songSession;
+    }
+
+    /**
+     * Gets the user's playback session of a playlist, starting a new one if the user
+     * hasn't played it before.
+     *
+     * @param playlist the playlist.
+     * @return the user's playback session of the playlist, or null if there is no playlist.
+     */
+    public PlaybackSession getPlaylistSession(final Playlist playlist) {
+        if (playlist == null) {
+            return null;
+        }
+        return playlistSessions.computeIfAbsent(playlist, key -> new PlaybackSession());
+    }
+
+    /**
+     * Gets the user's playback session of a playlist, if there is one.
+     *
+     * @param playlist the playlist.
+     * @return the user's playback session, or null if the user hasn't played the playlist.
+     */
+    public PlaybackSession findPlaylistSession(final Playlist playlist) {
+        return playlistSessions.get(playlist);
+    }
+
+    /**
+     * Gets the user's playback session of the last loaded playlist.
+     *
+     * @return the playback session of the last loaded playlist, or null if the playlist
+     * has ended.
+     */
+    public PlaybackSession getPlaylistSession() {
+        return getPlaylistSession(lastLoadedPlaylist);
+    }
+
+    /**
+     * Forgets the user's playback session of a playlist that is deleted. The session of the
+     * last loaded playlist is kept, because the player can still read it.
+     *
+     * @param playlist the deleted playlist.
+     */
+    public void removePlaylistSession(final Playlist playlist) {
+        if (playlist != lastLoadedPlaylist) {
+            playlistSessions.remove(playlist);
+        }
+    }
+
+    /**
+     * Gets the user's playback session of an album, starting a new one if the user hasn't
+     * played it before.
+     *
+     * @param album the album.
+     * @return the user's playback session of the album, or null if there is no album.
+     */
+    public PlaybackSession getAlbumSession(final Album album) {
+        if (album == null) {
+            return null;
+        }
+        return albumSessions.computeIfAbsent(album, key -> new PlaybackSession());
+    }
+
+    /**
+     * Gets the user's playback session of the last loaded album.
+     *
+     * @return the playback session of the last loaded album, or null if the album has ended.
+     */
+    public PlaybackSession getAlbumSession() {
+        return getAlbumSession(lastLoadedAlbum);
+    }
+
+    /**
+     * Forgets the user's playback session of an album that is deleted. The session of the
+     * last loaded album is kept, because the player can still read it.
+     *
+     * @param album the deleted album.
+     */
+    public void removeAlbumSession(final Album album) {
+        if (album != lastLoadedAlbum) {
+            albumSessions.remove(album);
+        }
+    }
+
     /**
      * Gets the last loaded podcast by the user.
      *
@@ -774,6 +887,7 @@ public class NormalUser extends GeneralUser implements VisitableDeletion,
      */
     public void setLastLoadedPodcast(final PodcastPlayInfo lastLoadedPodcast) {
         this.lastLoadedPodcast = lastLoadedPodcast;
+        context.getLoadedContentRegistry().update(this);
     }
 
     /**
@@ -792,6 +906,7 @@ public class NormalUser extends GeneralUser implements VisitableDeletion,
      */
     public void setLastLoadedPlaylist(final Playlist lastLoadedPlaylist) {
         this.lastLoadedPlaylist = lastLoadedPlaylist;
+        context.getLoadedContentRegistry().update(this);
     }
 
     /**
@@ -810,6 +925,9 @@ public class NormalUser extends GeneralUser implements VisitableDeletion,
      */
     public void setLastLoadedSongPlayInfo(final SongPlayInfo lastLoadedSongPlayInfo) {
         this.lastLoadedSongPlayInfo = lastLoadedSongPlayInfo;
+        // a loaded song always gets a new session, an ended song doesn't have one anymore
+        songSession = lastLoadedSongPlayInfo == null ? null : new PlaybackSession();
+        context.getLoadedContentRegistry().update(this);
     }
 
     /**
@@ -846,6 +964,7 @@ public class NormalUser extends GeneralUser implements VisitableDeletion,
      */
     public void setLoaded(final Boolean loaded) {
         this.loaded = loaded;
+        context.getLoadedContentRegistry().update(this);
     }
 
     /**
@@ -972,6 +1091,7 @@ public class NormalUser extends GeneralUser implements VisitableDeletion,
      */
     public void setLastLoadedAlbum(final Album lastLoadedAlbum) {
         this.lastLoadedAlbum = lastLoadedAlbum;
+        context.getLoadedContentRegistry().update(this);
     }
 
     /**
@@ -998,7 +1118,7 @@ public class NormalUser extends GeneralUser implements VisitableDeletion,
      * @return The list of the last searched artists.
      */
     public ArrayList<WrappedArtist> getWrappedArtists() {
-        return wrappedArtists;
+        return wrappedArtists.getEntries();
     }
 
     /**
@@ -1006,7 +1126,7 @@ public class NormalUser extends GeneralUser implements VisitableDeletion,
      *
      * @param wrappedArtists The new list of the last searched artists.
      */
-    public void setWrappedArtists(final ArrayList<WrappedArtist> wrappedArtists) {
+    public void setWrappedArtists(final WrappedCounter<WrappedArtist> wrappedArtists) {
         this.wrappedArtists = wrappedArtists;
     }
 
@@ -1016,7 +1136,7 @@ public class NormalUser extends GeneralUser implements VisitableDeletion,
      * @return The list of the last searched artists.
      */
     public ArrayList<WrappedGenre> getWrappedGenres() {
-        return wrappedGenres;
+        return wrappedGenres.getEntries();
     }
 
     /**
@@ -1024,7 +1144,7 @@ public class NormalUser extends GeneralUser implements VisitableDeletion,
      *
      * @param wrappedGenres The new list of the last searched artists.
      */
-    public void setWrappedGenres(final ArrayList<WrappedGenre> wrappedGenres) {
+    public void setWrappedGenres(final WrappedCounter<WrappedGenre> wrappedGenres) {
         this.wrappedGenres = wrappedGenres;
     }
 
@@ -1034,7 +1154,7 @@ public class NormalUser extends GeneralUser implements VisitableDeletion,
      * @return The list of the last searched artists.
      */
     public ArrayList<WrappedAlbum> getWrappedAlbums() {
-        return wrappedAlbums;
+        return wrappedAlbums.getEntries();
     }
 
     /**
@@ -1042,7 +1162,7 @@ public class NormalUser extends GeneralUser implements VisitableDeletion,
      *
      * @param wrappedAlbums The new list of the last searched artists.
      */
-    public void setWrappedAlbums(final ArrayList<WrappedAlbum> wrappedAlbums) {
+    public void setWrappedAlbums(final WrappedCounter<WrappedAlbum> wrappedAlbums) {
         this.wrappedAlbums = wrappedAlbums;
     }
 
@@ -1052,7 +1172,7 @@ public class NormalUser extends GeneralUser implements VisitableDeletion,
      * @return The list of the last searched artists.
      */
     public ArrayList<WrappedSong> getWrappedSongs() {
-        return wrappedSongs;
+        return wrappedSongs.getEntries();
     }
 
     /**
@@ -1060,7 +1180,7 @@ public class NormalUser extends GeneralUser implements VisitableDeletion,
      *
      * @param wrappedSongs The new list of the last searched artists.
      */
-    public void setWrappedSongs(final ArrayList<WrappedSong> wrappedSongs) {
+    public void setWrappedSongs(final WrappedCounter<WrappedSong> wrappedSongs) {
         this.wrappedSongs = wrappedSongs;
     }
 
@@ -1070,7 +1190,7 @@ public class NormalUser extends GeneralUser implements VisitableDeletion,
      * @return The list of the last searched artists.
      */
     public ArrayList<WrappedEpisode> getWrappedEpisodes() {
-        return wrappedEpisodes;
+        return wrappedEpisodes.getEntries();
     }
 
     /**
@@ -1078,7 +1198,7 @@ public class NormalUser extends GeneralUser implements VisitableDeletion,
      *
      * @param wrappedEpisodes The new list of the last searched artists.
      */
-    public void setWrappedEpisodes(final ArrayList<WrappedEpisode> wrappedEpisodes) {
+    public void setWrappedEpisodes(final WrappedCounter<WrappedEpisode> wrappedEpisodes) {
         this.wrappedEpisodes = wrappedEpisodes;
     }
 
@@ -1116,6 +1236,7 @@ public class NormalUser extends GeneralUser implements VisitableDeletion,
      */
     public void setPageHistory(final ArrayList<Page> pageHistory) {
         this.pageHistory = pageHistory;
+        context.getPageViewerRegistry().update(this);
     }
 
     /**
@@ -1134,6 +1255,7 @@ public class NormalUser extends GeneralUser implements VisitableDeletion,
      */
     public void setCurrentPageIndex(final int currentPageIndex) {
         this.currentPageIndex = currentPageIndex;
+        context.getPageViewerRegistry().update(this);
     }
 
     /**
@@ -1268,7 +1390,7 @@ public class NormalUser extends GeneralUser implements VisitableDeletion,
      * @return The last recommendation type for the user.
      */
     public ArrayList<WrappedSong> getSongsPlayedWhilePremium() {
-        return songsPlayedWhilePremium;
+        return songsPlayedWhilePremium.getEntries();
     }
 
     /**
@@ -1276,7 +1398,8 @@ public class NormalUser extends GeneralUser implements VisitableDeletion,
      *
      * @param songsPlayedWhilePremium The new last recommendation type for the user.
      */
-    public void setSongsPlayedWhilePremium(final ArrayList<WrappedSong> songsPlayedWhilePremium) {
+    public void setSongsPlayedWhilePremium(final WrappedCounter<WrappedSong>
+                                                   songsPlayedWhilePremium) {
         this.songsPlayedWhilePremium = songsPlayedWhilePremium;
     }
 
@@ -1286,7 +1409,7 @@ public class NormalUser extends GeneralUser implements VisitableDeletion,
      * @return The last recommendation type for the user.
      */
     public ArrayList<WrappedArtist> getArtistsPlayedWhilePremium() {
-        return artistsPlayedWhilePremium;
+        return artistsPlayedWhilePremium.getEntries();
     }
 
     /**
@@ -1295,7 +1418,7 @@ public class NormalUser extends GeneralUser implements VisitableDeletion,
      * @param artistsPlayedWhilePremium The new last
      *                                  recommendation type for the user.
      */
-    public void setArtistsPlayedWhilePremium(final ArrayList<WrappedArtist>
+    public void setArtistsPlayedWhilePremium(final WrappedCounter<WrappedArtist>
                                                      artistsPlayedWhilePremium) {
         this.artistsPlayedWhilePremium = artistsPlayedWhilePremium;
     }
@@ -0,0 +1,108 @@
+package users;
+
+import fileio.input.Pagination.ArtistPage;
+import fileio.input.Pagination.HostPage;
+import fileio.input.Pagination.Page;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+
+/**
+ * Keeps, for every artist and host, the normal users whose current page is the page of that
+ * artist or host. Every NormalUser is given the registry of its simulation when it's
+ * created, and records itself here every time its current page changes (select,
+ * changePage, nextPage, previousPage), so that deleting an artist or a host
+ * doesn't have to look at the current page of every user. The owners are keyed by username,
+ * as the deletion compares them by username. Select and the page navigation commands run
+ * on the shard threads of a sharded replay, so every method holds the lock of the registry.
+ */
+public final class PageViewerRegistry implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final int TYPE_ARTIST = 5;
+    private static final int TYPE_HOST = 6;
+
+    // the username of the owner of the page every user is on (only for artist and host pages)
+    private final IdentityHashMap<NormalUser, String> artistPagesViewed;
+    private final IdentityHashMap<NormalUser, String> hostPagesViewed;
+
+    // artist username -> users on the artist's page
+    private final HashMap<String, LinkedHashSet<NormalUser>> artistPageViewers;
+
+    // host username -> users on the host's page
+    private final HashMap<String, LinkedHashSet<NormalUser>> hostPageViewers;
+
+    public PageViewerRegistry() {
+        artistPagesViewed = new IdentityHashMap<>();
+        hostPagesViewed = new IdentityHashMap<>();
+        artistPageViewers = new HashMap<>();
+        hostPageViewers = new HashMap<>();
+    }
+
+    /**
+     * Records the page a user is on now, replacing the one recorded before.
+     *
+     * @param user the user whose current page has changed.
+     */
+    public synchronized void update(final NormalUser user) {
+        remove(user);
+
+        Page page = user.getPageHistory().get(user.getCurrentPageIndex());
+        if (page.getPageType() == TYPE_ARTIST) {
+            String owner = ((ArtistPage) page).getArtistPageOwner().getUsername();
+            artistPagesViewed.put(user, owner);
+            artistPageViewers.computeIfAbsent(owner, key -> new LinkedHashSet<>()).add(user);
+        }
+        if (page.getPageType() == TYPE_HOST) {
+            String owner = ((HostPage) page).getHostPageOwner().getUsername();
+            hostPagesViewed.put(user, owner);
+            hostPageViewers.computeIfAbsent(owner, key -> new LinkedHashSet<>()).add(user);
+        }
+    }
+
+    /**
+     * Forgets a deleted user.
+     *
+     * @param user the deleted user.
+     */
+    public synchronized void removeUser(final NormalUser user) {
+        remove(user);
+    }
+
+    /**
+     * @param artistName the username of an artist.
+     * @return true if any user is on the artist's page, false otherwise.
+     */
+    public synchronized boolean isArtistPageViewed(final String artistName) {
+        return artistPageViewers.containsKey(artistName);
+    }
+
+    /**
+     * @param hostName the username of a host.
+     * @return true if any user is on the host's page, false otherwise.
+     */
+    public synchronized boolean isHostPageViewed(final String hostName) {
+        return hostPageViewers.containsKey(hostName);
+    }
+
+    private void remove(final NormalUser user) {
+        remove(artistPageViewers, artistPagesViewed.remove(user), user);
+        remove(hostPageViewers, hostPagesViewed.remove(user), user);
+    }
+
+    private static void remove(final HashMap<String, LinkedHashSet<NormalUser>> viewers,
+                               final String owner, final NormalUser user) {
+        if (owner == null) {
+            return;
+        }
+        LinkedHashSet<NormalUser> users = viewers.get(owner);
+        if (users == null) {
+            return;
+        }
+        users.remove(user);
+        if (users.isEmpty()) {
+            viewers.remove(owner);
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package users;
+
+import fileio.input.audioEntities.PlaybackSession;
+import fileio.input.audioEntities.PodcastPlayInfo;
+import fileio.input.audioEntities.SongPlayInfo;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+
+/**
+ * Moves the player of a normal user forward in time. A player is only moved when a command
+ * reads or changes it, from the last play timestamp of what is loaded up to the timestamp of
+ * the command, so the last play timestamp is also the time the player was last moved to.
+ * Moving the player again to the same timestamp is skipped when there is nothing left to
+ * play up to it (see isSettled), which is what happens when a command looks at the same
+ * users more than once, as deleting an artist does for every album.
+ *
+ * <p>There are two ways of moving the player: advance, which moves the last play timestamp
+ * along, and replay, which counts the time since the last play timestamp without moving it.
+ * Replay is what the statistics commands have always done, and their results depend on it.
+ *
+ * <p>The players can't be kept in a queue by the time their song or episode ends, to only
+ * update the ones that end before a command. A replay at timestamp T adds T minus the last
+ * play timestamp of each user to its current second, so it changes every player that is
+ * playing, and brings the end of each one closer by a different amount. The sweeps of the
+ * statistics commands (wrapped, endProgram) have to go through every user with something
+ * loaded, and skipping the others is all they can leave out.
+ */
+public final class PlaybackClock implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final int TYPE_SONG = 1;
+    private static final int TYPE_PODCAST = 2;
+    private static final int TYPE_PLAYLIST = 3;
+    private static final int TYPE_ALBUM = 4;
+
+    private final NormalUser user;
+
+    public PlaybackClock(final NormalUser user) {
+        this.user = user;
+    }
+
+    /**
+     * Moves the player forward up to a timestamp, whatever is loaded in it.
+     *
+     * @param timestamp the current timestamp.
+     * @return true if something is still loaded, false if it has finished.
+     */
+    public Boolean advance(final Integer timestamp) {
+        if (!user.getLoaded()) {
+            return false;
+        }
+
+        switch (user.getLastLoadTypeIndicator()) {
+            case TYPE_SONG:
+                return advanceSong(timestamp);
+            case TYPE_PODCAST:
+                return advancePodcast(timestamp);
+            case TYPE_PLAYLIST:
+                return advancePlaylist(timestamp);
+            case TYPE_ALBUM:
+                return advanceAlbum(timestamp);
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Moves the loaded song forward up to a timestamp.
+     *
+     * @param timestamp the current timestamp.
+     * @return true if the song is still loaded, false if it has finished.
+     */
+    public Boolean advanceSong(final Integer timestamp) {
+        SongPlayInfo songPlayInfo = user.getLastLoadedSongPlayInfo();
+        if (songPlayInfo == null) {
+            return false;
+        }
+
+        // check if the song was on play
+        PlaybackSession session = user.getSongSession();
+        if (!session.getPaused()) {
+            if (isSettled(session, timestamp, songPlayInfo)) {
+                return true;
+            }
+            songPlayInfo.updateSongStatus(user, timestamp);
+            if (user.getLastLoadedSongPlayInfo() == null) {
+                // the song has finished => it isn't loaded anymore
+                return false;
+            }
+            session.setLastPlayTimestamp(timestamp);
+        }
+        return true;
+    }
+
+    /**
+     * Moves the loaded podcast forward up to a timestamp.
+     *
+     * @param timestamp the current timestamp.
+     * @return true if the podcast is still loaded, false if it has finished.
+     */
+    public Boolean advancePodcast(final Integer timestamp) {
+        PodcastPlayInfo podcast = user.getLastLoadedPodcast();
+        if (podcast == null) {
+            return false;
+        }
+
+        // check if the loaded podcast is on play
+        if (!podcast.getPodcastPaused()) {
+            if (isSettled(podcast, timestamp)) {
+                return true;
+            }
+            podcast.updatePodcastStatus(user, timestamp);
+            // check if the podcast is null after the update
+            if (user.getLastLoadedPodcast() == null) {
+                // the podcast has finished => it isn't loaded anymore
+                return false;
+            }
+            user.getLastLoadedPodcast().setLastPlayTimestamp(timestamp);
+            user.getLastLoadedPodcast().setPodcastPaused(false);
+        }
+        return true;
+    }
+
+    /**
+     * Moves the loaded playlist forward up to a timestamp.
+     *
+     * @param timestamp the current timestamp.
+     * @return true if the playlist is still loaded, false if it has finished.
+     */
+    public Boolean advancePlaylist(final Integer timestamp) {
+        if (user.getLastLoadedPlaylist() == null) {
+            return false;
+        }
+
+        // check if the loaded playlist was on play
+        PlaybackSession session = user.getPlaylistSession();
+        if (!session.getPaused()) {
+            ArrayList<SongPlayInfo> songs = session.getShuffleStatus()
+                    ? session.getShuffledSongs() : user.getLastLoadedPlaylist().getPlaylistSongs();
+            if (isSettled(session, timestamp, songs)) {
+                return true;
+            }
+            user.getLastLoadedPlaylist().updatePlaylistStatus(user, timestamp, songs);
+            if (user.getLastLoadedPlaylist() == null) {
+                // the playlist has finished => it isn't loaded anymore
+                return false;
+            }
+            session.setLastPlayTimestamp(timestamp);
+        }
+        return true;
+    }
+
+    /**
+     * Moves the loaded album forward up to a timestamp.
+     *
+     * @param timestamp the current timestamp.
+     * @return true if the album is still loaded, false if it has finished.
+     */
+    public Boolean advanceAlbum(final Integer timestamp) {
+        if (user.getLastLoadedAlbum() == null) {
+            return false;
+        }
+
+        // check if the loaded album was on play
+        PlaybackSession session = user.getAlbumSession();
+        if (!session.getPaused()) {
+            ArrayList<SongPlayInfo> songs = session.getShuffleStatus()
+                    ? session.getShuffledSongs() : user.getLastLoadedAlbum().getSongs();
+            if (isSettled(session, timestamp, songs)) {
+                return true;
+            }
+            user.getLastLoadedAlbum().updateAlbumStatus(user, timestamp, songs);
+            if (user.getLastLoadedAlbum() == null) {
+                // the album has finished => it isn't loaded anymore
+                return false;
+            }
+            session.setLastPlayTimestamp(timestamp);
+        }
+        return true;
+    }
+
+    /**
+     * Counts the time the loaded entity has been playing since its last play timestamp,
+     * without moving the last play timestamp (so the same time is counted again by the next
+     * move of the player).
+     *
+     * @param timestamp the current timestamp.
+     */
+    public void replay(final Integer timestamp) {
+        if (!user.getLoaded()) {
+            return;
+        }
+
+        switch (user.getLastLoadTypeIndicator()) {
+            case TYPE_SONG:
+                if (!user.getSongSession().getPaused()) {
+                    user.getLastLoadedSongPlayInfo().updateSongStatus(user, timestamp);
+                }
+                break;
+            case TYPE_PODCAST:
+                if (!user.getLastLoadedPodcast().getPodcastPaused()) {
+                    user.getLastLoadedPodcast().updatePodcastStatus(user, timestamp);
+                }
+                break;
+            case TYPE_PLAYLIST:
+                PlaybackSession playlistSession = user.getPlaylistSession();
+                if (!playlistSession.getPaused()) {
+                    user.getLastLoadedPlaylist().updatePlaylistStatus(user, timestamp,
+                            playlistSession.getShuffleStatus() ? playlistSession.getShuffledSongs()
+                                    : user.getLastLoadedPlaylist().getPlaylistSongs());
+                }
+                break;
+            case TYPE_ALBUM:
+                PlaybackSession albumSession = user.getAlbumSession();
+                if (!albumSession.getPaused()) {
+                    user.getLastLoadedAlbum().updateAlbumStatus(user, timestamp,
+                            albumSession.getShuffleStatus() ? albumSession.getShuffledSongs()
+                                    : user.getLastLoadedAlbum().getSongs());
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /*
+     * A player is settled at a timestamp if it has been moved up to it and it is still within
+     * the current song or episode. Moving it again to the same timestamp plays nothing and
+     * leaves everything as it is, so it can be skipped. The player can be moved up to a
+     * timestamp without being settled (repeating an episode once can leave it past the end
+     * of the episode), and then the next move still has to take it to the next one.
+     */
+    private static boolean isSettled(final PlaybackSession session, final Integer timestamp,
+                                     final SongPlayInfo song) {
+        return timestamp.equals(session.getLastPlayTimestamp())
+                && session.getCurrentSecond() <= song.getSong().getDuration();
+    }
+
+    private static boolean isSettled(final PlaybackSession session, final Integer timestamp,
+                                     final ArrayList<SongPlayInfo> songs) {
+        if (!timestamp.equals(session.getLastPlayTimestamp())) {
+            return false;
+        }
+        int currentIndex = session.getCurrentSongIndex();
+        if (songs.isEmpty() || currentIndex >= songs.size()) {
+            return false;
+        }
+        return session.getCurrentSecond() <= songs.get(currentIndex).getSong().getDuration();
+    }
+
+    private static boolean isSettled(final PodcastPlayInfo podcast, final Integer timestamp) {
+        if (!timestamp.equals(podcast.getLastPlayTimestamp())) {
+            return false;
+        }
+        int currentIndex = podcast.getCurrentEpisodeIndex();
+        return podcast.getCurrentSecondEpisode()
+                <= podcast.getPodcast().getEpisodes().get(currentIndex).getDuration();
+    }
+}
@@ -0,0 +1,192 @@
+package users;
+
+import fileio.input.audioEntities.Playlist;
+import fileio.input.audioEntities.SongPlayInfo;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+
+/**
+ * Reverse index from a song to the places of the normal users that refer to it: the
+ * playlists that contain it, the users who liked it and the users who have it selected.
+ * Removing an album only has to visit these instead of every playlist and liked song of
+ * every user. The songs are keyed by name, as the removals match the songs by name.
+ * Select runs on the shard threads of a sharded replay, so every method holds the lock
+ * of the index.
+ */
+public final class SongUsageIndex implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    // song name -> the playlists created by normal users that contain a song with that name
+    private final HashMap<String, LinkedHashSet<Playlist>> playlistsBySong;
+
+    // song name -> the normal users who liked a song with that name
+    private final HashMap<String, LinkedHashSet<NormalUser>> likersBySong;
+
+    // song name -> the normal users whose last selected song has that name
+    private final HashMap<String, LinkedHashSet<NormalUser>> selectorsBySong;
+
+    public SongUsageIndex() {
+        playlistsBySong = new HashMap<>();
+        likersBySong = new HashMap<>();
+        selectorsBySong = new HashMap<>();
+    }
+
+    /**
+     * Records that a song has been added to a playlist.
+     *
+     * @param playlist the playlist, created by a normal user.
+     * @param song     the added song.
+     */
+    public synchronized void addPlaylistSong(final Playlist playlist, final SongPlayInfo song) {
+        if (song != null) {
+            add(playlistsBySong, nameOf(song), playlist);
+        }
+    }
+
+    /**
+     * Records that a song has been removed from a playlist. The playlist stays in the
+     * index if it still has another song with the same name.
+     *
+     * @param playlist the playlist, already without the song.
+     * @param song     the removed song.
+     */
+    public synchronized void removePlaylistSong(final Playlist playlist,
+                                                final SongPlayInfo song) {
+        String name = nameOf(song);
+        if (!containsName(playlist.getPlaylistSongs(), name)) {
+            remove(playlistsBySong, name, playlist);
+        }
+    }
+
+    /**
+     * Records that a user has liked a song.
+     *
+     * @param user the user.
+     * @param song the liked song.
+     */
+    public synchronized void addLike(final NormalUser user, final SongPlayInfo song) {
+        add(likersBySong, nameOf(song), user);
+    }
+
+    /**
+     * Records that a user doesn't like a song anymore. The user stays in the index if
+     * they still like another song with the same name.
+     *
+     * @param user the user, whose liked songs don't have the song anymore.
+     * @param song the song that isn't liked anymore.
+     */
+    public synchronized void removeLike(final NormalUser user, final SongPlayInfo song) {
+        String name = nameOf(song);
+        if (!containsName(user.getLikedSongs(), name)) {
+            remove(likersBySong, name, user);
+        }
+    }
+
+    /**
+     * Records that the selected song of a user has changed.
+     *
+     * @param user     the user.
+     * @param previous the song selected before (null for none).
+     * @param selected the song selected now (null for none).
+     */
+    public synchronized void changeSelection(final NormalUser user, final SongPlayInfo previous,
+                                             final SongPlayInfo selected) {
+        if (previous != null) {
+            remove(selectorsBySong, nameOf(previous), user);
+        }
+        if (selected != null) {
+            add(selectorsBySong, nameOf(selected), user);
+        }
+    }
+
+    /**
+     * Forgets everything about a deleted normal user: their playlists, likes and
+     * selection.
+     *
+     * @param user the deleted user.
+     */
+    public synchronized void removeUser(final NormalUser user) {
+        for (Playlist playlist : user.getPlaylists()) {
+            for (SongPlayInfo song : playlist.getPlaylistSongs()) {
+                if (song != null) {
+                    remove(playlistsBySong, nameOf(song), playlist);
+                }
+            }
+        }
+        for (SongPlayInfo song : user.getLikedSongs()) {
+            remove(likersBySong, nameOf(song), user);
+        }
+        if (user.getLastSelectedSong() != null) {
+            remove(selectorsBySong, nameOf(user.getLastSelectedSong()), user);
+        }
+    }
+
+    /**
+     * @param songName the name of a song.
+     * @return the playlists that contain a song with that name, in the order in which
+     * they got it (a copy, so that the songs can be removed while going through it).
+     */
+    public synchronized ArrayList<Playlist> getPlaylists(final String songName) {
+        return copyOf(playlistsBySong, songName);
+    }
+
+    /**
+     * @param songName the name of a song.
+     * @return the users who liked a song with that name (a copy).
+     */
+    public synchronized ArrayList<NormalUser> getLikers(final String songName) {
+        return copyOf(likersBySong, songName);
+    }
+
+    /**
+     * @param songName the name of a song.
+     * @return the users whose last selected song has that name (a copy).
+     */
+    public synchronized ArrayList<NormalUser> getSelectors(final String songName) {
+        return copyOf(selectorsBySong, songName);
+    }
+
+    private static String nameOf(final SongPlayInfo song) {
+        return song.getSong().getName();
+    }
+
+    private static boolean containsName(final Collection<SongPlayInfo> songs,
+                                        final String name) {
+        for (SongPlayInfo song : songs) {
+            if (song != null && nameOf(song).equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <T> void add(final HashMap<String, LinkedHashSet<T>> index,
+                                final String name, final T value) {
+        index.computeIfAbsent(name, key -> new LinkedHashSet<>()).add(value);
+    }
+
+    private static <T> void remove(final HashMap<String, LinkedHashSet<T>> index,
+                                   final String name, final T value) {
+        LinkedHashSet<T> values = index.get(name);
+        if (values == null) {
+            return;
+        }
+        values.remove(value);
+        if (values.isEmpty()) {
+            index.remove(name);
+        }
+    }
+
+    private static <T> ArrayList<T> copyOf(final HashMap<String, LinkedHashSet<T>> index,
+                                           final String name) {
+        LinkedHashSet<T> values = index.get(name);
+        if (values == null) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(values);
+    }
+}
@@ -0,0 +1,189 @@
+package users;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+
+public final class UserRegistry implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    // ordered lists of users, kept for the commands that print users in insertion order
+    private final ArrayList<NormalUser> normalUserList;
+    private final ArrayList<Artist> artistsList;
+    private final ArrayList<Host> hostsList;
+
+    // username indexes, so that looking up a user doesn't need to walk the lists
+    private final HashMap<String, NormalUser> normalUsersByName;
+    private final HashMap<String, Artist> artistsByName;
+    private final HashMap<String, Host> hostsByName;
+
+    /* the position of every normal user in the order in which they were added, so that a
+    subset of the users can be put in the order of the list without walking the list */
+    private final IdentityHashMap<NormalUser, Integer> normalUserPositions;
+    private int nextNormalUserPosition;
+
+    public UserRegistry(final ArrayList<NormalUser> normalUserList,
+                        final ArrayList<Artist> artistsList,
+                        final ArrayList<Host> hostsList) {
+        this.normalUserList = normalUserList;
+        this.artistsList = artistsList;
+        this.hostsList = hostsList;
+
+        this.normalUsersByName = new HashMap<>();
+        this.artistsByName = new HashMap<>();
+        this.hostsByName = new HashMap<>();
+        this.normalUserPositions = new IdentityHashMap<>();
+
+        // index the users that are already in the lists
+        for (NormalUser user : normalUserList) {
+            normalUsersByName.put(user.getUsername(), user);
+            normalUserPositions.put(user, nextNormalUserPosition++);
+        }
+        for (Artist artist : artistsList) {
+            artistsByName.put(artist.getUsername(), artist);
+        }
+        for (Host host : hostsList) {
+            hostsByName.put(host.getUsername(), host);
+        }
+    }
+
+    /**
+     * Adds a normal user to both the ordered list and the username index.
+     *
+     * @param user the normal user to be added.
+     */
+    public void addNormalUser(final NormalUser user) {
+        normalUserList.add(user);
+        normalUsersByName.put(user.getUsername(), user);
+        normalUserPositions.put(user, nextNormalUserPosition++);
+    }
+
+    /**
+     * Adds an artist to both the ordered list and the username index.
+     *
+     * @param artist the artist to be added.
+     */
+    public void addArtist(final Artist artist) {
+        artistsList.add(artist);
+        artistsByName.put(artist.getUsername(), artist);
+    }
+
+    /**
+     * Adds a host to both the ordered list and the username index.
+     *
+     * @param host the host to be added.
+     */
+    public void addHost(final Host host) {
+        hostsList.add(host);
+        hostsByName.put(host.getUsername(), host);
+    }
+
+    /**
+     * Removes a normal user from both the ordered list and the username index.
+     *
+     * @param user the normal user to be removed.
+     */
+    public void removeNormalUser(final NormalUser user) {
+        normalUserList.remove(user);
+        normalUsersByName.remove(user.getUsername());
+        normalUserPositions.remove(user);
+    }
+
+    /**
+     * Removes an artist from both the ordered list and the username index.
+     *
+     * @param artist the artist to be removed.
+     */
+    public void removeArtist(final Artist artist) {
+        artistsList.remove(artist);
+        artistsByName.remove(artist.getUsername());
+    }
+
+    /**
+     * Removes a host from both the ordered list and the username index.
+     *
+     * @param host the host to be removed.
+     */
+    public void removeHost(final Host host) {
+        hostsList.remove(host);
+        hostsByName.remove(host.getUsername());
+    }
+
+    /**
+     * Gets the position of a normal user in the order in which the users were added, which
+     * is also their order in the list (the positions of the deleted users aren't reused).
+     *
+     * @param user the normal user.
+     * @return the position, or -1 if the user isn't in the list.
+     */
+    public int getNormalUserPosition(final NormalUser user) {
+        Integer position = normalUserPositions.get(user);
+        if (position == null) {
+            return -1;
+        }
+        return position;
+    }
+
+    /**
+     * Gets the normal user with the given username.
+     *
+     * @param username the username to look for.
+     * @return the normal user, or null if there is no normal user with this username.
+     */
+    public NormalUser getNormalUser(final String username) {
+        return normalUsersByName.get(username);
+    }
+
+    /**
+     * Gets the artist with the given username.
+     *
+     * @param username the username to look for.
+     * @return the artist, or null if there is no artist with this username.
+     */
+    public Artist getArtist(final String username) {
+        return artistsByName.get(username);
+    }
+
+    /**
+     * Gets the host with the given username.
+     *
+     * @param username the username to look for.
+     * @return the host, or null if there is no host with this username.
+     */
+    public Host getHost(final String username) {
+        return hostsByName.get(username);
+    }
+
+    /**
+     * Gets the user with the given username, whatever its type.
+     *
+     * @param username the username to look for.
+     * @return the user, or null if the username doesn't exist.
+     */
+    public GeneralUser getUser(final String username) {
+        NormalUser user = normalUsersByName.get(username);
+        if (user != null) {
+            return user;
+        }
+
+        Artist artist = artistsByName.get(username);
+        if (artist != null) {
+            return artist;
+        }
+
+        return hostsByName.get(username);
+    }
+
+    /**
+     * Checks if the given username belongs to any user (normal user, artist or host).
+     *
+     * @param username the username to look for.
+     * @return true if the username is taken, false otherwise.
+     */
+    public boolean containsUsername(final String username) {
+        return normalUsersByName.containsKey(username)
+                || artistsByName.containsKey(username)
+                || hostsByName.containsKey(username);
+    }
+}